@@ -0,0 +1,84 @@
+package joptsimple.benchmarks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import joptsimple.AsyncValueConverter;
+import joptsimple.OptionParser;
+import joptsimple.OptionSpec;
+import joptsimple.ValueConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to parse a command line and convert arguments whose conversions each block for a millisecond, as name
+ * lookups or file-system checks might: one at a time on the calling thread, compared to all at once.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class AsyncConversionBenchmark {
+    @Param( { "16" } )
+    public int arguments;
+
+    private OptionParser parser;
+    private OptionSpec<String> resource;
+    private String[] commandLine;
+
+    @Setup
+    public void setUp() {
+        parser = new OptionParser();
+        resource = parser.accepts( "resource" ).withRequiredArg()
+            .withValuesConvertedBy( AsyncValueConverter.of( new SlowConverter() ) );
+
+        List<String> args = new ArrayList<>();
+        for ( int i = 0; i < arguments; ++i ) {
+            args.add( "--resource" );
+            args.add( "r" + i );
+        }
+        commandLine = args.toArray( new String[ 0 ] );
+    }
+
+    @Benchmark
+    public List<String> oneAtATime() {
+        return parser.parse( commandLine ).valuesOf( resource );
+    }
+
+    @Benchmark
+    public List<String> allAtOnce() throws Exception {
+        return parser.parse( commandLine ).awaitConverted( Duration.ofSeconds( 10 ) ).valuesOf( resource );
+    }
+
+    private static final class SlowConverter implements ValueConverter<String> {
+        public String convert( String value ) {
+            try {
+                Thread.sleep( 1 );
+            } catch ( InterruptedException ex ) {
+                Thread.currentThread().interrupt();
+            }
+            return value;
+        }
+
+        public Class<String> valueType() {
+            return String.class;
+        }
+
+        public String valuePattern() {
+            return null;
+        }
+    }
+}
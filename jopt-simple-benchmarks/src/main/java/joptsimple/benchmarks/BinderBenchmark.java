@@ -0,0 +1,128 @@
+package joptsimple.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import joptsimple.annot.AnnotatedClass;
+import joptsimple.annot.Binder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to bind a command line setting each of 50 fields into a new DTO: through a {@link Binder}, through a new
+ * {@link AnnotatedClass} as each request would otherwise have to, and the raw parse alone.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class BinderBenchmark {
+    public static class Dto {
+        public int i0;
+        public String s1;
+        public int i2;
+        public String s3;
+        public int i4;
+        public String s5;
+        public int i6;
+        public String s7;
+        public int i8;
+        public String s9;
+        public int i10;
+        public String s11;
+        public int i12;
+        public String s13;
+        public int i14;
+        public String s15;
+        public int i16;
+        public String s17;
+        public int i18;
+        public String s19;
+        public int i20;
+        public String s21;
+        public int i22;
+        public String s23;
+        public int i24;
+        public String s25;
+        public int i26;
+        public String s27;
+        public int i28;
+        public String s29;
+        public int i30;
+        public String s31;
+        public int i32;
+        public String s33;
+        public int i34;
+        public String s35;
+        public int i36;
+        public String s37;
+        public int i38;
+        public String s39;
+        public int i40;
+        public String s41;
+        public int i42;
+        public String s43;
+        public int i44;
+        public String s45;
+        public int i46;
+        public String s47;
+        public int i48;
+        public String s49;
+    }
+
+    private Binder<Dto> binder;
+    private OptionParser parser;
+    private String[] commandLine;
+
+    @Setup
+    public void setUp() throws Exception {
+        binder = Binder.of( Dto.class );
+
+        AnnotatedClass annotated = new AnnotatedClass();
+        annotated.parseAnnotations( new Dto() );
+        parser = new OptionParser();
+        List<String> args = new ArrayList<>();
+        for ( int i = 0; i < 50; ++i ) {
+            String name = ( i % 2 == 0 ? "i" : "s" ) + i;
+            if ( i % 2 == 0 )
+                parser.accepts( name ).withRequiredArg().ofType( Integer.class );
+            else
+                parser.accepts( name ).withRequiredArg();
+            args.add( "--" + name );
+            args.add( String.valueOf( i * 7 ) );
+        }
+        commandLine = args.toArray( new String[ 0 ] );
+    }
+
+    @Benchmark
+    public OptionSet rawParse() {
+        return parser.parse( commandLine );
+    }
+
+    @Benchmark
+    public Dto binder() {
+        return binder.bind( commandLine );
+    }
+
+    @Benchmark
+    public Dto annotatedClassPerRequest() throws Exception {
+        Dto dto = new Dto();
+        AnnotatedClass annotated = new AnnotatedClass();
+        annotated.parseAnnotations( dto );
+        annotated.parseArgs( commandLine );
+        return dto;
+    }
+}
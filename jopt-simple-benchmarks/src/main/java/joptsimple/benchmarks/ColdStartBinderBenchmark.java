@@ -0,0 +1,89 @@
+package joptsimple.benchmarks;
+
+import java.io.File;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import joptsimple.annot.AnnotatedClass;
+import joptsimple.annot.Binder;
+import joptsimple.annot.JODelegate;
+import joptsimple.annot.JOHelp;
+import joptsimple.annot.JONonOptionArgumentsList;
+import joptsimple.annot.JOSimpleBoolean;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time for a freshly started JVM to bind its first command line into a DTO: through an {@link AnnotatedClass},
+ * through a {@link Binder}, and through the binder generated for the DTO at compile time by
+ * {@code joptsimple.processor.BinderProcessor}.  Each fork measures a single call.
+ */
+@BenchmarkMode( Mode.SingleShotTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 0 )
+@Measurement( iterations = 1 )
+@Fork( 20 )
+public class ColdStartBinderBenchmark {
+    public static class Connection {
+        @JOHelp( "host to connect to" )
+        public String host = "localhost";
+        public int port = 80;
+        public long timeout = 1000;
+    }
+
+    @JOHelp( "arguments of a command line tool" )
+    public static class Dto {
+        @JOHelp( "number of threads" )
+        public int threads = 4;
+        public long limit;
+        public double ratio = 0.75;
+        public Integer retries;
+        public String name = "tool";
+        public File input = new File( "in.txt" );
+        public File output;
+        @JOSimpleBoolean
+        public boolean verbose;
+        public boolean strict = true;
+        public RetentionPolicy policy = RetentionPolicy.CLASS;
+        public List<Integer> ids = new ArrayList<>();
+        public List<String> tags = new ArrayList<>();
+        @JODelegate( prefix = "source" )
+        public Connection source = new Connection();
+        @JODelegate( prefix = "target" )
+        public Connection target = new Connection();
+        @JONonOptionArgumentsList
+        public List<String> rest;
+    }
+
+    private static final String[] COMMAND_LINE = {
+        "--threads", "8", "--limit", "100", "--ratio", "0.5", "--retries", "3", "--name", "job", "--output", "out.txt",
+        "--verbose", "--strict", "false", "--policy", "RUNTIME", "--ids", "1,2,3", "--tags", "a,b",
+        "--sourceHost", "example.org", "--sourcePort", "8080", "--targetTimeout", "50", "file1", "file2"
+    };
+
+    @Benchmark
+    public Dto annotatedClass() throws Exception {
+        Dto dto = new Dto();
+        AnnotatedClass annotated = new AnnotatedClass();
+        annotated.parseAnnotations( dto );
+        annotated.parseArgs( COMMAND_LINE );
+        return dto;
+    }
+
+    @Benchmark
+    public Dto binder() {
+        return Binder.of( Dto.class ).bind( COMMAND_LINE );
+    }
+
+    @Benchmark
+    public Dto generatedBinder() {
+        return new ColdStartBinderBenchmark_DtoBinder().bind( COMMAND_LINE );
+    }
+}
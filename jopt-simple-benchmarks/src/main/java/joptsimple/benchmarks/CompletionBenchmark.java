@@ -0,0 +1,56 @@
+package joptsimple.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import joptsimple.OptionCompleter;
+import joptsimple.OptionParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of completing an option of a generated tool of 10,000 options: by filtering a copy of all the recognized
+ * options, and by walking only those that begin with what was typed.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class CompletionBenchmark {
+    private OptionParser parser;
+    private OptionCompleter completer;
+
+    @Setup
+    public void setUp() {
+        parser = new OptionParser();
+        for ( int i = 0; i < 10_000; ++i )
+            parser.accepts( "option-" + i );
+        completer = new OptionCompleter( parser );
+    }
+
+    @Benchmark
+    public List<String> filteringAllOptions() {
+        List<String> candidates = new ArrayList<String>();
+        for ( String each : parser.recognizedOptions().keySet() ) {
+            if ( each.startsWith( "option-123" ) )
+                candidates.add( "--" + each );
+        }
+        return candidates;
+    }
+
+    @Benchmark
+    public List<String> walkingMatchingOptions() {
+        return completer.complete( "--option-123" ).candidates();
+    }
+}
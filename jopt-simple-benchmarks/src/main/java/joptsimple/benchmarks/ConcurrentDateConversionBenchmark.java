@@ -0,0 +1,59 @@
+package joptsimple.benchmarks;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import joptsimple.util.DateConverter;
+import joptsimple.util.DateTimeConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of converting dates from several threads at once: a shared {@link DateTimeConverter}, compared to the
+ * two safe ways of using {@link DateConverter}, which wraps a {@code SimpleDateFormat} that must not be shared
+ * unguarded.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@Threads( 4 )
+public class ConcurrentDateConversionBenchmark {
+    private DateTimeConverter<LocalDate> shared;
+    private DateConverter guarded;
+
+    @Setup
+    public void setUp() {
+        shared = DateTimeConverter.localDate( "MM/dd/uuuu" );
+        guarded = DateConverter.datePattern( "MM/dd/yyyy" );
+    }
+
+    @Benchmark
+    public LocalDate sharedDateTimeConverter() {
+        return shared.convert( "07/04/2009" );
+    }
+
+    @Benchmark
+    public Date dateConverterUnderLock() {
+        synchronized ( guarded ) {
+            return guarded.convert( "07/04/2009" );
+        }
+    }
+
+    @Benchmark
+    public Date dateConverterPerConversion() {
+        return DateConverter.datePattern( "MM/dd/yyyy" ).convert( "07/04/2009" );
+    }
+}
@@ -0,0 +1,125 @@
+package joptsimple.benchmarks;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import joptsimple.OptionParser;
+import joptsimple.OptionSpec;
+import joptsimple.ValueConverter;
+import joptsimple.internal.Reflection;
+import joptsimple.util.EnumConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of converting option arguments through the converters that {@link Reflection#findConverter(Class)}
+ * hands out, compared to a plain reflective {@code valueOf} call.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ConversionBenchmark {
+    private ValueConverter<Integer> integers;
+    private ValueConverter<Long> longs;
+    private ValueConverter<Double> doubles;
+    private ValueConverter<Boolean> booleans;
+    private ValueConverter<TimeUnit> enums;
+    private ValueConverter<TimeUnit> abbreviatedEnums;
+    private Method reflectiveEnumValueOf;
+    private ValueConverter<BigDecimal> constructor;
+    private Method reflectiveValueOf;
+
+    private OptionParser parser;
+    private OptionSpec<Integer> numbers;
+    private String[] arguments;
+
+    @Setup
+    public void setUp() throws Exception {
+        integers = Reflection.findConverter( Integer.class );
+        longs = Reflection.findConverter( Long.class );
+        doubles = Reflection.findConverter( Double.class );
+        booleans = Reflection.findConverter( Boolean.class );
+        enums = Reflection.findConverter( TimeUnit.class );
+        abbreviatedEnums = EnumConverter.of( TimeUnit.class ).ignoringCase().abbreviating();
+        reflectiveEnumValueOf = TimeUnit.class.getDeclaredMethod( "valueOf", String.class );
+        constructor = Reflection.findConverter( BigDecimal.class );
+        reflectiveValueOf = Integer.class.getDeclaredMethod( "valueOf", String.class );
+
+        parser = new OptionParser();
+        numbers = parser.accepts( "n" ).withRequiredArg().ofType( Integer.class );
+        arguments = new String[ 2000 ];
+        for ( int i = 0; i < arguments.length; i += 2 ) {
+            arguments[ i ] = "-n";
+            arguments[ i + 1 ] = String.valueOf( i * 31 );
+        }
+    }
+
+    @Benchmark
+    public Integer integer() {
+        return integers.convert( "123456" );
+    }
+
+    @Benchmark
+    public Integer integerThroughMethodInvoke() throws Exception {
+        return (Integer) reflectiveValueOf.invoke( null, "123456" );
+    }
+
+    @Benchmark
+    public Long longValue() {
+        return longs.convert( "-9876543210" );
+    }
+
+    @Benchmark
+    public Double doubleValue() {
+        return doubles.convert( "3.14159" );
+    }
+
+    @Benchmark
+    public Boolean booleanValue() {
+        return booleans.convert( "true" );
+    }
+
+    @Benchmark
+    public TimeUnit enumValue() {
+        return enums.convert( "SECONDS" );
+    }
+
+    @Benchmark
+    public TimeUnit enumAbbreviationIgnoringCase() {
+        return abbreviatedEnums.convert( "sec" );
+    }
+
+    @Benchmark
+    public TimeUnit enumThroughMethodInvoke() throws Exception {
+        return (TimeUnit) reflectiveEnumValueOf.invoke( null, "SECONDS" );
+    }
+
+    @Benchmark
+    public BigDecimal throughConstructor() {
+        return constructor.convert( "1234.5678" );
+    }
+
+    @Benchmark
+    public ValueConverter<BigDecimal> findConverter() {
+        return Reflection.findConverter( BigDecimal.class );
+    }
+
+    @Benchmark
+    @OutputTimeUnit( TimeUnit.MILLISECONDS )
+    public List<Integer> parseAndConvertThousandValues() {
+        return parser.parse( arguments ).valuesOf( numbers );
+    }
+}
@@ -0,0 +1,77 @@
+package joptsimple.benchmarks;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import joptsimple.BuiltinHelpFormatter;
+import joptsimple.HelpFormatter;
+import joptsimple.OptionDescriptor;
+import joptsimple.OptionParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of serving the help of a tool of 60 options: made afresh by the built-in formatter each time, and kept by the
+ * parser until its configuration changes.  Several threads ask at once, as the requests of a web console would.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@Threads( 4 )
+public class HelpTextBenchmark {
+    private OptionParser kept;
+    private OptionParser remade;
+
+    @Setup
+    public void setUp() {
+        kept = tool();
+        remade = tool();
+        final BuiltinHelpFormatter builtin = new BuiltinHelpFormatter( 80, 2 );
+        remade.formatHelpWith( new HelpFormatter() {
+            public String format( Map<String, ? extends OptionDescriptor> options ) {
+                return builtin.format( options );
+            }
+        } );
+    }
+
+    @Benchmark
+    public String remadeEachTime() {
+        return remade.helpText();
+    }
+
+    @Benchmark
+    public String kept() {
+        return kept.helpText();
+    }
+
+    @Benchmark
+    public String keptAtWidth() {
+        return kept.helpText( 120, Locale.US );
+    }
+
+    private static OptionParser tool() {
+        OptionParser parser = new OptionParser();
+        for ( int i = 0; i < 20; ++i ) {
+            parser.accepts( "switch-" + i, "turns on feature number " + i + " of the tool, which does what it says" );
+            parser.accepts( "level-" + i, "sets the level of stage " + i + " of the pipeline run by the tool" )
+                .withRequiredArg().describedAs( "level" ).defaultsTo( "medium" );
+            parser.accepts( "count-" + i, "how many items stage " + i + " takes in at once" )
+                .withRequiredArg().ofType( Integer.class ).defaultsTo( i * 10 );
+        }
+        parser.nonOptions( "files to process" );
+        return parser;
+    }
+}
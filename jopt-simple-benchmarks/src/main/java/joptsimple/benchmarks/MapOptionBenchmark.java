@@ -0,0 +1,77 @@
+package joptsimple.benchmarks;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import joptsimple.MapOptionSpec;
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import joptsimple.OptionSpec;
+import joptsimple.util.KeyValuePair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of parsing many {@code -Dkey=value} properties and looking them up, through a map-valued option compared to
+ * {@link KeyValuePair} arguments gathered into a map by hand.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class MapOptionBenchmark {
+    private static final int PROPERTIES = 500;
+
+    private OptionParser mapParser;
+    private MapOptionSpec<String> properties;
+    private OptionParser pairParser;
+    private OptionSpec<KeyValuePair> pairs;
+    private String[] arguments;
+    private OptionSet parsedMap;
+
+    @Setup
+    public void setUp() {
+        mapParser = new OptionParser();
+        properties = mapParser.accepts( "D" ).withValuesAsMap();
+        pairParser = new OptionParser();
+        pairs = pairParser.accepts( "D" ).withRequiredArg().ofType( KeyValuePair.class );
+
+        arguments = new String[ PROPERTIES ];
+        for ( int i = 0; i < arguments.length; ++i )
+            arguments[ i ] = "-Dproperty." + i + "=value" + i;
+
+        parsedMap = mapParser.parse( arguments );
+    }
+
+    @Benchmark
+    public Map<String, String> parseAsMap() {
+        return mapParser.parse( arguments ).mapOf( properties );
+    }
+
+    @Benchmark
+    public Map<String, String> parseAsKeyValuePairs() {
+        List<KeyValuePair> values = pairParser.parse( arguments ).valuesOf( pairs );
+        Map<String, String> map = new HashMap<String, String>();
+        for ( KeyValuePair each : values )
+            map.put( each.key, each.value );
+        return map;
+    }
+
+    @Benchmark
+    @OutputTimeUnit( TimeUnit.NANOSECONDS )
+    public String lookUp() {
+        return parsedMap.mapOf( properties ).get( "property.250" );
+    }
+}
@@ -0,0 +1,78 @@
+package joptsimple.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import joptsimple.IntOptionSpec;
+import joptsimple.OptionParser;
+import joptsimple.OptionSpec;
+import joptsimple.ValueConverter;
+import joptsimple.util.QuantityConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of parsing numeric arguments given as {@code --n=...} tokens, held boxed as strings versus unboxed by an
+ * {@link IntOptionSpec}, and of converting values in place from a range of a longer argument.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class NumericParsingBenchmark {
+    private OptionParser boxedParser;
+    private OptionSpec<Integer> boxed;
+    private OptionParser unboxedParser;
+    private IntOptionSpec unboxed;
+    private String[] arguments;
+
+    private ValueConverter<Long> bytes;
+    private String sizeArgument;
+
+    @Setup
+    public void setUp() {
+        boxedParser = new OptionParser();
+        boxed = boxedParser.accepts( "n" ).withRequiredArg().ofType( Integer.class );
+        unboxedParser = new OptionParser();
+        unboxed = unboxedParser.accepts( "n" ).withRequiredIntArg();
+
+        arguments = new String[ 1000 ];
+        for ( int i = 0; i < arguments.length; ++i )
+            arguments[ i ] = "--n=" + i * 31;
+
+        bytes = QuantityConverter.bytes();
+        sizeArgument = "--heap=4GiB";
+    }
+
+    @Benchmark
+    public List<Integer> boxedSpec() {
+        return boxedParser.parse( arguments ).valuesOf( boxed );
+    }
+
+    @Benchmark
+    public int[] unboxedSpec() {
+        return unboxed.valuesAsIntArray( unboxedParser.parse( arguments ) );
+    }
+
+    @Benchmark
+    @OutputTimeUnit( TimeUnit.MICROSECONDS )
+    public Long quantityFromRange() {
+        return bytes.convert( sizeArgument, 7, sizeArgument.length() );
+    }
+
+    @Benchmark
+    @OutputTimeUnit( TimeUnit.MICROSECONDS )
+    public Long quantityFromSubstring() {
+        return bytes.convert( sizeArgument.substring( 7 ) );
+    }
+}
@@ -0,0 +1,76 @@
+package joptsimple.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import joptsimple.OptionFamilySpec;
+import joptsimple.OptionParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of setting up and parsing thousands of {@code --feature.<name>=<value>} toggles, declared one by one compared
+ * to recognized as a family.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class OptionFamilyBenchmark {
+    private static final int TOGGLES = 2000;
+
+    private String[] arguments;
+    private OptionParser familyParser;
+    private OptionFamilySpec<String> features;
+    private OptionParser declaredParser;
+
+    @Setup
+    public void setUp() {
+        arguments = new String[ 100 ];
+        for ( int i = 0; i < arguments.length; ++i )
+            arguments[ i ] = "--feature.toggle" + ( i * 17 ) + "=on";
+
+        familyParser = new OptionParser();
+        features = familyParser.acceptsFamily( "feature." );
+        declaredParser = declareEach();
+    }
+
+    @Benchmark
+    public OptionParser setUpDeclaringEach() {
+        return declareEach();
+    }
+
+    @Benchmark
+    public OptionParser setUpFamily() {
+        OptionParser parser = new OptionParser();
+        parser.acceptsFamily( "feature." );
+        return parser;
+    }
+
+    @Benchmark
+    public Object parseDeclaredEach() {
+        return declaredParser.parse( arguments );
+    }
+
+    @Benchmark
+    public Map<String, String> parseFamily() {
+        return familyParser.parse( arguments ).mapOf( features );
+    }
+
+    private static OptionParser declareEach() {
+        OptionParser parser = new OptionParser();
+        for ( int i = 0; i < TOGGLES; ++i )
+            parser.accepts( "feature.toggle" + i ).withRequiredArg();
+        return parser;
+    }
+}
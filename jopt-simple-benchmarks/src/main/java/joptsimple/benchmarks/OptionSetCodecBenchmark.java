@@ -0,0 +1,88 @@
+package joptsimple.benchmarks;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import joptsimple.OptionSetCodec;
+import joptsimple.OptionSpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost for a worker to get at the options of a job: parsing its command line again, against decoding the set of
+ * options its supervisor parsed and encoded with an {@link OptionSetCodec}.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class OptionSetCodecBenchmark {
+    @Param( { "100", "10000" } )
+    public int count;
+
+    private OptionParser parser;
+    private OptionSpec<String> inputs;
+    private OptionSetCodec codec;
+    private String[] arguments;
+    private ByteBuffer encoded;
+
+    @Setup
+    public void setUp() {
+        parser = new OptionParser();
+        parser.accepts( "verbose" );
+        parser.accepts( "threads" ).withRequiredIntArg();
+        parser.accepts( "limit" ).withRequiredLongArg();
+        inputs = parser.accepts( "input" ).withRequiredArg();
+        parser.accepts( "tag" ).withRequiredArg().withValuesSeparatedBy( ',' );
+
+        List<String> argv = new ArrayList<>();
+        argv.add( "--verbose" );
+        argv.add( "--threads=16" );
+        argv.add( "--limit=9000000000" );
+        argv.add( "--tag=alpha,beta,gamma" );
+        for ( int i = 0; i < count; ++i ) {
+            argv.add( "--input" );
+            argv.add( "/data/jobs/part-" + i + ".avro" );
+        }
+        arguments = argv.toArray( new String[ 0 ] );
+
+        codec = new OptionSetCodec( parser );
+        encoded = codec.encode( parser.parse( arguments ) );
+    }
+
+    @Benchmark
+    public OptionSet parse() {
+        return parser.parse( arguments );
+    }
+
+    @Benchmark
+    public OptionSet decode() throws IOException {
+        return codec.decode( encoded );
+    }
+
+    @Benchmark
+    public int parseAndReadInputs() {
+        return parser.parse( arguments ).valuesOf( inputs ).size();
+    }
+
+    @Benchmark
+    public int decodeAndReadInputs() throws IOException {
+        return codec.decode( encoded ).valuesOf( inputs ).size();
+    }
+}
@@ -0,0 +1,64 @@
+package joptsimple.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import joptsimple.OptionSpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of using parsed option sets as keys: hashing one, comparing two equal ones, and reading one option through
+ * {@link OptionSet#asMap()}.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class OptionSetKeyBenchmark {
+    private OptionSet options;
+    private OptionSet equalOptions;
+    private OptionSpec<Integer> threads;
+
+    @Setup
+    public void setUp() {
+        OptionParser parser = new OptionParser();
+        parser.accepts( "verbose" );
+        threads = parser.accepts( "threads" ).withRequiredArg().ofType( Integer.class );
+        for ( int i = 0; i < 30; ++i )
+            parser.accepts( "option-" + i ).withRequiredArg().ofType( Integer.class ).defaultsTo( i );
+
+        String[] arguments = { "--verbose", "--threads", "8", "--option-3", "4", "--option-7=9", "input", "output" };
+        options = parser.parse( arguments );
+        equalOptions = parser.parse( arguments );
+    }
+
+    @Benchmark
+    public int hash() {
+        return options.hashCode();
+    }
+
+    @Benchmark
+    public boolean equal() {
+        return options.equals( equalOptions );
+    }
+
+    @Benchmark
+    public List<?> asMapGet() {
+        Map<OptionSpec<?>, List<?>> map = options.asMap();
+        return map.get( threads );
+    }
+}
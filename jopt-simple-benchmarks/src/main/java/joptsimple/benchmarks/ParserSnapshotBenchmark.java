@@ -0,0 +1,78 @@
+package joptsimple.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import joptsimple.ParserSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time for a freshly started JVM to the first parse of a parser of 2,000 options: building it in code, and loading it
+ * from a {@link ParserSnapshot}.  Each fork measures a single call.  The snapshot is written in the setup of its own
+ * benchmark only, so that building in code starts as cold as it would in a program that has no snapshot.
+ */
+@BenchmarkMode( Mode.SingleShotTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 0 )
+@Measurement( iterations = 1 )
+@Fork( 20 )
+public class ParserSnapshotBenchmark {
+    private static final int OPTIONS = 2000;
+    private static final String[] ARGUMENTS = { "--option-17", "--option-1234", "42", "--option-1999=7", "file" };
+
+    @State( Scope.Benchmark )
+    public static class Snapshot {
+        byte[] bytes;
+
+        @Setup
+        public void setUp() throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            new ParserSnapshot().write( build(), out );
+            bytes = out.toByteArray();
+        }
+    }
+
+    @Benchmark
+    public OptionSet fromCode() {
+        return build().parse( ARGUMENTS );
+    }
+
+    @Benchmark
+    public OptionSet fromSnapshot( Snapshot snapshot ) throws IOException {
+        return new ParserSnapshot().read( new ByteArrayInputStream( snapshot.bytes ) ).parse( ARGUMENTS );
+    }
+
+    private static OptionParser build() {
+        OptionParser parser = new OptionParser();
+        for ( int i = 0; i < OPTIONS; ++i ) {
+            String option = "option-" + i;
+            switch ( i % 4 ) {
+                case 0:
+                    parser.accepts( option, "switch " + i ).withRequiredArg().ofType( Integer.class );
+                    break;
+                case 1:
+                    parser.accepts( option, "switch " + i );
+                    break;
+                case 2:
+                    parser.accepts( option, "level " + i ).withRequiredArg().defaultsTo( "low" );
+                    break;
+                default:
+                    parser.accepts( option, "count " + i ).withRequiredIntArg().defaultsTo( i );
+            }
+        }
+        return parser;
+    }
+}
@@ -0,0 +1,69 @@
+package joptsimple.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import joptsimple.OptionSpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of parsing one argument holding many separated values, such as {@code --hosts=a,b,c,...}, and of then
+ * retrieving them as strings or as converted numbers.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class SeparatedValuesBenchmark {
+    @Param( { "1000", "50000" } )
+    public int count;
+
+    private OptionParser parser;
+    private OptionSpec<String> hosts;
+    private OptionSpec<Integer> ports;
+    private String[] arguments;
+
+    @Setup
+    public void setUp() {
+        parser = new OptionParser();
+        hosts = parser.accepts( "hosts" ).withRequiredArg().withValuesSeparatedBy( ',' );
+        ports = parser.accepts( "ports" ).withRequiredArg().ofType( Integer.class ).withValuesSeparatedBy( "::" );
+
+        StringBuilder hostList = new StringBuilder( "--hosts=" );
+        StringBuilder portList = new StringBuilder( "--ports=" );
+        for ( int i = 0; i < count; ++i ) {
+            hostList.append( i == 0 ? "" : "," ).append( "host" ).append( i ).append( ".example.com" );
+            portList.append( i == 0 ? "" : "::" ).append( 1024 + i % 60000 );
+        }
+        arguments = new String[] { hostList.toString(), portList.toString() };
+    }
+
+    @Benchmark
+    public OptionSet parseOnly() {
+        return parser.parse( arguments );
+    }
+
+    @Benchmark
+    public List<String> parseAndRetrieveStrings() {
+        return parser.parse( arguments ).valuesOf( hosts );
+    }
+
+    @Benchmark
+    public List<Integer> parseAndConvertNumbers() {
+        return parser.parse( arguments ).valuesOf( ports );
+    }
+}
@@ -0,0 +1,81 @@
+package joptsimple.benchmarks;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import joptsimple.BuiltinHelpFormatter;
+import joptsimple.HelpFormatter;
+import joptsimple.OptionDescriptor;
+import joptsimple.OptionParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of printing the help of a generated tool of 10,000 options to a sink that discards it: made whole by the
+ * built-in formatter and then written, and written by it a row at a time.  The streamed help fits each row twice, yet
+ * takes no longer, and never holds more than a line of the help at once.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class StreamingHelpBenchmark {
+    private final Writer discarded = new Writer() {
+        @Override
+        public void write( char[] buffer, int offset, int length ) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+    private OptionParser streamed;
+    private OptionParser madeWhole;
+
+    @Setup
+    public void setUp() {
+        streamed = tool();
+        madeWhole = tool();
+        final BuiltinHelpFormatter builtin = new BuiltinHelpFormatter( 80, 2 );
+        madeWhole.formatHelpWith( new HelpFormatter() {
+            public String format( Map<String, ? extends OptionDescriptor> options ) {
+                return builtin.format( options );
+            }
+        } );
+    }
+
+    @Benchmark
+    public void madeWhole() throws IOException {
+        madeWhole.printHelpOn( discarded );
+    }
+
+    @Benchmark
+    public void streamed() throws IOException {
+        streamed.printHelpOn( discarded );
+    }
+
+    private static OptionParser tool() {
+        OptionParser parser = new OptionParser();
+        for ( int i = 0; i < 10_000; ++i ) {
+            parser.accepts( "option-" + i, "sets the value of setting number " + i + " of the generated tool, which"
+                + " is described at some length so as to wrap" ).withRequiredArg().defaultsTo( "value-" + i );
+        }
+        return parser;
+    }
+}
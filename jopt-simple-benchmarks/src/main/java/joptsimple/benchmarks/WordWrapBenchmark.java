@@ -0,0 +1,77 @@
+package joptsimple.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import joptsimple.BuiltinHelpFormatter;
+import joptsimple.HelpFormatter;
+import joptsimple.OptionDescriptor;
+import joptsimple.OptionParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of laying out help whose descriptions run to several hundred characters each, most of the time going to
+ * wrapping them into the description column.  Descriptions are of plain words and punctuation, or have hyphenated
+ * words that are left to the locale's break iterator.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class WordWrapBenchmark {
+    private static final String PLAIN =
+        "sets how the stage goes about its work, which matters most when the inputs are large (more than a few"
+            + " gigabytes, say), or when they come from a remote store; the value is one of [fast], [balanced] or"
+            + " [thorough], each of which trades time against the quality of the results, and the stage may take"
+            + " several times as long with the last of them as with the first. ";
+    private static final String HYPHENATED =
+        "sets how the stage goes about its work, e.g. whether to use the well-known two-pass scheme or the"
+            + " single-pass one; see --mode for the more fine-grained settings. ";
+
+    private OptionParser plain;
+    private OptionParser hyphenated;
+
+    @Setup
+    public void setUp() {
+        plain = tool( PLAIN );
+        hyphenated = tool( HYPHENATED );
+    }
+
+    @Benchmark
+    public String plainWords() {
+        return plain.helpText();
+    }
+
+    @Benchmark
+    public String hyphenatedWords() {
+        return hyphenated.helpText();
+    }
+
+    /*
+     * The built-in formatter is wrapped, so that the parser makes its help afresh each time.
+     */
+    private static OptionParser tool( String description ) {
+        OptionParser parser = new OptionParser();
+        for ( int i = 0; i < 50; ++i )
+            parser.accepts( "stage-" + i, description + description ).withRequiredArg().describedAs( "mode" );
+
+        final BuiltinHelpFormatter builtin = new BuiltinHelpFormatter( 80, 2 );
+        parser.formatHelpWith( new HelpFormatter() {
+            public String format( Map<String, ? extends OptionDescriptor> options ) {
+                return builtin.format( options );
+            }
+        } );
+        return parser;
+    }
+}
@@ -0,0 +1,38 @@
+package joptsimple.benchmarks;
+
+/**
+ * Binds command line arguments into new instances of {@link joptsimple.benchmarks.ColdStartBinderBenchmark.Connection}.
+ * Generated by joptsimple.processor.BinderProcessor; do not edit.
+ */
+public final class ColdStartBinderBenchmark_ConnectionBinder {
+    private final joptsimple.OptionParser parser = new joptsimple.OptionParser();
+    private final joptsimple.ArgumentAcceptingOptionSpec<java.lang.String> option0;
+    private final joptsimple.IntOptionSpec option1;
+    private final joptsimple.LongOptionSpec option2;
+
+    public ColdStartBinderBenchmark_ConnectionBinder() {
+        joptsimple.benchmarks.ColdStartBinderBenchmark.Connection defaults = new joptsimple.benchmarks.ColdStartBinderBenchmark.Connection();
+        option0 = parser.accepts( "host", "host to connect to" ).withRequiredArg().ofType( java.lang.String.class );
+        if ( defaults.host != null )
+            option0.defaultsTo( defaults.host );
+        option1 = parser.accepts( "port", "Undocumented" ).withRequiredIntArg();
+        option1.defaultsTo( defaults.port );
+        option2 = parser.accepts( "timeout", "Undocumented" ).withRequiredLongArg();
+        option2.defaultsTo( defaults.timeout );
+    }
+
+    public joptsimple.benchmarks.ColdStartBinderBenchmark.Connection bind( String... arguments ) {
+        joptsimple.OptionSet options = parser.parse( arguments );
+        joptsimple.benchmarks.ColdStartBinderBenchmark.Connection target = new joptsimple.benchmarks.ColdStartBinderBenchmark.Connection();
+        java.lang.String value0 = option0.value( options );
+        if ( value0 != null )
+            target.host = value0;
+        target.port = option1.valueAsInt( options );
+        target.timeout = option2.valueAsLong( options );
+        return target;
+    }
+
+    public synchronized void printHelpOn( java.io.PrintStream out ) throws java.io.IOException {
+        parser.printHelpOn( out );
+    }
+}
@@ -0,0 +1,124 @@
+package joptsimple.benchmarks;
+
+/**
+ * Binds command line arguments into new instances of {@link joptsimple.benchmarks.ColdStartBinderBenchmark.Dto}.
+ * Generated by joptsimple.processor.BinderProcessor; do not edit.
+ */
+public final class ColdStartBinderBenchmark_DtoBinder {
+    private final joptsimple.OptionParser parser = new joptsimple.OptionParser();
+    private final joptsimple.IntOptionSpec option0;
+    private final joptsimple.LongOptionSpec option1;
+    private final joptsimple.DoubleOptionSpec option2;
+    private final joptsimple.ArgumentAcceptingOptionSpec<java.lang.Integer> option3;
+    private final joptsimple.ArgumentAcceptingOptionSpec<java.lang.String> option4;
+    private final joptsimple.ArgumentAcceptingOptionSpec<java.io.File> option5;
+    private final joptsimple.ArgumentAcceptingOptionSpec<java.io.File> option6;
+    private final joptsimple.OptionSpec<?> option7;
+    private final joptsimple.ArgumentAcceptingOptionSpec<java.lang.Boolean> option8;
+    private final joptsimple.ArgumentAcceptingOptionSpec<java.lang.annotation.RetentionPolicy> option9;
+    private final joptsimple.ArgumentAcceptingOptionSpec<java.lang.Integer> option10;
+    private final joptsimple.ArgumentAcceptingOptionSpec<java.lang.String> option11;
+    private final joptsimple.ArgumentAcceptingOptionSpec<java.lang.String> option12;
+    private final joptsimple.IntOptionSpec option13;
+    private final joptsimple.LongOptionSpec option14;
+    private final joptsimple.ArgumentAcceptingOptionSpec<java.lang.String> option15;
+    private final joptsimple.IntOptionSpec option16;
+    private final joptsimple.LongOptionSpec option17;
+
+    public ColdStartBinderBenchmark_DtoBinder() {
+        joptsimple.benchmarks.ColdStartBinderBenchmark.Dto defaults = new joptsimple.benchmarks.ColdStartBinderBenchmark.Dto();
+        option0 = parser.accepts( "threads", "number of threads" ).withRequiredIntArg();
+        option0.defaultsTo( defaults.threads );
+        option1 = parser.accepts( "limit", "Undocumented" ).withRequiredLongArg();
+        option1.defaultsTo( defaults.limit );
+        option2 = parser.accepts( "ratio", "Undocumented" ).withRequiredDoubleArg();
+        option2.defaultsTo( defaults.ratio );
+        option3 = parser.accepts( "retries", "Undocumented" ).withRequiredArg().ofType( java.lang.Integer.class );
+        if ( defaults.retries != null )
+            option3.defaultsTo( defaults.retries );
+        option4 = parser.accepts( "name", "Undocumented" ).withRequiredArg().ofType( java.lang.String.class );
+        if ( defaults.name != null )
+            option4.defaultsTo( defaults.name );
+        option5 = parser.accepts( "input", "Undocumented" ).withRequiredArg().ofType( java.io.File.class );
+        if ( defaults.input != null )
+            option5.defaultsTo( defaults.input );
+        option6 = parser.accepts( "output", "Undocumented" ).withRequiredArg().ofType( java.io.File.class );
+        if ( defaults.output != null )
+            option6.defaultsTo( defaults.output );
+        option7 = parser.accepts( "verbose", "Undocumented" );
+        option8 = parser.accepts( "strict", "Undocumented" ).withRequiredArg().withValuesConvertedBy( joptsimple.annot.BooleanConverter.getInstance() );
+        option8.defaultsTo( defaults.strict );
+        option9 = parser.accepts( "policy", "Undocumented\n(possible values:  SOURCE,  CLASS,  RUNTIME)\n" ).withRequiredArg().withValuesConvertedBy( joptsimple.util.EnumConverter.of( java.lang.annotation.RetentionPolicy.class ) );
+        if ( defaults.policy != null )
+            option9.defaultsTo( defaults.policy );
+        option10 = parser.accepts( "ids", "Undocumented" ).withRequiredArg().ofType( java.lang.Integer.class ).withValuesSeparatedBy( ',' );
+        if ( defaults.ids != null && !defaults.ids.isEmpty() )
+            option10.defaultsToCollection( defaults.ids );
+        option11 = parser.accepts( "tags", "Undocumented" ).withRequiredArg().ofType( java.lang.String.class ).withValuesSeparatedBy( ',' );
+        if ( defaults.tags != null && !defaults.tags.isEmpty() )
+            option11.defaultsToCollection( defaults.tags );
+        option12 = parser.accepts( "sourceHost", "host to connect to" ).withRequiredArg().ofType( java.lang.String.class );
+        if ( defaults.source.host != null )
+            option12.defaultsTo( defaults.source.host );
+        option13 = parser.accepts( "sourcePort", "Undocumented" ).withRequiredIntArg();
+        option13.defaultsTo( defaults.source.port );
+        option14 = parser.accepts( "sourceTimeout", "Undocumented" ).withRequiredLongArg();
+        option14.defaultsTo( defaults.source.timeout );
+        option15 = parser.accepts( "targetHost", "host to connect to" ).withRequiredArg().ofType( java.lang.String.class );
+        if ( defaults.target.host != null )
+            option15.defaultsTo( defaults.target.host );
+        option16 = parser.accepts( "targetPort", "Undocumented" ).withRequiredIntArg();
+        option16.defaultsTo( defaults.target.port );
+        option17 = parser.accepts( "targetTimeout", "Undocumented" ).withRequiredLongArg();
+        option17.defaultsTo( defaults.target.timeout );
+    }
+
+    public joptsimple.benchmarks.ColdStartBinderBenchmark.Dto bind( String... arguments ) {
+        joptsimple.OptionSet options = parser.parse( arguments );
+        joptsimple.benchmarks.ColdStartBinderBenchmark.Dto target = new joptsimple.benchmarks.ColdStartBinderBenchmark.Dto();
+        target.threads = option0.valueAsInt( options );
+        target.limit = option1.valueAsLong( options );
+        target.ratio = option2.valueAsDouble( options );
+        java.lang.Integer value3 = option3.value( options );
+        if ( value3 != null )
+            target.retries = value3;
+        java.lang.String value4 = option4.value( options );
+        if ( value4 != null )
+            target.name = value4;
+        java.io.File value5 = option5.value( options );
+        if ( value5 != null )
+            target.input = value5;
+        java.io.File value6 = option6.value( options );
+        if ( value6 != null )
+            target.output = value6;
+        target.verbose = options.has( option7 );
+        java.lang.Boolean value8 = option8.value( options );
+        if ( value8 != null )
+            target.strict = value8;
+        java.lang.annotation.RetentionPolicy value9 = option9.value( options );
+        if ( value9 != null )
+            target.policy = value9;
+        target.ids = option10.values( options );
+        target.tags = option11.values( options );
+        java.lang.String value12 = option12.value( options );
+        if ( value12 != null )
+            target.source.host = value12;
+        target.source.port = option13.valueAsInt( options );
+        target.source.timeout = option14.valueAsLong( options );
+        java.lang.String value15 = option15.value( options );
+        if ( value15 != null )
+            target.target.host = value15;
+        target.target.port = option16.valueAsInt( options );
+        target.target.timeout = option17.valueAsLong( options );
+        java.util.List<String> nonOptionArguments = new java.util.ArrayList<String>();
+        for ( Object each : options.nonOptionArguments() )
+            nonOptionArguments.add( "" + each );
+        target.rest = nonOptionArguments;
+        return target;
+    }
+
+    public synchronized void printHelpOn( java.io.PrintStream out ) throws java.io.IOException {
+        parser.printHelpOn( out );
+        out.println( "Remaining arguments: " + "Undocumented" );
+    }
+}
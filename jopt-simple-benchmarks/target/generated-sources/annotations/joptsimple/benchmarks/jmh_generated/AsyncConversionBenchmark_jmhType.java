@@ -0,0 +1,4 @@
+package joptsimple.benchmarks.jmh_generated;
+public class AsyncConversionBenchmark_jmhType extends AsyncConversionBenchmark_jmhType_B3 {
+}
+
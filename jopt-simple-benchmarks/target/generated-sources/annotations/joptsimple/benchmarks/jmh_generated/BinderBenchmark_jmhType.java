@@ -0,0 +1,4 @@
+package joptsimple.benchmarks.jmh_generated;
+public class BinderBenchmark_jmhType extends BinderBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package joptsimple.benchmarks.jmh_generated;
+public class ColdStartBinderBenchmark_jmhType extends ColdStartBinderBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package joptsimple.benchmarks.jmh_generated;
+public class CompletionBenchmark_jmhType extends CompletionBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package joptsimple.benchmarks.jmh_generated;
+public class ConcurrentDateConversionBenchmark_jmhType extends ConcurrentDateConversionBenchmark_jmhType_B3 {
+}
+
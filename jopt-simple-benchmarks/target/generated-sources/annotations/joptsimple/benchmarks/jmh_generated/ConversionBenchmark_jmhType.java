@@ -0,0 +1,4 @@
+package joptsimple.benchmarks.jmh_generated;
+public class ConversionBenchmark_jmhType extends ConversionBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package joptsimple.benchmarks.jmh_generated;
+public class HelpTextBenchmark_jmhType extends HelpTextBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package joptsimple.benchmarks.jmh_generated;
+public class MapOptionBenchmark_jmhType extends MapOptionBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package joptsimple.benchmarks.jmh_generated;
+public class NumericParsingBenchmark_jmhType extends NumericParsingBenchmark_jmhType_B3 {
+}
+
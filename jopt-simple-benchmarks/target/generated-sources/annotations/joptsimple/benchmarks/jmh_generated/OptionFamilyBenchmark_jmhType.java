@@ -0,0 +1,4 @@
+package joptsimple.benchmarks.jmh_generated;
+public class OptionFamilyBenchmark_jmhType extends OptionFamilyBenchmark_jmhType_B3 {
+}
+
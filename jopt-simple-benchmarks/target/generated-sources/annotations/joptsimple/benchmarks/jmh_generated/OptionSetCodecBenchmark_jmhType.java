@@ -0,0 +1,4 @@
+package joptsimple.benchmarks.jmh_generated;
+public class OptionSetCodecBenchmark_jmhType extends OptionSetCodecBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package joptsimple.benchmarks.jmh_generated;
+public class OptionSetKeyBenchmark_jmhType extends OptionSetKeyBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package joptsimple.benchmarks.jmh_generated;
+public class ParserSnapshotBenchmark_Snapshot_jmhType extends ParserSnapshotBenchmark_Snapshot_jmhType_B3 {
+}
+
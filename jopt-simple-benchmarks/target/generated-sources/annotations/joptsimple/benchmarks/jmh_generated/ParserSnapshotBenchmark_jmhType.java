@@ -0,0 +1,4 @@
+package joptsimple.benchmarks.jmh_generated;
+public class ParserSnapshotBenchmark_jmhType extends ParserSnapshotBenchmark_jmhType_B3 {
+}
+
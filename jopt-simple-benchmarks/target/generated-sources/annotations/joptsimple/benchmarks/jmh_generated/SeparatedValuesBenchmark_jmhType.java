@@ -0,0 +1,4 @@
+package joptsimple.benchmarks.jmh_generated;
+public class SeparatedValuesBenchmark_jmhType extends SeparatedValuesBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package joptsimple.benchmarks.jmh_generated;
+public class StreamingHelpBenchmark_jmhType extends StreamingHelpBenchmark_jmhType_B3 {
+}
+
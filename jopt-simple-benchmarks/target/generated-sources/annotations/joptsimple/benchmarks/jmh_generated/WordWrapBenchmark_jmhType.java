@@ -0,0 +1,4 @@
+package joptsimple.benchmarks.jmh_generated;
+public class WordWrapBenchmark_jmhType extends WordWrapBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,140 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * <p>Generates, at compile time, a binder for each DTO class whose fields carry the annotations of
+ * {@code joptsimple.annot}, or which is itself documented with {@code JOHelp}.</p>
+ *
+ * <p>For a class {@code Args}, the generated class {@code ArgsBinder}, in the same package, declares the options of
+ * {@code Args} on an {@code OptionParser} in plain Java, and binds parsed arguments into new instances by assigning
+ * their fields directly.  It declares the same options, with the same defaults and help text, and binds the same
+ * values as {@code joptsimple.annot.AnnotatedClass} does at run time with reflection; the class of each
+ * {@code JODelegate} field is taken to be its declared type.  A nested class {@code Outer.Args} gives
+ * {@code Outer_ArgsBinder}.</p>
+ *
+ * <p>Binders are generated only for classes that can be instantiated from their own package: classes that are not
+ * abstract, private, generic or inner, and have a constructor without arguments that is not private.  A field of a
+ * type that {@code AnnotatedClass} does not support is reported as an error.</p>
+ */
+@SupportedAnnotationTypes( {
+    BinderProcessor.JO_HELP,
+    BinderProcessor.JO_SIMPLE_BOOLEAN,
+    BinderProcessor.JO_DELEGATE,
+    BinderProcessor.JO_SKIP,
+    BinderProcessor.JO_NON_OPTION_ARGUMENTS_LIST } )
+public class BinderProcessor extends AbstractProcessor {
+    static final String JO_HELP = "joptsimple.annot.JOHelp";
+    static final String JO_SIMPLE_BOOLEAN = "joptsimple.annot.JOSimpleBoolean";
+    static final String JO_DELEGATE = "joptsimple.annot.JODelegate";
+    static final String JO_SKIP = "joptsimple.annot.JOSkip";
+    static final String JO_NON_OPTION_ARGUMENTS_LIST = "joptsimple.annot.JONonOptionArgumentsList";
+
+    private final Set<String> generated = new HashSet<String>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process( Set<? extends TypeElement> annotations, RoundEnvironment round ) {
+        Set<TypeElement> candidates = new LinkedHashSet<TypeElement>();
+        for ( TypeElement each : annotations ) {
+            for ( Element annotated : round.getElementsAnnotatedWith( each ) ) {
+                if ( annotated.getKind() == ElementKind.FIELD )
+                    candidates.add( (TypeElement) annotated.getEnclosingElement() );
+                else if ( annotated.getKind() == ElementKind.CLASS )
+                    candidates.add( (TypeElement) annotated );
+            }
+        }
+
+        for ( TypeElement each : candidates ) {
+            if ( isBindable( each ) && generated.add( each.getQualifiedName().toString() ) )
+                generate( each );
+        }
+
+        return false;
+    }
+
+    private void generate( TypeElement type ) {
+        BinderSource source = new BinderSource( processingEnv, type );
+        if ( !source.isValid() )
+            return;
+
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile( source.qualifiedName(), type );
+            Writer out = file.openWriter();
+            try {
+                out.write( source.toString() );
+            } finally {
+                out.close();
+            }
+        } catch ( IOException ex ) {
+            processingEnv.getMessager().printMessage( Diagnostic.Kind.ERROR,
+                "cannot write binder of " + type + ": " + ex.getMessage(), type );
+        }
+    }
+
+    static boolean isBindable( TypeElement type ) {
+        if ( type.getKind() != ElementKind.CLASS
+            || type.getModifiers().contains( Modifier.ABSTRACT )
+            || !type.getTypeParameters().isEmpty() )
+            return false;
+
+        for ( Element each = type; each instanceof TypeElement; each = each.getEnclosingElement() ) {
+            if ( each.getModifiers().contains( Modifier.PRIVATE ) )
+                return false;
+            if ( each.getEnclosingElement() instanceof TypeElement && !each.getModifiers().contains( Modifier.STATIC ) )
+                return false;
+        }
+
+        for ( ExecutableElement each : ElementFilter.constructorsIn( type.getEnclosedElements() ) ) {
+            if ( each.getParameters().isEmpty() && !each.getModifiers().contains( Modifier.PRIVATE ) )
+                return true;
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,429 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+import static joptsimple.processor.BinderProcessor.*;
+
+/**
+ * Source of the binder of one DTO class.  Options are laid out the way {@code AnnotatedClass.parseFields} lays them
+ * out, so that both declare the same ones, in the same order.
+ */
+class BinderSource {
+    private final ProcessingEnvironment environment;
+    private final TypeElement type;
+    private final String packageName;
+    private final String simpleName;
+    private final StringBuilder declarations = new StringBuilder();
+    private final StringBuilder fields = new StringBuilder();
+    private final StringBuilder bindings = new StringBuilder();
+    private String nonOptionArguments;
+    private String nonOptionArgumentsHelp;
+    private int options;
+    private boolean valid = true;
+
+    BinderSource( ProcessingEnvironment environment, TypeElement type ) {
+        this.environment = environment;
+        this.type = type;
+
+        PackageElement pkg = environment.getElementUtils().getPackageOf( type );
+        packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String nested = type.getQualifiedName().toString();
+        if ( !packageName.isEmpty() )
+            nested = nested.substring( packageName.length() + 1 );
+        simpleName = nested.replace( '.', '_' ) + "Binder";
+
+        layOut( type, "", "" );
+    }
+
+    boolean isValid() {
+        return valid;
+    }
+
+    String qualifiedName() {
+        return packageName.isEmpty() ? simpleName : packageName + '.' + simpleName;
+    }
+
+    private void layOut( TypeElement current, String prefix, String path ) {
+        for ( VariableElement each : argumentFieldsOf( current ) ) {
+            String access = path + each.getSimpleName();
+
+            if ( annotation( each, JO_NON_OPTION_ARGUMENTS_LIST ) != null ) {
+                nonOptionArguments = access;
+                nonOptionArgumentsHelp = helpOf( each );
+                continue;
+            }
+            if ( annotation( each, JO_SKIP ) != null )
+                continue;
+
+            AnnotationMirror delegate = annotation( each, JO_DELEGATE );
+            if ( delegate != null ) {
+                if ( each.asType().getKind() != TypeKind.DECLARED ) {
+                    error( "Delegates must be of a class type", each );
+                    continue;
+                }
+                layOut( (TypeElement) ((DeclaredType) each.asType()).asElement(),
+                    prefix + stringValue( delegate, "prefix" ), access + '.' );
+                continue;
+            }
+
+            layOutOption( each, argumentName( prefix, each.getSimpleName().toString() ), access );
+        }
+    }
+
+    private void layOutOption( VariableElement field, String name, String access ) {
+        String spec = "option" + options;
+        String accepts = "parser.accepts( " + literal( name ) + ", " + literal( helpOf( field ) ) + " )";
+        String defaults = "defaults." + access;
+        TypeMirror fieldType = field.asType();
+
+        switch ( fieldType.getKind() ) {
+            case INT:
+                declare( "joptsimple.IntOptionSpec", spec, accepts + ".withRequiredIntArg()" );
+                defaultTo( spec, defaults );
+                bind( "target." + access + " = " + spec + ".valueAsInt( options );" );
+                break;
+            case LONG:
+                declare( "joptsimple.LongOptionSpec", spec, accepts + ".withRequiredLongArg()" );
+                defaultTo( spec, defaults );
+                bind( "target." + access + " = " + spec + ".valueAsLong( options );" );
+                break;
+            case DOUBLE:
+                declare( "joptsimple.DoubleOptionSpec", spec, accepts + ".withRequiredDoubleArg()" );
+                defaultTo( spec, defaults );
+                bind( "target." + access + " = " + spec + ".valueAsDouble( options );" );
+                break;
+            case BOOLEAN:
+                layOutBoolean( field, spec, accepts, defaults, access, true );
+                break;
+            case DECLARED:
+                layOutDeclared( field, (DeclaredType) fieldType, spec, accepts, defaults, access );
+                break;
+            default:
+                error( "Type Not implemented: " + fieldType, field );
+                return;
+        }
+
+        ++options;
+    }
+
+    private void layOutDeclared( VariableElement field, DeclaredType fieldType, String spec, String accepts,
+        String defaults, String access ) {
+
+        TypeElement element = (TypeElement) fieldType.asElement();
+        String name = element.getQualifiedName().toString();
+
+        if ( "java.lang.Boolean".equals( name ) )
+            layOutBoolean( field, spec, accepts, defaults, access, false );
+        else if ( "java.lang.Integer".equals( name ) || "java.lang.Long".equals( name )
+            || "java.lang.Double".equals( name ) || "java.lang.String".equals( name )
+            || "java.io.File".equals( name ) ) {
+            layOutValue( name, spec, accepts + ".withRequiredArg().ofType( " + name + ".class )", defaults, access );
+        }
+        else if ( element.getKind() == ElementKind.ENUM ) {
+            layOutValue( name, spec,
+                accepts + ".withRequiredArg().withValuesConvertedBy( joptsimple.util.EnumConverter.of( "
+                    + name + ".class ).withValuePattern( \"\" ) )",
+                defaults, access );
+        }
+        else if ( "java.util.List".equals( name ) ) {
+            TypeElement elementType = listElementTypeOf( fieldType );
+            if ( elementType == null ) {
+                error( "Raw list types are not supported " + field.getSimpleName(), field );
+                return;
+            }
+
+            String valueType = elementType.getQualifiedName().toString();
+            declare( "joptsimple.ArgumentAcceptingOptionSpec<" + valueType + ">", spec,
+                accepts + ".withRequiredArg().ofType( " + valueType + ".class ).withValuesSeparatedBy( ',' )" );
+            declarations.append( "        if ( " ).append( defaults ).append( " != null && !" ).append( defaults )
+                .append( ".isEmpty() )\n" );
+            declarations.append( "            " ).append( spec ).append( ".defaultsToCollection( " )
+                .append( defaults ).append( " );\n" );
+            bind( "target." + access + " = " + spec + ".values( options );" );
+        }
+        else
+            error( "Type Not implemented: " + fieldType, field );
+    }
+
+    private void layOutBoolean( VariableElement field, String spec, String accepts, String defaults, String access,
+        boolean primitive ) {
+
+        if ( annotation( field, JO_SIMPLE_BOOLEAN ) != null ) {
+            declare( "joptsimple.OptionSpec<?>", spec, accepts );
+            bind( "target." + access + " = options.has( " + spec + " );" );
+            return;
+        }
+
+        String converted = accepts
+            + ".withRequiredArg().withValuesConvertedBy( joptsimple.annot.BooleanConverter.getInstance() )";
+        if ( primitive ) {
+            declare( "joptsimple.ArgumentAcceptingOptionSpec<java.lang.Boolean>", spec, converted );
+            defaultTo( spec, defaults );
+            bindIfPresent( "java.lang.Boolean", spec, access );
+        }
+        else
+            layOutValue( "java.lang.Boolean", spec, converted, defaults, access );
+    }
+
+    private void layOutValue( String valueType, String spec, String expression, String defaults, String access ) {
+        declare( "joptsimple.ArgumentAcceptingOptionSpec<" + valueType + ">", spec, expression );
+        declarations.append( "        if ( " ).append( defaults ).append( " != null )\n" );
+        declarations.append( "            " ).append( spec ).append( ".defaultsTo( " ).append( defaults )
+            .append( " );\n" );
+        bindIfPresent( valueType, spec, access );
+    }
+
+    private void declare( String specType, String spec, String expression ) {
+        fields.append( "    private final " ).append( specType ).append( ' ' ).append( spec ).append( ";\n" );
+        declarations.append( "        " ).append( spec ).append( " = " ).append( expression ).append( ";\n" );
+    }
+
+    private void defaultTo( String spec, String defaults ) {
+        declarations.append( "        " ).append( spec ).append( ".defaultsTo( " ).append( defaults ).append( " );\n" );
+    }
+
+    private void bind( String statement ) {
+        bindings.append( "        " ).append( statement ).append( '\n' );
+    }
+
+    private void bindIfPresent( String valueType, String spec, String access ) {
+        String value = "value" + options;
+        bind( valueType + ' ' + value + " = " + spec + ".value( options );" );
+        bind( "if ( " + value + " != null )" );
+        bind( "    target." + access + " = " + value + ';' );
+    }
+
+    private TypeElement listElementTypeOf( DeclaredType listType ) {
+        List<? extends TypeMirror> arguments = listType.getTypeArguments();
+        if ( arguments.size() != 1 || arguments.get( 0 ).getKind() != TypeKind.DECLARED )
+            return null;
+        return (TypeElement) ((DeclaredType) arguments.get( 0 )).asElement();
+    }
+
+    private String helpOf( VariableElement field ) {
+        StringBuilder help = new StringBuilder();
+        String text = helpTextOf( field );
+        help.append( text == null ? "Undocumented" : text );
+
+        TypeMirror fieldType = field.asType();
+        if ( fieldType.getKind() == TypeKind.DECLARED ) {
+            TypeElement element = (TypeElement) ((DeclaredType) fieldType).asElement();
+            if ( element.getKind() == ElementKind.ENUM )
+                appendEnumDocumentation( element, help );
+            else if ( "java.util.List".equals( element.getQualifiedName().toString() ) ) {
+                TypeElement elementType = listElementTypeOf( (DeclaredType) fieldType );
+                if ( elementType != null && elementType.getKind() == ElementKind.ENUM )
+                    appendEnumDocumentation( elementType, help );
+            }
+        }
+
+        return help.toString();
+    }
+
+    private void appendEnumDocumentation( TypeElement enumType, StringBuilder help ) {
+        help.append( '\n' );
+        String text = helpTextOf( enumType );
+        if ( text != null )
+            help.append( text );
+        help.append( "(possible values: " );
+
+        List<Element> constants = new ArrayList<Element>();
+        for ( Element each : enumType.getEnclosedElements() ) {
+            if ( each.getKind() == ElementKind.ENUM_CONSTANT )
+                constants.add( each );
+        }
+        for ( int i = 0; i < constants.size(); ++i ) {
+            Element each = constants.get( i );
+            help.append( ' ' ).append( each.getSimpleName() );
+            text = helpTextOf( each );
+            if ( text != null )
+                help.append( " (" ).append( text ).append( ')' );
+            if ( i < constants.size() - 1 )
+                help.append( ", " );
+        }
+
+        help.append( ")\n" );
+    }
+
+    private String helpTextOf( Element element ) {
+        AnnotationMirror help = annotation( element, JO_HELP );
+        return help == null ? null : stringValue( help, "value" );
+    }
+
+    private void error( String message, Element element ) {
+        environment.getMessager().printMessage( Diagnostic.Kind.ERROR, message, element );
+        valid = false;
+    }
+
+    /*
+     * Public fields that are neither static nor final, those declared by the class itself first, then those of its
+     * superclasses, as Class.getFields() gives them.
+     */
+    private static List<VariableElement> argumentFieldsOf( TypeElement type ) {
+        List<VariableElement> fields = new ArrayList<VariableElement>();
+        for ( TypeElement current = type; current != null; current = superclassOf( current ) ) {
+            for ( VariableElement each : ElementFilter.fieldsIn( current.getEnclosedElements() ) ) {
+                if ( each.getModifiers().contains( Modifier.PUBLIC )
+                    && !each.getModifiers().contains( Modifier.STATIC )
+                    && !each.getModifiers().contains( Modifier.FINAL ) ) {
+
+                    fields.add( each );
+                }
+            }
+        }
+        return fields;
+    }
+
+    private static TypeElement superclassOf( TypeElement type ) {
+        TypeMirror superclass = type.getSuperclass();
+        if ( superclass.getKind() != TypeKind.DECLARED )
+            return null;
+        return (TypeElement) ((DeclaredType) superclass).asElement();
+    }
+
+    private static String argumentName( String prefix, String name ) {
+        if ( prefix.isEmpty() )
+            return name;
+        return prefix + Character.toUpperCase( name.charAt( 0 ) ) + name.substring( 1 );
+    }
+
+    private static AnnotationMirror annotation( Element element, String annotationType ) {
+        for ( AnnotationMirror each : element.getAnnotationMirrors() ) {
+            TypeElement declared = (TypeElement) each.getAnnotationType().asElement();
+            if ( declared.getQualifiedName().contentEquals( annotationType ) )
+                return each;
+        }
+        return null;
+    }
+
+    private static String stringValue( AnnotationMirror annotation, String name ) {
+        for ( Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> each
+            : annotation.getElementValues().entrySet() ) {
+
+            if ( each.getKey().getSimpleName().contentEquals( name ) )
+                return String.valueOf( each.getValue().getValue() );
+        }
+        return "";
+    }
+
+    static String literal( String text ) {
+        StringBuilder literal = new StringBuilder( "\"" );
+        for ( int i = 0; i < text.length(); ++i ) {
+            char c = text.charAt( i );
+            switch ( c ) {
+                case '"':
+                    literal.append( "\\\"" );
+                    break;
+                case '\\':
+                    literal.append( "\\\\" );
+                    break;
+                case '\n':
+                    literal.append( "\\n" );
+                    break;
+                case '\r':
+                    literal.append( "\\r" );
+                    break;
+                case '\t':
+                    literal.append( "\\t" );
+                    break;
+                default:
+                    if ( c < ' ' || c > '~' )
+                        literal.append( String.format( "\\u%04x", (int) c ) );
+                    else
+                        literal.append( c );
+            }
+        }
+        return literal.append( '"' ).toString();
+    }
+
+    @Override
+    public String toString() {
+        String target = type.getQualifiedName().toString();
+        StringBuilder source = new StringBuilder();
+
+        if ( !packageName.isEmpty() )
+            source.append( "package " ).append( packageName ).append( ";\n\n" );
+
+        source.append( "/**\n" );
+        source.append( " * Binds command line arguments into new instances of {@link " ).append( target )
+            .append( "}.\n" );
+        source.append( " * Generated by joptsimple.processor.BinderProcessor; do not edit.\n" );
+        source.append( " */\n" );
+        source.append( "public final class " ).append( simpleName ).append( " {\n" );
+        source.append( "    private final joptsimple.OptionParser parser = new joptsimple.OptionParser();\n" );
+        source.append( fields );
+        source.append( '\n' );
+
+        source.append( "    public " ).append( simpleName ).append( "() {\n" );
+        if ( options > 0 )
+            source.append( "        " ).append( target ).append( " defaults = new " ).append( target ).append( "();\n" );
+        source.append( declarations );
+        source.append( "    }\n\n" );
+
+        source.append( "    public " ).append( target ).append( " bind( String... arguments ) {\n" );
+        source.append( "        joptsimple.OptionSet options = parser.parse( arguments );\n" );
+        source.append( "        " ).append( target ).append( " target = new " ).append( target ).append( "();\n" );
+        source.append( bindings );
+        if ( nonOptionArguments != null ) {
+            source.append( "        java.util.List<String> nonOptionArguments = new java.util.ArrayList<String>();\n" );
+            source.append( "        for ( Object each : options.nonOptionArguments() )\n" );
+            source.append( "            nonOptionArguments.add( \"\" + each );\n" );
+            source.append( "        target." ).append( nonOptionArguments ).append( " = nonOptionArguments;\n" );
+        }
+        source.append( "        return target;\n" );
+        source.append( "    }\n\n" );
+
+        source.append( "    public synchronized void printHelpOn( java.io.PrintStream out ) throws java.io.IOException {\n" );
+        source.append( "        parser.printHelpOn( out );\n" );
+        if ( nonOptionArguments != null ) {
+            source.append( "        out.println( \"Remaining arguments: \" + " )
+                .append( literal( nonOptionArgumentsHelp ) ).append( " );\n" );
+        }
+        source.append( "    }\n" );
+        source.append( "}\n" );
+
+        return source.toString();
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple.processor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import joptsimple.OptionException;
+import joptsimple.annot.AnnotatedClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static java.util.Arrays.*;
+import static java.util.Collections.*;
+import static org.junit.Assert.*;
+
+public class BinderProcessorTest {
+    private static final String ARGUMENTS =
+        "package sample;\n"
+        + "import java.io.File;\n"
+        + "import java.util.ArrayList;\n"
+        + "import java.util.List;\n"
+        + "import joptsimple.annot.*;\n"
+        + "@JOHelp( \"sample arguments\" )\n"
+        + "public class Arguments extends Base {\n"
+        + "    @JOHelp( \"colors\" )\n"
+        + "    public enum Color {\n"
+        + "        @JOHelp( \"like blood\" ) RED,\n"
+        + "        GREEN\n"
+        + "    }\n"
+        + "    public static class Connection {\n"
+        + "        @JOHelp( \"host \\\"name\\\"\" )\n"
+        + "        public String host = \"localhost\";\n"
+        + "        public int port = 80;\n"
+        + "    }\n"
+        + "    public static class Nested {\n"
+        + "        @JODelegate( prefix = \"\" )\n"
+        + "        public Connection connection = new Connection();\n"
+        + "    }\n"
+        + "    @JOHelp( \"how many\" )\n"
+        + "    public int count = 1;\n"
+        + "    public long size;\n"
+        + "    public double ratio = 0.5;\n"
+        + "    public Integer limit;\n"
+        + "    public Long total = 7L;\n"
+        + "    public Double weight;\n"
+        + "    public String name;\n"
+        + "    public File file = new File( \"in.txt\" );\n"
+        + "    @JOSimpleBoolean\n"
+        + "    public boolean verbose;\n"
+        + "    public boolean strict = true;\n"
+        + "    public Boolean lenient;\n"
+        + "    public Color color = Color.GREEN;\n"
+        + "    public List<Integer> ids = new ArrayList<Integer>();\n"
+        + "    public List<Color> palette = new ArrayList<Color>( List.of( Color.RED ) );\n"
+        + "    @JOSkip\n"
+        + "    public String skipped = \"kept\";\n"
+        + "    public final String constant = \"c\";\n"
+        + "    public static String shared;\n"
+        + "    String hidden;\n"
+        + "    @JODelegate( prefix = \"source\" )\n"
+        + "    public Connection source = new Connection();\n"
+        + "    @JODelegate( prefix = \"target\" )\n"
+        + "    public Nested target = new Nested();\n"
+        + "    @JONonOptionArgumentsList\n"
+        + "    @JOHelp( \"files to read\" )\n"
+        + "    public List<String> rest;\n"
+        + "}\n";
+    private static final String BASE =
+        "package sample;\n"
+        + "public class Base {\n"
+        + "    @joptsimple.annot.JOHelp( \"inherited\" )\n"
+        + "    public String mode = \"fast\";\n"
+        + "}\n";
+
+    @Rule
+    public final TemporaryFolder temporary = new TemporaryFolder();
+
+    private final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+    private ClassLoader loader;
+
+    @Before
+    public void compileSample() throws Exception {
+        assertTrue( diagnostics.getDiagnostics().toString(),
+            compile( source( "sample.Arguments", ARGUMENTS ), source( "sample.Base", BASE ) ) );
+    }
+
+    @Test
+    public void generatesBinderForEachAnnotatedClass() throws Exception {
+        File sample = new File( temporary.getRoot(), "sample" );
+
+        assertEquals(
+            asList( "ArgumentsBinder.java", "Arguments_ConnectionBinder.java", "Arguments_NestedBinder.java",
+                "BaseBinder.java" ),
+            generatedSourcesIn( sample ) );
+        assertTrue( new File( sample, "ArgumentsBinder.class" ).isFile() );
+    }
+
+    @Test
+    public void bindsDefaultsLikeAnnotatedClass() throws Exception {
+        assertSameBinding();
+    }
+
+    @Test
+    public void bindsArgumentsLikeAnnotatedClass() throws Exception {
+        assertSameBinding( "--count", "3", "--size", "40", "--ratio", "2.5", "--limit", "9", "--total", "8",
+            "--weight", "1.5", "--name", "n", "--file", "out.txt", "--verbose", "--strict", "false",
+            "--lenient", "true", "--color", "RED", "--ids", "1,2", "--ids", "3", "--palette", "GREEN,RED",
+            "--mode", "slow", "--sourceHost", "a", "--sourcePort", "1", "--targetHost", "b", "--targetPort", "2",
+            "x", "--", "--y" );
+    }
+
+    @Test
+    public void printsSameHelpAsAnnotatedClass() throws Exception {
+        AnnotatedClass annotated = new AnnotatedClass();
+        annotated.parseAnnotations( newInstance( "sample.Arguments" ) );
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        annotated.printHelpOn( new PrintStream( expected, true ) );
+
+        Object binder = newInstance( "sample.ArgumentsBinder" );
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        binder.getClass().getMethod( "printHelpOn", PrintStream.class )
+            .invoke( binder, new PrintStream( actual, true ) );
+
+        assertEquals( expected.toString(), actual.toString() );
+        assertTrue( actual.toString().contains( "Remaining arguments: files to read" ) );
+        assertTrue( actual.toString().contains( "colors(possible values:  RED (like" ) );
+    }
+
+    @Test
+    public void rejectsBadArgumentsLikeParser() throws Exception {
+        Object binder = newInstance( "sample.ArgumentsBinder" );
+        try {
+            bind( binder, "--count", "many" );
+            fail();
+        } catch ( OptionException expected ) {
+            assertEquals( singletonList( "count" ), expected.options() );
+        }
+    }
+
+    @Test
+    public void reportsUnsupportedFieldTypes() throws Exception {
+        assertFalse( compile( source( "bad.Bad",
+            "package bad;\npublic class Bad {\n    @joptsimple.annot.JOHelp( \"r\" ) public float ratio;\n}\n" ) ) );
+
+        assertTrue( errors().toString(), errors().get( 0 ).contains( "Type Not implemented: float" ) );
+        assertFalse( new File( temporary.getRoot(), "bad/BadBinder.java" ).exists() );
+    }
+
+    @Test
+    public void reportsRawLists() throws Exception {
+        assertFalse( compile( source( "bad.Raw",
+            "package bad;\n@joptsimple.annot.JOHelp( \"raw\" )\npublic class Raw {\n"
+                + "    public java.util.List values;\n}\n" ) ) );
+
+        assertTrue( errors().toString(), errors().get( 0 ).contains( "Raw list types are not supported values" ) );
+    }
+
+    @Test
+    public void skipsClassesThatCannotBeInstantiated() throws Exception {
+        assertTrue( diagnostics.getDiagnostics().toString(), compile( source( "other.Holder",
+            "package other;\npublic class Holder {\n"
+                + "    public static abstract class Abstract {\n"
+                + "        @joptsimple.annot.JOHelp( \"a\" ) public String a;\n    }\n"
+                + "    public class Inner {\n"
+                + "        @joptsimple.annot.JOHelp( \"b\" ) public String b;\n    }\n"
+                + "    public static class WithArguments {\n"
+                + "        @joptsimple.annot.JOHelp( \"c\" ) public String c;\n"
+                + "        public WithArguments( String c ) {\n            this.c = c;\n        }\n    }\n"
+                + "    public static class Plain {\n"
+                + "        @joptsimple.annot.JOHelp( \"d\" ) public String d;\n    }\n"
+                + "}\n" ) ) );
+
+        File other = new File( temporary.getRoot(), "other" );
+        assertEquals( singletonList( "Holder_PlainBinder.java" ), generatedSourcesIn( other ) );
+    }
+
+    private void assertSameBinding( String... arguments ) throws Exception {
+        Object expected = newInstance( "sample.Arguments" );
+        AnnotatedClass annotated = new AnnotatedClass();
+        annotated.parseAnnotations( expected );
+        annotated.parseArgs( arguments );
+
+        Object actual = bind( newInstance( "sample.ArgumentsBinder" ), arguments );
+
+        assertEquals( describe( expected ), describe( actual ) );
+    }
+
+    private static Object bind( Object binder, String... arguments ) throws Exception {
+        try {
+            return binder.getClass().getMethod( "bind", String[].class ).invoke( binder, (Object) arguments );
+        } catch ( java.lang.reflect.InvocationTargetException ex ) {
+            if ( ex.getCause() instanceof RuntimeException )
+                throw (RuntimeException) ex.getCause();
+            throw ex;
+        }
+    }
+
+    /*
+     * Values of all fields, following delegates, in a form that compares by value.
+     */
+    private static String describe( Object target ) throws Exception {
+        StringBuilder description = new StringBuilder();
+        for ( Field each : target.getClass().getFields() ) {
+            Object value = each.get( target );
+            description.append( each.getName() ).append( '=' );
+            if ( value != null && value.getClass().getName().startsWith( "sample." ) && !value.getClass().isEnum() )
+                description.append( '{' ).append( describe( value ) ).append( '}' );
+            else
+                description.append( value );
+            description.append( ';' );
+        }
+        return description.toString();
+    }
+
+    private Object newInstance( String className ) throws Exception {
+        return loader.loadClass( className ).getConstructor().newInstance();
+    }
+
+    private boolean compile( JavaFileObject... sources ) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        StandardJavaFileManager files = compiler.getStandardFileManager( diagnostics, null, null );
+        try {
+            List<String> options = asList( "-d", temporary.getRoot().getPath(),
+                "-s", temporary.getRoot().getPath(), "-classpath", System.getProperty( "java.class.path" ) );
+            JavaCompiler.CompilationTask task =
+                compiler.getTask( null, files, diagnostics, options, null, asList( sources ) );
+            task.setProcessors( singletonList( new BinderProcessor() ) );
+            boolean compiled = task.call();
+            loader = new URLClassLoader( new URL[] { temporary.getRoot().toURI().toURL() }, getClass().getClassLoader() );
+            return compiled;
+        } finally {
+            files.close();
+        }
+    }
+
+    private List<String> errors() {
+        List<String> errors = new ArrayList<String>();
+        for ( Diagnostic<? extends JavaFileObject> each : diagnostics.getDiagnostics() ) {
+            if ( each.getKind() == Diagnostic.Kind.ERROR )
+                errors.add( each.getMessage( null ) );
+        }
+        return errors;
+    }
+
+    private static List<String> generatedSourcesIn( File directory ) {
+        List<String> names = new ArrayList<String>();
+        for ( String each : directory.list() ) {
+            if ( each.endsWith( "Binder.java" ) )
+                names.add( each );
+        }
+        sort( names );
+        return names;
+    }
+
+    private static JavaFileObject source( String className, final String code ) {
+        return new SimpleJavaFileObject(
+            URI.create( "string:///" + className.replace( '.', '/' ) + ".java" ), JavaFileObject.Kind.SOURCE ) {
+
+            @Override
+            public CharSequence getCharContent( boolean ignoreEncodingErrors ) {
+                return code;
+            }
+        };
+    }
+}
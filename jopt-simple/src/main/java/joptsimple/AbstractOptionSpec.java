@@ -27,6 +27,7 @@ package joptsimple;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static java.util.Collections.*;
 
@@ -40,9 +41,14 @@ import static joptsimple.internal.Strings.*;
  * @author <a href="mailto:pholser@alumni.rice.edu">Paul Holser</a>
  */
 abstract class AbstractOptionSpec<V> implements OptionSpec<V>, OptionDescriptor {
+    private static final AtomicLong REVISIONS = new AtomicLong();
+
     private final List<String> options = new ArrayList<String>();
     private final String description;
+    private boolean compactStorage;
+    private boolean offHeapStorage;
     private boolean forHelp;
+    private long revision = nextRevision();
 
     protected AbstractOptionSpec( String option ) {
         this( singletonList( option ), EMPTY );
@@ -89,6 +95,116 @@ abstract class AbstractOptionSpec<V> implements OptionSpec<V>, OptionDescriptor
 
     protected abstract V convert( String argument );
 
+    /*
+     * Converts the argument made of the characters of source from start (inclusive) to end (exclusive).
+     */
+    V convert( CharSequence source, int start, int end ) {
+        return convert( source.subSequence( start, end ).toString() );
+    }
+
+    boolean canConvert( String source, int start, int end ) {
+        return true;
+    }
+
+    /*
+     * Gives the converter of this option's arguments if it converts them asynchronously, or null if it does not.
+     */
+    AsyncValueConverter<V> asyncConverter() {
+        return null;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    final AsyncValueConverter<V> asyncConverterFrom( ValueConverter<V> converter ) {
+        return converter instanceof AsyncValueConverter<?> ? (AsyncValueConverter<V>) converter : null;
+    }
+
+    /*
+     * Gives a revision later than any given before, by any spec or parser.
+     */
+    static long nextRevision() {
+        return REVISIONS.incrementAndGet();
+    }
+
+    /*
+     * Marks a change to what this spec describes of its option.
+     */
+    final void revise() {
+        revision = nextRevision();
+    }
+
+    final long revision() {
+        return revision;
+    }
+
+    /*
+     * Has the arguments of this option kept in compact storage, optionally outside the heap.
+     */
+    final void storeCompactly( boolean outsideHeap ) {
+        compactStorage = true;
+        offHeapStorage = outsideHeap;
+    }
+
+    final boolean storesCompactly() {
+        return compactStorage;
+    }
+
+    final boolean storesOffHeap() {
+        return offHeapStorage;
+    }
+
+    /*
+     * Gives a new list to hold the arguments detected for this option on a command line.
+     */
+    List<String> newArgumentList() {
+        return compactStorage ? new CompactArguments( offHeapStorage ) : new StringArguments();
+    }
+
+    /*
+     * Converts the arguments detected for this option, as held by a list from newArgumentList().
+     */
+    List<V> convertArguments( List<String> arguments ) {
+        List<V> convertedValues = new ArrayList<V>( arguments.size() );
+        if ( arguments instanceof StringArguments ) {
+            StringArguments ranges = (StringArguments) arguments;
+            for ( int i = 0; i < ranges.size(); ++i )
+                convertedValues.add( convert( ranges.source( i ), ranges.start( i ), ranges.end( i ) ) );
+        } else if ( arguments instanceof ArgumentStore ) {
+            ArgumentCursor cursor = ( (ArgumentStore) arguments ).cursor();
+            while ( cursor.next() )
+                convertedValues.add( convert( cursor, 0, cursor.length() ) );
+        } else {
+            for ( String each : arguments )
+                convertedValues.add( convert( each ) );
+        }
+
+        return convertedValues;
+    }
+
+    /*
+     * Converts the arguments all at once.  Should that fail without naming the argument at fault, they are converted
+     * one at a time to find it.
+     */
+    final List<V> convertAllWith( ValueConverter<V> converter, List<String> arguments ) {
+        List<String> values = unmodifiableList( new ArrayList<String>( arguments ) );
+        try {
+            List<V> converted = converter.convertAll( values );
+            if ( converted != null && converted.size() == values.size() )
+                return new ArrayList<V>( converted );
+        } catch ( IndexedValueConversionException ex ) {
+            if ( ex.index() >= 0 && ex.index() < values.size() )
+                throw new OptionArgumentConversionException( this, values.get( ex.index() ), ex.getCause() );
+        } catch ( ReflectionException ex ) {
+            // converted one at a time below
+        } catch ( ValueConversionException ex ) {
+            // converted one at a time below
+        }
+
+        List<V> converted = new ArrayList<V>( values.size() );
+        for ( String each : values )
+            converted.add( convertWith( converter, each ) );
+        return converted;
+    }
+
     protected V convertWith( ValueConverter<V> converter, String argument ) {
         try {
             return Reflection.convertWith( converter, argument );
@@ -99,6 +215,34 @@ abstract class AbstractOptionSpec<V> implements OptionSpec<V>, OptionDescriptor
         }
     }
 
+    final V convertWith( ValueConverter<V> converter, CharSequence source, int start, int end ) {
+        if ( converter == null )
+            return convertWith( converter, source.subSequence( start, end ).toString() );
+
+        try {
+            return converter.convert( source, start, end );
+        } catch ( ReflectionException ex ) {
+            throw new OptionArgumentConversionException( this, source.subSequence( start, end ).toString(), ex );
+        } catch ( ValueConversionException ex ) {
+            throw new OptionArgumentConversionException( this, source.subSequence( start, end ).toString(), ex );
+        }
+    }
+
+    /*
+     * Asynchronous conversions are not attempted while parsing; their failures are reported once they are converted.
+     */
+    final boolean canConvertWith( ValueConverter<V> converter, String source, int start, int end ) {
+        return converter == null
+            || converter instanceof AsyncValueConverter<?>
+            || converter.canConvert( source, start, end );
+    }
+
+    final boolean checksConversionsWith( ValueConverter<V> converter ) {
+        return converter == null
+            || converter instanceof AsyncValueConverter<?>
+            || Reflection.checksConversions( converter );
+    }
+
     protected String argumentTypeIndicatorFrom( ValueConverter<V> converter ) {
         if ( converter == null )
             return null;
@@ -110,6 +254,55 @@ abstract class AbstractOptionSpec<V> implements OptionSpec<V>, OptionDescriptor
     abstract void handleOption( OptionParser parser, ArgumentList arguments, OptionSet detectedOptions,
         String detectedArgument );
 
+    /*
+     * When the parser collects diagnostics, an argument that cannot be converted is reported rather than recorded,
+     * so that the resulting option set can be queried without failing.
+     */
+    final void addArgument( OptionParser parser, ArgumentList arguments, OptionSet detectedOptions, String argument ) {
+        addArgument( parser, arguments, detectedOptions, argument, 0, argument.length() );
+    }
+
+    /*
+     * Adds the argument made of the characters of source from start (inclusive) to end (exclusive).
+     */
+    void addArgument( OptionParser parser, ArgumentList arguments, OptionSet detectedOptions, String source,
+        int start, int end ) {
+
+        if ( arguments.collectsDiagnostics() ) {
+            OptionException problem = conversionProblem( source, start, end );
+            if ( problem != null ) {
+                arguments.reportProblem( problem, arguments.previousIndex() );
+                return;
+            }
+        }
+
+        detectedOptions.addWithArgument( this, source, start, end );
+    }
+
+    /*
+     * An argument is converted at most once: a check that would itself attempt the conversion is skipped in favour of
+     * the conversion, whose failure is the problem.
+     */
+    OptionException conversionProblem( String source, int start, int end ) {
+        boolean checks = checksConversions();
+        if ( checks && canConvert( source, start, end ) )
+            return null;
+
+        try {
+            convert( source, start, end );
+            return checks ? new OptionArgumentConversionException( this, source.substring( start, end ), null ) : null;
+        } catch ( OptionException problem ) {
+            return problem;
+        }
+    }
+
+    /*
+     * Tells whether canConvert answers without attempting the conversion.
+     */
+    boolean checksConversions() {
+        return true;
+    }
+
     private void arrangeOptions( List<String> unarranged ) {
         if ( unarranged.size() == 1 ) {
             options.addAll( unarranged );
@@ -43,8 +43,10 @@ class AlternativeLongOptionSpec extends ArgumentAcceptingOptionSpec<String> {
 
     @Override
     protected void detectOptionArgument( OptionParser parser, ArgumentList arguments, OptionSet detectedOptions ) {
-        if ( !arguments.hasMore() )
-            throw new OptionMissingRequiredArgumentException( this );
+        if ( !arguments.hasMore() ) {
+            arguments.reportProblem( new OptionMissingRequiredArgumentException( this ), arguments.previousIndex() );
+            return;
+        }
 
         arguments.treatNextAsLongOption();
     }
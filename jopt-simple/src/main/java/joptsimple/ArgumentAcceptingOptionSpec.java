@@ -28,7 +28,7 @@ package joptsimple;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.StringTokenizer;
+import java.util.function.Supplier;
 
 import static java.util.Collections.*;
 //import static java.util.Objects.*;
@@ -61,8 +61,11 @@ public abstract class ArgumentAcceptingOptionSpec<V> extends AbstractOptionSpec<
     private final boolean argumentRequired;
     private ValueConverter<V> converter;
     private String argumentDescription = "";
-    private String valueSeparator = String.valueOf( NIL_VALUE_SEPARATOR );
+    private String valueSeparator = "";
     private final List<V> defaultValues = new ArrayList<V>();
+    private Supplier<? extends V> defaultValueSupplier;
+    private volatile boolean defaultValueSupplied;
+    private V suppliedDefaultValue;
 
     ArgumentAcceptingOptionSpec( String option, boolean argumentRequired ) {
         super( option );
@@ -100,6 +103,7 @@ public abstract class ArgumentAcceptingOptionSpec<V> extends AbstractOptionSpec<
      * @return self, so that the caller can add clauses to the fluent interface sentence
      * @throws NullPointerException if the type is {@code null}
      * @throws IllegalArgumentException if the type does not have the standard conversion methods
+     * @throws IllegalStateException if this spec's arguments are of a fixed type
      */
     public final <T> ArgumentAcceptingOptionSpec<T> ofType( Class<T> argumentType ) {
         return withValuesConvertedBy( findConverter( argumentType ) );
@@ -116,13 +120,16 @@ public abstract class ArgumentAcceptingOptionSpec<V> extends AbstractOptionSpec<
      * @param aConverter the converter to use
      * @return self, so that the caller can add clauses to the fluent interface sentence
      * @throws NullPointerException if the converter is {@code null}
+     * @throws IllegalStateException if this spec's arguments are of a fixed type
      */
     @SuppressWarnings( "unchecked" )
     public final <T> ArgumentAcceptingOptionSpec<T> withValuesConvertedBy( ValueConverter<T> aConverter ) {
         if ( aConverter == null )
             throw new NullPointerException( "illegal null converter" );
+        checkConverterChange();
 
         converter = (ValueConverter<V>) aConverter;
+        revise();
         return (ArgumentAcceptingOptionSpec<T>) this;
     }
 
@@ -135,6 +142,7 @@ public abstract class ArgumentAcceptingOptionSpec<V> extends AbstractOptionSpec<
      */
     public final ArgumentAcceptingOptionSpec<V> describedAs( String description ) {
         argumentDescription = description;
+        revise();
         return this;
     }
 
@@ -153,6 +161,10 @@ public abstract class ArgumentAcceptingOptionSpec<V> extends AbstractOptionSpec<
      *
      * <p>Then <code>options.valuesOf( "z" )</code> would yield the list {@code [foo, bar, baz, fizz, buzz]}.</p>
      *
+     * <p>The values are the non-empty runs of characters between occurrences of the separator; empty runs, as between
+     * consecutive separators or at either end of the argument, are skipped.  An argument with no such value, such as one
+     * made only of separators, is taken whole as a single value.</p>
+     *
      * <p>You cannot use Unicode U+0000 as the separator.</p>
      *
      * @param separator a character separator
@@ -182,6 +194,11 @@ public abstract class ArgumentAcceptingOptionSpec<V> extends AbstractOptionSpec<
      *
      * <p>Then <code>options.valuesOf( "z" )</code> would yield the list {@code [foo, bar, baz, fizz, buzz]}.</p>
      *
+     * <p>The separator is matched as a whole string, not as a set of separator characters: occurrences are found from
+     * left to right and do not overlap, so with {@code "::"} the argument {@code "a:::b"} yields {@code a} and
+     * {@code :b}.  The values are the non-empty runs of characters between occurrences; empty runs are skipped, and an
+     * argument with no such value is taken whole as a single value.  An empty separator leaves arguments whole.</p>
+     *
      * <p>You cannot use Unicode U+0000 in the separator.</p>
      *
      * @param separator a string separator
@@ -196,6 +213,33 @@ public abstract class ArgumentAcceptingOptionSpec<V> extends AbstractOptionSpec<
         return this;
     }
 
+    /**
+     * <p>Has the arguments of this spec's option kept back to back in one compact block of characters, rather than as a
+     * string apiece.  This greatly reduces the memory held by an option set when the option is given very many
+     * arguments.</p>
+     *
+     * <p>Strings are then made only as arguments are read.  If no type or converter is given,
+     * {@link OptionSet#valuesOf(OptionSpec)} gives a view that makes each string on access;
+     * {@link OptionSet#argumentCursor(OptionSpec)} reads arguments without making strings at all.</p>
+     *
+     * @return self, so that the caller can add clauses to the fluent interface sentence
+     */
+    public final ArgumentAcceptingOptionSpec<V> withCompactStorage() {
+        storeCompactly( false );
+        return this;
+    }
+
+    /**
+     * Has the arguments of this spec's option kept in {@linkplain #withCompactStorage() compact storage} outside the
+     * heap, in a direct {@link java.nio.ByteBuffer}.
+     *
+     * @return self, so that the caller can add clauses to the fluent interface sentence
+     */
+    public final ArgumentAcceptingOptionSpec<V> withOffHeapStorage() {
+        storeCompactly( true );
+        return this;
+    }
+
     /**
      * Specifies a set of default values for the argument of the option that this spec represents.
      *
@@ -225,6 +269,34 @@ public abstract class ArgumentAcceptingOptionSpec<V> extends AbstractOptionSpec<
 
         return this;
     }
+
+    /**
+     * <p>Specifies a default value for the argument of the option that this spec represents, to be computed only when
+     * first needed: when an {@link OptionSet} is asked for the values of the option and it was not detected, or when
+     * help is printed.  The supplier is invoked at most once, even by concurrent callers, unless it throws, in which
+     * case it is invoked again when next needed.</p>
+     *
+     * <p>The supplied value follows any default values given otherwise.  If the supplier gives {@code null}, it adds
+     * no default value.  Specifying another supplier replaces this one.</p>
+     *
+     * @param supplier computes the default argument value for this spec's option
+     * @return self, so that the caller can add clauses to the fluent interface sentence
+     * @throws NullPointerException if {@code supplier} is {@code null}
+     */
+    public final ArgumentAcceptingOptionSpec<V> defaultsToSupplied( Supplier<? extends V> supplier ) {
+        if ( supplier == null )
+            throw new NullPointerException( "illegal null supplier" );
+
+        synchronized ( this ) {
+            defaultValueSupplier = supplier;
+            suppliedDefaultValue = null;
+            defaultValueSupplied = false;
+        }
+        revise();
+
+        return this;
+    }
+
     /**
      * <p>Specifies the default values for the argument of the option that this spec
      * represents.</p>
@@ -247,6 +319,7 @@ public abstract class ArgumentAcceptingOptionSpec<V> extends AbstractOptionSpec<
      */
     public ArgumentAcceptingOptionSpec<V> required() {
         optionRequired = true;
+        revise();
         return this;
     }
 
@@ -259,6 +332,7 @@ public abstract class ArgumentAcceptingOptionSpec<V> extends AbstractOptionSpec<
         	throw new NullPointerException();
         }
         defaultValues.add( value );
+        revise();
     }
 
     @Override
@@ -268,17 +342,21 @@ public abstract class ArgumentAcceptingOptionSpec<V> extends AbstractOptionSpec<
         if ( isNullOrEmpty( detectedArgument ) )
             detectOptionArgument( parser, arguments, detectedOptions );
         else
-            addArguments( detectedOptions, detectedArgument );
+            addArguments( parser, arguments, detectedOptions, detectedArgument );
     }
 
-    protected void addArguments( OptionSet detectedOptions, String detectedArgument ) {
-        StringTokenizer lexer = new StringTokenizer( detectedArgument, valueSeparator );
-        if ( !lexer.hasMoreTokens() )
-            detectedOptions.addWithArgument( this, detectedArgument );
-        else {
-            while ( lexer.hasMoreTokens() )
-                detectedOptions.addWithArgument( this, lexer.nextToken() );
+    protected void addArguments( OptionParser parser, ArgumentList arguments, OptionSet detectedOptions,
+        String detectedArgument ) {
+
+        ValueSplitter values = new ValueSplitter( detectedArgument, valueSeparator );
+        if ( !values.advance() ) {
+            addArgument( parser, arguments, detectedOptions, detectedArgument );
+            return;
         }
+
+        do {
+            addArgument( parser, arguments, detectedOptions, detectedArgument, values.start(), values.end() );
+        } while ( values.advance() );
     }
 
     protected abstract void detectOptionArgument( OptionParser parser, ArgumentList arguments,
@@ -289,16 +367,64 @@ public abstract class ArgumentAcceptingOptionSpec<V> extends AbstractOptionSpec<
         return convertWith( converter, argument );
     }
 
+    @Override
+    final V convert( CharSequence source, int start, int end ) {
+        return convertWith( converter, source, start, end );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    @Override
+    List<V> convertArguments( List<String> arguments ) {
+        if ( converter == null && arguments instanceof CompactArguments )
+            return (List<V>) arguments;
+        if ( convertsInBulk( converter ) )
+            return convertAllWith( converter, arguments );
+
+        return super.convertArguments( arguments );
+    }
+
+    @Override
+    final boolean canConvert( String source, int start, int end ) {
+        return canConvertWith( converter, source, start, end );
+    }
+
+    @Override
+    final boolean checksConversions() {
+        return checksConversionsWith( converter );
+    }
+
+    @Override
+    final AsyncValueConverter<V> asyncConverter() {
+        return asyncConverterFrom( converter );
+    }
+
     protected boolean canConvertArgument( String argument ) {
-        StringTokenizer lexer = new StringTokenizer( argument, valueSeparator );
+        ValueSplitter values = new ValueSplitter( argument, valueSeparator );
 
-        try {
-            while ( lexer.hasMoreTokens() )
-                convert( lexer.nextToken() );
-            return true;
-        } catch ( OptionException ignored ) {
-            return false;
+        while ( values.advance() ) {
+            if ( !canConvert( argument, values.start(), values.end() ) )
+                return false;
         }
+
+        return true;
+    }
+
+    /*
+     * Hook for specs whose arguments are of a fixed type to refuse a change of converter.
+     */
+    void checkConverterChange() {
+    }
+
+    final ValueConverter<V> converter() {
+        return converter;
+    }
+
+    final String valueSeparator() {
+        return valueSeparator;
+    }
+
+    final boolean suppliesDefaultValue() {
+        return defaultValueSupplier != null;
     }
 
     protected boolean isArgumentOfNumberType() {
@@ -322,7 +448,30 @@ public abstract class ArgumentAcceptingOptionSpec<V> extends AbstractOptionSpec<
     }
 
     public List<V> defaultValues() {
-        return unmodifiableList( defaultValues );
+        if ( defaultValueSupplier == null )
+            return unmodifiableList( defaultValues );
+
+        V supplied = suppliedDefaultValue();
+        if ( supplied == null )
+            return unmodifiableList( defaultValues );
+
+        List<V> values = new ArrayList<V>( defaultValues.size() + 1 );
+        values.addAll( defaultValues );
+        values.add( supplied );
+        return unmodifiableList( values );
+    }
+
+    private V suppliedDefaultValue() {
+        if ( !defaultValueSupplied ) {
+            synchronized ( this ) {
+                if ( !defaultValueSupplied ) {
+                    suppliedDefaultValue = defaultValueSupplier.get();
+                    defaultValueSupplied = true;
+                }
+            }
+        }
+
+        return suppliedDefaultValue;
     }
 
     @Override
@@ -0,0 +1,81 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Collections.*;
+
+/**
+ * Thrown when arguments whose conversions were {@linkplain OptionSet#startConversions(java.util.concurrent.Executor)
+ * carried out together} could not be converted.  Every failure is reported, not only the first.
+ *
+ * @see OptionSet#awaitConverted(java.time.Duration)
+ */
+public class ArgumentConversionFailuresException extends OptionException {
+    private static final long serialVersionUID = -1L;
+
+    private final List<OptionException> failures;
+
+    ArgumentConversionFailuresException( List<? extends OptionException> failures ) {
+        super( optionsOf( failures ) );
+
+        this.failures = unmodifiableList( new ArrayList<OptionException>( failures ) );
+        for ( OptionException each : failures )
+            addSuppressed( each );
+    }
+
+    private static List<String> optionsOf( List<? extends OptionException> failures ) {
+        Set<String> options = new LinkedHashSet<String>();
+        for ( OptionException each : failures )
+            options.addAll( each.options() );
+        return new ArrayList<String>( options );
+    }
+
+    /**
+     * Gives the failed conversions, one for each argument that could not be converted, in the order the options were
+     * detected.
+     *
+     * @return the failed conversions
+     */
+    public List<OptionException> failures() {
+        return failures;
+    }
+
+    @Override
+    Object[] messageArguments() {
+        StringBuilder messages = new StringBuilder();
+        for ( OptionException each : failures ) {
+            if ( messages.length() > 0 )
+                messages.append( "; " );
+            messages.append( each.getMessage() );
+        }
+
+        return new Object[] { multipleOptionString(), messages.toString() };
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple;
+
+/**
+ * <p>Walks the raw arguments detected for an option, one at a time, without creating a string for each.</p>
+ *
+ * <p>A cursor starts before the first argument.  Once {@link #next()} has answered {@code true}, the cursor reads as the
+ * characters of the current argument through its {@link CharSequence} methods, until the next call to
+ * {@link #next()}.  This allows arguments to be scanned or handed to
+ * {@link ValueConverter#convert(CharSequence, int, int)} in place; use {@link #toString()} to keep the current
+ * argument.</p>
+ *
+ * @see OptionSet#argumentCursor(OptionSpec)
+ */
+public interface ArgumentCursor extends CharSequence {
+    /**
+     * Moves to the next argument.
+     *
+     * @return whether there is a next argument
+     */
+    boolean next();
+}
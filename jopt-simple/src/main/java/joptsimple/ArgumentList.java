@@ -25,19 +25,29 @@
 
 package joptsimple;
 
+import java.util.List;
+
 import static joptsimple.ParserRules.*;
 
 /**
- * <p>Wrapper for an array of command line arguments.</p>
+ * <p>Wrapper for an array of command line arguments, along with the state of the parse under way over them.</p>
  *
  * @author <a href="mailto:pholser@alumni.rice.edu">Paul Holser</a>
  */
 class ArgumentList {
     private final String[] arguments;
     private int currentIndex;
+    private OptionParserState state;
+    private final List<ParseDiagnostic> diagnostics;
 
     ArgumentList( String... arguments ) {
+        this( OptionParserState.moreOptions( false ), null, arguments );
+    }
+
+    ArgumentList( OptionParserState state, List<ParseDiagnostic> diagnostics, String... arguments ) {
         this.arguments = arguments.clone();
+        this.state = state;
+        this.diagnostics = diagnostics;
     }
 
     boolean hasMore() {
@@ -52,8 +62,31 @@ class ArgumentList {
         return arguments[ currentIndex ];
     }
 
+    int previousIndex() {
+        return currentIndex - 1;
+    }
+
     void treatNextAsLongOption() {
         if ( HYPHEN_CHAR != arguments[ currentIndex ].charAt( 0 ) )
             arguments[ currentIndex ] = DOUBLE_HYPHEN + arguments[ currentIndex ];
     }
+
+    OptionParserState state() {
+        return state;
+    }
+
+    void noMoreOptions() {
+        state = OptionParserState.noMoreOptions();
+    }
+
+    boolean collectsDiagnostics() {
+        return diagnostics != null;
+    }
+
+    void reportProblem( OptionException problem, int argumentIndex ) {
+        if ( diagnostics == null )
+            throw problem;
+
+        diagnostics.add( new ParseDiagnostic( problem, argumentIndex ) );
+    }
 }
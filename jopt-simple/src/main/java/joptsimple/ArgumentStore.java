@@ -0,0 +1,89 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Holds the arguments detected for an option, taking them as ranges of the command line arguments they came from, and
+ * presenting them as strings made on access.
+ */
+abstract class ArgumentStore extends AbstractList<String> implements RandomAccess {
+    /*
+     * Adds the argument made of the characters of source from start (inclusive) to end (exclusive).
+     */
+    abstract void add( String source, int start, int end );
+
+    abstract ArgumentCursor cursor();
+
+    @Override
+    public boolean add( String argument ) {
+        add( argument, 0, argument.length() );
+        return true;
+    }
+
+    final void checkIndex( int index ) {
+        if ( index >= size() )
+            throw new IndexOutOfBoundsException( "Index: " + index + ", Size: " + size() );
+    }
+
+    /*
+     * Gives a cursor over a list of arguments that is not an ArgumentStore.
+     */
+    static ArgumentCursor cursorOver( final List<String> arguments ) {
+        return new ArgumentCursor() {
+            private int index = -1;
+            private String current = "";
+
+            public boolean next() {
+                if ( index + 1 >= arguments.size() )
+                    return false;
+
+                current = arguments.get( ++index );
+                return true;
+            }
+
+            public int length() {
+                return current.length();
+            }
+
+            public char charAt( int position ) {
+                return current.charAt( position );
+            }
+
+            public CharSequence subSequence( int start, int end ) {
+                return current.subSequence( start, end );
+            }
+
+            @Override
+            public String toString() {
+                return current;
+            }
+        };
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * <p>A converter whose conversions may be slow, such as ones that resolve names, check the file system or load keys,
+ * and so are carried out asynchronously.</p>
+ *
+ * <p>The parser does not attempt these conversions while parsing.  Once parsed, an {@link OptionSet} can
+ * {@linkplain OptionSet#startConversions(Executor) start} the conversions of all the arguments of options with such
+ * converters at once, and {@linkplain OptionSet#awaitConverted(java.time.Duration) wait} for them to finish.
+ * Arguments whose conversions were not started are converted on the calling thread, as for any other converter.</p>
+ *
+ * @param <V> constraint on the type of values being converted to
+ */
+public interface AsyncValueConverter<V> extends ValueConverter<V> {
+    /**
+     * Starts converting the given string value into a Java type.
+     *
+     * @param value the string to convert
+     * @param executor the executor on which to carry out any work that might block
+     * @return a future that completes with the converted value, or exceptionally with a
+     * {@link ValueConversionException} if a problem occurs while converting the value
+     */
+    CompletableFuture<V> convertAsync( String value, Executor executor );
+
+    /**
+     * Converts the given string value on the calling thread, waiting for the conversion to finish.
+     *
+     * @param value the string to convert
+     * @return the converted value
+     * @throws ValueConversionException if a problem occurs while converting the value
+     */
+    @Override
+    default V convert( String value ) {
+        try {
+            return convertAsync( value, Runnable::run ).join();
+        } catch ( CompletionException ex ) {
+            if ( ex.getCause() instanceof RuntimeException )
+                throw (RuntimeException) ex.getCause();
+            throw new ValueConversionException( ex.getCause().getMessage(), ex.getCause() );
+        }
+    }
+
+    /**
+     * Gives a converter that carries out the conversions of the given converter on the executor it is handed.
+     *
+     * @param <V> constraint on the type of values being converted to
+     * @param converter the converter to make asynchronous
+     * @return an asynchronous converter
+     * @throws NullPointerException if the converter is {@code null}
+     */
+    static <V> AsyncValueConverter<V> of( final ValueConverter<V> converter ) {
+        if ( converter == null )
+            throw new NullPointerException( "illegal null converter" );
+
+        return new AsyncValueConverter<V>() {
+            public CompletableFuture<V> convertAsync( final String value, Executor executor ) {
+                return CompletableFuture.supplyAsync( () -> converter.convert( value ), executor );
+            }
+
+            @Override
+            public V convert( String value ) {
+                return converter.convert( value );
+            }
+
+            public Class<? extends V> valueType() {
+                return converter.valueType();
+            }
+
+            public String valuePattern() {
+                return converter.valuePattern();
+            }
+        };
+    }
+}
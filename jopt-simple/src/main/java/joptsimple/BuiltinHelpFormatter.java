@@ -25,17 +25,23 @@
 
 package joptsimple;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
 import joptsimple.internal.Rows;
+import joptsimple.internal.StreamingRows;
 import joptsimple.internal.Strings;
 
+import static java.util.Arrays.*;
+
 import static joptsimple.ParserRules.*;
 import static joptsimple.internal.Classes.*;
 import static joptsimple.internal.Strings.*;
@@ -50,8 +56,9 @@ import static joptsimple.internal.Strings.*;
  * @author <a href="mailto:pholser@alumni.rice.edu">Paul Holser</a>
  */
 public class BuiltinHelpFormatter implements HelpFormatter {
-    private final Rows nonOptionRows;
-    private final Rows optionRows;
+    private final int overallWidth;
+    private final int columnSeparatorWidth;
+    private final Locale locale;
 
     /**
      * Makes a formatter with a pre-configured overall row width and column separator width.
@@ -68,11 +75,77 @@ public class BuiltinHelpFormatter implements HelpFormatter {
      * description column
      */
     public BuiltinHelpFormatter( int desiredOverallWidth, int desiredColumnSeparatorWidth ) {
-        nonOptionRows = new Rows( desiredOverallWidth * 2, 0 );
-        optionRows = new Rows( desiredOverallWidth, desiredColumnSeparatorWidth );
+        this( desiredOverallWidth, desiredColumnSeparatorWidth, Locale.US );
+    }
+
+    /**
+     * Makes a formatter with a given overall row width and column separator width, which breaks descriptions into
+     * lines by the rules of the given locale.
+     *
+     * @param desiredOverallWidth how many characters wide to make the overall help display
+     * @param desiredColumnSeparatorWidth how many characters wide to make the separation between option column and
+     * description column
+     * @param locale the locale whose rules for breaking lines to follow
+     * @throws NullPointerException if {@code locale} is {@code null}
+     */
+    public BuiltinHelpFormatter( int desiredOverallWidth, int desiredColumnSeparatorWidth, Locale locale ) {
+        if ( locale == null )
+            throw new NullPointerException( "illegal null locale" );
+
+        overallWidth = desiredOverallWidth;
+        columnSeparatorWidth = desiredColumnSeparatorWidth;
+        this.locale = locale;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The formatter keeps nothing between calls, so one can be shared, and used by several threads at once.</p>
+     */
     public String format( Map<String, ? extends OptionDescriptor> options ) {
+        Set<OptionDescriptor> sorted = sorted( options );
+        StringBuilder formatted = new StringBuilder( nonOptionsDisplay( sorted ) );
+
+        Rows optionRows = new Rows( overallWidth, columnSeparatorWidth, locale );
+        try {
+            addOptionRows( sorted, optionRows::add );
+        } catch ( IOException e ) {
+            throw new AssertionError( e );
+        }
+        optionRows.fitToWidth();
+
+        return formatted.append( optionRows.render() ).toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The widths of the columns are measured before anything is written, after which the rows are written one at a
+     * time; the help is never held whole.</p>
+     */
+    @Override
+    public void formatTo( Map<String, ? extends OptionDescriptor> options, Writer sink ) throws IOException {
+        Set<OptionDescriptor> sorted = sorted( options );
+        sink.write( nonOptionsDisplay( sorted ) );
+
+        StreamingRows optionRows = new StreamingRows( overallWidth, columnSeparatorWidth, locale );
+        addOptionRows( sorted, optionRows::measure );
+        addOptionRows( sorted, optionRows::measureFitted );
+        addOptionRows( sorted, ( option, description ) -> optionRows.write( option, description, sink ) );
+    }
+
+    /*
+     * Gives what tells the output of this formatter from that of others, or null if the output of a subclass, which
+     * may differ in ways this class cannot tell.
+     */
+    final Object renderingKey() {
+        if ( getClass() != BuiltinHelpFormatter.class )
+            return null;
+
+        return asList( overallWidth, columnSeparatorWidth, locale );
+    }
+
+    private Set<OptionDescriptor> sorted( Map<String, ? extends OptionDescriptor> options ) {
         Comparator<OptionDescriptor> comparator =
             new Comparator<OptionDescriptor>() {
                 public int compare( OptionDescriptor first, OptionDescriptor second ) {
@@ -82,36 +155,31 @@ public class BuiltinHelpFormatter implements HelpFormatter {
 
         Set<OptionDescriptor> sorted = new TreeSet<OptionDescriptor>( comparator );
         sorted.addAll( options.values() );
-
-        addRows( sorted );
-
-        return formattedHelpOutput();
+        return sorted;
     }
 
-    private String formattedHelpOutput() {
-        StringBuilder formatted = new StringBuilder();
-        String nonOptionDisplay = nonOptionRows.render();
-        if ( !Strings.isNullOrEmpty( nonOptionDisplay ) )
-            formatted.append( nonOptionDisplay ).append( LINE_SEPARATOR );
-        formatted.append( optionRows.render() );
+    /*
+     * Takes the non-options spec out of the given descriptors, and gives what to show of it ahead of the options.
+     */
+    private String nonOptionsDisplay( Collection<? extends OptionDescriptor> options ) {
+        Rows nonOptionRows = new Rows( overallWidth * 2, 0, locale );
+        addNonOptionsDescription( options, nonOptionRows );
+        nonOptionRows.fitToWidth();
 
-        return formatted.toString();
+        String nonOptionDisplay = nonOptionRows.render();
+        return Strings.isNullOrEmpty( nonOptionDisplay ) ? "" : nonOptionDisplay + LINE_SEPARATOR;
     }
 
-    private void addRows( Collection<? extends OptionDescriptor> options ) {
-        addNonOptionsDescription( options );
-
+    private void addOptionRows( Collection<? extends OptionDescriptor> options, RowSink rows ) throws IOException {
         if ( options.isEmpty() )
-            optionRows.add( "No options specified", "" );
+            rows.add( "No options specified", "" );
         else {
-            addHeaders( options );
-            addOptions( options );
+            addHeaders( options, rows );
+            addOptions( options, rows );
         }
-
-        fitRowsToWidth();
     }
 
-    private void addNonOptionsDescription( Collection<? extends OptionDescriptor> options ) {
+    private void addNonOptionsDescription( Collection<? extends OptionDescriptor> options, Rows nonOptionRows ) {
         OptionDescriptor nonOptions = findAndRemoveNonOptionsSpec( options );
         if ( shouldShowNonOptionArgumentDisplay( nonOptions ) ) {
             nonOptionRows.add( "Non-option arguments:", "" );
@@ -150,7 +218,7 @@ public class BuiltinHelpFormatter implements HelpFormatter {
         throw new AssertionError( "no non-options argument spec" );
     }
 
-    private void addHeaders( Collection<? extends OptionDescriptor> options ) {
+    private void addHeaders( Collection<? extends OptionDescriptor> options, RowSink optionRows ) throws IOException {
         if ( hasRequiredOption( options ) ) {
             optionRows.add("Option (* = required)", "Description");
             optionRows.add("---------------------", "-----------");
@@ -169,7 +237,7 @@ public class BuiltinHelpFormatter implements HelpFormatter {
         return false;
     }
 
-    private void addOptions( Collection<? extends OptionDescriptor> options ) {
+    private void addOptions( Collection<? extends OptionDescriptor> options, RowSink optionRows ) throws IOException {
         for ( OptionDescriptor each : options ) {
             if ( !each.representsNonOptions() )
                 optionRows.add( createOptionDisplay( each ), createDescriptionDisplay( each ) );
@@ -183,6 +251,8 @@ public class BuiltinHelpFormatter implements HelpFormatter {
             String option = i.next();
             buffer.append( option.length() > 1 ? DOUBLE_HYPHEN : HYPHEN );
             buffer.append( option );
+            if ( descriptor.representsOptionFamily() )
+                buffer.append( "<name>" );
 
             if ( i.hasNext() )
                 buffer.append( ", " );
@@ -245,8 +315,10 @@ public class BuiltinHelpFormatter implements HelpFormatter {
         return defaultValues.size() == 1 ? defaultValues.get( 0 ).toString() : defaultValues.toString();
     }
 
-    private void fitRowsToWidth() {
-        nonOptionRows.fitToWidth();
-        optionRows.fitToWidth();
+    /*
+     * Takes the rows of options, in turn, for measuring or writing.
+     */
+    private interface RowSink {
+        void add( String option, String description ) throws IOException;
     }
 }
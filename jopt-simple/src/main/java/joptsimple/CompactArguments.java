@@ -0,0 +1,212 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.*;
+
+/**
+ * <p>Holds the arguments of an option back to back in one arena of characters, with a table of the offsets at which
+ * each argument ends, rather than as a string apiece.</p>
+ *
+ * <p>Like compact strings, the arena takes one byte per character while every character is in Latin-1, and is widened
+ * to two bytes per character when one is not.  The arena may live outside the heap.  Strings are made only when
+ * arguments are read through the list view.</p>
+ */
+final class CompactArguments extends ArgumentStore {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final boolean offHeap;
+    private ByteBuffer arena;
+    private boolean wide;
+    private int length;
+    private int[] ends = new int[ 16 ];
+    private int size;
+
+    CompactArguments( boolean offHeap ) {
+        this.offHeap = offHeap;
+        arena = allocate( INITIAL_CAPACITY );
+    }
+
+    /*
+     * Holds the arguments whose characters fill the given arena, one byte apiece or, if wide, two, and end at the
+     * given offsets.  The arena is read as it is, not copied.
+     */
+    CompactArguments( ByteBuffer arena, boolean wide, int[] ends ) {
+        offHeap = arena.isDirect();
+        this.arena = arena;
+        this.wide = wide;
+        this.ends = ends;
+        size = ends.length;
+        length = size == 0 ? 0 : ends[ size - 1 ];
+    }
+
+    @Override
+    void add( String source, int start, int end ) {
+        if ( !wide && !isLatin1( source, start, end ) )
+            widen();
+
+        ensureCapacity( length + end - start );
+        if ( wide ) {
+            for ( int i = start, position = 2 * length; i < end; ++i, position += 2 )
+                arena.putChar( position, source.charAt( i ) );
+        } else {
+            for ( int i = start, position = length; i < end; ++i, ++position )
+                arena.put( position, (byte) source.charAt( i ) );
+        }
+        length += end - start;
+
+        if ( size == ends.length )
+            ends = Arrays.copyOf( ends, grown( size ) );
+        ends[ size++ ] = length;
+    }
+
+    @Override
+    ArgumentCursor cursor() {
+        return new ArgumentCursor() {
+            private int index = -1;
+            private int start;
+            private int end;
+
+            public boolean next() {
+                if ( index + 1 >= size )
+                    return false;
+
+                ++index;
+                start = startOf( index );
+                end = ends[ index ];
+                return true;
+            }
+
+            public int length() {
+                return end - start;
+            }
+
+            public char charAt( int position ) {
+                if ( position < 0 || position >= end - start )
+                    throw new IndexOutOfBoundsException( String.valueOf( position ) );
+
+                return charAtOffset( start + position );
+            }
+
+            public CharSequence subSequence( int from, int to ) {
+                if ( from < 0 || to > end - start || from > to )
+                    throw new IndexOutOfBoundsException( "[" + from + ", " + to + ')' );
+
+                return string( start + from, start + to );
+            }
+
+            @Override
+            public String toString() {
+                return string( start, end );
+            }
+        };
+    }
+
+    @Override
+    public String get( int index ) {
+        checkIndex( index );
+        return string( startOf( index ), ends[ index ] );
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /*
+     * Gives the number of bytes held for the arguments, whether on or off the heap.
+     */
+    long footprint() {
+        return arena.capacity() + 4L * ends.length;
+    }
+
+    private int startOf( int index ) {
+        return index == 0 ? 0 : ends[ index - 1 ];
+    }
+
+    private char charAtOffset( int offset ) {
+        return wide ? arena.getChar( 2 * offset ) : (char) ( arena.get( offset ) & 0xFF );
+    }
+
+    private String string( int start, int end ) {
+        if ( wide ) {
+            char[] chars = new char[ end - start ];
+            for ( int i = 0; i < chars.length; ++i )
+                chars[ i ] = arena.getChar( 2 * ( start + i ) );
+            return new String( chars );
+        }
+
+        byte[] bytes = new byte[ end - start ];
+        ByteBuffer view = arena.duplicate();
+        view.position( start );
+        view.get( bytes );
+        return new String( bytes, ISO_8859_1 );
+    }
+
+    private void ensureCapacity( int characters ) {
+        long needed = wide ? 2L * characters : characters;
+        if ( needed <= arena.capacity() )
+            return;
+        if ( needed > Integer.MAX_VALUE )
+            throw new IllegalStateException( "Arguments exceed the capacity of compact storage" );
+
+        ByteBuffer grown = allocate( (int) Math.min( Integer.MAX_VALUE, Math.max( needed, grown( arena.capacity() ) ) ) );
+        ByteBuffer used = arena.duplicate();
+        used.position( 0 );
+        used.limit( wide ? 2 * length : length );
+        grown.put( used );
+        arena = grown;
+    }
+
+    private void widen() {
+        ByteBuffer widened = allocate( (int) Math.min( Integer.MAX_VALUE, 2L * arena.capacity() ) );
+        for ( int i = 0; i < length; ++i )
+            widened.putChar( 2 * i, (char) ( arena.get( i ) & 0xFF ) );
+
+        arena = widened;
+        wide = true;
+    }
+
+    private ByteBuffer allocate( int capacity ) {
+        return offHeap ? ByteBuffer.allocateDirect( capacity ) : ByteBuffer.allocate( capacity );
+    }
+
+    private static int grown( int capacity ) {
+        return (int) Math.min( Integer.MAX_VALUE - 8, capacity + ( capacity >> 1 ) + 16L );
+    }
+
+    private static boolean isLatin1( String source, int start, int end ) {
+        for ( int i = start; i < end; ++i ) {
+            if ( source.charAt( i ) > 0xFF )
+                return false;
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple;
+
+import java.util.List;
+
+import static java.util.Collections.*;
+
+/**
+ * <p>What {@link OptionCompleter} offers for the word being completed on a command line: either candidate words, or
+ * the names of files, which are best left to the shell to complete.</p>
+ *
+ * @see OptionCompleter#complete(List)
+ */
+public final class Completions {
+    private static final Completions NONE = new Completions( emptyList(), false );
+    private static final Completions FILES = new Completions( emptyList(), true );
+
+    private final List<String> candidates;
+    private final boolean files;
+
+    private Completions( List<String> candidates, boolean files ) {
+        this.candidates = candidates;
+        this.files = files;
+    }
+
+    static Completions of( List<String> candidates ) {
+        return new Completions( unmodifiableList( candidates ), false );
+    }
+
+    static Completions none() {
+        return NONE;
+    }
+
+    static Completions ofFiles() {
+        return FILES;
+    }
+
+    /**
+     * @return the words that can complete the word being completed, each whole, in order; empty if there are none, or
+     * if the word is the name of a file
+     */
+    public List<String> candidates() {
+        return candidates;
+    }
+
+    /**
+     * @return whether the word being completed is the name of a file
+     */
+    public boolean completesFiles() {
+        return files;
+    }
+}
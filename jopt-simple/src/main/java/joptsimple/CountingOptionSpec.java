@@ -0,0 +1,85 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Specification of an option that accepts no argument, but whose number of occurrences on a command line is of
+ * interest; for example, a verbosity option given as {@code -vvv}.
+ *
+ * <p>Instances are returned from {@link OptionSpecBuilder#counted()}.</p>
+ */
+public class CountingOptionSpec extends NoArgumentOptionSpec {
+    CountingOptionSpec( List<String> options, String description ) {
+        super( options, description );
+    }
+
+    @Override
+    void handleOption( OptionParser parser, ArgumentList arguments, OptionSet detectedOptions,
+        String detectedArgument ) {
+
+        ( (OccurrenceCount) detectedOptions.detect( this ) ).increment();
+    }
+
+    @Override
+    List<String> newArgumentList() {
+        return new OccurrenceCount();
+    }
+
+    /**
+     * Gives the number of times this spec's option occurs in the given set of detected options.
+     *
+     * @param detectedOptions the detected options to search in
+     * @return the number of occurrences of this spec's option; zero if it was not detected
+     */
+    public int valueAsInt( OptionSet detectedOptions ) {
+        OccurrenceCount count = (OccurrenceCount) detectedOptions.argumentsOf( this );
+        return count == null ? 0 : count.value;
+    }
+
+    /*
+     * The option has no arguments, so the list is always empty; it merely carries the count.
+     */
+    private static final class OccurrenceCount extends AbstractList<String> {
+        private int value;
+
+        void increment() {
+            ++value;
+        }
+
+        @Override
+        public String get( int index ) {
+            throw new IndexOutOfBoundsException( "Index: " + index + ", Size: 0" );
+        }
+
+        @Override
+        public int size() {
+            return 0;
+        }
+    }
+}
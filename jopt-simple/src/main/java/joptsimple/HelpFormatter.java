@@ -25,6 +25,8 @@
 
 package joptsimple;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Map;
 
 /**
@@ -42,4 +44,19 @@ public interface HelpFormatter {
      * @see OptionParser#formatHelpWith(HelpFormatter)
      */
     String format( Map<String, ? extends OptionDescriptor> options );
+
+    /**
+     * Writes help text, given a set of option descriptors, to the given sink.
+     *
+     * <p>This implementation writes what {@link #format(Map)} gives.  Formatters that can write their help a piece at
+     * a time, rather than make it whole first, should override it.</p>
+     *
+     * @param options descriptors for the configured options of a parser
+     * @param sink where to write the help
+     * @throws IOException if there is a problem writing to the sink
+     * @see OptionParser#printHelpOn(Writer)
+     */
+    default void formatTo( Map<String, ? extends OptionDescriptor> options, Writer sink ) throws IOException {
+        sink.write( format( options ) );
+    }
 }
@@ -0,0 +1,58 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple;
+
+/**
+ * Thrown by {@link ValueConverter#convertAll(java.util.List)} to name the position of the value that could not be
+ * converted, so that the other values need not be converted again to find it.
+ */
+public class IndexedValueConversionException extends ValueConversionException {
+    private static final long serialVersionUID = -1L;
+
+    private final int index;
+
+    /**
+     * Creates a new exception for the value at the given position, which failed to convert with the given exception.
+     *
+     * @param index position of the value at fault
+     * @param cause the failure to convert the value
+     * @throws NullPointerException if {@code cause} is {@code null}
+     */
+    public IndexedValueConversionException( int index, ValueConversionException cause ) {
+        super( cause.getMessage(), cause );
+
+        this.index = index;
+    }
+
+    /**
+     * Gives the position of the value that could not be converted.
+     *
+     * @return the position, in the list given to {@code convertAll}, of the value at fault
+     */
+    public int index() {
+        return index;
+    }
+}
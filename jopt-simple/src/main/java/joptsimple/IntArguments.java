@@ -0,0 +1,84 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Holds the arguments of an option as unboxed {@code int}s, presenting them as strings to callers that want the raw
+ * arguments.
+ */
+final class IntArguments extends AbstractList<String> implements RandomAccess {
+    private int[] values = new int[ 4 ];
+    private int size;
+
+    IntArguments() {
+    }
+
+    /*
+     * Holds the given values, which are not copied.
+     */
+    IntArguments( int[] values ) {
+        this.values = values;
+        size = values.length;
+    }
+
+    void addInt( int value ) {
+        if ( size == values.length )
+            values = Arrays.copyOf( values, size * 2 );
+
+        values[ size++ ] = value;
+    }
+
+    int getInt( int index ) {
+        if ( index >= size )
+            throw new IndexOutOfBoundsException( "Index: " + index + ", Size: " + size );
+
+        return values[ index ];
+    }
+
+    int[] toIntArray() {
+        return Arrays.copyOf( values, size );
+    }
+
+    @Override
+    public boolean add( String argument ) {
+        addInt( Integer.parseInt( argument ) );
+        return true;
+    }
+
+    @Override
+    public String get( int index ) {
+        return String.valueOf( getInt( index ) );
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Specification of an option that requires an argument of type {@code long}.
+ *
+ * <p>Instances are returned from {@link OptionSpecBuilder#withRequiredLongArg()}. Arguments are held without boxing,
+ * and can be retrieved so via {@link #valueAsLong(OptionSet)} and {@link #valuesAsLongArray(OptionSet)}. They are
+ * converted as the command line is parsed, so an argument that is not a valid {@code long} causes
+ * {@link OptionParser#parse(String...)} to throw {@link OptionException}.</p>
+ *
+ * <p>The type of this spec's arguments is fixed: {@link #ofType(Class) ofType} and
+ * {@link #withValuesConvertedBy(ValueConverter) withValuesConvertedBy} throw {@link IllegalStateException}.</p>
+ */
+public class LongOptionSpec extends PrimitiveArgumentOptionSpec<Long> {
+    LongOptionSpec( List<String> options, String description ) {
+        super( options, description, Long.class );
+    }
+
+    /**
+     * Gives the argument of this spec's option in the given set of detected options, or its default value if the
+     * option was not detected.
+     *
+     * @param detectedOptions the detected options to search in
+     * @return the argument of this spec's option
+     * @throws java.util.NoSuchElementException if the option was not detected and has no default value
+     * @throws OptionException if more than one argument was detected for the option
+     */
+    public long valueAsLong( OptionSet detectedOptions ) {
+        LongArguments values = valuesIn( detectedOptions );
+        ensureSingleValue( values );
+
+        return values.getLong( 0 );
+    }
+
+    /**
+     * Gives the arguments of this spec's option in the given set of detected options, or its default values if the
+     * option was not detected.
+     *
+     * @param detectedOptions the detected options to search in
+     * @return the arguments of this spec's option, in the order they were detected; never {@code null}
+     */
+    public long[] valuesAsLongArray( OptionSet detectedOptions ) {
+        return valuesIn( detectedOptions ).toLongArray();
+    }
+
+    private LongArguments valuesIn( OptionSet detectedOptions ) {
+        LongArguments values = (LongArguments) detectedOptions.argumentsOf( this );
+        if ( values != null && !values.isEmpty() )
+            return values;
+
+        LongArguments defaults = new LongArguments();
+        for ( Long each : defaultValues() )
+            defaults.addLong( each );
+
+        return defaults;
+    }
+
+    @Override
+    List<String> newArgumentList() {
+        return new LongArguments();
+    }
+
+    @Override
+    void store( OptionSet detectedOptions, String source, int start, int end ) {
+        long value = Long.parseLong( source, start, end, 10 );
+        ( (LongArguments) detectedOptions.detect( this ) ).addLong( value );
+    }
+
+    @Override
+    List<Long> convertArguments( List<String> arguments ) {
+        LongArguments values = (LongArguments) arguments;
+        List<Long> convertedValues = new ArrayList<Long>( values.size() );
+        for ( int i = 0; i < values.size(); ++i )
+            convertedValues.add( values.getLong( i ) );
+
+        return convertedValues;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.*;
+
+import joptsimple.internal.CompactMap;
+
+/**
+ * Holds the {@code key=value} arguments of a map-valued option, together with the map they make, which is kept up to
+ * date as arguments are added so that reading it costs nothing.
+ *
+ * @param <V> represents the type of the values in the map
+ */
+final class MapArguments<V> extends ArgumentStore {
+    private final MapOptionSpec<V> spec;
+    private final ArgumentStore arguments;
+    private final List<V> values = new ArrayList<V>();
+    private final CompactMap<V> map = new CompactMap<V>();
+    private final Map<String, V> view = unmodifiableMap( map );
+
+    MapArguments( MapOptionSpec<V> spec, ArgumentStore arguments ) {
+        this.spec = spec;
+        this.arguments = arguments;
+    }
+
+    /*
+     * Splits the argument at its first =, converting the value with the spec's converter.
+     */
+    @Override
+    void add( String source, int start, int end ) {
+        int keyEnd = MapOptionSpec.keyEnd( source, start, end );
+        add( source, start, end, keyEnd, spec.convert( source, keyEnd == end ? end : keyEnd + 1, end ) );
+    }
+
+    /*
+     * Adds an argument whose value has already been converted; its key ends at keyEnd (exclusive).
+     */
+    void add( String source, int start, int end, int keyEnd, V value ) {
+        arguments.add( source, start, end );
+        values.add( value );
+
+        String key = source.substring( start, keyEnd );
+        if ( spec.keepsFirstValues() )
+            map.putIfAbsent( key, value );
+        else
+            map.put( key, value );
+    }
+
+    Map<String, V> map() {
+        return view;
+    }
+
+    List<V> values() {
+        return unmodifiableList( values );
+    }
+
+    @Override
+    ArgumentCursor cursor() {
+        return arguments.cursor();
+    }
+
+    @Override
+    public String get( int index ) {
+        return arguments.get( index );
+    }
+
+    @Override
+    public int size() {
+        return arguments.size();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Specification of an option whose arguments take the form {@code key=value}, such as the JVM's
+ * {@code -Dname=value} system properties, and are gathered into a map.</p>
+ *
+ * <p>Instances are returned from {@link OptionSpecBuilder#withValuesAsMap()} and its overloads. Each argument is split
+ * at its first {@code =} as it is detected; an argument without one makes a key whose value is converted from the
+ * empty string. Values are converted as the command line is parsed, so a value that cannot be converted causes
+ * {@link OptionParser#parse(String...)} to throw {@link OptionException}. When a key occurs more than once, the
+ * value that occurs last wins, unless {@link #firstWins()} says otherwise.</p>
+ *
+ * <p>Retrieve the map with {@link OptionSet#mapOf(MapOptionSpec)}; {@link OptionSet#valuesOf(OptionSpec)} gives the
+ * values of all the arguments in the order they were detected, duplicate keys included.</p>
+ *
+ * <p>You <em>should not</em> change the type of this spec's values using {@link #ofType(Class) ofType} or
+ * {@link #withValuesConvertedBy(ValueConverter) withValuesConvertedBy}, nor give it default values.</p>
+ *
+ * @param <V> represents the type of the values in the map
+ */
+public class MapOptionSpec<V> extends RequiredArgumentOptionSpec<V> {
+    private boolean firstWins;
+
+    MapOptionSpec( List<String> options, String description, ValueConverter<V> valueConverter ) {
+        super( options, description );
+
+        if ( valueConverter != null )
+            withValuesConvertedBy( valueConverter );
+        describedAs( "key=value" );
+    }
+
+    /**
+     * Has the first value given for a key win over later ones.
+     *
+     * @return self, so that the caller can add clauses to the fluent interface sentence
+     */
+    public final MapOptionSpec<V> firstWins() {
+        firstWins = true;
+        return this;
+    }
+
+    /**
+     * Has the last value given for a key win over earlier ones.  This is the default.
+     *
+     * @return self, so that the caller can add clauses to the fluent interface sentence
+     */
+    public final MapOptionSpec<V> lastWins() {
+        firstWins = false;
+        return this;
+    }
+
+    /**
+     * Gives the map made of the arguments of this spec's option in the given set of detected options.
+     *
+     * @param detectedOptions the detected options to search in
+     * @return an unmodifiable map of the arguments of this spec's option, in the order their keys were first
+     * detected; empty if the option was not detected
+     */
+    public final Map<String, V> map( OptionSet detectedOptions ) {
+        return detectedOptions.mapOf( this );
+    }
+
+    /*
+     * An argument whose value cannot be converted is reported rather than recorded.  The value is converted once,
+     * here; the converter's own check, when it has one, spares the failed conversion.
+     */
+    @Override
+    final void addArgument( OptionParser parser, ArgumentList arguments, OptionSet detectedOptions, String source,
+        int start, int end ) {
+
+        int keyEnd = keyEnd( source, start, end );
+        int valueStart = keyEnd == end ? end : keyEnd + 1;
+        if ( checksConversions() && !canConvert( source, valueStart, end ) ) {
+            arguments.reportProblem( conversionProblem( source, valueStart, end ), arguments.previousIndex() );
+            return;
+        }
+
+        V value;
+        try {
+            value = convert( source, valueStart, end );
+        } catch ( OptionException problem ) {
+            arguments.reportProblem( problem, arguments.previousIndex() );
+            return;
+        }
+
+        MapOptionSpec.<V> storage( detectedOptions.detect( this ) ).add( source, start, end, keyEnd, value );
+    }
+
+    final boolean keepsFirstValues() {
+        return firstWins;
+    }
+
+    /*
+     * Answers the index of the first = in source from start (inclusive) to end (exclusive), or end if there is none.
+     */
+    static int keyEnd( String source, int start, int end ) {
+        int equalsIndex = source.indexOf( '=', start );
+        return equalsIndex == -1 || equalsIndex >= end ? end : equalsIndex;
+    }
+
+    @Override
+    List<String> newArgumentList() {
+        return new MapArguments<V>( this, (ArgumentStore) super.newArgumentList() );
+    }
+
+    @Override
+    final List<V> convertArguments( List<String> arguments ) {
+        return MapOptionSpec.<V> storage( arguments ).values();
+    }
+
+    @SuppressWarnings( "unchecked" )
+    static <V> MapArguments<V> storage( List<String> arguments ) {
+        return (MapArguments<V>) arguments;
+    }
+}
@@ -92,6 +92,7 @@ public class NonOptionArgumentSpec<V> extends AbstractOptionSpec<V> {
     @SuppressWarnings( "unchecked" )
     public <T> NonOptionArgumentSpec<T> ofType( Class<T> argumentType ) {
         converter = (ValueConverter<V>) findConverter( argumentType );
+        revise();
         return (NonOptionArgumentSpec<T>) this;
     }
 
@@ -113,6 +114,7 @@ public class NonOptionArgumentSpec<V> extends AbstractOptionSpec<V> {
             throw new NullPointerException( "illegal null converter" );
 
         converter = (ValueConverter<V>) aConverter;
+        revise();
         return (NonOptionArgumentSpec<T>) this;
     }
 
@@ -125,6 +127,38 @@ public class NonOptionArgumentSpec<V> extends AbstractOptionSpec<V> {
      */
     public NonOptionArgumentSpec<V> describedAs( String description ) {
         argumentDescription = description;
+        revise();
+        return this;
+    }
+
+    final ValueConverter<V> converter() {
+        return converter;
+    }
+
+    /**
+     * <p>Has the non-option arguments kept back to back in one compact block of characters, rather than as a string
+     * apiece.  This greatly reduces the memory held by an option set when there are very many non-option arguments,
+     * such as file names piped through {@code xargs}.</p>
+     *
+     * <p>Strings are then made only as arguments are read.  If no converter is given, {@link OptionSet#valuesOf(OptionSpec)}
+     * gives a view that makes each string on access; {@link OptionSet#argumentCursor(OptionSpec)} reads arguments
+     * without making strings at all.</p>
+     *
+     * @return self, so that the caller can add clauses to the fluent interface sentence
+     */
+    public NonOptionArgumentSpec<V> withCompactStorage() {
+        storeCompactly( false );
+        return this;
+    }
+
+    /**
+     * Has the non-option arguments kept in {@linkplain #withCompactStorage() compact storage} outside the heap, in a
+     * direct {@link java.nio.ByteBuffer}.
+     *
+     * @return self, so that the caller can add clauses to the fluent interface sentence
+     */
+    public NonOptionArgumentSpec<V> withOffHeapStorage() {
+        storeCompactly( true );
         return this;
     }
 
@@ -133,11 +167,42 @@ public class NonOptionArgumentSpec<V> extends AbstractOptionSpec<V> {
         return convertWith( converter, argument );
     }
 
+    @Override
+    final V convert( CharSequence source, int start, int end ) {
+        return convertWith( converter, source, start, end );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    @Override
+    final List<V> convertArguments( List<String> arguments ) {
+        if ( converter == null && arguments instanceof CompactArguments )
+            return (List<V>) arguments;
+        if ( convertsInBulk( converter ) )
+            return convertAllWith( converter, arguments );
+
+        return super.convertArguments( arguments );
+    }
+
+    @Override
+    final boolean canConvert( String source, int start, int end ) {
+        return canConvertWith( converter, source, start, end );
+    }
+
+    @Override
+    final boolean checksConversions() {
+        return checksConversionsWith( converter );
+    }
+
+    @Override
+    final AsyncValueConverter<V> asyncConverter() {
+        return asyncConverterFrom( converter );
+    }
+
     @Override
     void handleOption( OptionParser parser, ArgumentList arguments, OptionSet detectedOptions,
         String detectedArgument ) {
 
-        detectedOptions.addWithArgument( this, detectedArgument );
+        addArgument( parser, arguments, detectedOptions, detectedArgument );
     }
 
     public List<?> defaultValues() {
@@ -0,0 +1,345 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static java.util.Arrays.*;
+
+import joptsimple.util.EnumConverter;
+
+import static joptsimple.internal.Strings.*;
+
+/**
+ * <p>Completes command lines for the options of a parser, as shells complete them when the tab key is pressed.</p>
+ *
+ * <p>Options are completed from their names, which are found by walking only those that begin with what was typed.
+ * The argument of an option is completed from the constants of its enum type, or left to the shell if it is a
+ * {@link File} or {@link Path}; non-option arguments likewise.</p>
+ *
+ * <p>A shell asks a program for completions through a script, as {@link #bashScript(String)} and
+ * {@link #zshScript(String)} give.  The script runs the program with {@value #COMPLETION_REQUEST} and the command line
+ * as typed so far, which the program hands to {@link #answer(String[], Writer)} before anything else:</p>
+ *
+ * <pre>
+ *   <code>
+ *   public static void main( String[] args ) throws IOException {
+ *       OptionParser parser = ...;
+ *       Writer out = new OutputStreamWriter( System.out );
+ *       if ( new OptionCompleter( parser ).answer( args, out ) )
+ *           return;
+ *       ...
+ *   }
+ *   </code>
+ * </pre>
+ *
+ * <p>Words of a command line are told apart by whitespace; quotes are not interpreted.  A completer keeps nothing
+ * between completions; it sees the parser as it is when asked.</p>
+ *
+ * @see Completions
+ */
+public final class OptionCompleter {
+    /**
+     * The first argument with which a completion script runs the program it completes for.
+     */
+    public static final String COMPLETION_REQUEST = "__complete";
+
+    private final OptionParser parser;
+
+    /**
+     * Makes a completer for the options of the given parser.
+     *
+     * @param parser the parser whose options to complete
+     * @throws NullPointerException if {@code parser} is {@code null}
+     */
+    public OptionCompleter( OptionParser parser ) {
+        if ( parser == null )
+            throw new NullPointerException( "illegal null parser" );
+
+        this.parser = parser;
+    }
+
+    /**
+     * Completes the last of the given words of a command line.
+     *
+     * @param words the words after the name of the command, up to and including the one being completed
+     * @return what can complete the last word
+     * @throws NullPointerException if {@code words} is {@code null}
+     * @see #complete(List)
+     */
+    public Completions complete( String... words ) {
+        return complete( asList( words ) );
+    }
+
+    /**
+     * <p>Completes the last of the given words of a command line.  The words before it tell whether it is an option,
+     * the argument of an option, or a non-option argument:</p>
+     *
+     * <ul>
+     *   <li>after {@code --}, every word is a non-option argument</li>
+     *   <li>a word after an option that takes an argument, given without one, is that argument, unless the argument
+     *   is optional and the word begins with a hyphen</li>
+     *   <li>a word of the form {@code --option=argument} is the argument of the option</li>
+     *   <li>any other word that begins with a hyphen is an option</li>
+     * </ul>
+     *
+     * @param words the words after the name of the command, up to and including the one being completed
+     * @return what can complete the last word; nothing if there are no words
+     * @throws NullPointerException if {@code words} is {@code null}
+     */
+    public Completions complete( List<String> words ) {
+        if ( words.isEmpty() )
+            return Completions.none();
+
+        boolean nonOptionsOnly = false;
+        AbstractOptionSpec<?> awaitingArgument = null;
+        for ( String each : words.subList( 0, words.size() - 1 ) ) {
+            if ( nonOptionsOnly )
+                continue;
+            if ( takesAsArgument( awaitingArgument, each ) ) {
+                awaitingArgument = null;
+                continue;
+            }
+
+            awaitingArgument = null;
+            if ( "--".equals( each ) )
+                nonOptionsOnly = true;
+            else {
+                AbstractOptionSpec<?> spec = optionNamedBy( each );
+                if ( spec != null && spec.acceptsArguments() )
+                    awaitingArgument = spec;
+            }
+        }
+
+        String word = words.get( words.size() - 1 );
+        if ( nonOptionsOnly )
+            return argumentsOf( parser.specFor( NonOptionArgumentSpec.NAME ), "", word );
+        if ( takesAsArgument( awaitingArgument, word ) )
+            return argumentsOf( awaitingArgument, "", word );
+        if ( word.startsWith( "--" ) && word.indexOf( '=' ) > 2 ) {
+            int equals = word.indexOf( '=' );
+            AbstractOptionSpec<?> spec = longOptionNamed( word.substring( 2, equals ) );
+            return spec == null || !spec.acceptsArguments()
+                ? Completions.none()
+                : argumentsOf( spec, word.substring( 0, equals + 1 ), word.substring( equals + 1 ) );
+        }
+        if ( word.startsWith( "-" ) )
+            return optionsBeginning( word );
+
+        return argumentsOf( parser.specFor( NonOptionArgumentSpec.NAME ), "", word );
+    }
+
+    /**
+     * Completes the last word of a command line as typed up to the cursor.
+     *
+     * @param line the command line, beginning with the name of the command
+     * @return what can complete the last word; nothing if there is no word after the name of the command
+     * @throws NullPointerException if {@code line} is {@code null}
+     */
+    public Completions completeLine( String line ) {
+        List<String> words = new ArrayList<String>( asList( line.trim().split( "\\s+" ) ) );
+        if ( !line.isEmpty() && Character.isWhitespace( line.charAt( line.length() - 1 ) ) )
+            words.add( "" );
+
+        return complete( words.subList( 1, Math.max( 1, words.size() ) ) );
+    }
+
+    /**
+     * <p>Answers a request for completions from a completion script, if the given arguments of the program make one.
+     * The answer is a line saying {@code words} or {@code files}, followed by the candidate words, a line each.</p>
+     *
+     * <p>The sink is flushed, but not closed.</p>
+     *
+     * @param arguments the arguments the program was run with
+     * @param sink where to write the answer
+     * @return whether the arguments asked for completions; if not, nothing was written
+     * @throws IOException if there is a problem writing to the sink
+     * @throws NullPointerException if {@code arguments} or {@code sink} is {@code null}
+     */
+    public boolean answer( String[] arguments, Writer sink ) throws IOException {
+        if ( sink == null )
+            throw new NullPointerException( "illegal null sink" );
+        if ( arguments.length == 0 || !COMPLETION_REQUEST.equals( arguments[ 0 ] ) )
+            return false;
+
+        Completions completions = completeLine( arguments.length > 1 ? arguments[ 1 ] : "" );
+        sink.write( completions.completesFiles() ? "files" : "words" );
+        sink.write( LINE_SEPARATOR );
+        for ( String each : completions.candidates() ) {
+            sink.write( each );
+            sink.write( LINE_SEPARATOR );
+        }
+
+        sink.flush();
+        return true;
+    }
+
+    /**
+     * Gives a script that has bash complete the given command through this completer, for instance by running
+     * {@code source <(mytool --completion-script)}.
+     *
+     * @param command the name by which the command is run
+     * @return the script
+     * @throws IllegalArgumentException if {@code command} is empty, or has characters other than letters, digits and
+     * {@code _ . / + -} in it
+     */
+    public String bashScript( String command ) {
+        String function = "_" + functionNameFor( command ) + "_complete";
+        return lines(
+            "# bash completion for " + command,
+            function + "() {",
+            "    local line=\"${COMP_LINE:0:COMP_POINT}\"",
+            "    local cur=\"${COMP_WORDS[COMP_CWORD]}\"",
+            "    local word=\"${line##*[[:space:]]}\"",
+            "    local strip=\"${word%\"$cur\"}\"",
+            "    local IFS=$'\\n'",
+            "    local answer=( $(" + command + " " + COMPLETION_REQUEST + " \"$line\" 2>/dev/null) )",
+            "    if [ \"${answer[0]}\" = files ]; then",
+            "        COMPREPLY=( $(compgen -f -- \"$cur\") )",
+            "    else",
+            "        COMPREPLY=( \"${answer[@]:1}\" )",
+            "        COMPREPLY=( \"${COMPREPLY[@]#\"$strip\"}\" )",
+            "    fi",
+            "}",
+            "complete -F " + function + " " + command );
+    }
+
+    /**
+     * Gives a script that has zsh complete the given command through this completer, for instance by running
+     * {@code source <(mytool --completion-script)} once {@code compinit} has run.
+     *
+     * @param command the name by which the command is run
+     * @return the script
+     * @throws IllegalArgumentException if {@code command} is empty, or has characters other than letters, digits and
+     * {@code _ . / + -} in it
+     */
+    public String zshScript( String command ) {
+        String function = "_" + functionNameFor( command );
+        return lines(
+            "#compdef " + command,
+            function + "() {",
+            "    local line=\"${(j: :)words[1,CURRENT]}\"",
+            "    local -a answer",
+            "    answer=( \"${(@f)$(" + command + " " + COMPLETION_REQUEST + " \"$line\" 2>/dev/null)}\" )",
+            "    if [[ \"${answer[1]}\" == files ]]; then",
+            "        [[ $PREFIX == --*=* ]] && compset -P '*='",
+            "        _files",
+            "    else",
+            "        compadd -Q -- \"${(@)answer[2,-1]}\"",
+            "    fi",
+            "}",
+            "compdef " + function + " " + command );
+    }
+
+    private static boolean takesAsArgument( AbstractOptionSpec<?> spec, String word ) {
+        return spec != null && ( spec.requiresArgument() || !word.startsWith( "-" ) );
+    }
+
+    private AbstractOptionSpec<?> optionNamedBy( String word ) {
+        if ( word.startsWith( "--" ) )
+            return word.indexOf( '=' ) >= 0 ? null : longOptionNamed( word.substring( 2 ) );
+        if ( word.length() == 2 && word.charAt( 0 ) == '-' )
+            return parser.specFor( word.substring( 1 ) );
+        return null;
+    }
+
+    private AbstractOptionSpec<?> longOptionNamed( String name ) {
+        AbstractOptionSpec<?> spec = parser.specFor( name );
+        return spec == null ? parser.familyClaiming( name ) : spec;
+    }
+
+    /*
+     * The prefix of an option family has no spec of its own, and is offered as it is, as the start of a member.
+     */
+    private Completions optionsBeginning( String word ) {
+        List<String> candidates = new ArrayList<String>();
+        for ( String each : parser.optionsBeginningWith( word.substring( word.startsWith( "--" ) ? 2 : 1 ) ) ) {
+            AbstractOptionSpec<?> spec = parser.specFor( each );
+            String candidate = ( spec != null && each.length() == 1 ? "-" : "--" ) + each;
+            if ( candidate.startsWith( word ) && ( spec == null || !spec.representsNonOptions() ) )
+                candidates.add( candidate );
+        }
+
+        return Completions.of( candidates );
+    }
+
+    /*
+     * Enum constants are matched as their converter matches them: names are folded the same way when it ignores case.
+     */
+    private static Completions argumentsOf( AbstractOptionSpec<?> spec, String lead, String word ) {
+        ValueConverter<?> converter = argumentConverterOf( spec );
+        if ( converter == null )
+            return Completions.none();
+        Class<?> type = converter.valueType();
+        if ( File.class.equals( type ) || Path.class.isAssignableFrom( type ) )
+            return Completions.ofFiles();
+
+        List<String> candidates = new ArrayList<String>();
+        if ( type.isEnum() ) {
+            boolean ignoringCase =
+                converter instanceof EnumConverter<?> && ( (EnumConverter<?>) converter ).ignoresCase();
+            String prefix = ignoringCase ? word.toLowerCase( Locale.ROOT ) : word;
+            for ( Object each : type.getEnumConstants() ) {
+                String name = ( (Enum<?>) each ).name();
+                if ( ( ignoringCase ? name.toLowerCase( Locale.ROOT ) : name ).startsWith( prefix ) )
+                    candidates.add( lead + name );
+            }
+        }
+
+        return Completions.of( candidates );
+    }
+
+    private static ValueConverter<?> argumentConverterOf( AbstractOptionSpec<?> spec ) {
+        if ( spec instanceof MapOptionSpec<?> && !spec.representsOptionFamily() )
+            return null;
+        if ( spec instanceof ArgumentAcceptingOptionSpec<?> )
+            return ( (ArgumentAcceptingOptionSpec<?>) spec ).converter();
+        if ( spec instanceof NonOptionArgumentSpec<?> )
+            return ( (NonOptionArgumentSpec<?>) spec ).converter();
+
+        return null;
+    }
+
+    private static String functionNameFor( String command ) {
+        if ( !command.matches( "[A-Za-z0-9_./+-]+" ) )
+            throw new IllegalArgumentException( "illegal command name " + command );
+
+        String base = command.substring( command.lastIndexOf( '/' ) + 1 );
+        return base.replaceAll( "[^A-Za-z0-9_]", "_" );
+    }
+
+    private static String lines( String... lines ) {
+        StringBuilder script = new StringBuilder();
+        for ( String each : lines )
+            script.append( each ).append( '\n' );
+        return script.toString();
+    }
+}
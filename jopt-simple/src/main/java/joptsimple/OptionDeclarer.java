@@ -75,6 +75,34 @@ public interface OptionDeclarer {
      */
     OptionSpecBuilder acceptsAll( List<String> options, String description );
 
+    /**
+     * Tells the parser to recognize a family of long options that share the given prefix, such as
+     * {@code --feature.<name>=<value>} for the prefix {@code "feature."}, without declaring each of them.
+     *
+     * @param prefix prefix shared by the options of the family
+     * @return an object that can be used to flesh out more detail about the family
+     * @throws OptionException if the prefix contains illegal characters
+     * @throws NullPointerException if the prefix is {@code null}
+     * @throws IllegalArgumentException if the prefix is empty
+     * @see OptionFamilySpec
+     */
+    OptionFamilySpec<String> acceptsFamily( String prefix );
+
+    /**
+     * Tells the parser to recognize a family of long options that share the given prefix, without declaring each of
+     * them.
+     *
+     * @see #acceptsFamily(String)
+     * @param prefix prefix shared by the options of the family
+     * @param description a string that describes the purpose of the family. This is used when generating help
+     * information about the parser.
+     * @return an object that can be used to flesh out more detail about the family
+     * @throws OptionException if the prefix contains illegal characters
+     * @throws NullPointerException if the prefix is {@code null}
+     * @throws IllegalArgumentException if the prefix is empty
+     */
+    OptionFamilySpec<String> acceptsFamily( String prefix, String description );
+
     /**
      * Gives an object that represents an access point for non-option arguments on a command line.
      *
@@ -97,4 +97,15 @@ public interface OptionDescriptor {
      * @return {@code true} if this represents non-option arguments
      */
     boolean representsNonOptions();
+
+    /**
+     * Tells whether this object represents a family of options that share a prefix, in which case its only option is
+     * that prefix.
+     *
+     * @return {@code true} if this represents a family of options
+     * @see OptionParser#acceptsFamily(String)
+     */
+    default boolean representsOptionFamily() {
+        return false;
+    }
 }
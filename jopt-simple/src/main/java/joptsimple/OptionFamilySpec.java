@@ -0,0 +1,111 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple;
+
+import static java.util.Collections.*;
+
+import static joptsimple.internal.Reflection.*;
+import static joptsimple.internal.Strings.*;
+
+/**
+ * <p>Specification of a family of long options that share a prefix, such as {@code --feature.<name>=<value>},
+ * without declaring each member.</p>
+ *
+ * <p>Instances are returned from {@link OptionParser#acceptsFamily(String)}. Every long option that begins with the
+ * family's prefix, and is longer than it, is a member of the family, unless it is an option declared in full in its
+ * own right. Each member requires an argument, which is converted as the command line is parsed with the converter
+ * the family shares among its members. Members are gathered into a map from the part of their name after the prefix
+ * to their value, retrieved with {@link OptionSet#mapOf(MapOptionSpec)}. Members are not recognized by abbreviation,
+ * and help shows the family once.</p>
+ *
+ * <p>Arguments of members are not split by {@link #withValuesSeparatedBy(char) withValuesSeparatedBy}.</p>
+ *
+ * @param <V> represents the type of the values of the family's members
+ */
+public class OptionFamilySpec<V> extends MapOptionSpec<V> {
+    private final String prefix;
+
+    OptionFamilySpec( String prefix, String description ) {
+        super( singletonList( prefix ), description, null );
+
+        this.prefix = prefix;
+        describedAs( "value" );
+    }
+
+    /**
+     * Specifies a type to which the arguments of the family's members are to be converted, as does
+     * {@link #ofType(Class)} for other options.
+     *
+     * @param <T> represents the runtime class of the desired value type
+     * @param valueType desired type of the values of the family's members
+     * @return self, so that the caller can add clauses to the fluent interface sentence
+     * @throws NullPointerException if the type is {@code null}
+     * @throws IllegalArgumentException if the type does not have the standard conversion methods
+     */
+    public final <T> OptionFamilySpec<T> withMembersOfType( Class<T> valueType ) {
+        return withMembersConvertedBy( findConverter( valueType ) );
+    }
+
+    /**
+     * Specifies a converter to use to translate the arguments of the family's members into Java objects.
+     *
+     * @param <T> represents the runtime class of the desired value type
+     * @param valueConverter the converter to use
+     * @return self, so that the caller can add clauses to the fluent interface sentence
+     * @throws NullPointerException if the converter is {@code null}
+     */
+    @SuppressWarnings( "unchecked" )
+    public final <T> OptionFamilySpec<T> withMembersConvertedBy( ValueConverter<T> valueConverter ) {
+        withValuesConvertedBy( valueConverter );
+        return (OptionFamilySpec<T>) this;
+    }
+
+    @Override
+    public boolean representsOptionFamily() {
+        return true;
+    }
+
+    /*
+     * Handles the member of this family named by the given option, which begins with this family's prefix.  The
+     * member's raw argument is kept as name=value, as other map options' are, so that sets with different members
+     * differ.
+     */
+    final void handleMember( OptionParser parser, ArgumentList arguments, OptionSet detectedOptions, String option,
+        String detectedArgument ) {
+
+        String argument = detectedArgument;
+        if ( isNullOrEmpty( argument ) ) {
+            if ( !arguments.hasMore() ) {
+                arguments.reportProblem( new OptionMissingRequiredArgumentException( this ), arguments.previousIndex() );
+                return;
+            }
+
+            argument = arguments.next();
+        }
+
+        String source = option.substring( prefix.length() ) + '=' + argument;
+        addArgument( parser, arguments, detectedOptions, source, 0, source.length() );
+    }
+}
@@ -25,18 +25,25 @@
 
 package joptsimple;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
 
 import joptsimple.internal.AbbreviationMap;
 import joptsimple.util.KeyValuePair;
@@ -98,6 +105,10 @@ import static joptsimple.ParserRules.*;
  *   <li>You can use a single hyphen ({@code "-"}) instead of a double hyphen ({@code "--"}) for a long
  *   option.</li>
  *
+ *   <li>A {@linkplain #acceptsFamily(String) family} of long options can be recognized by their shared prefix, so
+ *   that, for example, {@code --feature.compression=on} and {@code --feature.tracing=off} need not be declared one by
+ *   one.</li>
+ *
  *   <li>The option {@code -W} is reserved.  If you tell the parser to {@linkplain
  *   #recognizeAlternativeLongOptions(boolean) recognize alternative long options}, then it will treat, for example,
  *   {@code -W foo=bar} as the long option {@code foo} with argument {@code bar}, as though you had written
@@ -190,18 +201,24 @@ import static joptsimple.ParserRules.*;
  *   ({@code "+"})</li>
  * </ol>
  *
+ * <p>A configured parser can be saved as a {@link ParserSnapshot}, and loaded back without being configured again.</p>
+ *
  * @author <a href="mailto:pholser@alumni.rice.edu">Paul Holser</a>
  * @see <a href="http://www.gnu.org/software/libc/manual">The GNU C Library</a>
  */
 public class OptionParser implements OptionDeclarer {
+    private static final int MAXIMUM_RENDERINGS_KEPT = 16;
+
     private final AbbreviationMap<AbstractOptionSpec<?>> recognizedOptions;
+    private volatile Map<String, AbstractOptionSpec<?>> recognizedSpecs;
     private final List<OptionSpec<?>> trainingOrder;
     private final Map<List<String>, Set<OptionSpec<?>>> requiredIf;
     private final Map<List<String>, Set<OptionSpec<?>>> requiredUnless;
-    private OptionParserState state;
     private boolean posixlyCorrect;
     private boolean allowsUnrecognizedOptions;
     private HelpFormatter helpFormatter = new BuiltinHelpFormatter();
+    private volatile long revision = AbstractOptionSpec.nextRevision();
+    private final ConcurrentMap<Object, RenderedHelp> renderedHelp = new ConcurrentHashMap<Object, RenderedHelp>();
 
     /**
      * Creates an option parser that initially recognizes no options, and does not exhibit "POSIX-ly correct"
@@ -212,11 +229,27 @@ public class OptionParser implements OptionDeclarer {
         trainingOrder = new ArrayList<OptionSpec<?>>();
         requiredIf = new HashMap<List<String>, Set<OptionSpec<?>>>();
         requiredUnless = new HashMap<List<String>, Set<OptionSpec<?>>>();
-        state = moreOptions( false );
 
         recognize( new NonOptionArgumentSpec<String>() );
     }
 
+    /*
+     * Makes a parser of specs loaded from a snapshot: they were checked when the snapshot was written, and the
+     * options are given in their natural order, so neither checks nor a trie are needed.
+     */
+    OptionParser( List<AbstractOptionSpec<?>> specs, String[] sortedOptions, AbstractOptionSpec<?>[] specsOfOptions ) {
+        recognizedOptions = AbbreviationMap.ofSortedKeys( sortedOptions, specsOfOptions );
+        trainingOrder = new ArrayList<OptionSpec<?>>( specs );
+        requiredIf = new HashMap<List<String>, Set<OptionSpec<?>>>();
+        requiredUnless = new HashMap<List<String>, Set<OptionSpec<?>>>();
+
+        Map<String, AbstractOptionSpec<?>> specsByOption =
+            new LinkedHashMap<String, AbstractOptionSpec<?>>( sortedOptions.length * 4 / 3 + 1 );
+        for ( int i = 0; i < sortedOptions.length; ++i )
+            specsByOption.put( sortedOptions[ i ], specsOfOptions[ i ] );
+        recognizedSpecs = unmodifiableMap( specsByOption );
+    }
+
     /**
      * Creates an option parser and configures it to recognize the short options specified in the given string.
      *
@@ -254,6 +287,24 @@ public class OptionParser implements OptionDeclarer {
         return new OptionSpecBuilder( this, options, description );
     }
 
+    public OptionFamilySpec<String> acceptsFamily( String prefix ) {
+        return acceptsFamily( prefix, "" );
+    }
+
+    public OptionFamilySpec<String> acceptsFamily( String prefix, String description ) {
+        if ( prefix.isEmpty() )
+            throw new IllegalArgumentException( "need a prefix" );
+
+        ensureLegalOption( prefix );
+
+        OptionFamilySpec<String> family = new OptionFamilySpec<String>( prefix, description );
+        recognizedOptions.putPrefix( prefix, family );
+        trainingOrder.add( family );
+        reconfigured();
+
+        return family;
+    }
+
     public NonOptionArgumentSpec<String> nonOptions() {
         NonOptionArgumentSpec<String> spec = new NonOptionArgumentSpec<String>();
 
@@ -272,13 +323,24 @@ public class OptionParser implements OptionDeclarer {
 
     public void posixlyCorrect( boolean setting ) {
         posixlyCorrect = setting;
-        state = moreOptions( setting );
     }
 
     boolean posixlyCorrect() {
         return posixlyCorrect;
     }
 
+    List<OptionSpec<?>> trainingOrder() {
+        return trainingOrder;
+    }
+
+    Map<List<String>, Set<OptionSpec<?>>> requirementsIf() {
+        return requiredIf;
+    }
+
+    Map<List<String>, Set<OptionSpec<?>>> requirementsUnless() {
+        return requiredUnless;
+    }
+
     public void allowsUnrecognizedOptions() {
         allowsUnrecognizedOptions = true;
     }
@@ -290,17 +352,21 @@ public class OptionParser implements OptionDeclarer {
     public void recognizeAlternativeLongOptions( boolean recognize ) {
         if ( recognize )
             recognize( new AlternativeLongOptionSpec() );
-        else
+        else {
             recognizedOptions.remove( String.valueOf( RESERVED_FOR_EXTENSIONS ) );
+            reconfigured();
+        }
     }
 
     void recognize( AbstractOptionSpec<?> spec ) {
         recognizedOptions.putAll(spec.options(), spec);
         trainingOrder.add( spec );
+        reconfigured();
     }
 
     /**
-     * Writes information about the options this parser recognizes to the given output sink.
+     * Writes information about the options this parser recognizes to the given output sink, encoded in the platform's
+     * default charset.
      *
      * The output sink is flushed, but not closed.
      *
@@ -310,11 +376,31 @@ public class OptionParser implements OptionDeclarer {
      * @see #printHelpOn(Writer)
      */
     public void printHelpOn( OutputStream sink ) throws IOException {
-        printHelpOn( new OutputStreamWriter( sink ) );
+        printHelpOn( sink, Charset.defaultCharset() );
     }
 
     /**
-     * Writes information about the options this parser recognizes to the given output sink.
+     * Writes information about the options this parser recognizes to the given output sink, encoded in the given
+     * charset.
+     *
+     * The output sink is flushed, but not closed.
+     *
+     * @param sink the sink to write information to
+     * @param charset the charset in which to encode the information
+     * @throws IOException if there is a problem writing to the sink
+     * @throws NullPointerException if {@code sink} or {@code charset} is {@code null}
+     * @see #printHelpOn(Writer)
+     */
+    public void printHelpOn( OutputStream sink, Charset charset ) throws IOException {
+        printHelpOn( new BufferedWriter( new OutputStreamWriter( sink, charset ) ) );
+    }
+
+    /**
+     * <p>Writes information about the options this parser recognizes to the given output sink.</p>
+     *
+     * <p>Help already {@linkplain #helpText() kept} for the parser is written as it is.  Otherwise the parser's
+     * formatter writes the help straight to the sink, which the built-in formatter does a row at a time, without ever
+     * holding the help whole.</p>
      *
      * The output sink is flushed, but not closed.
      *
@@ -322,12 +408,141 @@ public class OptionParser implements OptionDeclarer {
      * @throws IOException if there is a problem writing to the sink
      * @throws NullPointerException if {@code sink} is {@code null}
      * @see #printHelpOn(OutputStream)
+     * @see HelpFormatter#formatTo(Map, Writer)
      */
     public void printHelpOn( Writer sink ) throws IOException {
-        sink.write( helpFormatter.format( recognizedOptions.toJavaUtilMap() ) );
+        String kept = keptHelpText( helpFormatter );
+        if ( kept != null )
+            sink.write( kept );
+        else
+            helpFormatter.formatTo( descriptorsFor( helpFormatter ), sink );
+
         sink.flush();
     }
 
+    /**
+     * <p>Writes information about only those options this parser recognizes that the given selection accepts to the
+     * given output sink, for instance those with a given prefix:</p>
+     *
+     * <pre>
+     *   parser.printHelpOn( sink, option -&gt; option.options().get( 0 ).startsWith( "db-" ) );
+     * </pre>
+     *
+     * <p>The description of the non-option arguments is written whatever the selection.  The columns are as wide as
+     * the selected options need.</p>
+     *
+     * The output sink is flushed, but not closed.
+     *
+     * @param sink the sink to write information to
+     * @param selection tells which options to write information about
+     * @throws IOException if there is a problem writing to the sink
+     * @throws NullPointerException if {@code sink} or {@code selection} is {@code null}
+     * @see #printHelpOn(Writer)
+     */
+    public void printHelpOn( Writer sink, Predicate<? super OptionDescriptor> selection ) throws IOException {
+        if ( selection == null )
+            throw new NullPointerException();
+
+        Map<String, OptionDescriptor> selected = new LinkedHashMap<String, OptionDescriptor>();
+        for ( Map.Entry<String, ? extends OptionDescriptor> each : descriptorsFor( helpFormatter ).entrySet() ) {
+            if ( each.getValue().representsNonOptions() || selection.test( each.getValue() ) )
+                selected.put( each.getKey(), each.getValue() );
+        }
+
+        helpFormatter.formatTo( selected, sink );
+        sink.flush();
+    }
+
+    /**
+     * <p>Gives the information about the options this parser recognizes that {@link #printHelpOn(Writer)} writes.</p>
+     *
+     * <p>Help made by the built-in formatter is kept, and given again for as long as neither the parser nor its
+     * options are changed.</p>
+     *
+     * @return the help text
+     * @see #formatHelpWith(HelpFormatter)
+     */
+    public String helpText() {
+        return helpText( helpFormatter );
+    }
+
+    /**
+     * <p>Gives the information about the options this parser recognizes, as the built-in formatter lays it out in
+     * the given width, breaking lines by the rules of the given locale, whatever formatter the parser was told to
+     * use.</p>
+     *
+     * <p>The help is kept, and given again for as long as neither the parser nor its options are changed.  A parser
+     * keeps the help of a few widths and locales at a time; it can thus serve help to many callers, from many threads,
+     * without making it each time.</p>
+     *
+     * @param width how many characters wide to make the help
+     * @param locale the locale whose rules for breaking lines to follow
+     * @return the help text
+     * @throws NullPointerException if {@code locale} is {@code null}
+     * @see BuiltinHelpFormatter#BuiltinHelpFormatter(int, int, Locale)
+     */
+    public String helpText( int width, Locale locale ) {
+        return helpText( new BuiltinHelpFormatter( width, 2, locale ) );
+    }
+
+    /*
+     * Help is kept by the width, separator and locale of the built-in formatter that made it, along with the version
+     * of the configuration it was made from.  Help of other formatters is made each time, as they may not give the
+     * same help for the same options.
+     */
+    private String helpText( HelpFormatter formatter ) {
+        Object key = renderingKeyOf( formatter );
+        if ( key == null )
+            return formatter.format( descriptorsFor( formatter ) );
+
+        long version = configurationVersion();
+        RenderedHelp kept = renderedHelp.get( key );
+        if ( kept != null && kept.version == version )
+            return kept.text;
+
+        String text = formatter.format( descriptorsFor( formatter ) );
+        if ( renderedHelp.size() >= MAXIMUM_RENDERINGS_KEPT )
+            renderedHelp.clear();
+        renderedHelp.put( key, new RenderedHelp( version, text ) );
+        return text;
+    }
+
+    /*
+     * Answers the help the given formatter would give that is kept and still current, or null if there is none.
+     */
+    private String keptHelpText( HelpFormatter formatter ) {
+        Object key = renderingKeyOf( formatter );
+        RenderedHelp kept = key == null ? null : renderedHelp.get( key );
+        return kept != null && kept.version == configurationVersion() ? kept.text : null;
+    }
+
+    private static Object renderingKeyOf( HelpFormatter formatter ) {
+        return formatter instanceof BuiltinHelpFormatter ? ( (BuiltinHelpFormatter) formatter ).renderingKey() : null;
+    }
+
+    private Map<String, ? extends OptionDescriptor> descriptorsFor( HelpFormatter formatter ) {
+        return renderingKeyOf( formatter ) == null ? recognizedOptions.toJavaUtilMap() : recognizedSpecs();
+    }
+
+    /*
+     * Answers a version of what help shows of this parser's configuration, which is later after any change to the
+     * parser or to the specs of its options.
+     */
+    long configurationVersion() {
+        long version = revision;
+        for ( AbstractOptionSpec<?> each : recognizedSpecs().values() )
+            version = Math.max( version, each.revision() );
+        return version;
+    }
+
+    /*
+     * Forgets what was derived from the recognized options, after a change to them.
+     */
+    private void reconfigured() {
+        recognizedSpecs = null;
+        revision = AbstractOptionSpec.nextRevision();
+    }
+
     /**
      * Tells the parser to use the given formatter when asked to {@linkplain #printHelpOn(java.io.Writer) print help}.
      *
@@ -339,6 +554,7 @@ public class OptionParser implements OptionDeclarer {
             throw new NullPointerException();
 
         helpFormatter = formatter;
+        revision = AbstractOptionSpec.nextRevision();
     }
 
     /**
@@ -368,32 +584,61 @@ public class OptionParser implements OptionDeclarer {
      * @throws NullPointerException if the argument list is {@code null}
      */
     public OptionSet parse( String... arguments ) {
-        ArgumentList argumentList = new ArgumentList( arguments );
-        OptionSet detected = new OptionSet( recognizedOptions.toJavaUtilMap() );
+        return parse( new ArgumentList( moreOptions( posixlyCorrect ), null, arguments ) );
+    }
+
+    /*
+     * What is particular to one parse travels with its argument list, so that a parser, once configured, can parse
+     * several command lines at once.
+     */
+    private OptionSet parse( ArgumentList argumentList ) {
+        OptionSet detected = new OptionSet( recognizedSpecs() );
         detected.add( recognizedOptions.get( NonOptionArgumentSpec.NAME ) );
 
         while ( argumentList.hasMore() )
-            state.handleArgument( this, argumentList, detected );
-
-        reset();
+            argumentList.state().handleArgument( this, argumentList, detected );
 
-        ensureRequiredOptions( detected );
+        ensureRequiredOptions( detected, argumentList );
 
+        detected.freeze();
         return detected;
     }
 
-    private void ensureRequiredOptions( OptionSet options ) {
+    /**
+     * <p>Parses the given command line arguments according to the option specifications given to the parser, but
+     * does not stop at the first problem.</p>
+     *
+     * <p>Unrecognized options, options missing their required argument, option arguments that cannot be converted to
+     * the option's argument type, and missing required options are each recorded as a {@link ParseDiagnostic}, in the
+     * order in which they were found, and parsing carries on with the next argument. The resulting {@link OptionSet}
+     * holds only what could be parsed cleanly: an argument that fails conversion is left out of it, so that retrieving
+     * the option's values does not fail.</p>
+     *
+     * @param arguments arguments to parse
+     * @return the partial {@link OptionSet} along with any problems detected while parsing
+     * @throws NullPointerException if the argument list is {@code null}
+     * @see #parse(String...)
+     */
+    public ParseResult parseWithDiagnostics( String... arguments ) {
+        List<ParseDiagnostic> found = new ArrayList<ParseDiagnostic>();
+        return new ParseResult( parse( new ArgumentList( moreOptions( posixlyCorrect ), found, arguments ) ), found );
+    }
+
+    private void ensureRequiredOptions( OptionSet options, ArgumentList arguments ) {
         List<AbstractOptionSpec<?>> missingRequiredOptions = missingRequiredOptions(options);
         boolean helpOptionPresent = isHelpOptionPresent( options );
 
-        if ( !missingRequiredOptions.isEmpty() && !helpOptionPresent )
-            throw new MissingRequiredOptionsException( missingRequiredOptions );
+        if ( !missingRequiredOptions.isEmpty() && !helpOptionPresent ) {
+            arguments.reportProblem(
+                new MissingRequiredOptionsException( missingRequiredOptions ),
+                ParseDiagnostic.NO_ARGUMENT_INDEX );
+        }
     }
 
     private List<AbstractOptionSpec<?>> missingRequiredOptions(OptionSet options) {
         List<AbstractOptionSpec<?>> missingRequiredOptions = new ArrayList<AbstractOptionSpec<?>>();
         
-        for ( AbstractOptionSpec<?> each : recognizedOptions.toJavaUtilMap().values() ) {
+        for ( AbstractOptionSpec<?> each : recognizedSpecs().values() ) {
             if ( each.isRequired() && !options.has( each ) )
                 missingRequiredOptions.add(each);
         }
@@ -428,7 +673,7 @@ public class OptionParser implements OptionDeclarer {
 
     private boolean isHelpOptionPresent( OptionSet options ) {
         boolean helpOptionPresent = false;
-        for ( AbstractOptionSpec<?> each : recognizedOptions.toJavaUtilMap().values() ) {
+        for ( AbstractOptionSpec<?> each : recognizedSpecs().values() ) {
             if ( each.isForHelp() && options.has( each ) ) {
                 helpOptionPresent = true;
                 break;
@@ -437,29 +682,65 @@ public class OptionParser implements OptionDeclarer {
         return helpOptionPresent;
     }
 
-    void handleLongOptionToken( String candidate, ArgumentList arguments, OptionSet detected ) {
+    /*
+     * Answers false if the token should rather be treated as a non-option argument.
+     */
+    boolean handleLongOptionToken( String candidate, ArgumentList arguments, OptionSet detected ) {
         KeyValuePair optionAndArgument = parseLongOptionWithArgument( candidate );
 
+        if ( handleOptionFamilyMember( optionAndArgument, arguments, detected ) )
+            return true;
+
         if ( !isRecognized( optionAndArgument.key ) )
-            throw unrecognizedOption( optionAndArgument.key );
+            return handleUnrecognizedOption( optionAndArgument.key, arguments );
 
         AbstractOptionSpec<?> optionSpec = specFor( optionAndArgument.key );
         optionSpec.handleOption( this, arguments, detected, optionAndArgument.value );
+        return true;
     }
 
-    void handleShortOptionToken( String candidate, ArgumentList arguments, OptionSet detected ) {
+    /*
+     * Answers false if the token should rather be treated as a non-option argument.
+     */
+    boolean handleShortOptionToken( String candidate, ArgumentList arguments, OptionSet detected ) {
         KeyValuePair optionAndArgument = parseShortOptionWithArgument( candidate );
 
+        if ( handleOptionFamilyMember( optionAndArgument, arguments, detected ) )
+            return true;
+
         if ( isRecognized( optionAndArgument.key ) ) {
             specFor( optionAndArgument.key ).handleOption( this, arguments, detected, optionAndArgument.value );
+            return true;
         }
-        else
-            handleShortOptionCluster( candidate, arguments, detected );
+
+        return handleShortOptionCluster( candidate, arguments, detected );
     }
 
-    private void handleShortOptionCluster( String candidate, ArgumentList arguments, OptionSet detected ) {
+    private boolean handleOptionFamilyMember( KeyValuePair optionAndArgument, ArgumentList arguments,
+        OptionSet detected ) {
+
+        AbstractOptionSpec<?> family = recognizedOptions.claimantOf( optionAndArgument.key );
+        if ( family == null )
+            return false;
+
+        ( (OptionFamilySpec<?>) family ).handleMember( this, arguments, detected, optionAndArgument.key,
+            optionAndArgument.value );
+        return true;
+    }
+
+    private boolean handleUnrecognizedOption( String option, ArgumentList arguments ) {
+        if ( allowsUnrecognizedOptions )
+            return false;
+
+        arguments.reportProblem( unrecognizedOption( option ), arguments.previousIndex() );
+        return true;
+    }
+
+    private boolean handleShortOptionCluster( String candidate, ArgumentList arguments, OptionSet detected ) {
         char[] options = extractShortOptionsFrom( candidate );
-        validateOptionCharacters( options );
+        String unrecognized = firstUnrecognizedOptionCharacter( options );
+        if ( unrecognized != null )
+            return handleUnrecognizedOption( unrecognized, arguments );
 
         for ( int i = 0; i < options.length; i++ ) {
             AbstractOptionSpec<?> optionSpec = specFor( options[ i ] );
@@ -472,16 +753,14 @@ public class OptionParser implements OptionDeclarer {
 
             optionSpec.handleOption( this, arguments, detected, null );
         }
+
+        return true;
     }
 
     void handleNonOptionArgument( String candidate, ArgumentList arguments, OptionSet detectedOptions ) {
         specFor( NonOptionArgumentSpec.NAME ).handleOption( this, arguments, detectedOptions, candidate );
     }
 
-    void noMoreOptions() {
-        state = OptionParserState.noMoreOptions();
-    }
-
     boolean looksLikeAnOption( String argument ) {
         return isShortOptionToken( argument ) || isLongOptionToken( argument );
     }
@@ -524,16 +803,62 @@ public class OptionParser implements OptionDeclarer {
         associated.add( required );
     }
 
+    /*
+     * Answers the specs that options are recognized by, each once, in the order they were declared.  Builders that
+     * were turned into specs taking arguments are left out.  The spec of non-option arguments goes first, where every
+     * parser declares one of its own before any other.
+     */
+    List<AbstractOptionSpec<?>> distinctSpecs() {
+        Set<AbstractOptionSpec<?>> recognized =
+            newSetFromMap( new IdentityHashMap<AbstractOptionSpec<?>, Boolean>() );
+        recognized.addAll( recognizedSpecs().values() );
+
+        List<AbstractOptionSpec<?>> specs = new ArrayList<AbstractOptionSpec<?>>();
+        for ( OptionSpec<?> each : trainingOrder ) {
+            if ( recognized.remove( each ) || each instanceof OptionFamilySpec<?> ) {
+                if ( each instanceof NonOptionArgumentSpec<?> )
+                    specs.add( 0, (AbstractOptionSpec<?>) each );
+                else
+                    specs.add( (AbstractOptionSpec<?>) each );
+            }
+        }
+        return specs;
+    }
+
+    /*
+     * Answers the recognized options, made into a map only once for as long as no more options are recognized.
+     */
+    Map<String, AbstractOptionSpec<?>> recognizedSpecs() {
+        Map<String, AbstractOptionSpec<?>> specs = recognizedSpecs;
+        if ( specs == null ) {
+            specs = unmodifiableMap( recognizedOptions.toJavaUtilMap() );
+            recognizedSpecs = specs;
+        }
+
+        return specs;
+    }
+
     private AbstractOptionSpec<?> specFor( char option ) {
         return specFor( String.valueOf( option ) );
     }
 
-    private AbstractOptionSpec<?> specFor( String option ) {
+    AbstractOptionSpec<?> specFor( String option ) {
         return recognizedOptions.get( option );
     }
 
-    private void reset() {
-        state = moreOptions( posixlyCorrect );
+    /*
+     * Answers the option family of which the given option is a member, or null if it is a member of none.
+     */
+    AbstractOptionSpec<?> familyClaiming( String option ) {
+        return recognizedOptions.claimantOf( option );
+    }
+
+    /*
+     * Answers the recognized options, and the prefixes of option families, that begin with the given prefix, as they
+     * are reached.
+     */
+    Iterable<String> optionsBeginningWith( String prefix ) {
+        return recognizedOptions.keysBeginningWith( prefix );
     }
 
     private static char[] extractShortOptionsFrom( String argument ) {
@@ -543,23 +868,38 @@ public class OptionParser implements OptionDeclarer {
         return options;
     }
 
-    private void validateOptionCharacters( char[] options ) {
+    private String firstUnrecognizedOptionCharacter( char[] options ) {
         for ( char each : options ) {
             String option = String.valueOf( each );
 
             if ( !isRecognized( option ) )
-                throw unrecognizedOption( option );
+                return option;
 
             if ( specFor( option ).acceptsArguments() )
-                return;
+                return null;
         }
+
+        return null;
     }
 
     private static KeyValuePair parseLongOptionWithArgument( String argument ) {
-        return KeyValuePair.valueOf( argument.substring( 2 ) );
+        return KeyValuePair.valueOf( argument, 2 );
     }
 
     private static KeyValuePair parseShortOptionWithArgument( String argument ) {
-        return KeyValuePair.valueOf( argument.substring( 1 ) );
+        return KeyValuePair.valueOf( argument, 1 );
+    }
+
+    /*
+     * Help text, with the version of the configuration it was made from.
+     */
+    private static final class RenderedHelp {
+        final long version;
+        final String text;
+
+        RenderedHelp( long version, String text ) {
+            this.version = version;
+            this.text = text;
+        }
     }
 }
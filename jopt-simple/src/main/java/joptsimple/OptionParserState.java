@@ -48,24 +48,19 @@ abstract class OptionParserState {
             @Override
             protected void handleArgument( OptionParser parser, ArgumentList arguments, OptionSet detectedOptions ) {
                 String candidate = arguments.next();
-                try {
-                    if ( isOptionTerminator( candidate ) ) {
-                        parser.noMoreOptions();
+                if ( isOptionTerminator( candidate ) ) {
+                    arguments.noMoreOptions();
+                    return;
+                } else if ( isLongOptionToken( candidate ) ) {
+                    if ( parser.handleLongOptionToken( candidate, arguments, detectedOptions ) )
                         return;
-                    } else if ( isLongOptionToken( candidate ) ) {
-                        parser.handleLongOptionToken( candidate, arguments, detectedOptions );
+                } else if ( isShortOptionToken( candidate ) ) {
+                    if ( parser.handleShortOptionToken( candidate, arguments, detectedOptions ) )
                         return;
-                    } else if ( isShortOptionToken( candidate ) ) {
-                        parser.handleShortOptionToken( candidate, arguments, detectedOptions );
-                        return;
-                    }
-                } catch ( UnrecognizedOptionException e ) {
-                    if ( !parser.doesAllowsUnrecognizedOptions() )
-                        throw e;
                 }
 
                 if ( posixlyCorrect )
-                    parser.noMoreOptions();
+                    arguments.noMoreOptions();
 
                 parser.handleNonOptionArgument( candidate, arguments, detectedOptions );
             }
@@ -25,13 +25,32 @@
 
 package joptsimple;
 
+import java.time.Duration;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
 
 import static java.util.Collections.*;
+import static java.util.concurrent.TimeUnit.*;
+
+import joptsimple.internal.DaemonThreads;
 
 /**
  * Representation of a group of detected command line options, their arguments, and non-option arguments.
@@ -43,7 +62,11 @@ public class OptionSet {
     private final Map<String, AbstractOptionSpec<?>> detectedOptions;
     private final Map<AbstractOptionSpec<?>, List<String>> optionsToArguments;
     private final Map<String, AbstractOptionSpec<?>> recognizedSpecs;
-    private final Map<String, List<?>> defaultValues;
+    private Map<AbstractOptionSpec<?>, PendingConversions<?>> pendingConversions;
+    private boolean frozen;
+    private int hash;
+    private List<OptionSpec<?>> detectedOptionSpecs;
+    private Map<OptionSpec<?>, List<?>> valuesBySpec;
 
     /*
      * Package-private because clients don't create these.
@@ -52,7 +75,6 @@ public class OptionSet {
         detectedSpecs = new ArrayList<OptionSpec<?>>();
         detectedOptions = new HashMap<String, AbstractOptionSpec<?>>();
         optionsToArguments = new IdentityHashMap<AbstractOptionSpec<?>, List<String>>();
-        defaultValues = defaultValues( recognizedSpecs );
         this.recognizedSpecs = recognizedSpecs;
     }
 
@@ -225,11 +247,103 @@ public class OptionSet {
             return defaultValueFor( option );
 
         AbstractOptionSpec<V> spec = (AbstractOptionSpec<V>) option;
-        List<V> convertedValues = new ArrayList<V>();
-        for ( String each : values )
-            convertedValues.add( spec.convert( each ) );
+        if ( pendingConversions != null ) {
+            @SuppressWarnings( "unchecked" )
+            PendingConversions<V> pending = (PendingConversions<V>) pendingConversions.get( spec );
+            if ( pending != null )
+                return unmodifiableList( pending.values() );
+        }
 
-        return unmodifiableList( convertedValues );
+        return unmodifiableList( spec.convertArguments( values ) );
+    }
+
+    /**
+     * <p>Starts converting, all at once, the arguments of the detected options whose converters are
+     * {@linkplain AsyncValueConverter asynchronous}.  The conversions are carried out on virtual threads when the
+     * runtime offers them, and on a pool of daemon threads otherwise.</p>
+     *
+     * @return self, so that the caller can wait for the conversions
+     * @see #startConversions(Executor)
+     */
+    public OptionSet startConversions() {
+        return startConversions( ConversionThreads.EXECUTOR );
+    }
+
+    /**
+     * <p>Starts converting, all at once, the arguments of the detected options whose converters are
+     * {@linkplain AsyncValueConverter asynchronous}, handing the converters the given executor.  Arguments whose
+     * conversions have already been started are not converted again.</p>
+     *
+     * <p>Once started, {@link #valuesOf(OptionSpec)} and the methods built on it wait for the conversions of the
+     * option asked about rather than converting its arguments on the calling thread.  This method and
+     * {@link #awaitConverted(Duration)}, like the rest of this class, are meant to be called from one thread.</p>
+     *
+     * @param executor the executor on which to carry out the conversions
+     * @return self, so that the caller can wait for the conversions
+     * @throws NullPointerException if {@code executor} is {@code null}
+     */
+    public OptionSet startConversions( Executor executor ) {
+        if ( executor == null )
+            throw new NullPointerException( "illegal null executor" );
+
+        if ( pendingConversions == null )
+            pendingConversions = new LinkedHashMap<AbstractOptionSpec<?>, PendingConversions<?>>();
+
+        for ( OptionSpec<?> each : detectedSpecs )
+            startConversions( (AbstractOptionSpec<?>) each, executor );
+        AbstractOptionSpec<?> nonOptions = detectedOptions.get( NonOptionArgumentSpec.NAME );
+        if ( nonOptions != null )
+            startConversions( nonOptions, executor );
+
+        return this;
+    }
+
+    private <V> void startConversions( AbstractOptionSpec<V> spec, Executor executor ) {
+        AsyncValueConverter<V> converter = spec.asyncConverter();
+        if ( converter == null || pendingConversions.containsKey( spec ) )
+            return;
+
+        List<String> arguments = optionsToArguments.get( spec );
+        if ( arguments != null && !arguments.isEmpty() )
+            pendingConversions.put( spec, new PendingConversions<V>( spec, arguments, converter, executor ) );
+    }
+
+    /**
+     * <p>Waits for the conversions of arguments {@linkplain #startConversions(Executor) started} on this set to
+     * finish, starting them first if none were.</p>
+     *
+     * @param timeout how long to wait for all the conversions together
+     * @return self, so that the caller can go on to ask for values
+     * @throws NullPointerException if {@code timeout} is {@code null}
+     * @throws ArgumentConversionFailuresException if any argument could not be converted; it reports every such
+     * argument
+     * @throws TimeoutException if the conversions did not all finish in time; they carry on, and can be waited for
+     * again
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public OptionSet awaitConverted( Duration timeout ) throws InterruptedException, TimeoutException {
+        if ( timeout == null )
+            throw new NullPointerException( "illegal null timeout" );
+
+        if ( pendingConversions == null )
+            startConversions();
+
+        long deadline = System.nanoTime() + clampedNanos( timeout );
+        List<OptionException> failures = new ArrayList<OptionException>();
+        for ( PendingConversions<?> each : pendingConversions.values() )
+            each.await( deadline, failures );
+
+        if ( !failures.isEmpty() )
+            throw new ArgumentConversionFailuresException( failures );
+
+        return this;
+    }
+
+    private static long clampedNanos( Duration timeout ) {
+        if ( timeout.isNegative() )
+            return 0;
+
+        return timeout.compareTo( Duration.ofNanos( Long.MAX_VALUE / 2 ) ) > 0 ? Long.MAX_VALUE / 2 : timeout.toNanos();
     }
 
     /**
@@ -239,23 +353,32 @@ public class OptionSet {
      * @return the set of detected command line options
      */
     public List<OptionSpec<?>> specs() {
-        List<OptionSpec<?>> specs = detectedSpecs;
-        specs.remove( detectedOptions.get( NonOptionArgumentSpec.NAME ) );
+        List<OptionSpec<?>> specs = detectedOptionSpecs;
+        if ( specs == null ) {
+            specs = new DetectedOptionSpecs();
+            if ( frozen )
+                detectedOptionSpecs = specs;
+        }
 
-        return unmodifiableList( specs );
+        return specs;
     }
 
     /**
-     * Gives all declared options as a map of string to {@linkplain OptionSpec}.
+     * <p>Gives all declared options as a map of string to {@linkplain OptionSpec}.</p>
+     *
+     * <p>The map is a read-only view: the arguments of an option are converted only when its entry is read, and
+     * again each time it is.</p>
      *
      * @return the declared options as a map
      */
     public Map<OptionSpec<?>, List<?>> asMap() {
-        Map<OptionSpec<?>, List<?>> map = new HashMap<OptionSpec<?>, List<?>>();
-        for ( AbstractOptionSpec<?> spec : recognizedSpecs.values() )
-            if ( !spec.representsNonOptions() )
-                map.put( spec, valuesOf( spec ) );
-        return unmodifiableMap( map );
+        Map<OptionSpec<?>, List<?>> map = valuesBySpec;
+        if ( map == null ) {
+            map = new ValuesBySpec();
+            valuesBySpec = map;
+        }
+
+        return map;
     }
 
     /**
@@ -266,11 +389,79 @@ public class OptionSet {
         return valuesOf( spec );
     }
 
+    /**
+     * <p>Gives a cursor over the raw arguments of the given option, in the order they were detected.  Unlike
+     * {@link #valuesOf(OptionSpec)}, this neither converts the arguments nor creates a string for each, which suits
+     * options with very many arguments, particularly ones with
+     * {@linkplain ArgumentAcceptingOptionSpec#withCompactStorage() compact storage}.</p>
+     *
+     * <p>Default values are not included.</p>
+     *
+     * @param option the option to search for
+     * @return a cursor over the arguments of the option; it has no arguments if the option was not detected
+     * @throws NullPointerException if {@code option} is {@code null}
+     */
+    public ArgumentCursor argumentCursor( OptionSpec<?> option ) {
+        if ( option == null )
+            throw new NullPointerException();
+
+        List<String> arguments = optionsToArguments.get( option );
+        if ( arguments instanceof ArgumentStore )
+            return ( (ArgumentStore) arguments ).cursor();
+
+        return ArgumentStore.cursorOver( arguments == null ? emptyList() : arguments );
+    }
+
+    /**
+     * <p>Gives the map made of the {@code key=value} arguments of the given option.  The map is built as the command
+     * line is parsed, so this method does no work beyond finding it.</p>
+     *
+     * @param <V> represents the type of the values in the map
+     * @param option the option to search for
+     * @return an unmodifiable map of the arguments of the option, in the order their keys were first detected; empty
+     * if the option was not detected
+     * @throws NullPointerException if {@code option} is {@code null}
+     */
+    public <V> Map<String, V> mapOf( MapOptionSpec<V> option ) {
+        if ( option == null )
+            throw new NullPointerException();
+
+        List<String> arguments = optionsToArguments.get( option );
+        return arguments == null ? emptyMap() : MapOptionSpec.<V> storage( arguments ).map();
+    }
+
     void add( AbstractOptionSpec<?> spec ) {
         addWithArgument( spec, null );
     }
 
     void addWithArgument( AbstractOptionSpec<?> spec, String argument ) {
+        List<String> optionArguments = detect( spec );
+
+        if ( argument != null )
+            optionArguments.add( argument );
+    }
+
+    void addWithArgument( AbstractOptionSpec<?> spec, String source, int start, int end ) {
+        List<String> optionArguments = detect( spec );
+
+        if ( optionArguments instanceof ArgumentStore )
+            ( (ArgumentStore) optionArguments ).add( source, start, end );
+        else
+            optionArguments.add( source.substring( start, end ) );
+    }
+
+    /*
+     * Records an occurrence of the given option, answering the list that holds its arguments.
+     */
+    List<String> detect( AbstractOptionSpec<?> spec ) {
+        return detect( spec, null );
+    }
+
+    /*
+     * Records an occurrence of the given option, answering the list that holds its arguments.  If the option was not
+     * detected before, the list is the given one, or a new one if that is null.
+     */
+    List<String> detect( AbstractOptionSpec<?> spec, List<String> arguments ) {
         detectedSpecs.add( spec );
 
         for ( String each : spec.options() )
@@ -279,12 +470,25 @@ public class OptionSet {
         List<String> optionArguments = optionsToArguments.get( spec );
 
         if ( optionArguments == null ) {
-            optionArguments = new ArrayList<String>();
+            optionArguments = arguments == null ? spec.newArgumentList() : arguments;
             optionsToArguments.put( spec, optionArguments );
         }
 
-        if ( argument != null )
-            optionArguments.add( argument );
+        return optionArguments;
+    }
+
+    /*
+     * Answers the options detected, one for each occurrence, in the order they were found.
+     */
+    List<OptionSpec<?>> detectedSpecs() {
+        return detectedSpecs;
+    }
+
+    /*
+     * Answers the raw arguments detected for the given option, or null if the option was not detected.
+     */
+    List<String> argumentsOf( OptionSpec<?> spec ) {
+        return optionsToArguments.get( spec );
     }
 
     @Override
@@ -296,34 +500,259 @@ public class OptionSet {
             return false;
 
         OptionSet other = (OptionSet) that;
-        Map<AbstractOptionSpec<?>, List<String>> thisOptionsToArguments = new HashMap<AbstractOptionSpec<?>, List<String>>( optionsToArguments );
-        Map<AbstractOptionSpec<?>, List<String>> otherOptionsToArguments = new HashMap<AbstractOptionSpec<?>, List<String>>( other.optionsToArguments );
-        return detectedOptions.equals( other.detectedOptions )
-            && thisOptionsToArguments.equals( otherOptionsToArguments );
+        if ( frozen && other.frozen && hashCode() != other.hashCode() )
+            return false;
+
+        return detectedOptions.equals( other.detectedOptions ) && sameArguments( other );
+    }
+
+    /*
+     * Compares the arguments of options as though keyed by equal specs rather than by the same ones, without making
+     * maps that are.  Sets whose detected options are equal detect equal specs, each found by its first option.
+     */
+    private boolean sameArguments( OptionSet other ) {
+        if ( optionsToArguments.size() != other.optionsToArguments.size() )
+            return false;
+
+        for ( Map.Entry<AbstractOptionSpec<?>, List<String>> each : optionsToArguments.entrySet() ) {
+            AbstractOptionSpec<?> spec = each.getKey();
+            AbstractOptionSpec<?> otherSpec = other.detectedOptions.get( spec.options().get( 0 ) );
+            List<String> otherArguments = other.optionsToArguments.get( otherSpec );
+            if ( otherArguments == null || !spec.equals( otherSpec ) || !each.getValue().equals( otherArguments ) )
+                return false;
+        }
+
+        return true;
     }
 
+    /*
+     * As with String, the hash of a frozen set is kept in a single field, read once, so that a thread seeing it
+     * unset merely computes it again.  A hash of zero is computed every time.
+     */
     @Override
     public int hashCode() {
-        Map<AbstractOptionSpec<?>, List<String>> thisOptionsToArguments = new HashMap<AbstractOptionSpec<?>, List<String>>( optionsToArguments );
-        return detectedOptions.hashCode() ^ thisOptionsToArguments.hashCode();
+        int kept = hash;
+        if ( kept != 0 )
+            return kept;
+
+        int argumentsHash = 0;
+        for ( Map.Entry<AbstractOptionSpec<?>, List<String>> each : optionsToArguments.entrySet() )
+            argumentsHash += each.getKey().hashCode() ^ each.getValue().hashCode();
+        int computed = detectedOptions.hashCode() ^ argumentsHash;
+
+        if ( frozen )
+            hash = computed;
+        return computed;
     }
 
+    /*
+     * Marks the set as complete, once its command line is parsed, so that what is derived from its detected options
+     * can be kept.
+     */
+    void freeze() {
+        frozen = true;
+    }
+
+    /*
+     * Defaults are asked of the recognized specs only when wanted, so that defaults computed on demand are not.
+     */
     @SuppressWarnings( "unchecked" )
     private <V> List<V> defaultValuesFor( String option ) {
-        if ( defaultValues.containsKey( option ) )
-            return unmodifiableList( (List<V>) defaultValues.get( option ) );
+        AbstractOptionSpec<?> spec = recognizedSpecs.get( option );
+        if ( spec == null )
+            return emptyList();
 
-        return emptyList();
+        return unmodifiableList( (List<V>) spec.defaultValues() );
     }
 
     private <V> List<V> defaultValueFor( OptionSpec<V> option ) {
         return defaultValuesFor( option.options().iterator().next() );
     }
 
-    private static Map<String, List<?>> defaultValues( Map<String, AbstractOptionSpec<?>> recognizedSpecs ) {
-        Map<String, List<?>> defaults = new HashMap<String, List<?>>();
-        for ( Map.Entry<String, AbstractOptionSpec<?>> each : recognizedSpecs.entrySet() )
-            defaults.put( each.getKey(), each.getValue().defaultValues() );
-        return defaults;
+    /*
+     * The detected options without the non-option arguments, viewed in place.  Until the set is frozen the view
+     * counts them again on each call to size().
+     */
+    private final class DetectedOptionSpecs extends AbstractList<OptionSpec<?>> implements RandomAccess {
+        private int[] indices;
+
+        @Override
+        public OptionSpec<?> get( int index ) {
+            int[] positions = indices();
+            if ( index < 0 || index >= positions.length )
+                throw new IndexOutOfBoundsException( "Index: " + index + ", Size: " + positions.length );
+
+            return detectedSpecs.get( positions[ index ] );
+        }
+
+        @Override
+        public int size() {
+            return indices().length;
+        }
+
+        private int[] indices() {
+            int[] positions = indices;
+            if ( positions != null )
+                return positions;
+
+            positions = new int[ detectedSpecs.size() ];
+            int size = 0;
+            for ( int i = 0; i < detectedSpecs.size(); ++i ) {
+                if ( !( (AbstractOptionSpec<?>) detectedSpecs.get( i ) ).representsNonOptions() )
+                    positions[ size++ ] = i;
+            }
+            positions = Arrays.copyOf( positions, size );
+
+            if ( frozen )
+                indices = positions;
+            return positions;
+        }
+    }
+
+    /*
+     * The declared options with their values, converted as entries are read.  The options, each once and without the
+     * non-option arguments, are found on first use, the recognized ones of a parser not changing while its sets are
+     * in use.
+     */
+    private final class ValuesBySpec extends AbstractMap<OptionSpec<?>, List<?>> {
+        private List<AbstractOptionSpec<?>> specs;
+
+        @Override
+        public boolean containsKey( Object key ) {
+            return declared( key ) != null;
+        }
+
+        @Override
+        public List<?> get( Object key ) {
+            AbstractOptionSpec<?> spec = declared( key );
+            return spec == null ? null : valuesOf( spec );
+        }
+
+        @Override
+        public int size() {
+            return specs().size();
+        }
+
+        @Override
+        public Set<Entry<OptionSpec<?>, List<?>>> entrySet() {
+            return new AbstractSet<Entry<OptionSpec<?>, List<?>>>() {
+                @Override
+                public Iterator<Entry<OptionSpec<?>, List<?>>> iterator() {
+                    final Iterator<AbstractOptionSpec<?>> specs = specs().iterator();
+                    return new Iterator<Entry<OptionSpec<?>, List<?>>>() {
+                        public boolean hasNext() {
+                            return specs.hasNext();
+                        }
+
+                        public Entry<OptionSpec<?>, List<?>> next() {
+                            AbstractOptionSpec<?> spec = specs.next();
+                            return new SimpleImmutableEntry<OptionSpec<?>, List<?>>( spec, valuesOf( spec ) );
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return specs().size();
+                }
+            };
+        }
+
+        private AbstractOptionSpec<?> declared( Object key ) {
+            if ( !( key instanceof AbstractOptionSpec<?> ) )
+                return null;
+
+            AbstractOptionSpec<?> candidate = (AbstractOptionSpec<?>) key;
+            AbstractOptionSpec<?> spec = recognizedSpecs.get( candidate.options().get( 0 ) );
+            return spec == null || spec.representsNonOptions() || !spec.equals( candidate ) ? null : spec;
+        }
+
+        private List<AbstractOptionSpec<?>> specs() {
+            if ( specs == null ) {
+                Set<AbstractOptionSpec<?>> distinct =
+                    newSetFromMap( new IdentityHashMap<AbstractOptionSpec<?>, Boolean>() );
+                List<AbstractOptionSpec<?>> declared = new ArrayList<AbstractOptionSpec<?>>();
+                for ( AbstractOptionSpec<?> each : recognizedSpecs.values() ) {
+                    if ( !each.representsNonOptions() && distinct.add( each ) )
+                        declared.add( each );
+                }
+                specs = declared;
+            }
+
+            return specs;
+        }
+    }
+
+    /*
+     * The conversions, under way or done, of the arguments of one option.
+     */
+    private static final class PendingConversions<V> {
+        private final AbstractOptionSpec<V> spec;
+        private final List<String> arguments;
+        private final List<CompletableFuture<V>> conversions;
+
+        PendingConversions( AbstractOptionSpec<V> spec, List<String> arguments, AsyncValueConverter<V> converter,
+            Executor executor ) {
+
+            this.spec = spec;
+            this.arguments = new ArrayList<String>( arguments );
+            conversions = new ArrayList<CompletableFuture<V>>( this.arguments.size() );
+
+            for ( String each : this.arguments ) {
+                CompletableFuture<V> conversion;
+                try {
+                    conversion = converter.convertAsync( each, executor );
+                } catch ( RuntimeException ex ) {
+                    conversion = CompletableFuture.failedFuture( ex );
+                }
+                conversions.add( conversion );
+            }
+        }
+
+        List<V> values() {
+            List<V> values = new ArrayList<V>( conversions.size() );
+            for ( int i = 0; i < conversions.size(); ++i ) {
+                try {
+                    values.add( conversions.get( i ).join() );
+                } catch ( CompletionException ex ) {
+                    throw failure( i, ex.getCause() );
+                } catch ( CancellationException ex ) {
+                    throw failure( i, ex );
+                }
+            }
+
+            return values;
+        }
+
+        void await( long deadline, List<OptionException> failures ) throws InterruptedException, TimeoutException {
+            for ( int i = 0; i < conversions.size(); ++i ) {
+                try {
+                    conversions.get( i ).get( Math.max( 0, deadline - System.nanoTime() ), NANOSECONDS );
+                } catch ( ExecutionException ex ) {
+                    failures.add( failure( i, ex.getCause() ) );
+                } catch ( CancellationException ex ) {
+                    failures.add( failure( i, ex ) );
+                }
+            }
+        }
+
+        private OptionException failure( int index, Throwable cause ) {
+            if ( cause instanceof OptionException )
+                return (OptionException) cause;
+
+            return new OptionArgumentConversionException( spec, arguments.get( index ), cause );
+        }
+    }
+
+    private static final class ConversionThreads {
+        static final Executor EXECUTOR = newExecutor();
+
+        private static Executor newExecutor() {
+            try {
+                return (Executor) Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" ).invoke( null );
+            } catch ( ReflectiveOperationException ex ) {
+                return Executors.newCachedThreadPool( DaemonThreads.named( "jopt-simple conversion" ) );
+            }
+        }
     }
 }
@@ -0,0 +1,347 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import static java.nio.ByteOrder.*;
+import static java.nio.channels.FileChannel.MapMode.*;
+import static java.nio.charset.StandardCharsets.*;
+import static java.nio.file.StandardOpenOption.*;
+import static java.util.Collections.*;
+
+/**
+ * <p>Encodes {@linkplain OptionSet sets of detected options} in a compact binary form, and decodes them back, so that
+ * a command line parsed in one process can be handed to others, or kept on disk, rather than parsed again.</p>
+ *
+ * <p>A codec is made for a configured parser, and refers to its options by ids: their positions in the order in which
+ * the parser declares them.  An encoded set can thus be decoded by a codec for any parser declaring the same options
+ * in the same order, such as the same code running in another process, or a parser loaded from a
+ * {@linkplain ParserSnapshot snapshot}; a codec for any other parser refuses it.</p>
+ *
+ * <p>Arguments are encoded raw, except those of {@code int}, {@code long} and {@code double} options, which are
+ * encoded as the converted values the set holds for them.  Decoding does not copy the characters of arguments: the
+ * decoded set reads them from the buffer it was decoded from, which must therefore be left as it is while the set is
+ * in use.  That buffer may well be a file mapped into memory.  Sets holding the arguments of option families, maps,
+ * or counted options cannot be encoded.</p>
+ *
+ * <pre>
+ *   <code>
+ *   ByteBuffer encoded = new OptionSetCodec( parser ).encode( parser.parse( args ) );
+ *   ...
+ *   OptionSet options = new OptionSetCodec( parser ).decode( encoded );
+ *   </code>
+ * </pre>
+ */
+public final class OptionSetCodec {
+    private static final int MAGIC = 0x4A4F5053;
+    private static final int VERSION = 1;
+
+    private static final int STRINGS = 0;
+    private static final int INTS = 1;
+    private static final int LONGS = 2;
+    private static final int DOUBLES = 3;
+
+    private final OptionParser parser;
+    private final AbstractOptionSpec<?>[] specs;
+    private final Map<AbstractOptionSpec<?>, Integer> ids = new IdentityHashMap<AbstractOptionSpec<?>, Integer>();
+    private final int fingerprint;
+
+    /**
+     * Makes a codec for the sets of options detected by the given parser, as it is configured now.
+     *
+     * @param parser the parser
+     * @throws NullPointerException if {@code parser} is {@code null}
+     */
+    public OptionSetCodec( OptionParser parser ) {
+        this.parser = parser;
+
+        List<AbstractOptionSpec<?>> declared = parser.distinctSpecs();
+        specs = declared.toArray( new AbstractOptionSpec<?>[ declared.size() ] );
+        CRC32 checksum = new CRC32();
+        for ( int i = 0; i < specs.length; ++i ) {
+            ids.put( specs[ i ], i );
+            checksum.update( ( kindOf( specs[ i ] ) + specs[ i ].options() ).getBytes( UTF_8 ) );
+        }
+        fingerprint = (int) checksum.getValue();
+    }
+
+    /**
+     * Encodes the given set of detected options.
+     *
+     * @param options the options to encode
+     * @return a buffer holding the encoded options, from its position to its limit
+     * @throws IllegalArgumentException if the options were not detected by a parser declaring the options of this
+     * codec's, or hold arguments that cannot be encoded
+     */
+    public ByteBuffer encode( OptionSet options ) {
+        List<OptionSpec<?>> occurrences = options.detectedSpecs();
+        int[] occurrenceIds = new int[ occurrences.size() ];
+        boolean[] detected = new boolean[ specs.length ];
+        int size = 20 + 4 * occurrenceIds.length;
+        int lists = 0;
+        for ( int i = 0; i < occurrenceIds.length; ++i ) {
+            int id = idOf( occurrences.get( i ) );
+            occurrenceIds[ i ] = id;
+            if ( !detected[ id ] ) {
+                detected[ id ] = true;
+                List<String> arguments = options.argumentsOf( specs[ id ] );
+                if ( !arguments.isEmpty() ) {
+                    size += sizeOf( specs[ id ], arguments );
+                    ++lists;
+                }
+            }
+        }
+
+        ByteBuffer out = ByteBuffer.allocate( size );
+        out.putInt( MAGIC ).putInt( VERSION ).putInt( fingerprint );
+        out.putInt( lists );
+        for ( int id = 0; id < specs.length; ++id ) {
+            List<String> arguments = detected[ id ] ? options.argumentsOf( specs[ id ] ) : null;
+            if ( arguments != null && !arguments.isEmpty() ) {
+                out.putInt( id );
+                encodeArguments( arguments, out );
+            }
+        }
+        out.putInt( occurrenceIds.length );
+        for ( int each : occurrenceIds )
+            out.putInt( each );
+
+        out.flip();
+        return out;
+    }
+
+    /**
+     * Decodes a set of detected options from the given buffer, from its position to its limit.  The position of the
+     * buffer is left as it is.
+     *
+     * @param encoded the encoded options
+     * @return the decoded options, which read the characters of their arguments from {@code encoded}
+     * @throws IOException if the buffer does not hold a set of options encoded for the options of this codec's parser
+     */
+    public OptionSet decode( ByteBuffer encoded ) throws IOException {
+        ByteBuffer in = encoded.duplicate().order( BIG_ENDIAN );
+        try {
+            if ( in.getInt() != MAGIC )
+                throw new IOException( "not an encoded option set" );
+            int version = in.getInt();
+            if ( version != VERSION )
+                throw new IOException( "unsupported option set version " + version );
+            if ( in.getInt() != fingerprint )
+                throw new IOException( "option set was encoded for other options" );
+
+            List<List<String>> arguments =
+                new ArrayList<List<String>>( nCopies( specs.length, (List<String>) null ) );
+            for ( int count = in.getInt(); count > 0; --count )
+                arguments.set( checkedId( in.getInt() ), decodeArguments( in ) );
+
+            OptionSet options = new OptionSet( parser.recognizedSpecs() );
+            for ( int count = in.getInt(); count > 0; --count ) {
+                int id = checkedId( in.getInt() );
+                options.detect( specs[ id ], arguments.get( id ) );
+            }
+            options.freeze();
+            return options;
+        } catch ( BufferUnderflowException ex ) {
+            throw new IOException( "truncated option set", ex );
+        }
+    }
+
+    /**
+     * Decodes a set of detected options from the given file, which is mapped into memory rather than read.
+     *
+     * @param file the file holding the encoded options
+     * @return the decoded options
+     * @throws IOException if there is a problem mapping the file, or it does not hold a set of options encoded for the
+     * options of this codec's parser
+     * @see #decode(ByteBuffer)
+     */
+    public OptionSet decode( Path file ) throws IOException {
+        try ( FileChannel channel = FileChannel.open( file, READ ) ) {
+            return decode( channel.map( READ_ONLY, 0, channel.size() ) );
+        }
+    }
+
+    /*
+     * Options are told apart by the kind a parser snapshot saves them as, so that a parser loaded from a snapshot
+     * decodes what the parser it was taken from encoded.
+     */
+    private static String kindOf( AbstractOptionSpec<?> spec ) {
+        int kind = ParserSnapshot.kindOf( spec );
+        return kind == ParserSnapshot.UNKNOWN_KIND ? spec.getClass().getName() : String.valueOf( kind );
+    }
+
+    private int idOf( OptionSpec<?> spec ) {
+        Integer id = ids.get( spec );
+        if ( id == null )
+            throw new IllegalArgumentException( "option " + spec.options() + " is not declared by this codec's parser" );
+
+        return id;
+    }
+
+    private int checkedId( int id ) throws IOException {
+        if ( id < 0 || id >= specs.length )
+            throw new IOException( "no option of id " + id );
+
+        return id;
+    }
+
+    /*
+     * Strings take their count, wideness, end offsets, and characters; converted values, their count and values.
+     */
+    private static int sizeOf( OptionSpec<?> spec, List<String> arguments ) {
+        int size = 4 + 1 + 4;
+        if ( arguments instanceof IntArguments )
+            return size + 4 * arguments.size();
+        if ( arguments instanceof LongArguments )
+            return size + 8 * arguments.size();
+        if ( arguments instanceof DoubleArguments )
+            return size + 8 * arguments.size();
+        if ( !( arguments instanceof StringArguments || arguments instanceof CompactArguments ) )
+            throw new IllegalArgumentException( "cannot encode arguments of option " + spec.options() );
+
+        long characters = 0;
+        boolean wide = false;
+        for ( ArgumentCursor each = cursorOver( arguments ); each.next(); ) {
+            characters += each.length();
+            wide = wide || !isLatin1( each );
+        }
+        long total = size + 1 + 4L * arguments.size() + ( wide ? 2 : 1 ) * characters;
+        if ( total > Integer.MAX_VALUE / 2 )
+            throw new IllegalArgumentException( "arguments of option " + spec.options() + " are too long to encode" );
+        return (int) total;
+    }
+
+    private static void encodeArguments( List<String> arguments, ByteBuffer out ) {
+        int size = arguments.size();
+        if ( arguments instanceof IntArguments ) {
+            out.put( (byte) INTS ).putInt( size );
+            for ( int i = 0; i < size; ++i )
+                out.putInt( ( (IntArguments) arguments ).getInt( i ) );
+        } else if ( arguments instanceof LongArguments ) {
+            out.put( (byte) LONGS ).putInt( size );
+            for ( int i = 0; i < size; ++i )
+                out.putLong( ( (LongArguments) arguments ).getLong( i ) );
+        } else if ( arguments instanceof DoubleArguments ) {
+            out.put( (byte) DOUBLES ).putInt( size );
+            for ( int i = 0; i < size; ++i )
+                out.putDouble( ( (DoubleArguments) arguments ).getDouble( i ) );
+        } else
+            encodeStrings( arguments, out );
+    }
+
+    private static void encodeStrings( List<String> arguments, ByteBuffer out ) {
+        boolean wide = false;
+        for ( ArgumentCursor each = cursorOver( arguments ); each.next(); )
+            wide = wide || !isLatin1( each );
+
+        out.put( (byte) STRINGS ).putInt( arguments.size() ).put( (byte) ( wide ? 1 : 0 ) );
+        int end = 0;
+        for ( ArgumentCursor each = cursorOver( arguments ); each.next(); ) {
+            end += each.length();
+            out.putInt( end );
+        }
+        for ( ArgumentCursor each = cursorOver( arguments ); each.next(); ) {
+            for ( int i = 0; i < each.length(); ++i ) {
+                if ( wide )
+                    out.putChar( each.charAt( i ) );
+                else
+                    out.put( (byte) each.charAt( i ) );
+            }
+        }
+    }
+
+    private static List<String> decodeArguments( ByteBuffer in ) throws IOException {
+        int kind = in.get();
+        int size = in.getInt();
+        if ( size <= 0 || size > in.remaining() )
+            throw new IOException( "illegal count of arguments " + size );
+
+        switch ( kind ) {
+            case INTS:
+                int[] ints = new int[ size ];
+                in.asIntBuffer().get( ints );
+                in.position( in.position() + 4 * size );
+                return new IntArguments( ints );
+            case LONGS:
+                long[] longs = new long[ size ];
+                in.asLongBuffer().get( longs );
+                in.position( in.position() + 8 * size );
+                return new LongArguments( longs );
+            case DOUBLES:
+                double[] doubles = new double[ size ];
+                in.asDoubleBuffer().get( doubles );
+                in.position( in.position() + 8 * size );
+                return new DoubleArguments( doubles );
+            case STRINGS:
+                return decodeStrings( in, size );
+            default:
+                throw new IOException( "unknown kind of arguments " + kind );
+        }
+    }
+
+    private static List<String> decodeStrings( ByteBuffer in, int size ) throws IOException {
+        boolean wide = in.get() != 0;
+        int[] ends = new int[ size ];
+        in.asIntBuffer().get( ends );
+        in.position( in.position() + 4 * size );
+        for ( int i = 0; i < size; ++i ) {
+            if ( ends[ i ] < ( i == 0 ? 0 : ends[ i - 1 ] ) )
+                throw new IOException( "illegal end of argument " + ends[ i ] );
+        }
+
+        long bytes = ( wide ? 2L : 1L ) * ends[ size - 1 ];
+        if ( bytes > in.remaining() )
+            throw new IOException( "arguments of " + bytes + " bytes overrun option set" );
+
+        ByteBuffer arena = in.slice();
+        arena.limit( (int) bytes );
+        in.position( in.position() + (int) bytes );
+        return new CompactArguments( arena.asReadOnlyBuffer(), wide, ends );
+    }
+
+    private static ArgumentCursor cursorOver( List<String> arguments ) {
+        return arguments instanceof ArgumentStore
+            ? ( (ArgumentStore) arguments ).cursor()
+            : ArgumentStore.cursorOver( arguments );
+    }
+
+    private static boolean isLatin1( CharSequence argument ) {
+        for ( int i = 0; i < argument.length(); ++i ) {
+            if ( argument.charAt( i ) > 0xFF )
+                return false;
+        }
+        return true;
+    }
+}
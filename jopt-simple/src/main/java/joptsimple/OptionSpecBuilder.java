@@ -29,6 +29,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import static joptsimple.internal.Reflection.*;
+
 /**
  * Allows callers to specify whether a given option accepts arguments (required or optional).
  *
@@ -95,6 +97,103 @@ public class OptionSpecBuilder extends NoArgumentOptionSpec {
         return newSpec;
     }
 
+    /**
+     * Informs an option parser that this builder's option requires an argument of type {@code int}.
+     *
+     * @return a specification for the option
+     */
+    public IntOptionSpec withRequiredIntArg() {
+        IntOptionSpec newSpec = new IntOptionSpec( options(), description() );
+        parser.recognize( newSpec );
+
+        return newSpec;
+    }
+
+    /**
+     * Informs an option parser that this builder's option requires an argument of type {@code long}.
+     *
+     * @return a specification for the option
+     */
+    public LongOptionSpec withRequiredLongArg() {
+        LongOptionSpec newSpec = new LongOptionSpec( options(), description() );
+        parser.recognize( newSpec );
+
+        return newSpec;
+    }
+
+    /**
+     * Informs an option parser that this builder's option requires an argument of type {@code double}.
+     *
+     * @return a specification for the option
+     */
+    public DoubleOptionSpec withRequiredDoubleArg() {
+        DoubleOptionSpec newSpec = new DoubleOptionSpec( options(), description() );
+        parser.recognize( newSpec );
+
+        return newSpec;
+    }
+
+    /**
+     * Informs an option parser that this builder's option requires arguments of the form {@code key=value}, to be
+     * gathered into a map of strings.
+     *
+     * @return a specification for the option
+     */
+    public MapOptionSpec<String> withValuesAsMap() {
+        return recognizeMapSpec( null );
+    }
+
+    /**
+     * Informs an option parser that this builder's option requires arguments of the form {@code key=value}, to be
+     * gathered into a map whose values are of the given type.
+     *
+     * @param <V> represents the runtime class of the desired value type
+     * @param valueType desired type of the values in the map
+     * @return a specification for the option
+     * @throws NullPointerException if the type is {@code null}
+     * @throws IllegalArgumentException if the type does not have the standard conversion methods
+     * @see ArgumentAcceptingOptionSpec#ofType(Class)
+     */
+    public <V> MapOptionSpec<V> withValuesAsMap( Class<V> valueType ) {
+        return withValuesAsMap( findConverter( valueType ) );
+    }
+
+    /**
+     * Informs an option parser that this builder's option requires arguments of the form {@code key=value}, to be
+     * gathered into a map whose values are made by the given converter.
+     *
+     * @param <V> represents the runtime class of the desired value type
+     * @param valueConverter the converter to use for the values in the map
+     * @return a specification for the option
+     * @throws NullPointerException if the converter is {@code null}
+     */
+    public <V> MapOptionSpec<V> withValuesAsMap( ValueConverter<V> valueConverter ) {
+        if ( valueConverter == null )
+            throw new NullPointerException( "illegal null converter" );
+
+        return recognizeMapSpec( valueConverter );
+    }
+
+    private <V> MapOptionSpec<V> recognizeMapSpec( ValueConverter<V> valueConverter ) {
+        MapOptionSpec<V> newSpec = new MapOptionSpec<V>( options(), description(), valueConverter );
+        parser.recognize( newSpec );
+
+        return newSpec;
+    }
+
+    /**
+     * Informs an option parser that this builder's option accepts no argument, but that the number of times it occurs
+     * on a command line is to be counted.
+     *
+     * @return a specification for the option
+     */
+    public CountingOptionSpec counted() {
+        CountingOptionSpec newSpec = new CountingOptionSpec( options(), description() );
+        parser.recognize( newSpec );
+
+        return newSpec;
+    }
+
     /**
      * <p>Informs an option parser that this builder's option is required if the given option is present on the command
      * line.</p>
@@ -50,7 +50,7 @@ class OptionalArgumentOptionSpec<V> extends ArgumentAcceptingOptionSpec<V> {
             if ( !parser.looksLikeAnOption( nextArgument ) )
                 handleOptionArgument( parser, detectedOptions, arguments );
             else if ( isArgumentOfNumberType() && canConvertArgument( nextArgument ) )
-                addArguments( detectedOptions, arguments.next() );
+                addArguments( parser, arguments, detectedOptions, arguments.next() );
             else
                 detectedOptions.add( this );
         }
@@ -61,9 +61,9 @@ class OptionalArgumentOptionSpec<V> extends ArgumentAcceptingOptionSpec<V> {
     private void handleOptionArgument( OptionParser parser, OptionSet detectedOptions, ArgumentList arguments ) {
         if ( parser.posixlyCorrect() ) {
             detectedOptions.add( this );
-            parser.noMoreOptions();
+            arguments.noMoreOptions();
         }
         else
-            addArguments( detectedOptions, arguments.next() );
+            addArguments( parser, arguments, detectedOptions, arguments.next() );
     }
 }
@@ -0,0 +1,119 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple;
+
+import java.util.List;
+
+/**
+ * <p>A problem detected by {@link OptionParser#parseWithDiagnostics(String...)}.</p>
+ *
+ * <p>Each diagnostic carries the {@link OptionException} that {@link OptionParser#parse(String...)} would have thrown
+ * for the same problem, and the index of the command line argument at which the problem was found.</p>
+ *
+ * @see ParseResult
+ */
+public final class ParseDiagnostic {
+    /**
+     * Argument index of problems that do not pertain to any single argument, such as missing required options.
+     */
+    public static final int NO_ARGUMENT_INDEX = -1;
+
+    /**
+     * Kinds of problems that can be detected while parsing.
+     */
+    public enum Kind {
+        /** An option that the parser does not recognize. */
+        UNRECOGNIZED_OPTION,
+
+        /** An option that requires an argument, but was not given one. */
+        MISSING_REQUIRED_ARGUMENT,
+
+        /** An option argument that could not be converted to the option's argument type. */
+        ARGUMENT_CONVERSION_FAILURE,
+
+        /** Options marked as required that did not occur on the command line. */
+        MISSING_REQUIRED_OPTIONS
+    }
+
+    private final OptionException problem;
+    private final int argumentIndex;
+
+    ParseDiagnostic( OptionException problem, int argumentIndex ) {
+        this.problem = problem;
+        this.argumentIndex = argumentIndex;
+    }
+
+    /**
+     * @return what kind of problem this is
+     */
+    public Kind kind() {
+        if ( problem instanceof UnrecognizedOptionException )
+            return Kind.UNRECOGNIZED_OPTION;
+        if ( problem instanceof OptionMissingRequiredArgumentException )
+            return Kind.MISSING_REQUIRED_ARGUMENT;
+        if ( problem instanceof OptionArgumentConversionException )
+            return Kind.ARGUMENT_CONVERSION_FAILURE;
+        return Kind.MISSING_REQUIRED_OPTIONS;
+    }
+
+    /**
+     * Gives the index, in the array of arguments given to the parser, of the argument at which the problem was found.
+     *
+     * @return the argument index, or {@link #NO_ARGUMENT_INDEX} if the problem does not pertain to a single argument
+     */
+    public int argumentIndex() {
+        return argumentIndex;
+    }
+
+    /**
+     * @return the options involved in the problem
+     * @see OptionException#options()
+     */
+    public List<String> options() {
+        return problem.options();
+    }
+
+    /**
+     * @return a message describing the problem
+     */
+    public String message() {
+        return problem.getMessage();
+    }
+
+    /**
+     * Gives the exception that {@link OptionParser#parse(String...)} would have thrown for this problem.
+     *
+     * @return the problem, as an exception
+     */
+    public OptionException problem() {
+        return problem;
+    }
+
+    @Override
+    public String toString() {
+        return argumentIndex == NO_ARGUMENT_INDEX ? message() : "[" + argumentIndex + "] " + message();
+    }
+}
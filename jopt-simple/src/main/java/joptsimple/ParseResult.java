@@ -0,0 +1,72 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple;
+
+import java.util.List;
+
+import static java.util.Collections.*;
+
+/**
+ * Outcome of {@link OptionParser#parseWithDiagnostics(String...)}: the options that could be parsed, along with every
+ * problem detected while parsing.
+ */
+public class ParseResult {
+    private final OptionSet options;
+    private final List<ParseDiagnostic> diagnostics;
+
+    /*
+     * Package-private because clients don't create these.
+     */
+    ParseResult( OptionSet options, List<ParseDiagnostic> diagnostics ) {
+        this.options = options;
+        this.diagnostics = unmodifiableList( diagnostics );
+    }
+
+    /**
+     * Gives the options detected on the command line, less any whose arguments were found to be in error.
+     *
+     * @return the partial set of detected options
+     */
+    public OptionSet options() {
+        return options;
+    }
+
+    /**
+     * Gives the problems detected while parsing, in the order in which they were found.
+     *
+     * @return the problems detected; an empty list if parsing was clean
+     */
+    public List<ParseDiagnostic> diagnostics() {
+        return diagnostics;
+    }
+
+    /**
+     * @return {@code true} if any problems were detected while parsing
+     */
+    public boolean hasDiagnostics() {
+        return !diagnostics.isEmpty();
+    }
+}
@@ -0,0 +1,447 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Arrays.*;
+
+import static joptsimple.internal.Reflection.*;
+
+/**
+ * <p>Saves configured {@linkplain OptionParser parsers} in a compact binary form, and loads them back.</p>
+ *
+ * <p>A parser loaded from a snapshot is not configured again: its options are not checked, their converters are not
+ * looked up by type, and its table of options and their abbreviations is ready to use as loaded.  A program that
+ * builds a large parser can thus write its snapshot at build time, or on its first run, and load it on later
+ * starts.</p>
+ *
+ * <p>Converters are not saved themselves.  A converter found by {@link ArgumentAcceptingOptionSpec#ofType(Class)}
+ * is saved as the name of its type, and found again by it.  Any other converter must be
+ * {@linkplain #withConverter(String, ValueConverter) registered} under an id, both on the snapshot that writes and on
+ * the one that reads.  Default values are saved as their {@linkplain String#valueOf(Object) strings}, and converted
+ * again on loading.</p>
+ *
+ * <p>Snapshots hold options that take no argument, options with required or optional arguments,
+ * {@code int}, {@code long} and {@code double} options, non-option arguments, the alternative form of long options,
+ * and the options required if or unless others are present.  They do not hold option families, maps, counted options,
+ * defaults given by suppliers, or the help formatter, which is that of a new parser.</p>
+ *
+ * <pre>
+ *   <code>
+ *   ParserSnapshot snapshot = new ParserSnapshot().withConverter( "level", levelConverter );
+ *   snapshot.write( parser, out );
+ *   ...
+ *   OptionParser loaded = snapshot.read( in );
+ *   </code>
+ * </pre>
+ */
+public final class ParserSnapshot {
+    private static final int MAGIC = 0x4A4F5054;
+    private static final int VERSION = 1;
+
+    private static final int NO_ARGUMENT = 0;
+    private static final int REQUIRED_ARGUMENT = 1;
+    private static final int OPTIONAL_ARGUMENT = 2;
+    private static final int INT_ARGUMENT = 3;
+    private static final int LONG_ARGUMENT = 4;
+    private static final int DOUBLE_ARGUMENT = 5;
+    private static final int NON_OPTIONS = 6;
+    private static final int ALTERNATIVE_LONG = 7;
+    static final int UNKNOWN_KIND = -1;
+
+    private static final char NO_CONVERTER = '-';
+    private static final char REGISTERED_CONVERTER = '#';
+    private static final char CONVERTER_OF_TYPE = '@';
+
+    private final Map<String, ValueConverter<?>> convertersById = new HashMap<String, ValueConverter<?>>();
+    private final Map<ValueConverter<?>, String> idsOfConverters = new IdentityHashMap<ValueConverter<?>, String>();
+
+    /**
+     * Registers a converter under the given id.
+     *
+     * @param id the id of the converter in snapshots
+     * @param converter the converter
+     * @return self, so that the caller can add clauses to the fluent interface sentence
+     * @throws NullPointerException if either argument is {@code null}
+     * @throws IllegalArgumentException if another converter is already registered under the id
+     */
+    public ParserSnapshot withConverter( String id, ValueConverter<?> converter ) {
+        if ( id == null || converter == null )
+            throw new NullPointerException();
+
+        ValueConverter<?> previous = convertersById.get( id );
+        if ( previous != null && previous != converter )
+            throw new IllegalArgumentException( "converter id " + id + " already registered" );
+
+        convertersById.put( id, converter );
+        idsOfConverters.put( converter, id );
+        return this;
+    }
+
+    /**
+     * Writes a snapshot of the given parser to the given sink.  The sink is flushed, but not closed.
+     *
+     * @param parser the parser to save
+     * @param sink where to write the snapshot
+     * @throws IOException if there is a problem writing to the sink
+     * @throws IllegalArgumentException if the parser has options a snapshot cannot hold, converters that are not
+     * registered, or default values that do not convert back from their strings to equal values
+     */
+    public void write( OptionParser parser, OutputStream sink ) throws IOException {
+        List<AbstractOptionSpec<?>> specs = parser.distinctSpecs();
+        Map<AbstractOptionSpec<?>, Integer> indices = new IdentityHashMap<AbstractOptionSpec<?>, Integer>();
+        for ( int i = 0; i < specs.size(); ++i )
+            indices.put( specs.get( i ), i );
+
+        DataOutputStream out = new DataOutputStream( new BufferedOutputStream( sink ) );
+        out.writeInt( MAGIC );
+        out.writeInt( VERSION );
+        out.writeBoolean( parser.posixlyCorrect() );
+        out.writeBoolean( parser.doesAllowsUnrecognizedOptions() );
+
+        out.writeInt( specs.size() );
+        for ( AbstractOptionSpec<?> each : specs )
+            writeSpec( each, out );
+
+        Map<String, AbstractOptionSpec<?>> recognized = parser.recognizedSpecs();
+        out.writeInt( recognized.size() );
+        for ( Map.Entry<String, AbstractOptionSpec<?>> each : recognized.entrySet() ) {
+            out.writeInt( indices.get( each.getValue() ) );
+            out.writeByte( each.getValue().options().indexOf( each.getKey() ) );
+        }
+
+        writeRequirements( parser.requirementsIf(), recognized, indices, out );
+        writeRequirements( parser.requirementsUnless(), recognized, indices, out );
+        out.flush();
+    }
+
+    /**
+     * Reads a parser back from a snapshot.  The source is not closed.
+     *
+     * @param source where to read the snapshot from
+     * @return the parser
+     * @throws IOException if there is a problem reading from the source, or it does not hold a snapshot
+     * @throws IllegalArgumentException if the snapshot refers to a converter that is neither registered nor found by
+     * type
+     */
+    public OptionParser read( InputStream source ) throws IOException {
+        DataInputStream in = new DataInputStream( new BufferedInputStream( source ) );
+        if ( in.readInt() != MAGIC )
+            throw new IOException( "not a parser snapshot" );
+        int version = in.readInt();
+        if ( version != VERSION )
+            throw new IOException( "unsupported parser snapshot version " + version );
+        boolean posixlyCorrect = in.readBoolean();
+        boolean allowsUnrecognizedOptions = in.readBoolean();
+
+        Map<String, ValueConverter<?>> convertersOfTypes = new HashMap<String, ValueConverter<?>>();
+        AbstractOptionSpec<?>[] specs = new AbstractOptionSpec<?>[ in.readInt() ];
+        for ( int i = 0; i < specs.length; ++i )
+            specs[ i ] = readSpec( in, convertersOfTypes );
+
+        String[] options = new String[ in.readInt() ];
+        AbstractOptionSpec<?>[] specsOfOptions = new AbstractOptionSpec<?>[ options.length ];
+        for ( int i = 0; i < options.length; ++i ) {
+            specsOfOptions[ i ] = specs[ in.readInt() ];
+            options[ i ] = specsOfOptions[ i ].options().get( in.readUnsignedByte() );
+        }
+
+        OptionParser parser = new OptionParser( asList( specs ), options, specsOfOptions );
+        parser.posixlyCorrect( posixlyCorrect );
+        if ( allowsUnrecognizedOptions )
+            parser.allowsUnrecognizedOptions();
+
+        for ( int count = in.readInt(); count > 0; --count )
+            parser.requiredIf( specs[ in.readInt() ].options(), specs[ in.readInt() ] );
+        for ( int count = in.readInt(); count > 0; --count )
+            parser.requiredUnless( specs[ in.readInt() ].options(), specs[ in.readInt() ] );
+
+        return parser;
+    }
+
+    private void writeSpec( AbstractOptionSpec<?> spec, DataOutputStream out ) throws IOException {
+        int kind = kindOf( spec );
+        if ( kind == UNKNOWN_KIND )
+            throw new IllegalArgumentException(
+                "cannot save option " + spec.options() + " of " + spec.getClass().getSimpleName() );
+        out.writeByte( kind );
+        out.writeBoolean( spec.isForHelp() );
+        out.writeBoolean( spec.storesCompactly() );
+        out.writeBoolean( spec.storesOffHeap() );
+
+        if ( kind == NON_OPTIONS ) {
+            NonOptionArgumentSpec<?> nonOptions = (NonOptionArgumentSpec<?>) spec;
+            out.writeUTF( nonOptions.description() );
+            out.writeUTF( nonOptions.argumentDescription() );
+            writeConverter( nonOptions.converter(), out );
+            return;
+        }
+        if ( kind == ALTERNATIVE_LONG )
+            return;
+
+        out.writeInt( spec.options().size() );
+        for ( String each : spec.options() )
+            out.writeUTF( each );
+        out.writeUTF( spec.description() );
+        if ( kind == NO_ARGUMENT )
+            return;
+
+        writeArgumentSpec( (ArgumentAcceptingOptionSpec<?>) spec, out );
+    }
+
+    private <V> void writeArgumentSpec( ArgumentAcceptingOptionSpec<V> spec, DataOutputStream out )
+        throws IOException {
+
+        if ( spec.suppliesDefaultValue() )
+            throw new IllegalArgumentException( "cannot save default supplier of option " + spec.options() );
+
+        out.writeBoolean( spec.isRequired() );
+        out.writeUTF( spec.argumentDescription() );
+        out.writeUTF( spec.valueSeparator() );
+        writeConverter( spec.converter(), out );
+
+        List<V> defaults = spec.defaultValues();
+        out.writeInt( defaults.size() );
+        for ( V each : defaults ) {
+            String text = String.valueOf( each );
+            if ( !each.equals( convertBack( spec.converter(), text ) ) )
+                throw new IllegalArgumentException( "default value " + text + " of option " + spec.options()
+                    + " does not convert back from its string" );
+
+            out.writeUTF( text );
+        }
+    }
+
+    private static Object convertBack( ValueConverter<?> converter, String text ) {
+        if ( converter == null )
+            return text;
+
+        try {
+            return converter.convert( text );
+        } catch ( RuntimeException ignored ) {
+            return null;
+        }
+    }
+
+    private void writeConverter( ValueConverter<?> converter, DataOutputStream out ) throws IOException {
+        if ( converter == null ) {
+            out.writeUTF( String.valueOf( NO_CONVERTER ) );
+            return;
+        }
+
+        String id = idsOfConverters.get( converter );
+        if ( id != null )
+            out.writeUTF( REGISTERED_CONVERTER + id );
+        else if ( converter.valueType() != null && findsConverter( converter ) )
+            out.writeUTF( CONVERTER_OF_TYPE + converter.valueType().getName() );
+        else
+            throw new IllegalArgumentException( "converter " + converter + " is not registered" );
+    }
+
+    private static boolean findsConverter( ValueConverter<?> converter ) {
+        try {
+            return findConverter( converter.valueType() ) == converter;
+        } catch ( IllegalArgumentException ex ) {
+            return false;
+        }
+    }
+
+    private static void writeRequirements( Map<List<String>, Set<OptionSpec<?>>> requirements,
+        Map<String, AbstractOptionSpec<?>> recognized, Map<AbstractOptionSpec<?>, Integer> indices,
+        DataOutputStream out ) throws IOException {
+
+        int count = 0;
+        for ( Set<OptionSpec<?>> each : requirements.values() )
+            count += each.size();
+
+        out.writeInt( count );
+        for ( Map.Entry<List<String>, Set<OptionSpec<?>>> each : requirements.entrySet() ) {
+            int required = indices.get( recognized.get( each.getKey().get( 0 ) ) );
+            for ( OptionSpec<?> dependent : each.getValue() ) {
+                out.writeInt( required );
+                out.writeInt( indices.get( recognized.get( dependent.options().get( 0 ) ) ) );
+            }
+        }
+    }
+
+    /*
+     * Answers the kind of option the given spec is saved as, or UNKNOWN_KIND if it cannot be saved.
+     */
+    static int kindOf( AbstractOptionSpec<?> spec ) {
+        Class<?> type = spec.getClass();
+        if ( type == OptionSpecBuilder.class || type == NoArgumentOptionSpec.class )
+            return NO_ARGUMENT;
+        if ( type == RequiredArgumentOptionSpec.class )
+            return REQUIRED_ARGUMENT;
+        if ( type == OptionalArgumentOptionSpec.class )
+            return OPTIONAL_ARGUMENT;
+        if ( type == IntOptionSpec.class )
+            return INT_ARGUMENT;
+        if ( type == LongOptionSpec.class )
+            return LONG_ARGUMENT;
+        if ( type == DoubleOptionSpec.class )
+            return DOUBLE_ARGUMENT;
+        if ( type == NonOptionArgumentSpec.class )
+            return NON_OPTIONS;
+        if ( type == AlternativeLongOptionSpec.class )
+            return ALTERNATIVE_LONG;
+
+        return UNKNOWN_KIND;
+    }
+
+    private AbstractOptionSpec<?> readSpec( DataInputStream in, Map<String, ValueConverter<?>> convertersOfTypes )
+        throws IOException {
+
+        int kind = in.readByte();
+        boolean forHelp = in.readBoolean();
+        boolean compact = in.readBoolean();
+        boolean offHeap = in.readBoolean();
+
+        AbstractOptionSpec<?> spec;
+        if ( kind == NON_OPTIONS ) {
+            NonOptionArgumentSpec<String> nonOptions = new NonOptionArgumentSpec<String>( in.readUTF() );
+            nonOptions.describedAs( in.readUTF() );
+            ValueConverter<?> converter = readConverter( in, convertersOfTypes );
+            spec = converter == null ? nonOptions : nonOptions.withValuesConvertedBy( converter );
+        }
+        else if ( kind == ALTERNATIVE_LONG )
+            spec = new AlternativeLongOptionSpec();
+        else {
+            String[] options = new String[ in.readInt() ];
+            for ( int i = 0; i < options.length; ++i )
+                options[ i ] = in.readUTF();
+            spec = readOptionSpec( kind, asList( options ), in.readUTF(), in, convertersOfTypes );
+        }
+
+        if ( forHelp )
+            spec.forHelp();
+        if ( compact )
+            spec.storeCompactly( offHeap );
+        return spec;
+    }
+
+    private AbstractOptionSpec<?> readOptionSpec( int kind, List<String> options, String description,
+        DataInputStream in, Map<String, ValueConverter<?>> convertersOfTypes ) throws IOException {
+
+        ArgumentAcceptingOptionSpec<?> spec;
+        switch ( kind ) {
+            case NO_ARGUMENT:
+                return new NoArgumentOptionSpec( options, description );
+            case REQUIRED_ARGUMENT:
+                spec = new RequiredArgumentOptionSpec<String>( options, description );
+                break;
+            case OPTIONAL_ARGUMENT:
+                spec = new OptionalArgumentOptionSpec<String>( options, description );
+                break;
+            case INT_ARGUMENT:
+                spec = new IntOptionSpec( options, description );
+                break;
+            case LONG_ARGUMENT:
+                spec = new LongOptionSpec( options, description );
+                break;
+            case DOUBLE_ARGUMENT:
+                spec = new DoubleOptionSpec( options, description );
+                break;
+            default:
+                throw new IOException( "unknown kind of option " + kind + " in parser snapshot" );
+        }
+
+        return readArguments( spec, in, convertersOfTypes );
+    }
+
+    @SuppressWarnings( { "unchecked", "rawtypes" } )
+    private AbstractOptionSpec<?> readArguments( ArgumentAcceptingOptionSpec spec, DataInputStream in,
+        Map<String, ValueConverter<?>> convertersOfTypes ) throws IOException {
+
+        if ( in.readBoolean() )
+            spec.required();
+        spec.describedAs( in.readUTF() );
+        String separator = in.readUTF();
+        if ( !separator.isEmpty() )
+            spec.withValuesSeparatedBy( separator );
+        ValueConverter<?> converter = readConverter( in, convertersOfTypes );
+        if ( converter != null && converter != spec.converter() )
+            spec.withValuesConvertedBy( converter );
+
+        int defaults = in.readInt();
+        if ( defaults > 0 ) {
+            List<Object> values = new ArrayList<Object>( defaults );
+            for ( int i = 0; i < defaults; ++i )
+                values.add( spec.convert( in.readUTF() ) );
+            spec.defaultsToCollection( values );
+        }
+        return spec;
+    }
+
+    /*
+     * Converters found by type are kept by their references for the rest of the snapshot, so that each type is looked
+     * up by name only once.
+     */
+    private ValueConverter<?> readConverter( DataInputStream in, Map<String, ValueConverter<?>> convertersOfTypes )
+        throws IOException {
+
+        String reference = in.readUTF();
+        switch ( reference.charAt( 0 ) ) {
+            case NO_CONVERTER:
+                return null;
+            case REGISTERED_CONVERTER:
+                ValueConverter<?> registered = convertersById.get( reference.substring( 1 ) );
+                if ( registered == null )
+                    throw new IllegalArgumentException( "no converter registered as " + reference.substring( 1 ) );
+                return registered;
+            case CONVERTER_OF_TYPE:
+                ValueConverter<?> found = convertersOfTypes.get( reference );
+                if ( found == null ) {
+                    found = findConverter( typeNamed( reference.substring( 1 ) ) );
+                    convertersOfTypes.put( reference, found );
+                }
+                return found;
+            default:
+                throw new IOException( "unknown converter " + reference + " in parser snapshot" );
+        }
+    }
+
+    private static Class<?> typeNamed( String name ) {
+        try {
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            return Class.forName( name, false, loader == null ? ParserSnapshot.class.getClassLoader() : loader );
+        } catch ( ClassNotFoundException ex ) {
+            throw new IllegalArgumentException( "no converter type " + name, ex );
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Specification of an option that requires a numeric argument, held unboxed once detected.
+ *
+ * <p>Unlike other options, arguments of these options are converted as they are detected rather than as they are
+ * retrieved, so an argument that cannot be converted is reported when the command line is parsed.</p>
+ *
+ * @param <V> represents the wrapper type of the arguments this option accepts
+ */
+abstract class PrimitiveArgumentOptionSpec<V extends Number> extends RequiredArgumentOptionSpec<V> {
+    PrimitiveArgumentOptionSpec( List<String> options, String description, Class<V> argumentType ) {
+        super( options, description );
+
+        ofType( argumentType );
+    }
+
+    /*
+     * Arguments are parsed as the spec's primitive type whatever the converter, so the one given at construction
+     * stays.
+     */
+    @Override
+    final void checkConverterChange() {
+        if ( converter() != null )
+            throw new IllegalStateException( "cannot change the type of arguments of option " + options() );
+    }
+
+    @Override
+    final void addArgument( OptionParser parser, ArgumentList arguments, OptionSet detectedOptions, String source,
+        int start, int end ) {
+
+        if ( !canConvert( source, start, end ) ) {
+            arguments.reportProblem( conversionProblem( source, start, end ), arguments.previousIndex() );
+            return;
+        }
+
+        store( detectedOptions, source, start, end );
+    }
+
+    /*
+     * Parses the argument held by the given range of source, which the converter has found valid, and records it in
+     * detectedOptions.
+     */
+    abstract void store( OptionSet detectedOptions, String source, int start, int end );
+
+    final void ensureSingleValue( List<String> values ) {
+        if ( values.isEmpty() )
+            throw new NoSuchElementException( "No argument or default value for option " + options() );
+        if ( values.size() > 1 )
+            throw new MultipleArgumentsForOptionException( this );
+    }
+}
@@ -44,9 +44,11 @@ class RequiredArgumentOptionSpec<V> extends ArgumentAcceptingOptionSpec<V> {
 
     @Override
     protected void detectOptionArgument( OptionParser parser, ArgumentList arguments, OptionSet detectedOptions ) {
-        if ( !arguments.hasMore() )
-            throw new OptionMissingRequiredArgumentException( this );
+        if ( !arguments.hasMore() ) {
+            arguments.reportProblem( new OptionMissingRequiredArgumentException( this ), arguments.previousIndex() );
+            return;
+        }
 
-        addArguments( detectedOptions, arguments.next() );
+        addArguments( parser, arguments, detectedOptions, arguments.next() );
     }
 }
@@ -0,0 +1,120 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple;
+
+import java.util.Arrays;
+
+/**
+ * Holds the arguments of an option as ranges of the command line arguments they came from, so that values split out
+ * of a longer argument become strings only when asked for.
+ */
+final class StringArguments extends ArgumentStore {
+    private String[] sources = new String[ 4 ];
+    private int[] bounds = new int[ 8 ];
+    private int size;
+
+    @Override
+    void add( String source, int start, int end ) {
+        if ( size == sources.length ) {
+            sources = Arrays.copyOf( sources, size * 2 );
+            bounds = Arrays.copyOf( bounds, size * 4 );
+        }
+
+        sources[ size ] = source;
+        bounds[ 2 * size ] = start;
+        bounds[ 2 * size + 1 ] = end;
+        ++size;
+    }
+
+    String source( int index ) {
+        checkIndex( index );
+        return sources[ index ];
+    }
+
+    int start( int index ) {
+        checkIndex( index );
+        return bounds[ 2 * index ];
+    }
+
+    int end( int index ) {
+        checkIndex( index );
+        return bounds[ 2 * index + 1 ];
+    }
+
+    @Override
+    ArgumentCursor cursor() {
+        return new ArgumentCursor() {
+            private int index = -1;
+            private String source = "";
+            private int start;
+            private int end;
+
+            public boolean next() {
+                if ( index + 1 >= size )
+                    return false;
+
+                ++index;
+                source = sources[ index ];
+                start = bounds[ 2 * index ];
+                end = bounds[ 2 * index + 1 ];
+                return true;
+            }
+
+            public int length() {
+                return end - start;
+            }
+
+            public char charAt( int position ) {
+                if ( position < 0 || position >= end - start )
+                    throw new IndexOutOfBoundsException( String.valueOf( position ) );
+
+                return source.charAt( start + position );
+            }
+
+            public CharSequence subSequence( int from, int to ) {
+                if ( from < 0 || to > end - start || from > to )
+                    throw new IndexOutOfBoundsException( "[" + from + ", " + to + ')' );
+
+                return source.subSequence( start + from, start + to );
+            }
+
+            @Override
+            public String toString() {
+                return source.substring( start, end );
+            }
+        };
+    }
+
+    @Override
+    public String get( int index ) {
+        return source( index ).substring( start( index ), end( index ) );
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -25,6 +25,11 @@
 
 package joptsimple;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import joptsimple.internal.ReflectionException;
+
 /**
  * Instances of this interface are used to convert arguments of options into specific Java types.
  *
@@ -41,6 +46,91 @@ public interface ValueConverter<V> {
      */
     V convert( String value );
 
+    /**
+     * <p>Tells whether the given string value can be converted into a Java type, without raising an exception when it
+     * cannot.  The parser uses this to look ahead at arguments, for example to tell whether {@code -5} is the negative
+     * number argument of an option or an option of its own.</p>
+     *
+     * <p>This default implementation attempts the {@linkplain #convert(String) conversion} and answers whether it
+     * succeeded.  Converters that can check a value more cheaply than by failing to convert it should override this
+     * method; an override must answer {@code true} exactly when {@link #convert(String)} would succeed.</p>
+     *
+     * @param value the string to check
+     * @return whether {@link #convert(String)} would succeed for the value
+     */
+    default boolean canConvert( String value ) {
+        try {
+            convert( value );
+            return true;
+        } catch ( ValueConversionException ex ) {
+            return false;
+        } catch ( ReflectionException ex ) {
+            return false;
+        }
+    }
+
+    /**
+     * <p>Converts the characters of the given sequence between {@code start} (inclusive) and {@code end} (exclusive)
+     * into a Java type.  The parser uses this when a value is part of a longer argument, such as one of several values
+     * {@linkplain ArgumentAcceptingOptionSpec#withValuesSeparatedBy(String) separated} within it.</p>
+     *
+     * <p>This default implementation converts the string made of those characters.  Converters that can read the
+     * characters in place should override this method; an override must behave as {@link #convert(String)} does for
+     * that string.  The sequence may be reused once the call returns, so an override must not keep it.</p>
+     *
+     * @param source the characters holding the value
+     * @param start index of the first character of the value
+     * @param end index following the last character of the value
+     * @return the converted value
+     * @throws ValueConversionException if a problem occurs while converting the value
+     * @throws IndexOutOfBoundsException if {@code start} or {@code end} do not denote a range of {@code source}
+     */
+    default V convert( CharSequence source, int start, int end ) {
+        return convert( source.subSequence( start, end ).toString() );
+    }
+
+    /**
+     * Tells whether the characters of the given sequence between {@code start} (inclusive) and {@code end}
+     * (exclusive) can be {@linkplain #convert(CharSequence, int, int) converted}.  This default implementation checks
+     * the string made of those characters.
+     *
+     * @param source the characters holding the value
+     * @param start index of the first character of the value
+     * @param end index following the last character of the value
+     * @return whether {@link #convert(CharSequence, int, int)} would succeed for the range
+     * @throws IndexOutOfBoundsException if {@code start} or {@code end} do not denote a range of {@code source}
+     */
+    default boolean canConvert( CharSequence source, int start, int end ) {
+        return canConvert( source.subSequence( start, end ).toString() );
+    }
+
+    /**
+     * <p>Converts all the given string values at once.  {@link OptionSet#valuesOf(OptionSpec)} uses this, rather than
+     * converting values one at a time, when a converter overrides it; converters that can do better on a whole list,
+     * for example by converting each distinct value only once or by handling several values in one call to a slow
+     * service, should do so.</p>
+     *
+     * <p>This default implementation {@linkplain #convert(String) converts} each value in turn.  An override must
+     * answer a list of the same size as the given one, holding in each position what {@link #convert(String)} would
+     * for the value in that position.  An override that fails should throw {@link IndexedValueConversionException},
+     * naming the value at fault; should it fail otherwise, the values are converted one at a time to find it.</p>
+     *
+     * @param values the strings to convert; not to be modified
+     * @return the converted values, in the same order
+     * @throws IndexedValueConversionException if a problem occurs while converting one of the values
+     */
+    default List<V> convertAll( List<String> values ) {
+        List<V> converted = new ArrayList<V>( values.size() );
+        for ( int i = 0; i < values.size(); ++i ) {
+            try {
+                converted.add( convert( values.get( i ) ) );
+            } catch ( ValueConversionException ex ) {
+                throw new IndexedValueConversionException( i, ex );
+            }
+        }
+        return converted;
+    }
+
     /**
      * Gives the class of the type of values this converter converts to.
      *
@@ -0,0 +1,82 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple;
+
+/**
+ * <p>Walks the values of an argument that holds several of them apart by a separator, without copying them.</p>
+ *
+ * <p>The separator is matched literally, from left to right, and matches do not overlap.  The values are the
+ * non-empty runs of characters between matches; empty runs, such as those between consecutive separators or at either
+ * end of the argument, are skipped.  An empty separator does not separate anything.</p>
+ */
+final class ValueSplitter {
+    private final String source;
+    private final String separator;
+    private int start;
+    private int end;
+    private int next;
+
+    ValueSplitter( String source, String separator ) {
+        this.source = source;
+        this.separator = separator;
+    }
+
+    /*
+     * Moves to the next value, answering false if there are no more.
+     */
+    boolean advance() {
+        while ( next <= source.length() ) {
+            int found = indexOfSeparator();
+            start = next;
+            end = found == -1 ? source.length() : found;
+            next = found == -1 ? source.length() + 1 : found + separator.length();
+
+            if ( end > start )
+                return true;
+        }
+
+        return false;
+    }
+
+    int start() {
+        return start;
+    }
+
+    int end() {
+        return end;
+    }
+
+    private int indexOfSeparator() {
+        switch ( separator.length() ) {
+            case 0:
+                return -1;
+            case 1:
+                return source.indexOf( separator.charAt( 0 ), next );
+            default:
+                return source.indexOf( separator, next );
+        }
+    }
+}
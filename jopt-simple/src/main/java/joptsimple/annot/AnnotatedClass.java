@@ -1,16 +1,18 @@
 package joptsimple.annot;
 
-import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import joptsimple.ArgumentAcceptingOptionSpec;
+import joptsimple.DoubleOptionSpec;
+import joptsimple.IntOptionSpec;
+import joptsimple.LongOptionSpec;
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
 import joptsimple.OptionSpec;
@@ -43,12 +45,14 @@ import joptsimple.OptionSpecBuilder;
  * expected datatype (which is the type of the field in DTO class). Primitive
  * types, enumerations, Strings, and Lists from these types are supported out of the
  * box. For parsing more complex datatypes automatically see
- * {@link ArgumentAcceptingOptionSpec#ofType(Class)}
+ * {@link ArgumentAcceptingOptionSpec#ofType(Class)}; the full list of supported
+ * types, and how to add more, is given by {@link OptionFactories}.
  * 
  * @author rizsi, agostoni
  * 
  * @see JOHelp
  * @see JOSimpleBoolean
+ * @see OptionFactories
  * @see OptionParser
  */
 public class AnnotatedClass {
@@ -105,23 +109,13 @@ public class AnnotatedClass {
 		options=parser.parse(args);
 		for(Option opt: this.args)
 		{
-			Object value=null;
-			if(isSimpleBoolean(opt.f))
+			if(setPrimitiveValue(opt))
 			{
-				value=options.has(opt.spec);
-			}else if(opt.f.getType()==List.class)
-			{
-				value=options.valuesOf(opt.spec);
-			}else
-			{
-				value=opt.spec.value(options);
+				continue;
 			}
+			Object value=opt.factory.valueOf(opt.spec, options);
 			if(value!=null)
 			{
-				if(opt.f.getType().isEnum())
-				{
-					value=parseEnumValue(opt.f, value);
-				}
 				opt.f.set(opt.o, value);
 			}
 		}
@@ -130,14 +124,37 @@ public class AnnotatedClass {
 			nonOptionArguments.f.set(nonOptionArguments.o, nonOptionArguments());
 		}
 	}
-	@SuppressWarnings("unchecked")
-	private Object parseEnumValue(Field f, Object value) {
-		@SuppressWarnings("rawtypes")
-		Class<Enum> e=(Class<Enum>)f.getType();
-		return Enum.valueOf(e, ""+value);
+	/**
+	 * Sets int, long and double fields straight from the unboxed arguments
+	 * of their option.
+	 * @return false if the field is not of such a type
+	 */
+	private boolean setPrimitiveValue(Option opt) throws IllegalAccessException
+	{
+		Class<?> t=opt.f.getType();
+		if(t==int.class&&opt.spec instanceof IntOptionSpec)
+		{
+			opt.f.setInt(opt.o, ((IntOptionSpec)opt.spec).valueAsInt(options));
+		}else if(t==long.class&&opt.spec instanceof LongOptionSpec)
+		{
+			opt.f.setLong(opt.o, ((LongOptionSpec)opt.spec).valueAsLong(options));
+		}else if(t==double.class&&opt.spec instanceof DoubleOptionSpec)
+		{
+			opt.f.setDouble(opt.o, ((DoubleOptionSpec)opt.spec).valueAsDouble(options));
+		}else
+		{
+			return false;
+		}
+		return true;
+	}
+	OptionParser parser() {
+		return parser;
 	}
-	private boolean isSimpleBoolean(Field f) {
-		return f.getAnnotation(JOSimpleBoolean.class)!=null;
+	List<Option> options() {
+		return args;
+	}
+	Option nonOptionArgumentsOption() {
+		return nonOptionArguments;
 	}
 
 	/**
@@ -157,9 +174,10 @@ public class AnnotatedClass {
 	{
 		parser = new OptionParser();
 		args=new ArrayList<Option>();
-		parseFields(programArgumentsObject, "");
+		parseFields(programArgumentsObject, "", Collections.<Field>emptyList());
 	}
-	private void parseFields(Object programArgumentsObject, String prefix) throws Exception
+	private void parseFields(Object programArgumentsObject, String prefix,
+			List<Field> delegates) throws Exception
 	{
 		Class<?> c=programArgumentsObject.getClass();
 		List<Field> fs=getArgFields(c);
@@ -167,111 +185,35 @@ public class AnnotatedClass {
 		{
 			if(f.getAnnotation(JONonOptionArgumentsList.class)!=null)
 			{
-				nonOptionArguments=new Option(programArgumentsObject, f, null);
+				nonOptionArguments=new Option(programArgumentsObject, f, null, null, delegates);
 				continue;
 			}
 			if(f.getAnnotation(JOSkip.class)!=null)
 			{
 				continue;
 			}
-			Class<?> t=f.getType();
-			if(t.isPrimitive())
-			{
-				t=getWrappingClass(t);
-			}
 			if(f.getAnnotation(JODelegate.class)!=null)
 			{
 				JODelegate d=f.getAnnotation(JODelegate.class);
 				String subprefix=d.prefix()==null?"":d.prefix();
 				Object delegate=f.get(programArgumentsObject);
-				parseFields(delegate, prefix+subprefix);
+				List<Field> subdelegates=new ArrayList<Field>(delegates);
+				subdelegates.add(f);
+				parseFields(delegate, prefix+subprefix, subdelegates);
 				continue;
 			}
-			OptionSpecBuilder spec=parser.accepts(getArgumentName(prefix,f.getName()), getHelp(f));
-			Object defaultValue=f.get(programArgumentsObject);
-			OptionSpec<?>a=null;
-			if(t==Integer.class)
-			{
-				ArgumentAcceptingOptionSpec<Integer> aa=spec.withRequiredArg().ofType(Integer.class);
-				a=aa;
-				if(defaultValue!=null)
-				{
-					aa.defaultsTo((Integer)defaultValue);
-				}
-				
-			}
-			else if(t==Boolean.class)
-			{
-				if(isSimpleBoolean(f))
-				{
-					a=spec;
-				}else
-				{
-					ArgumentAcceptingOptionSpec<Boolean> aa=spec.withRequiredArg()
-							.withValuesConvertedBy(BooleanConverter.getInstance());
-					a=aa;
-					if(defaultValue!=null)
-					{
-						aa.defaultsTo((Boolean)defaultValue);
-					}
-				}
-			}else if(File.class==t)
-			{
-				ArgumentAcceptingOptionSpec<File> bb=spec.withRequiredArg().ofType(File.class);
-				a=bb;
-				if(defaultValue!=null)
-				{
-					bb.defaultsTo((File) defaultValue);
-				}
-			}
-			else if(String.class==t)
-			{
-				ArgumentAcceptingOptionSpec<String> bb=spec.withRequiredArg().ofType(String.class);
-				a=bb;
-				if(defaultValue!=null)
-				{
-					bb.defaultsTo((String) defaultValue);
-				}
-			}
-			else if(t==Long.class)
-			{
-				ArgumentAcceptingOptionSpec<Long> bb=spec.withRequiredArg().ofType(Long.class);
-				a=bb;
-				if(defaultValue!=null)
-				{
-					bb.defaultsTo((Long) defaultValue);
-				}
-			}
-			else if(t.isEnum())
-			{
-				ArgumentAcceptingOptionSpec<String> en=spec.withRequiredArg().ofType(String.class);
-				a=en;
-				if(defaultValue!=null)
-				{
-					en.defaultsTo(""+defaultValue);
-				}
-			}else if(t==List.class)
-			{
-				ArgumentAcceptingOptionSpec<?> en = createListParameters(spec,
-						defaultValue, getListElementType(f));
-				a=en;
-			}else if(t==Double.class)
+			OptionFactory factory=OptionFactories.of(f);
+			if(factory==null)
 			{
-				ArgumentAcceptingOptionSpec<Double> bb=spec.withRequiredArg().ofType(Double.class);
-				a=bb;
-				if(defaultValue!=null)
+				if(f.getType()==List.class||f.getType()==Set.class)
 				{
-					bb.defaultsTo((Double) defaultValue);
+					throw new RuntimeException("Raw list types are not supported "+f.getName());
 				}
+				throw new RuntimeException("Type Not implemented: "+f.getType());
 			}
-			else
-			{
-				throw new RuntimeException("Type Not implemented: "+t);
-			}
-			if(a!=null)
-			{
-				args.add(new Option(programArgumentsObject, f, a));
-			}
+			OptionSpecBuilder spec=parser.accepts(getArgumentName(prefix,f.getName()), getHelp(f));
+			OptionSpec<?> a=factory.declare(spec, f, f.get(programArgumentsObject));
+			args.add(new Option(programArgumentsObject, f, a, factory, delegates));
 		}
 	}
 	private String getArgumentName(String prefix, String name) {
@@ -300,74 +242,6 @@ public class AnnotatedClass {
 		return false;
 	}
 	
-	private <T>ArgumentAcceptingOptionSpec<T> createListParameters(
-			OptionSpecBuilder spec, Object defaultValue, Class<T> elementType) {
-		if (elementType != null){
-			ArgumentAcceptingOptionSpec<T> en=spec.withRequiredArg().ofType(elementType).withValuesSeparatedBy(',');
-			if (defaultValue != null){
-				@SuppressWarnings("unchecked")
-				List<T> defaults = (List<T>) defaultValue;
-				if (!defaults.isEmpty()){
-					en.defaultsToCollection(defaults);
-				}
-			}
-			return en;
-		} else {
-			throw new RuntimeException("Raw list types are not supported "+spec.toString());
-		}
-	}
-	
-	/**
-	 * Returns the generic type argument of {@link List} class, that is used
-	 * in the declaration of the specified {@link Field}.
-	 * <p>
-	 * Example:
-	 * <pre>
-	 * 
-	 * Class M {
-	 * 	List&lt;Integer> myField;
-	 * }
-	 * 
-	 * getListElementType(M.class.getField("myField")) will return Integer.class
-	 * </pre>
-	 * @param f
-	 *            A field with type {@link List}
-	 * @return
-	 */
-	private Class<?> getListElementType(Field f) {
-		if (f != null){
-			if (f.getType().equals(List.class)){
-				Type genericFieldType = f.getGenericType();
-				if (genericFieldType instanceof ParameterizedType){
-					ParameterizedType aType = (ParameterizedType) genericFieldType;
-					Type[] fieldArgTypes = aType.getActualTypeArguments();
-					if (fieldArgTypes != null && fieldArgTypes.length == 1){
-						return (Class<?>) fieldArgTypes[0];
-					}
-				}
-			}
-		}
-		return null;
-	}
-	private Class<?> getWrappingClass(Class<?> t) {
-		if(t==int.class)
-		{
-			return Integer.class;
-		}
-		if(t==long.class)
-		{
-			return Long.class;
-		}
-		if(t==boolean.class)
-		{
-			return Boolean.class;
-		}
-		if(t==double.class)
-		{
-			return Double.class;
-		}
-		throw new RuntimeException("No wrappng type present implemented for: "+t);
-	}
 	private String getHelpText(Object o) throws SecurityException, NoSuchFieldException
 	{
 		JOHelp h=null;
@@ -402,15 +276,17 @@ public class AnnotatedClass {
 		{
 			ret.append("Undocumented");
 		}
-		if(f.getType().isEnum())
+		Class<?> valueType=f.getType();
+		if(valueType==List.class||valueType==Set.class)
+		{
+			valueType=OptionFactories.elementTypeOf(f);
+		}else if(valueType.isArray())
 		{
-			appendEnumDocumentation(f.getType(), ret);
+			valueType=valueType.getComponentType();
 		}
-		if (f.getType() == List.class){
-			Class<?> elementType = getListElementType(f);
-			if (elementType != null && elementType.isEnum()){
-				appendEnumDocumentation(elementType, ret);
-			}
+		if(valueType!=null&&valueType.isEnum())
+		{
+			appendEnumDocumentation(valueType, ret);
 		}
 		return ret.toString();
 	}
@@ -0,0 +1,248 @@
+package joptsimple.annot;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import joptsimple.DoubleOptionSpec;
+import joptsimple.IntOptionSpec;
+import joptsimple.LongOptionSpec;
+import joptsimple.OptionException;
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import joptsimple.OptionSpec;
+
+/**
+ * Binds command line arguments into new instances of a DTO class, the way
+ * {@link AnnotatedClass} does into a given one.
+ * <p>
+ * The DTO class is walked once, including the classes of its
+ * {@link JODelegate} fields, and the binder made from it is kept for as long
+ * as the class is loaded. Fields are written through method handles rather than
+ * through reflection. A binder holds no state of its own between bindings, so it
+ * can be shared by threads, each binding its own command lines.
+ * <p>
+ * The DTO class must have a public constructor that takes no arguments. Default
+ * values of options are those of the fields of an instance made by it, and
+ * every new instance is expected to have the same ones, along with an instance
+ * of its own in each {@link JODelegate} field.
+ *
+ * <h3>Usage</h3>
+ * <pre>
+ * MyArgs args = Binder.of(MyArgs.class).bind(commandLine);
+ * </pre>
+ *
+ * @param <T> the DTO class
+ * @see AnnotatedClass
+ */
+public final class Binder<T> {
+	private static final ClassValue<Binder<?>> BINDERS = new ClassValue<Binder<?>>() {
+		@Override
+		protected Binder<?> computeValue(Class<?> type) {
+			return compile(type);
+		}
+	};
+	private static final int VALUE = 0;
+	private static final int PRESENCE = 1;
+	private static final int INT = 2;
+	private static final int LONG = 3;
+	private static final int DOUBLE = 4;
+
+	private final AnnotatedClass annotated;
+	private final OptionParser parser;
+	private final MethodHandle constructor;
+	private final Binding[] bindings;
+	private final MethodHandle nonOptionArguments;
+
+	private Binder(AnnotatedClass annotated, MethodHandle constructor,
+			Binding[] bindings, MethodHandle nonOptionArguments) {
+		this.annotated = annotated;
+		this.parser = annotated.parser();
+		this.constructor = constructor;
+		this.bindings = bindings;
+		this.nonOptionArguments = nonOptionArguments;
+	}
+
+	/**
+	 * Gives the binder of the given DTO class, making it on first use.
+	 *
+	 * @param <T> the DTO class
+	 * @param type the DTO class
+	 * @return the binder of the class
+	 * @throws IllegalArgumentException if the class cannot be bound, for
+	 *             example because it has no public constructor without
+	 *             arguments, or has fields of types that are not supported
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Binder<T> of(Class<T> type) {
+		return (Binder<T>) BINDERS.get(type);
+	}
+
+	/**
+	 * Parses the given command line arguments into a new instance of the DTO
+	 * class.
+	 *
+	 * @param arguments the arguments to parse
+	 * @return the new instance, holding the values of the arguments
+	 * @throws OptionException if the arguments cannot be parsed
+	 */
+	@SuppressWarnings("unchecked")
+	public T bind(String... arguments) {
+		OptionSet options = parser.parse(arguments);
+		try {
+			Object target = constructor.invokeExact();
+			for (Binding each : bindings) {
+				each.bind(target, options);
+			}
+			if (nonOptionArguments != null) {
+				nonOptionArguments.invokeExact(target, (Object) nonOptionArgumentsOf(options));
+			}
+			return (T) target;
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Prints a user readable documentation of arguments.
+	 *
+	 * @param out The target {@link PrintStream}
+	 * @throws IOException
+	 * @see AnnotatedClass#printHelpOn(PrintStream)
+	 */
+	public void printHelpOn(PrintStream out) throws IOException {
+		synchronized (annotated) {
+			annotated.printHelpOn(out);
+		}
+	}
+
+	private static List<String> nonOptionArgumentsOf(OptionSet options) {
+		List<String> ret = new ArrayList<String>();
+		for (Object o : options.nonOptionArguments()) {
+			ret.add("" + o);
+		}
+		return ret;
+	}
+
+	private static Binder<?> compile(Class<?> type) {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			MethodHandle constructor = lookup.findConstructor(type, MethodType.methodType(void.class))
+					.asType(MethodType.methodType(Object.class));
+			AnnotatedClass annotated = new AnnotatedClass();
+			annotated.parseAnnotations((Object) constructor.invokeExact());
+
+			List<Binding> bindings = new ArrayList<Binding>();
+			for (Option each : annotated.options()) {
+				int kind = kindOf(each);
+				bindings.add(new Binding(each.spec, each.factory, kind, setter(lookup, each, kind)));
+			}
+			Option nonOptions = annotated.nonOptionArgumentsOption();
+			return new Binder<Object>(annotated, constructor, bindings.toArray(new Binding[bindings.size()]),
+					nonOptions == null ? null : setter(lookup, nonOptions, VALUE));
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("cannot bind " + type + ": " + e, e);
+		} catch (Throwable e) {
+			throw new IllegalArgumentException("cannot bind " + type + ": " + e, e);
+		}
+	}
+
+	/**
+	 * Options of primitive fields made by the built in factories are read
+	 * without boxing; all others through their factory.
+	 */
+	private static int kindOf(Option option) {
+		Class<?> t = option.f.getType();
+		if (t == int.class && option.spec instanceof IntOptionSpec) {
+			return INT;
+		}
+		if (t == long.class && option.spec instanceof LongOptionSpec) {
+			return LONG;
+		}
+		if (t == double.class && option.spec instanceof DoubleOptionSpec) {
+			return DOUBLE;
+		}
+		if (t == boolean.class && option.f.getAnnotation(JOSimpleBoolean.class) != null) {
+			return PRESENCE;
+		}
+		return VALUE;
+	}
+
+	/**
+	 * Makes a handle that writes the field of the given option, starting from
+	 * the object handed to the binder, through the chain of delegates.
+	 */
+	private static MethodHandle setter(MethodHandles.Lookup lookup, Option option, int kind)
+			throws IllegalAccessException {
+		MethodHandle setter = lookup.unreflectSetter(option.f);
+		List<Field> delegates = option.delegates;
+		if (!delegates.isEmpty()) {
+			MethodHandle path = lookup.unreflectGetter(delegates.get(0));
+			for (int i = 1; i < delegates.size(); ++i) {
+				path = MethodHandles.filterReturnValue(path, lookup.unreflectGetter(delegates.get(i)));
+			}
+			setter = MethodHandles.filterArguments(setter, 0, path);
+		}
+		return setter.asType(MethodType.methodType(void.class, Object.class, valueTypeOf(kind)));
+	}
+
+	private static Class<?> valueTypeOf(int kind) {
+		switch (kind) {
+		case INT:
+			return int.class;
+		case LONG:
+			return long.class;
+		case DOUBLE:
+			return double.class;
+		case PRESENCE:
+			return boolean.class;
+		default:
+			return Object.class;
+		}
+	}
+
+	private static final class Binding {
+		private final OptionSpec<?> spec;
+		private final OptionFactory factory;
+		private final int kind;
+		private final MethodHandle setter;
+
+		Binding(OptionSpec<?> spec, OptionFactory factory, int kind, MethodHandle setter) {
+			this.spec = spec;
+			this.factory = factory;
+			this.kind = kind;
+			this.setter = setter;
+		}
+
+		void bind(Object target, OptionSet options) throws Throwable {
+			switch (kind) {
+			case INT:
+				setter.invokeExact(target, ((IntOptionSpec) spec).valueAsInt(options));
+				break;
+			case LONG:
+				setter.invokeExact(target, ((LongOptionSpec) spec).valueAsLong(options));
+				break;
+			case DOUBLE:
+				setter.invokeExact(target, ((DoubleOptionSpec) spec).valueAsDouble(options));
+				break;
+			case PRESENCE:
+				setter.invokeExact(target, options.has(spec));
+				break;
+			default:
+				Object value = factory.valueOf(spec, options);
+				if (value != null) {
+					setter.invokeExact(target, value);
+				}
+			}
+		}
+	}
+}
@@ -35,6 +35,11 @@ public class BooleanConverter implements ValueConverter<Boolean> {
 		}
 	}
 
+	@Override
+	public boolean canConvert(String value) {
+		return "true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value);
+	}
+
 	@Override
 	public Class<? extends Boolean> valueType() {
 		return Boolean.class;
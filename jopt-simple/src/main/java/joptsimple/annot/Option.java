@@ -1,6 +1,8 @@
 package joptsimple.annot;
 
 import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.List;
 
 import joptsimple.OptionSpec;
 
@@ -11,11 +13,26 @@ public class Option {
 	public final Object o;
 	public final Field f;
 	public final OptionSpec<?> spec;
+	/**
+	 * The {@link JODelegate} fields leading from the object given to
+	 * {@link AnnotatedClass#parseAnnotations(Object)} to {@link #o}.
+	 */
+	final List<Field> delegates;
+	/**
+	 * Gives the value of {@link #f} after parsing; <code>null</code> if the
+	 * option was not made by a factory.
+	 */
+	final OptionFactory factory;
 	public Option(Object o, Field f, OptionSpec<?> spec) {
+		this(o, f, spec, null, Collections.<Field>emptyList());
+	}
+	Option(Object o, Field f, OptionSpec<?> spec, OptionFactory factory, List<Field> delegates) {
 		super();
 		this.o = o;
 		this.f = f;
 		this.spec = spec;
+		this.factory = factory;
+		this.delegates = delegates;
 	}
 	@Override
 	public String toString() {
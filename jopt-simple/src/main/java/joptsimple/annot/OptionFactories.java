@@ -0,0 +1,447 @@
+package joptsimple.annot;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import joptsimple.ArgumentAcceptingOptionSpec;
+import joptsimple.DoubleOptionSpec;
+import joptsimple.IntOptionSpec;
+import joptsimple.LongOptionSpec;
+import joptsimple.OptionSet;
+import joptsimple.OptionSpec;
+import joptsimple.OptionSpecBuilder;
+import joptsimple.ValueConversionException;
+import joptsimple.ValueConverter;
+import joptsimple.internal.Reflection;
+import joptsimple.util.DateTimeConverter;
+import joptsimple.util.DurationConverter;
+import joptsimple.util.EnumConverter;
+
+import static joptsimple.internal.Messages.message;
+
+/**
+ * The {@link OptionFactory} of each type of DTO field.
+ * <p>
+ * Out of the box, fields may be of any primitive type, of a type converted by
+ * {@link joptsimple.ArgumentAcceptingOptionSpec#ofType(Class)} (such as
+ * {@link String}, {@link java.io.File}, the wrappers of primitives and enums),
+ * of {@link Path}, of {@link Duration}, or of one of the ISO forms of
+ * {@link Instant}, {@link LocalDate}, {@link LocalTime}, {@link LocalDateTime}
+ * and {@link OffsetDateTime}; or arrays, {@link List}s and {@link Set}s of
+ * such values, whose arguments may be separated by commas.
+ * <p>
+ * The factory of a type is found once and then kept for as long as the type is
+ * loaded. More types are supported by registering a converter for their
+ * values, or a factory for fields of exactly that type; either should be done
+ * before the first DTO with such fields is parsed.
+ *
+ * @see AnnotatedClass
+ * @see Binder
+ */
+public final class OptionFactories {
+	private static final ConcurrentMap<Class<?>, OptionFactory> FACTORIES = new ConcurrentHashMap<Class<?>, OptionFactory>();
+	private static final ConcurrentMap<Class<?>, ValueConverter<?>> CONVERTERS = new ConcurrentHashMap<Class<?>, ValueConverter<?>>();
+	private static final ClassValue<OptionFactory> BY_TYPE = new ClassValue<OptionFactory>() {
+		@Override
+		protected OptionFactory computeValue(Class<?> type) {
+			return create(type);
+		}
+	};
+	private static final ClassValue<OptionFactory> LISTS = new ClassValue<OptionFactory>() {
+		@Override
+		protected OptionFactory computeValue(Class<?> elementType) {
+			ValueConverter<?> converter = converterOf(elementType);
+			return converter == null ? null : new ListFactory(converter);
+		}
+	};
+	private static final ClassValue<OptionFactory> SETS = new ClassValue<OptionFactory>() {
+		@Override
+		protected OptionFactory computeValue(Class<?> elementType) {
+			ValueConverter<?> converter = converterOf(elementType);
+			return converter == null ? null : new SetFactory(converter);
+		}
+	};
+	private static final OptionFactory INT = new OptionFactory() {
+		@Override
+		public OptionSpec<?> declare(OptionSpecBuilder builder, Field field, Object defaultValue) {
+			IntOptionSpec spec = builder.withRequiredIntArg();
+			spec.defaultsTo((Integer) defaultValue);
+			return spec;
+		}
+
+		@Override
+		public Object valueOf(OptionSpec<?> spec, OptionSet options) {
+			return ((IntOptionSpec) spec).valueAsInt(options);
+		}
+	};
+	private static final OptionFactory LONG = new OptionFactory() {
+		@Override
+		public OptionSpec<?> declare(OptionSpecBuilder builder, Field field, Object defaultValue) {
+			LongOptionSpec spec = builder.withRequiredLongArg();
+			spec.defaultsTo((Long) defaultValue);
+			return spec;
+		}
+
+		@Override
+		public Object valueOf(OptionSpec<?> spec, OptionSet options) {
+			return ((LongOptionSpec) spec).valueAsLong(options);
+		}
+	};
+	private static final OptionFactory DOUBLE = new OptionFactory() {
+		@Override
+		public OptionSpec<?> declare(OptionSpecBuilder builder, Field field, Object defaultValue) {
+			DoubleOptionSpec spec = builder.withRequiredDoubleArg();
+			spec.defaultsTo((Double) defaultValue);
+			return spec;
+		}
+
+		@Override
+		public Object valueOf(OptionSpec<?> spec, OptionSet options) {
+			return ((DoubleOptionSpec) spec).valueAsDouble(options);
+		}
+	};
+	/**
+	 * Options of {@link JOSimpleBoolean} fields take no argument; the field
+	 * tells whether the option was given.
+	 */
+	private static final OptionFactory PRESENCE = new OptionFactory() {
+		@Override
+		public OptionSpec<?> declare(OptionSpecBuilder builder, Field field, Object defaultValue) {
+			return builder;
+		}
+
+		@Override
+		public Object valueOf(OptionSpec<?> spec, OptionSet options) {
+			return options.has(spec);
+		}
+	};
+
+	private OptionFactories() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Gives the factory of the option of the given field.
+	 *
+	 * @param field the DTO field
+	 * @return the factory; <code>null</code> if fields of its type are not
+	 *         supported, which includes {@link List}s and {@link Set}s whose
+	 *         element type is not a class
+	 */
+	public static OptionFactory of(Field field) {
+		Class<?> type = field.getType();
+		if ((type == boolean.class || type == Boolean.class) && field.getAnnotation(JOSimpleBoolean.class) != null) {
+			return PRESENCE;
+		}
+		if ((type == List.class || type == Set.class) && !FACTORIES.containsKey(type)) {
+			Class<?> elementType = elementTypeOf(field);
+			if (elementType == null) {
+				return null;
+			}
+			return (type == List.class ? LISTS : SETS).get(elementType);
+		}
+		return BY_TYPE.get(type);
+	}
+
+	/**
+	 * Makes fields of exactly the given type use the given factory.
+	 *
+	 * @param type the type of the fields
+	 * @param factory the factory of their options
+	 */
+	public static void register(Class<?> type, OptionFactory factory) {
+		if (factory == null) {
+			throw new NullPointerException("illegal null factory");
+		}
+		FACTORIES.put(type, factory);
+		BY_TYPE.remove(type);
+	}
+
+	/**
+	 * Makes arguments of fields of the given type, and elements of arrays,
+	 * {@link List}s and {@link Set}s of it, be converted by the given
+	 * converter. The converter of a wrapper class is also that of its
+	 * primitive.
+	 *
+	 * @param <T> the type of the values
+	 * @param type the type of the values
+	 * @param converter the converter of their arguments
+	 */
+	public static <T> void registerConverter(Class<T> type, ValueConverter<? extends T> converter) {
+		if (converter == null) {
+			throw new NullPointerException("illegal null converter");
+		}
+		MethodType boxing = MethodType.methodType(type);
+		CONVERTERS.put(boxing.wrap().returnType(), converter);
+		for (Class<?> each : new Class<?>[] { boxing.wrap().returnType(), boxing.unwrap().returnType() }) {
+			BY_TYPE.remove(each);
+			BY_TYPE.remove(Array.newInstance(each, 0).getClass());
+			LISTS.remove(each);
+			SETS.remove(each);
+		}
+	}
+
+	/**
+	 * Returns the type argument of a {@link List} or {@link Set} field, if it
+	 * is a class.
+	 */
+	static Class<?> elementTypeOf(Field field) {
+		Type type = field.getGenericType();
+		if (type instanceof ParameterizedType) {
+			Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+			if (arguments.length == 1 && arguments[0] instanceof Class<?>) {
+				return (Class<?>) arguments[0];
+			}
+		}
+		return null;
+	}
+
+	private static OptionFactory create(Class<?> type) {
+		OptionFactory registered = FACTORIES.get(type);
+		if (registered != null) {
+			return registered;
+		}
+		if (!CONVERTERS.containsKey(MethodType.methodType(type).wrap().returnType())) {
+			if (type == int.class) {
+				return INT;
+			}
+			if (type == long.class) {
+				return LONG;
+			}
+			if (type == double.class) {
+				return DOUBLE;
+			}
+		}
+		if (type == List.class || type == Set.class || type == void.class) {
+			return null;
+		}
+		if (type.isArray()) {
+			ValueConverter<?> converter = converterOf(type.getComponentType());
+			return converter == null ? null : new ArrayFactory(type.getComponentType(), converter);
+		}
+		ValueConverter<?> converter = valueConverterOf(type);
+		return converter == null ? null : new ValueFactory(converter);
+	}
+
+	/**
+	 * The help of an enum field lists its possible values, so its option
+	 * shows no type.
+	 */
+	private static ValueConverter<?> valueConverterOf(Class<?> type) {
+		ValueConverter<?> converter = converterOf(type);
+		if (converter instanceof EnumConverter<?>) {
+			return ((EnumConverter<?>) converter).withValuePattern("");
+		}
+		return converter;
+	}
+
+	private static ValueConverter<?> converterOf(Class<?> type) {
+		Class<?> boxed = MethodType.methodType(type).wrap().returnType();
+		ValueConverter<?> registered = CONVERTERS.get(boxed);
+		if (registered != null) {
+			return registered;
+		}
+		if (boxed == Boolean.class) {
+			return BooleanConverter.getInstance();
+		}
+		if (boxed == Character.class) {
+			return CharacterConverter.INSTANCE;
+		}
+		if (boxed == Path.class) {
+			return PathConverter.INSTANCE;
+		}
+		if (boxed == Duration.class) {
+			return new DurationConverter();
+		}
+		if (boxed == Instant.class) {
+			return DateTimeConverter.instant();
+		}
+		if (boxed == LocalDate.class) {
+			return DateTimeConverter.localDate();
+		}
+		if (boxed == LocalTime.class) {
+			return DateTimeConverter.localTime();
+		}
+		if (boxed == LocalDateTime.class) {
+			return DateTimeConverter.localDateTime();
+		}
+		if (boxed == OffsetDateTime.class) {
+			return DateTimeConverter.offsetDateTime();
+		}
+		try {
+			return Reflection.findConverter(boxed);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static ArgumentAcceptingOptionSpec<Object> withArgument(OptionSpecBuilder builder,
+			ValueConverter<?> converter) {
+		return builder.withRequiredArg().withValuesConvertedBy((ValueConverter) converter);
+	}
+
+	private static final class ValueFactory implements OptionFactory {
+		private final ValueConverter<?> converter;
+
+		ValueFactory(ValueConverter<?> converter) {
+			this.converter = converter;
+		}
+
+		@Override
+		public OptionSpec<?> declare(OptionSpecBuilder builder, Field field, Object defaultValue) {
+			ArgumentAcceptingOptionSpec<Object> spec = withArgument(builder, converter);
+			if (defaultValue != null) {
+				spec.defaultsTo(defaultValue);
+			}
+			return spec;
+		}
+
+		@Override
+		public Object valueOf(OptionSpec<?> spec, OptionSet options) {
+			return spec.value(options);
+		}
+	}
+
+	private static class ListFactory implements OptionFactory {
+		private final ValueConverter<?> converter;
+
+		ListFactory(ValueConverter<?> converter) {
+			this.converter = converter;
+		}
+
+		@Override
+		public OptionSpec<?> declare(OptionSpecBuilder builder, Field field, Object defaultValue) {
+			ArgumentAcceptingOptionSpec<Object> spec = withArgument(builder, converter).withValuesSeparatedBy(',');
+			List<Object> defaults = defaultsOf(defaultValue);
+			if (!defaults.isEmpty()) {
+				spec.defaultsToCollection(defaults);
+			}
+			return spec;
+		}
+
+		List<Object> defaultsOf(Object defaultValue) {
+			List<Object> defaults = new ArrayList<Object>();
+			if (defaultValue != null) {
+				defaults.addAll((Collection<?>) defaultValue);
+			}
+			return defaults;
+		}
+
+		@Override
+		public Object valueOf(OptionSpec<?> spec, OptionSet options) {
+			return options.valuesOf(spec);
+		}
+	}
+
+	private static final class SetFactory extends ListFactory {
+		SetFactory(ValueConverter<?> converter) {
+			super(converter);
+		}
+
+		@Override
+		public Object valueOf(OptionSpec<?> spec, OptionSet options) {
+			return new LinkedHashSet<Object>(options.valuesOf(spec));
+		}
+	}
+
+	private static final class ArrayFactory extends ListFactory {
+		private final Class<?> componentType;
+
+		ArrayFactory(Class<?> componentType, ValueConverter<?> converter) {
+			super(converter);
+			this.componentType = componentType;
+		}
+
+		@Override
+		List<Object> defaultsOf(Object defaultValue) {
+			List<Object> defaults = new ArrayList<Object>();
+			if (defaultValue != null) {
+				for (int i = 0; i < Array.getLength(defaultValue); ++i) {
+					defaults.add(Array.get(defaultValue, i));
+				}
+			}
+			return defaults;
+		}
+
+		@Override
+		public Object valueOf(OptionSpec<?> spec, OptionSet options) {
+			List<?> values = options.valuesOf(spec);
+			Object array = Array.newInstance(componentType, values.size());
+			for (int i = 0; i < values.size(); ++i) {
+				Array.set(array, i, values.get(i));
+			}
+			return array;
+		}
+	}
+
+	private static final class CharacterConverter implements ValueConverter<Character> {
+		static final CharacterConverter INSTANCE = new CharacterConverter();
+
+		@Override
+		public Character convert(String value) {
+			if (value.length() != 1) {
+				throw new ValueConversionException(message(OptionFactories.class.getName() + ".character.message", value));
+			}
+			return value.charAt(0);
+		}
+
+		@Override
+		public boolean canConvert(String value) {
+			return value.length() == 1;
+		}
+
+		@Override
+		public Class<? extends Character> valueType() {
+			return Character.class;
+		}
+
+		@Override
+		public String valuePattern() {
+			return null;
+		}
+	}
+
+	private static final class PathConverter implements ValueConverter<Path> {
+		static final PathConverter INSTANCE = new PathConverter();
+
+		@Override
+		public Path convert(String value) {
+			try {
+				return Paths.get(value);
+			} catch (InvalidPathException e) {
+				throw new ValueConversionException(
+						message(OptionFactories.class.getName() + ".path.message", value, e.getReason()), e);
+			}
+		}
+
+		@Override
+		public Class<? extends Path> valueType() {
+			return Path.class;
+		}
+
+		@Override
+		public String valuePattern() {
+			return null;
+		}
+	}
+}
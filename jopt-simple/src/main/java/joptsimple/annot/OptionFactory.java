@@ -0,0 +1,40 @@
+package joptsimple.annot;
+
+import java.lang.reflect.Field;
+
+import joptsimple.OptionSet;
+import joptsimple.OptionSpec;
+import joptsimple.OptionSpecBuilder;
+
+/**
+ * Declares the option of a DTO field of a given type, and gives the value to
+ * set into the field once arguments are parsed.
+ * <p>
+ * Factories are shared by all fields of their type, so they must not keep
+ * state of a field or of a parse.
+ *
+ * @see OptionFactories
+ */
+public interface OptionFactory {
+	/**
+	 * Turns the option of a field into one of the field's type.
+	 *
+	 * @param builder the option, named after the field and documented
+	 * @param field the field
+	 * @param defaultValue the value of the field before parsing, to be the
+	 *            default of the option
+	 * @return the option
+	 */
+	OptionSpec<?> declare(OptionSpecBuilder builder, Field field, Object defaultValue);
+
+	/**
+	 * Gives the value to set into the field after parsing.
+	 *
+	 * @param spec the option {@link #declare(OptionSpecBuilder, Field, Object)
+	 *            declared} for the field
+	 * @param options the parsed arguments
+	 * @return the value of the field; <code>null</code> to leave the field as
+	 *         it is
+	 */
+	Object valueOf(OptionSpec<?> spec, OptionSet options);
+}
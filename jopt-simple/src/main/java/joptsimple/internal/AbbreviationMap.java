@@ -25,9 +25,16 @@
 
 package joptsimple.internal;
 
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.TreeMap;
 
+import static java.util.Collections.*;
+
 /**
  * <p>A map whose keys are strings; when a key/value pair is added to the map, the longest unique abbreviations of that
  * key are added as well, and associated with the value. Thus:</p>
@@ -50,7 +57,12 @@ import java.util.TreeMap;
  * {@code "goo"}, and the value {@code "fish"} using the key {@code "go"}.  The key {@code "g"} would yield
  * {@code null}, since it would no longer be a unique abbreviation.</p>
  *
- * <p>The data structure is much like a "trie".</p>
+ * <p>A key can also be claimed as a prefix, via {@link #putPrefix(String, Object)}, so that every longer key that
+ * begins with it is associated with the claimant; see {@link #claimantOf(String)}.  Prefix claims do not take part in
+ * abbreviation.</p>
+ *
+ * <p>The data structure is much like a "trie".  A map made by {@link #ofSortedKeys(String[], Object[])} instead
+ * answers lookups from its sorted keys, by binary search, until it is first changed.</p>
  *
  * @param <V> a constraint on the types of the values in the map
  * @author <a href="mailto:pholser@alumni.rice.edu">Paul Holser</a>
@@ -62,6 +74,34 @@ public class AbbreviationMap<V> {
     private V value;
     private final Map<Character, AbbreviationMap<V>> children = new TreeMap<Character, AbbreviationMap<V>>();
     private int keysBeyond;
+    private String claimedPrefix;
+    private V claimant;
+    private int claimsAtOrBeyond;
+    private String[] sortedKeys;
+    private Object[] sortedValues;
+
+    /**
+     * <p>Makes a map of the given keys, which must be sorted, distinct and not empty, and their values.  No trie is
+     * built: lookups search the keys, which answers them as the trie would, for as long as the map is not changed.
+     * The first change builds the trie.</p>
+     *
+     * @param <V> a constraint on the types of the values in the map
+     * @param keys the keys, in their natural order
+     * @param values the value of each key
+     * @return the new map
+     * @throws IllegalArgumentException if the two arrays are not of the same length
+     */
+    public static <V> AbbreviationMap<V> ofSortedKeys( String[] keys, V[] values ) {
+        if ( keys.length != values.length )
+            throw new IllegalArgumentException( "need one value per key" );
+
+        AbbreviationMap<V> map = new AbbreviationMap<V>();
+        if ( keys.length > 0 ) {
+            map.sortedKeys = keys.clone();
+            map.sortedValues = values.clone();
+        }
+        return map;
+    }
 
     /**
      * <p>Tells whether the given key is in the map, or whether the given key is a unique
@@ -85,6 +125,9 @@ public class AbbreviationMap<V> {
      * @throws NullPointerException if {@code aKey} is {@code null}
      */
     public V get( String aKey ) {
+        if ( sortedKeys != null )
+            return getSorted( aKey );
+
         char[] chars = charsOf( aKey );
 
         AbbreviationMap<V> child = this;
@@ -112,6 +155,7 @@ public class AbbreviationMap<V> {
         if ( aKey.length() == 0 )
             throw new IllegalArgumentException();
 
+        buildTrie();
         char[] chars = charsOf( aKey );
         add( chars, newValue, 0, chars.length );
     }
@@ -156,6 +200,72 @@ public class AbbreviationMap<V> {
         return newKeyAdded;
     }
 
+    /**
+     * <p>Associates a given value with every key that begins with, and is longer than, a given prefix.  If there was a
+     * previous claim on the prefix, the old claimant is replaced with the new one.</p>
+     *
+     * @param prefix prefix to claim
+     * @param newClaimant value to associate with keys that begin with the prefix
+     * @throws NullPointerException if {@code prefix} or {@code newClaimant} is {@code null}
+     * @throws IllegalArgumentException if {@code prefix} is a zero-length string
+     */
+    public void putPrefix( String prefix, V newClaimant ) {
+        if ( newClaimant == null )
+            throw new NullPointerException();
+        if ( prefix.length() == 0 )
+            throw new IllegalArgumentException();
+
+        buildTrie();
+        AbbreviationMap<V> node = this;
+        for ( int i = 0; i < prefix.length(); ++i ) {
+            AbbreviationMap<V> child = node.children.get( prefix.charAt( i ) );
+            if ( child == null ) {
+                child = new AbbreviationMap<V>();
+                node.children.put( prefix.charAt( i ), child );
+            }
+            node = child;
+        }
+
+        boolean newClaim = node.claimant == null;
+        node.claimedPrefix = prefix;
+        node.claimant = newClaimant;
+        if ( newClaim ) {
+            node = this;
+            for ( int i = 0; i < prefix.length(); ++i ) {
+                ++node.claimsAtOrBeyond;
+                node = node.children.get( prefix.charAt( i ) );
+            }
+            ++node.claimsAtOrBeyond;
+        }
+    }
+
+    /**
+     * <p>Answers the value that claims the longest prefix of the given key, unless the key itself is in the map.  The
+     * key must be longer than the prefix.</p>
+     *
+     * @param aKey key to look up
+     * @return the value that claims the longest prefix of {@code aKey}; or {@code null} if there is no such value or
+     * {@code aKey} is itself a key in the map
+     * @throws NullPointerException if {@code aKey} is {@code null}
+     */
+    public V claimantOf( String aKey ) {
+        if ( claimsAtOrBeyond == 0 )
+            return null;
+
+        V longestClaimant = null;
+        AbbreviationMap<V> node = this;
+        for ( int i = 0; i < aKey.length(); ++i ) {
+            if ( node.claimant != null )
+                longestClaimant = node.claimant;
+
+            node = node.children.get( aKey.charAt( i ) );
+            if ( node == null )
+                return longestClaimant;
+        }
+
+        return node.key == null ? longestClaimant : null;
+    }
+
     /**
      * <p>If the map contains the given key, dissociates the key from its value.</p>
      *
@@ -167,6 +277,7 @@ public class AbbreviationMap<V> {
         if ( aKey.length() == 0 )
             throw new IllegalArgumentException();
 
+        buildTrie();
         char[] keyChars = charsOf( aKey );
         remove( keyChars, 0, keyChars.length );
     }
@@ -181,7 +292,7 @@ public class AbbreviationMap<V> {
             return false;
 
         --keysBeyond;
-        if ( child.keysBeyond == 0 )
+        if ( child.keysBeyond == 0 && child.claimsAtOrBeyond == 0 )
             children.remove( nextChar );
         if ( keysBeyond == 1 && key == null )
             setValueToThatOfOnlyChild();
@@ -190,9 +301,12 @@ public class AbbreviationMap<V> {
     }
 
     private void setValueToThatOfOnlyChild() {
-        Map.Entry<Character, AbbreviationMap<V>> entry = children.entrySet().iterator().next();
-        AbbreviationMap<V> onlyChild = entry.getValue();
-        value = onlyChild.value;
+        for ( AbbreviationMap<V> each : children.values() ) {
+            if ( each.key != null || each.keysBeyond > 0 ) {
+                value = each.value;
+                return;
+            }
+        }
     }
 
     private boolean removeAtEndOfKey() {
@@ -209,19 +323,114 @@ public class AbbreviationMap<V> {
     }
 
     /**
-     * Gives a Java map representation of this abbreviation map.
+     * Gives a Java map representation of this abbreviation map.  Claimed prefixes are included as keys, associated
+     * with their claimants.
      *
      * @return a Java map corresponding to this abbreviation map
      */
     public Map<String, V> toJavaUtilMap() {
         Map<String, V> mappings = new TreeMap<String, V>();
-        addToMappings( mappings );
+        if ( sortedKeys != null ) {
+            for ( int i = 0; i < sortedKeys.length; ++i )
+                mappings.put( sortedKeys[ i ], sortedValue( i ) );
+        }
+        else
+            addToMappings( mappings );
         return mappings;
     }
 
+    /**
+     * <p>Gives the keys in the map that begin with the given prefix, in their natural order.  Claimed prefixes are
+     * among them, as in {@link #toJavaUtilMap()}.</p>
+     *
+     * <p>Only the part of the map under the prefix is walked, and only as far as the keys are asked for; giving the
+     * first few keys costs little however big the map.  The map must not be changed while its keys are walked.</p>
+     *
+     * @param prefix prefix of the keys to give; the empty string gives all the keys
+     * @return the keys that begin with {@code prefix}
+     * @throws NullPointerException if {@code prefix} is {@code null}
+     */
+    public Iterable<String> keysBeginningWith( final String prefix ) {
+        if ( prefix == null )
+            throw new NullPointerException();
+
+        return new Iterable<String>() {
+            public Iterator<String> iterator() {
+                if ( sortedKeys != null )
+                    return sortedKeysBeginningWith( prefix );
+
+                AbbreviationMap<V> node = AbbreviationMap.this;
+                for ( int i = 0; node != null && i < prefix.length(); ++i )
+                    node = node.children.get( prefix.charAt( i ) );
+                return new KeyWalk<V>( node );
+            }
+        };
+    }
+
+    private Iterator<String> sortedKeysBeginningWith( final String prefix ) {
+        final String[] keys = sortedKeys;
+        int found = Arrays.binarySearch( keys, prefix );
+        final int first = found >= 0 ? found : -found - 1;
+
+        return new Iterator<String>() {
+            private int next = first;
+
+            public boolean hasNext() {
+                return next < keys.length && keys[ next ].startsWith( prefix );
+            }
+
+            public String next() {
+                if ( !hasNext() )
+                    throw new NoSuchElementException();
+                return keys[ next++ ];
+            }
+        };
+    }
+
+    /*
+     * A key in the map answers its own value; any other key answers the value of the only key it begins, if there is
+     * just one.
+     */
+    private V getSorted( String aKey ) {
+        int found = Arrays.binarySearch( sortedKeys, aKey );
+        if ( found >= 0 )
+            return sortedValue( found );
+
+        int next = -found - 1;
+        if ( next < sortedKeys.length && sortedKeys[ next ].startsWith( aKey )
+            && ( next + 1 == sortedKeys.length || !sortedKeys[ next + 1 ].startsWith( aKey ) ) ) {
+
+            return sortedValue( next );
+        }
+        return null;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private V sortedValue( int index ) {
+        return (V) sortedValues[ index ];
+    }
+
+    private void buildTrie() {
+        if ( sortedKeys == null )
+            return;
+
+        String[] keys = sortedKeys;
+        Object[] values = sortedValues;
+        sortedKeys = null;
+        sortedValues = null;
+        for ( int i = 0; i < keys.length; ++i ) {
+            char[] chars = charsOf( keys[ i ] );
+            @SuppressWarnings( "unchecked" )
+            V each = (V) values[ i ];
+            add( chars, each, 0, chars.length );
+        }
+    }
+
     private void addToMappings( Map<String, V> mappings ) {
         if ( key != null )
             mappings.put( key, value );
+        if ( claimant != null && !mappings.containsKey( claimedPrefix ) )
+            mappings.put( claimedPrefix, claimant );
 
         for ( AbbreviationMap<V> each : children.values() )
             each.addToMappings( mappings );
@@ -232,4 +441,47 @@ public class AbbreviationMap<V> {
         aKey.getChars( 0, aKey.length(), chars, 0 );
         return chars;
     }
+
+    /*
+     * Walks a trie depth first, giving each key, or else claimed prefix, of a node before those under it.
+     */
+    private static final class KeyWalk<V> implements Iterator<String> {
+        private final Deque<Iterator<AbbreviationMap<V>>> pending = new ArrayDeque<Iterator<AbbreviationMap<V>>>();
+        private String next;
+
+        KeyWalk( AbbreviationMap<V> start ) {
+            if ( start != null )
+                pending.push( singleton( start ).iterator() );
+            advance();
+        }
+
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        public String next() {
+            if ( next == null )
+                throw new NoSuchElementException();
+
+            String current = next;
+            advance();
+            return current;
+        }
+
+        private void advance() {
+            next = null;
+            while ( next == null && !pending.isEmpty() ) {
+                Iterator<AbbreviationMap<V>> nodes = pending.peek();
+                if ( !nodes.hasNext() ) {
+                    pending.pop();
+                    continue;
+                }
+
+                AbbreviationMap<V> node = nodes.next();
+                if ( !node.children.isEmpty() )
+                    pending.push( node.children.values().iterator() );
+                next = node.key != null ? node.key : node.claimant != null ? node.claimedPrefix : null;
+            }
+        }
+    }
 }
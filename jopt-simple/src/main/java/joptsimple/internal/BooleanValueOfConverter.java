@@ -0,0 +1,62 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple.internal;
+
+import joptsimple.ValueConverter;
+
+/**
+ * Converts values to {@link Boolean}s as {@link Boolean#valueOf(String)} does: {@code "true"}, ignoring case, is
+ * {@code true}, and anything else is {@code false}.
+ */
+final class BooleanValueOfConverter implements ValueConverter<Boolean> {
+    private static final BooleanValueOfConverter INSTANCE = new BooleanValueOfConverter();
+
+    private BooleanValueOfConverter() {
+        // singleton
+    }
+
+    @SuppressWarnings( "unchecked" )
+    static <V> ValueConverter<V> instance() {
+        return (ValueConverter<V>) INSTANCE;
+    }
+
+    public Boolean convert( String value ) {
+        return Boolean.valueOf( value );
+    }
+
+    @Override
+    public boolean canConvert( String value ) {
+        return true;
+    }
+
+    public Class<Boolean> valueType() {
+        return Boolean.class;
+    }
+
+    public String valuePattern() {
+        return null;
+    }
+}
@@ -39,13 +39,20 @@ import static joptsimple.internal.Strings.*;
  */
 class Columns {
     private static final int INDENT_WIDTH = 2;
+    private static final String WORD_PUNCTUATION = "#$&'*+/<=>@\\^_`|~";
+    private static final String CLOSING_PUNCTUATION = "!%),.:;?]}\"";
+    private static final String OPENING_PUNCTUATION = "([{\"";
 
     private final int optionWidth;
     private final int descriptionWidth;
+    private final Locale locale;
+    private final StringBuilder nextPiece = new StringBuilder();
+    private BreakIterator lineBreaks;
 
-    Columns( int optionWidth, int descriptionWidth ) {
+    Columns( int optionWidth, int descriptionWidth, Locale locale ) {
         this.optionWidth = optionWidth;
         this.descriptionWidth = descriptionWidth;
+        this.locale = locale;
     }
 
     List<Row> fit( Row row ) {
@@ -66,42 +73,171 @@ class Columns {
     private List<String> piecesOf( String raw, int width ) {
         List<String> pieces = new ArrayList<String>();
 
-        for ( String each : raw.trim().split( LINE_SEPARATOR ) )
-            pieces.addAll( piecesOfEmbeddedLine( each, width ) );
+        String text = raw.trim();
+        int start = 0;
+        for ( int end; ( end = text.indexOf( LINE_SEPARATOR, start ) ) >= 0; start = end + LINE_SEPARATOR.length() )
+            addPiecesOfEmbeddedLine( text, start, end, width, pieces );
+        addPiecesOfEmbeddedLine( text, start, text.length(), width, pieces );
 
         return pieces;
     }
 
-    private List<String> piecesOfEmbeddedLine( String line, int width ) {
-        List<String> pieces = new ArrayList<String>();
-
-        BreakIterator words = BreakIterator.getLineInstance( Locale.US );
-        words.setText( line );
+    private void addPiecesOfEmbeddedLine( String text, int start, int end, int width, List<String> pieces ) {
+        nextPiece.setLength( 0 );
 
-        StringBuilder nextPiece = new StringBuilder();
+        if ( breaksPlainly( text, start, end ) ) {
+            for ( int wordStart = start, wordEnd; wordStart < end; wordStart = wordEnd ) {
+                wordEnd = wordStart + 1;
+                while ( wordEnd < end && !isPlainBreak( text, wordEnd ) )
+                    ++wordEnd;
 
-        int start = words.first();
-        for ( int end = words.next(); end != DONE; start = end, end = words.next() )
-            nextPiece = processNextWord( line, nextPiece, start, end, width, pieces );
+                processNextWord( text, wordStart, wordEnd, width, pieces );
+            }
+        }
+        else {
+            String line = text.substring( start, end );
+            BreakIterator words = lineBreaks();
+            words.setText( line );
+
+            int wordStart = words.first();
+            for ( int wordEnd = words.next(); wordEnd != DONE; wordStart = wordEnd, wordEnd = words.next() )
+                processNextWord( line, wordStart, wordEnd, width, pieces );
+        }
 
         if ( nextPiece.length() > 0 )
             pieces.add( nextPiece.toString() );
-
-        return pieces;
     }
 
-    private StringBuilder processNextWord( String source, StringBuilder nextPiece, int start, int end, int width,
-                                           List<String> pieces ) {
-        StringBuilder augmented = nextPiece;
+    private void processNextWord( String source, int start, int end, int width, List<String> pieces ) {
+        if ( nextPiece.length() + end - start > width ) {
+            pieces.add( withoutTrailingWhitespace( nextPiece ) );
+            nextPiece.setLength( 0 );
+            for ( int i = 0; i < INDENT_WIDTH; ++i )
+                nextPiece.append( ' ' );
+        }
 
-        String word = source.substring( start, end );
-        if ( augmented.length() + word.length() > width ) {
-            pieces.add( augmented.toString().replaceAll( "\\s+$", "" ) );
-            augmented = new StringBuilder( repeat( ' ', INDENT_WIDTH ) ).append( word );
+        nextPiece.append( source, start, end );
+    }
+
+    /*
+     * Tells whether the locale's line instance would break the given line only where isPlainBreak() does, as it does
+     * lines of plain ASCII words, in which punctuation only opens or closes words and hyphens join words.  Only other
+     * lines are left to the break iterator, which costs far more.
+     */
+    private static boolean breaksPlainly( String text, int start, int end ) {
+        for ( int i = start; i < end; ++i ) {
+            char ch = text.charAt( i );
+            if ( ch == ' ' || isWordCharacter( ch ) )
+                continue;
+
+            if ( ch == '-' ) {
+                if ( joinsWords( text, start, end, i ) )
+                    continue;
+                return false;
+            }
+            if ( !closesWord( text, start, end, i ) && !opensWord( text, start, end, i ) )
+                return false;
         }
-        else
-            augmented.append( word );
 
-        return augmented;
+        return true;
+    }
+
+    /*
+     * Lines break after runs of spaces, and after runs of hyphens that come before letters or digits.
+     */
+    private static boolean isPlainBreak( String text, int index ) {
+        char previous = text.charAt( index - 1 );
+        char ch = text.charAt( index );
+        return previous == ' ' && ch != ' ' || previous == '-' && isLetterOrDigit( ch );
+    }
+
+    /*
+     * Hyphens stand between letters, digits and spaces, but never before the digits of what may be a negative number.
+     */
+    private static boolean joinsWords( String text, int start, int end, int index ) {
+        int after = index + 1;
+        while ( after < end && text.charAt( after ) == '-' )
+            ++after;
+        int before = index - 1;
+        while ( before >= start && text.charAt( before ) == '-' )
+            --before;
+
+        boolean startsWord = before < start || text.charAt( before ) == ' ';
+        boolean fitsBefore = startsWord || isLetterOrDigit( text.charAt( before ) );
+        boolean fitsAfter = after == end || text.charAt( after ) == ' '
+            || isLetterOrDigit( text.charAt( after ) ) && !( startsWord && isDigit( text.charAt( after ) ) );
+        return fitsBefore && fitsAfter;
+    }
+
+    private static boolean closesWord( String text, int start, int end, int index ) {
+        if ( CLOSING_PUNCTUATION.indexOf( text.charAt( index ) ) < 0 )
+            return false;
+
+        int after = index + 1;
+        while ( after < end && CLOSING_PUNCTUATION.indexOf( text.charAt( after ) ) >= 0 )
+            ++after;
+        int before = index - 1;
+        while ( before >= start && CLOSING_PUNCTUATION.indexOf( text.charAt( before ) ) >= 0 )
+            --before;
+
+        return ( after == end || text.charAt( after ) == ' ' ) && before >= start
+            && isWordCharacter( text.charAt( before ) );
+    }
+
+    private static boolean opensWord( String text, int start, int end, int index ) {
+        if ( OPENING_PUNCTUATION.indexOf( text.charAt( index ) ) < 0 )
+            return false;
+
+        int before = index - 1;
+        while ( before >= start && OPENING_PUNCTUATION.indexOf( text.charAt( before ) ) >= 0 )
+            --before;
+        int after = index + 1;
+        while ( after < end && OPENING_PUNCTUATION.indexOf( text.charAt( after ) ) >= 0 )
+            ++after;
+
+        return ( before < start || text.charAt( before ) == ' ' ) && after < end
+            && isWordCharacter( text.charAt( after ) );
+    }
+
+    private static boolean isWordCharacter( char ch ) {
+        return isLetterOrDigit( ch ) || WORD_PUNCTUATION.indexOf( ch ) >= 0;
+    }
+
+    private static boolean isLetterOrDigit( char ch ) {
+        return ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z' || isDigit( ch );
+    }
+
+    private static boolean isDigit( char ch ) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    /*
+     * Drops the whitespace at the end of a piece, or before a line terminator that ends it, as the pattern \s+$
+     * would.
+     */
+    private static String withoutTrailingWhitespace( StringBuilder piece ) {
+        int end = piece.length();
+        if ( end > 0 && isUnmatchedLineTerminator( piece.charAt( end - 1 ) ) )
+            --end;
+
+        int kept = end;
+        while ( kept > 0 && isPatternWhitespace( piece.charAt( kept - 1 ) ) )
+            --kept;
+
+        return kept == end ? piece.toString() : piece.substring( 0, kept ) + piece.substring( end );
+    }
+
+    private static boolean isUnmatchedLineTerminator( char ch ) {
+        return ch == '\u0085' || ch == '\u2028' || ch == '\u2029';
+    }
+
+    private static boolean isPatternWhitespace( char ch ) {
+        return ch == ' ' || ch == '\t' || ch == '\n' || ch == '\u000B' || ch == '\f' || ch == '\r';
+    }
+
+    private BreakIterator lineBreaks() {
+        if ( lineBreaks == null )
+            lineBreaks = BreakIterator.getLineInstance( locale );
+        return lineBreaks;
     }
 }
@@ -0,0 +1,228 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple.internal;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * <p>A map whose keys are strings, held in two parallel arrays of keys and values in insertion order, with an
+ * open-addressing table of indexes into them.  Lookups probe the table linearly, comparing cached hash codes before
+ * keys, and never allocate; iteration follows insertion order, much like a {@link java.util.LinkedHashMap}, but
+ * without a node per entry.</p>
+ *
+ * <p>Entries can be added and replaced, but not removed; the entries handed out by iteration do not change.</p>
+ *
+ * @param <V> a constraint on the types of the values in the map
+ */
+public final class CompactMap<V> extends AbstractMap<String, V> {
+    private static final int MINIMUM_CAPACITY = 4;
+
+    private String[] keys;
+    private Object[] values;
+    private int[] hashes;
+    private int[] slots;
+    private int size;
+    private Set<Map.Entry<String, V>> entries;
+
+    /**
+     * Creates an empty map.
+     */
+    public CompactMap() {
+        this( MINIMUM_CAPACITY );
+    }
+
+    /**
+     * Creates an empty map that holds the given number of entries before growing.
+     *
+     * @param expectedSize number of entries expected
+     * @throws IllegalArgumentException if {@code expectedSize} is negative
+     */
+    public CompactMap( int expectedSize ) {
+        if ( expectedSize < 0 )
+            throw new IllegalArgumentException( "negative size: " + expectedSize );
+
+        int capacity = Math.max( expectedSize, MINIMUM_CAPACITY );
+        keys = new String[ capacity ];
+        values = new Object[ capacity ];
+        hashes = new int[ capacity ];
+        slots = new int[ tableSizeFor( capacity ) ];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey( Object key ) {
+        return key instanceof String && indexOf( (String) key ) >= 0;
+    }
+
+    @Override
+    public V get( Object key ) {
+        if ( !( key instanceof String ) )
+            return null;
+
+        int index = indexOf( (String) key );
+        return index < 0 ? null : valueAt( index );
+    }
+
+    @Override
+    public V put( String key, V value ) {
+        return put( key, value, true );
+    }
+
+    @Override
+    public V putIfAbsent( String key, V value ) {
+        return put( key, value, false );
+    }
+
+    private V put( String key, V value, boolean replace ) {
+        if ( key == null )
+            throw new NullPointerException( "null key" );
+
+        int hash = spread( key.hashCode() );
+        int mask = slots.length - 1;
+        for ( int slot = hash & mask; ; slot = ( slot + 1 ) & mask ) {
+            int index = slots[ slot ] - 1;
+            if ( index < 0 ) {
+                append( key, value, hash, slot );
+                return null;
+            }
+
+            if ( hashes[ index ] == hash && keys[ index ].equals( key ) ) {
+                V previous = valueAt( index );
+                if ( replace )
+                    values[ index ] = value;
+                return previous;
+            }
+        }
+    }
+
+    private void append( String key, V value, int hash, int slot ) {
+        if ( size == keys.length ) {
+            int capacity = keys.length + ( keys.length >> 1 );
+            keys = Arrays.copyOf( keys, capacity );
+            values = Arrays.copyOf( values, capacity );
+            hashes = Arrays.copyOf( hashes, capacity );
+        }
+
+        keys[ size ] = key;
+        values[ size ] = value;
+        hashes[ size ] = hash;
+        ++size;
+
+        if ( size * 2 > slots.length )
+            rehash( slots.length * 2 );
+        else
+            slots[ slot ] = size;
+    }
+
+    private void rehash( int tableSize ) {
+        slots = new int[ tableSize ];
+        int mask = tableSize - 1;
+
+        for ( int index = 0; index < size; ++index ) {
+            int slot = hashes[ index ] & mask;
+            while ( slots[ slot ] != 0 )
+                slot = ( slot + 1 ) & mask;
+            slots[ slot ] = index + 1;
+        }
+    }
+
+    private int indexOf( String key ) {
+        int hash = spread( key.hashCode() );
+        int mask = slots.length - 1;
+        for ( int slot = hash & mask; ; slot = ( slot + 1 ) & mask ) {
+            int index = slots[ slot ] - 1;
+            if ( index < 0 )
+                return -1;
+            if ( hashes[ index ] == hash && keys[ index ].equals( key ) )
+                return index;
+        }
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private V valueAt( int index ) {
+        return (V) values[ index ];
+    }
+
+    @Override
+    public Set<Map.Entry<String, V>> entrySet() {
+        if ( entries == null ) {
+            entries = new AbstractSet<Map.Entry<String, V>>() {
+                @Override
+                public Iterator<Map.Entry<String, V>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+
+        return entries;
+    }
+
+    private static int spread( int hash ) {
+        return hash ^ ( hash >>> 16 );
+    }
+
+    private static int tableSizeFor( int capacity ) {
+        return Integer.highestOneBit( capacity * 2 - 1 ) << 1;
+    }
+
+    private class EntryIterator implements Iterator<Map.Entry<String, V>> {
+        private final int expectedSize = size;
+        private int next;
+
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        public Map.Entry<String, V> next() {
+            if ( size != expectedSize )
+                throw new ConcurrentModificationException();
+            if ( !hasNext() )
+                throw new NoSuchElementException();
+
+            int index = next++;
+            return new AbstractMap.SimpleImmutableEntry<String, V>( keys[ index ], valueAt( index ) );
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -25,25 +25,45 @@
 
 package joptsimple.internal;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 
 import joptsimple.ValueConverter;
 
+import static java.lang.invoke.MethodHandles.*;
 import static joptsimple.internal.Reflection.*;
 
 /**
+ * <p>Converts values by calling a one-{@link String}-arg constructor.</p>
+ *
+ * <p>The constructor is invoked through a {@link MethodHandle} rather than
+ * {@link Constructor#newInstance(Object...)}; constructors that cannot be reached through a public lookup are still
+ * invoked reflectively, so that access problems surface at conversion time as before.</p>
+ *
  * @param <V> constraint on the type of values being converted to
  * @author <a href="mailto:pholser@alumni.rice.edu">Paul Holser</a>
  */
 class ConstructorInvokingValueConverter<V> implements ValueConverter<V> {
+    private static final MethodType CONVERSION = MethodType.methodType( Object.class, String.class );
+
     private final Constructor<V> ctor;
+    private final MethodHandle handle;
 
     ConstructorInvokingValueConverter( Constructor<V> ctor ) {
         this.ctor = ctor;
+        this.handle = handleFor( ctor );
     }
 
     public V convert( String value ) {
-        return instantiate( ctor, value );
+        if ( handle == null )
+            return instantiate( ctor, value );
+
+        try {
+            return ctor.getDeclaringClass().cast( (Object) handle.invokeExact( value ) );
+        } catch ( Throwable thrown ) {
+            throw targetException( thrown );
+        }
     }
 
     public Class<V> valueType() {
@@ -53,4 +73,12 @@ class ConstructorInvokingValueConverter<V> implements ValueConverter<V> {
     public String valuePattern() {
         return null;
     }
+
+    private static MethodHandle handleFor( Constructor<?> ctor ) {
+        try {
+            return publicLookup().unreflectConstructor( ctor ).asType( CONVERSION );
+        } catch ( IllegalAccessException ex ) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,73 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple.internal;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static java.util.concurrent.TimeUnit.*;
+
+/**
+ * Makes the pools of daemon threads that carry out work off the calling thread, so that they never keep the JVM
+ * alive.
+ */
+public final class DaemonThreads {
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private DaemonThreads() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Gives a pool that makes daemon threads of the given name as needed, and lets them die once idle for a minute.
+     *
+     * @param name the name of the threads
+     * @param maximumThreads how many threads to run at most; tasks submitted while all are busy wait in turn
+     * @return the new pool
+     */
+    public static ExecutorService pool( String name, int maximumThreads ) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor( maximumThreads, maximumThreads, KEEP_ALIVE_SECONDS, SECONDS,
+            new LinkedBlockingQueue<Runnable>(), named( name ) );
+        pool.allowCoreThreadTimeOut( true );
+        return pool;
+    }
+
+    /**
+     * Gives a factory of daemon threads of the given name.
+     *
+     * @param name the name of the threads
+     * @return the new factory
+     */
+    public static ThreadFactory named( String name ) {
+        return runnable -> {
+            Thread thread = new Thread( runnable, name );
+            thread.setDaemon( true );
+            return thread;
+        };
+    }
+}
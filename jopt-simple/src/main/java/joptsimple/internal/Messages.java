@@ -0,0 +1,76 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple.internal;
+
+import java.text.MessageFormat;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Formats messages from the {@code joptsimple.ExceptionMessages} resource bundle, which is looked up once per locale
+ * and kept.  Formatting is safe from any thread.
+ */
+public final class Messages {
+    private static final String BUNDLE_NAME = "joptsimple.ExceptionMessages";
+    private static final ConcurrentMap<Locale, ResourceBundle> BUNDLES = new ConcurrentHashMap<Locale, ResourceBundle>();
+
+    private Messages() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Gives the message with the given key in the default locale, with the given arguments filled in.
+     *
+     * @param key key of the message template in the bundle
+     * @param arguments arguments to the message template
+     * @return the formatted message
+     * @throws java.util.MissingResourceException if there is no message with the given key
+     */
+    public static String message( String key, Object... arguments ) {
+        return message( Locale.getDefault(), key, arguments );
+    }
+
+    /**
+     * Gives the message with the given key in the given locale, with the given arguments filled in.
+     *
+     * @param locale locale of the message
+     * @param key key of the message template in the bundle
+     * @param arguments arguments to the message template
+     * @return the formatted message
+     * @throws java.util.MissingResourceException if there is no message with the given key
+     */
+    public static String message( Locale locale, String key, Object... arguments ) {
+        ResourceBundle bundle = BUNDLES.get( locale );
+        if ( bundle == null ) {
+            bundle = ResourceBundle.getBundle( BUNDLE_NAME, locale );
+            BUNDLES.putIfAbsent( locale, bundle );
+        }
+
+        MessageFormat format = new MessageFormat( bundle.getString( key ), locale );
+        return format.format( arguments );
+    }
+}
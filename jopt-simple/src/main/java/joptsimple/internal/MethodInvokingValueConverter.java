@@ -25,27 +25,48 @@
 
 package joptsimple.internal;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 
 import joptsimple.ValueConverter;
 
+import static java.lang.invoke.MethodHandles.*;
 import static joptsimple.internal.Reflection.*;
 
 /**
+ * <p>Converts values by calling a {@code valueOf( String )}-like static method.</p>
+ *
+ * <p>The method is invoked through a {@link MethodHandle} rather than {@link Method#invoke(Object, Object...)}, which
+ * spares the argument array and the unwrapping of {@link java.lang.reflect.InvocationTargetException} on each
+ * conversion.  Methods that cannot be reached through a public lookup are still invoked reflectively, so that
+ * access problems surface at conversion time as before.</p>
+ *
  * @param <V> constraint on the type of values being converted to
  * @author <a href="mailto:pholser@alumni.rice.edu">Paul Holser</a>
  */
 class MethodInvokingValueConverter<V> implements ValueConverter<V> {
+    private static final MethodType CONVERSION = MethodType.methodType( Object.class, String.class );
+
     private final Method method;
+    private final MethodHandle handle;
     private final Class<V> clazz;
 
     MethodInvokingValueConverter( Method method, Class<V> clazz ) {
         this.method = method;
+        this.handle = handleFor( method );
         this.clazz = clazz;
     }
 
     public V convert( String value ) {
-        return clazz.cast( invoke( method, value ) );
+        if ( handle == null )
+            return clazz.cast( invoke( method, value ) );
+
+        try {
+            return clazz.cast( (Object) handle.invokeExact( value ) );
+        } catch ( Throwable thrown ) {
+            throw targetException( thrown );
+        }
     }
 
     public Class<V> valueType() {
@@ -55,4 +76,12 @@ class MethodInvokingValueConverter<V> implements ValueConverter<V> {
     public String valuePattern() {
         return null;
     }
+
+    private static MethodHandle handleFor( Method method ) {
+        try {
+            return publicLookup().unreflect( method ).asType( CONVERSION );
+        } catch ( IllegalAccessException ex ) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,308 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import joptsimple.ValueConversionException;
+import joptsimple.ValueConverter;
+
+/**
+ * <p>Converts values to the {@code java.lang} numeric wrapper types, as their {@code valueOf( String )} methods would.
+ * </p>
+ *
+ * <p>Unlike converters that go through reflection, these can {@linkplain #canConvert(String) tell} whether a value
+ * converts by scanning it, rather than by failing to convert it. They also convert a range of a longer character
+ * sequence in place; integral types do so without creating a string.</p>
+ *
+ * @param <V> constraint on the type of values being converted to
+ */
+abstract class NumberConverter<V extends Number> implements ValueConverter<V> {
+    private static final Map<Class<?>, NumberConverter<?>> CONVERTERS = new HashMap<Class<?>, NumberConverter<?>>();
+
+    static {
+        register( new NumberConverter<Byte>( Byte.class ) {
+            @Override
+            public boolean canConvert( CharSequence source, int start, int end ) {
+                return isIntegral( source, start, end, Byte.MIN_VALUE, Byte.MAX_VALUE );
+            }
+
+            @Override
+            Byte parse( CharSequence source, int start, int end ) {
+                return (byte) parseIntegral( source, start, end, Byte.MIN_VALUE, Byte.MAX_VALUE );
+            }
+        } );
+        register( new NumberConverter<Short>( Short.class ) {
+            @Override
+            public boolean canConvert( CharSequence source, int start, int end ) {
+                return isIntegral( source, start, end, Short.MIN_VALUE, Short.MAX_VALUE );
+            }
+
+            @Override
+            Short parse( CharSequence source, int start, int end ) {
+                return (short) parseIntegral( source, start, end, Short.MIN_VALUE, Short.MAX_VALUE );
+            }
+        } );
+        register( new NumberConverter<Integer>( Integer.class ) {
+            @Override
+            public boolean canConvert( CharSequence source, int start, int end ) {
+                return isIntegral( source, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE );
+            }
+
+            @Override
+            Integer parse( CharSequence source, int start, int end ) {
+                return Integer.parseInt( source, start, end, 10 );
+            }
+        } );
+        register( new NumberConverter<Long>( Long.class ) {
+            @Override
+            public boolean canConvert( CharSequence source, int start, int end ) {
+                return isIntegral( source, start, end, Long.MIN_VALUE, Long.MAX_VALUE );
+            }
+
+            @Override
+            Long parse( CharSequence source, int start, int end ) {
+                return Long.parseLong( source, start, end, 10 );
+            }
+        } );
+        register( new NumberConverter<Float>( Float.class ) {
+            @Override
+            public boolean canConvert( CharSequence source, int start, int end ) {
+                return isFloatingPoint( source, start, end );
+            }
+
+            @Override
+            Float parse( CharSequence source, int start, int end ) {
+                return Float.valueOf( source.subSequence( start, end ).toString() );
+            }
+        } );
+        register( new NumberConverter<Double>( Double.class ) {
+            @Override
+            public boolean canConvert( CharSequence source, int start, int end ) {
+                return isFloatingPoint( source, start, end );
+            }
+
+            @Override
+            Double parse( CharSequence source, int start, int end ) {
+                return Double.valueOf( source.subSequence( start, end ).toString() );
+            }
+        } );
+    }
+
+    private final Class<V> type;
+
+    private NumberConverter( Class<V> type ) {
+        this.type = type;
+    }
+
+    /**
+     * Gives the built-in converter for the given numeric wrapper type.
+     *
+     * @param <V> constraint on the type of values being converted to
+     * @param type the type to convert to
+     * @return the converter, or {@code null} if there is no built-in converter for the type
+     */
+    @SuppressWarnings( "unchecked" )
+    static <V> ValueConverter<V> forType( Class<V> type ) {
+        return (ValueConverter<V>) CONVERTERS.get( type );
+    }
+
+    private static void register( NumberConverter<?> converter ) {
+        CONVERTERS.put( converter.type, converter );
+    }
+
+    public V convert( String value ) {
+        return convert( value, 0, value.length() );
+    }
+
+    @Override
+    public V convert( CharSequence source, int start, int end ) {
+        try {
+            return parse( source, start, end );
+        } catch ( NumberFormatException ex ) {
+            throw new ValueConversionException( message( source.subSequence( start, end ).toString() ), ex );
+        }
+    }
+
+    @Override
+    public boolean canConvert( String value ) {
+        return canConvert( value, 0, value.length() );
+    }
+
+    @Override
+    public abstract boolean canConvert( CharSequence source, int start, int end );
+
+    abstract V parse( CharSequence source, int start, int end );
+
+    public Class<V> valueType() {
+        return type;
+    }
+
+    public String valuePattern() {
+        return null;
+    }
+
+    private String message( String value ) {
+        return Messages.message( NumberConverter.class.getName() + ".message", value, type.getSimpleName() );
+    }
+
+    private static int parseIntegral( CharSequence source, int start, int end, int min, int max ) {
+        int value = Integer.parseInt( source, start, end, 10 );
+        if ( value < min || value > max )
+            throw new NumberFormatException( "Value out of range: " + source.subSequence( start, end ) );
+
+        return value;
+    }
+
+    /*
+     * Mirrors Long.parseLong( String ) in radix 10: an optional sign followed by at least one digit.
+     */
+    static boolean isIntegral( CharSequence value, int start, int end, long min, long max ) {
+        if ( start == end )
+            return false;
+
+        int i = start;
+        boolean negative = false;
+        char first = value.charAt( i );
+        if ( first == '-' || first == '+' ) {
+            negative = first == '-';
+            if ( ++i == end )
+                return false;
+        }
+
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplicationLimit = limit / 10;
+        long result = 0;
+        for ( ; i < end; ++i ) {
+            int digit = Character.digit( value.charAt( i ), 10 );
+            if ( digit < 0 || result < multiplicationLimit )
+                return false;
+            result *= 10;
+            if ( result < limit + digit )
+                return false;
+            result -= digit;
+        }
+
+        long parsed = negative ? result : -result;
+        return parsed >= min && parsed <= max;
+    }
+
+    /*
+     * Mirrors the grammar accepted by Double.valueOf( String ): surrounding whitespace, an optional sign, then
+     * "NaN", "Infinity", a hexadecimal significand with binary exponent, or a decimal significand with optional
+     * exponent; the last two may carry a trailing type suffix.
+     */
+    static boolean isFloatingPoint( CharSequence value, int start, int end ) {
+        int i = start;
+        int length = end;
+        while ( i < length && value.charAt( i ) <= ' ' )
+            ++i;
+        while ( length > i && value.charAt( length - 1 ) <= ' ' )
+            --length;
+
+        if ( i < length && ( value.charAt( i ) == '-' || value.charAt( i ) == '+' ) )
+            ++i;
+        if ( regionMatches( value, i, length, "NaN" ) )
+            return i + 3 == length;
+        if ( regionMatches( value, i, length, "Infinity" ) )
+            return i + 8 == length;
+
+        if ( length > i && isTypeSuffix( value.charAt( length - 1 ) ) )
+            --length;
+
+        if ( i + 1 < length && value.charAt( i ) == '0'
+            && ( value.charAt( i + 1 ) == 'x' || value.charAt( i + 1 ) == 'X' ) ) {
+
+            return isHexadecimalFloatingPoint( value, i + 2, length );
+        }
+
+        int digits = 0;
+        for ( ; i < length && isDecimalDigit( value.charAt( i ) ); ++i )
+            ++digits;
+        if ( i < length && value.charAt( i ) == '.' ) {
+            for ( ++i; i < length && isDecimalDigit( value.charAt( i ) ); ++i )
+                ++digits;
+        }
+        if ( digits == 0 )
+            return false;
+
+        if ( i < length && ( value.charAt( i ) == 'e' || value.charAt( i ) == 'E' ) )
+            return isSignedDecimalExponent( value, i + 1, length );
+
+        return i == length;
+    }
+
+    private static boolean regionMatches( CharSequence value, int start, int end, String expected ) {
+        if ( end - start < expected.length() )
+            return false;
+
+        for ( int i = 0; i < expected.length(); ++i ) {
+            if ( value.charAt( start + i ) != expected.charAt( i ) )
+                return false;
+        }
+
+        return true;
+    }
+
+    private static boolean isHexadecimalFloatingPoint( CharSequence value, int start, int end ) {
+        int i = start;
+        int digits = 0;
+        for ( ; i < end && Character.digit( value.charAt( i ), 16 ) >= 0 && value.charAt( i ) < 128; ++i )
+            ++digits;
+        if ( i < end && value.charAt( i ) == '.' ) {
+            for ( ++i; i < end && Character.digit( value.charAt( i ), 16 ) >= 0 && value.charAt( i ) < 128; ++i )
+                ++digits;
+        }
+        if ( digits == 0 || i == end || ( value.charAt( i ) != 'p' && value.charAt( i ) != 'P' ) )
+            return false;
+
+        return isSignedDecimalExponent( value, i + 1, end );
+    }
+
+    private static boolean isSignedDecimalExponent( CharSequence value, int start, int end ) {
+        int i = start;
+        if ( i < end && ( value.charAt( i ) == '-' || value.charAt( i ) == '+' ) )
+            ++i;
+        if ( i == end )
+            return false;
+
+        for ( ; i < end; ++i ) {
+            if ( !isDecimalDigit( value.charAt( i ) ) )
+                return false;
+        }
+
+        return true;
+    }
+
+    private static boolean isDecimalDigit( char ch ) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    private static boolean isTypeSuffix( char ch ) {
+        return ch == 'f' || ch == 'F' || ch == 'd' || ch == 'D';
+    }
+}
@@ -28,10 +28,12 @@ package joptsimple.internal;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.List;
 
 import static java.lang.reflect.Modifier.*;
 
 import joptsimple.ValueConverter;
+import joptsimple.util.EnumConverter;
 
 import static joptsimple.internal.Classes.*;
 
@@ -41,20 +43,93 @@ import static joptsimple.internal.Classes.*;
  * @author <a href="mailto:pholser@alumni.rice.edu">Paul Holser</a>
  */
 public final class Reflection {
+    private static final ClassValue<ValueConverter<?>> CONVERTERS = new ClassValue<ValueConverter<?>>() {
+        @Override
+        protected ValueConverter<?> computeValue( Class<?> type ) {
+            return resolveConverter( type );
+        }
+    };
+
+    private static final ClassValue<Boolean> BULK_CONVERTERS = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue( Class<?> type ) {
+            try {
+                return !ValueConverter.class.equals( type.getMethod( "convertAll", List.class ).getDeclaringClass() );
+            } catch ( NoSuchMethodException ex ) {
+                return false;
+            }
+        }
+    };
+
+    private static final ClassValue<Boolean> CHECKING_CONVERTERS = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue( Class<?> type ) {
+            try {
+                return !ValueConverter.class.equals( type.getMethod( "canConvert", String.class ).getDeclaringClass() )
+                    || !ValueConverter.class.equals(
+                        type.getMethod( "canConvert", CharSequence.class, int.class, int.class ).getDeclaringClass() );
+            } catch ( NoSuchMethodException ex ) {
+                return false;
+            }
+        }
+    };
+
     private Reflection() {
         throw new UnsupportedOperationException();
     }
 
     /**
-     * Finds an appropriate value converter for the given class.
+     * Finds an appropriate value converter for the given class.  Converters are resolved once per class and then
+     * shared, so they must not hold any per-conversion state.
      *
      * @param <V> a constraint on the class object to introspect
      * @param clazz class to introspect on
      * @return a converter method or constructor
+     * @throws IllegalArgumentException if the class has neither a suitable {@code valueOf} method nor a suitable
+     * constructor
      */
+    @SuppressWarnings( "unchecked" )
     public static <V> ValueConverter<V> findConverter( Class<V> clazz ) {
+        return (ValueConverter<V>) CONVERTERS.get( clazz );
+    }
+
+    /**
+     * Tells whether the given converter {@linkplain ValueConverter#convertAll(List) converts values in bulk} rather
+     * than only one at a time.
+     *
+     * @param converter the converter to check
+     * @return whether the converter overrides {@link ValueConverter#convertAll(List)}; {@code false} if it is
+     * {@code null}
+     */
+    public static boolean convertsInBulk( ValueConverter<?> converter ) {
+        return converter != null && BULK_CONVERTERS.get( converter.getClass() );
+    }
+
+    /**
+     * Tells whether the given converter can {@linkplain ValueConverter#canConvert(String) tell} whether a value
+     * converts without attempting the conversion.
+     *
+     * @param converter the converter to check
+     * @return whether the converter overrides {@link ValueConverter#canConvert(String)} or
+     * {@link ValueConverter#canConvert(CharSequence, int, int)}; {@code false} if it is {@code null}
+     */
+    public static boolean checksConversions( ValueConverter<?> converter ) {
+        return converter != null && CHECKING_CONVERTERS.get( converter.getClass() );
+    }
+
+    private static <V> ValueConverter<V> resolveConverter( Class<V> clazz ) {
         Class<V> maybeWrapper = wrapperOf( clazz );
 
+        ValueConverter<V> number = NumberConverter.forType( maybeWrapper );
+        if ( number != null )
+            return number;
+
+        if ( Boolean.class.equals( maybeWrapper ) )
+            return BooleanValueOfConverter.instance();
+
+        if ( maybeWrapper.isEnum() )
+            return enumConverter( maybeWrapper );
+
         ValueConverter<V> valueOf = valueOfConverter( maybeWrapper );
         if ( valueOf != null )
             return valueOf;
@@ -66,6 +141,11 @@ public final class Reflection {
         throw new IllegalArgumentException( clazz + " is not a value type" );
     }
 
+    @SuppressWarnings( { "unchecked", "rawtypes" } )
+    private static <V> ValueConverter<V> enumConverter( Class<V> clazz ) {
+        return EnumConverter.of( (Class) clazz );
+    }
+
     private static <V> ValueConverter<V> valueOfConverter( Class<V> clazz ) {
         try {
             Method valueOf = clazz.getDeclaredMethod( "valueOf", String.class );
@@ -129,6 +209,10 @@ public final class Reflection {
         return isPublic( modifiers ) && isStatic( modifiers ) && expectedReturnType.equals( method.getReturnType() );
     }
 
+    static ReflectionException targetException( Throwable thrown ) {
+        return new ReflectionException( thrown );
+    }
+
     private static RuntimeException reflectionException( Exception ex ) {
         if ( ex instanceof IllegalArgumentException )
             return new ReflectionException( ex );
@@ -27,6 +27,7 @@ package joptsimple.internal;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 import static java.lang.Math.*;
 
@@ -38,13 +39,19 @@ import static joptsimple.internal.Strings.*;
 public class Rows {
     private final int overallWidth;
     private final int columnSeparatorWidth;
+    private final Locale locale;
     private final List<Row> rows = new ArrayList<Row>();
     private int widthOfWidestOption;
     private int widthOfWidestDescription;
 
     public Rows( int overallWidth, int columnSeparatorWidth ) {
+        this( overallWidth, columnSeparatorWidth, Locale.US );
+    }
+
+    public Rows( int overallWidth, int columnSeparatorWidth, Locale locale ) {
         this.overallWidth = overallWidth;
         this.columnSeparatorWidth = columnSeparatorWidth;
+        this.locale = locale;
     }
 
     public void add( String option, String description ) {
@@ -64,7 +71,7 @@ public class Rows {
     }
 
     public void fitToWidth() {
-        Columns columns = new Columns( optionWidth(), descriptionWidth() );
+        Columns columns = new Columns( optionWidth(), descriptionWidth(), locale );
 
         List<Row> fitted = new ArrayList<Row>();
         for ( Row each : rows )
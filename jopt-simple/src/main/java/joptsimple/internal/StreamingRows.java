@@ -0,0 +1,100 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple.internal;
+
+import java.io.IOException;
+import java.util.Locale;
+
+import static java.lang.Math.*;
+
+import static joptsimple.internal.Strings.*;
+
+/**
+ * <p>Lays out rows as {@link Rows} does, without keeping them.</p>
+ *
+ * <p>The rows are given three times over, in the same order: once to {@linkplain #measure(String, String) measure}
+ * them as given, once to {@linkplain #measureFitted(String, String) measure} them as fitted to their columns, and once
+ * to {@linkplain #write(String, String, Appendable) write} them.  Fitting each row twice costs more time than fitting
+ * it once, but only one line of output is ever held, however many rows there are.</p>
+ */
+public class StreamingRows {
+    private final int overallWidth;
+    private final int columnSeparatorWidth;
+    private final Locale locale;
+    private final StringBuilder line = new StringBuilder();
+    private int widthOfWidestOption;
+    private int widthOfWidestDescription;
+    private int widthOfWidestFittedOption;
+    private int widthOfWidestFittedDescription;
+    private Columns columns;
+
+    public StreamingRows( int overallWidth, int columnSeparatorWidth, Locale locale ) {
+        this.overallWidth = overallWidth;
+        this.columnSeparatorWidth = columnSeparatorWidth;
+        this.locale = locale;
+    }
+
+    public void measure( String option, String description ) {
+        widthOfWidestOption = max( widthOfWidestOption, option.length() );
+        widthOfWidestDescription = max( widthOfWidestDescription, description.length() );
+    }
+
+    public void measureFitted( String option, String description ) {
+        for ( Row each : columns().fit( new Row( option, description ) ) ) {
+            widthOfWidestFittedOption = max( widthOfWidestFittedOption, each.option.length() );
+            widthOfWidestFittedDescription = max( widthOfWidestFittedDescription, each.description.length() );
+        }
+    }
+
+    public void write( String option, String description, Appendable sink ) throws IOException {
+        int optionWidth = widthOf( widthOfWidestFittedOption );
+        int descriptionWidth = widthOf( widthOfWidestFittedDescription );
+
+        for ( Row each : columns().fit( new Row( option, description ) ) ) {
+            line.setLength( 0 );
+            pad( each.option, optionWidth );
+            pad( "", columnSeparatorWidth );
+            pad( each.description, descriptionWidth ).append( LINE_SEPARATOR );
+            sink.append( line );
+        }
+    }
+
+    private Columns columns() {
+        if ( columns == null )
+            columns = new Columns( widthOf( widthOfWidestOption ), widthOf( widthOfWidestDescription ), locale );
+        return columns;
+    }
+
+    private int widthOf( int widest ) {
+        return min( ( overallWidth - columnSeparatorWidth ) / 2, widest );
+    }
+
+    private StringBuilder pad( String s, int length ) {
+        line.append( s );
+        for ( int i = s.length(); i < length; ++i )
+            line.append( ' ' );
+        return line;
+    }
+}
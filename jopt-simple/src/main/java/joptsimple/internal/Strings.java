@@ -50,12 +50,12 @@ public final class Strings {
      * @return the resultant string
      */
     public static String repeat( char ch, int count ) {
-        StringBuilder buffer = new StringBuilder();
-
-        for ( int i = 0; i < count; ++i )
-            buffer.append( ch );
+        if ( count <= 0 )
+            return EMPTY;
 
-        return buffer.toString();
+        char[] repeated = new char[ count ];
+        fill( repeated, ch );
+        return new String( repeated );
     }
 
     /**
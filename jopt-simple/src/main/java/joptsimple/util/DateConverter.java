@@ -26,17 +26,19 @@
 package joptsimple.util;
 
 import java.text.DateFormat;
-import java.text.MessageFormat;
 import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.ResourceBundle;
 
 import joptsimple.ValueConversionException;
 import joptsimple.ValueConverter;
+import joptsimple.internal.Messages;
 
 /**
- * Converts values to {@link Date}s using a {@link DateFormat} object.
+ * <p>Converts values to {@link Date}s using a {@link DateFormat} object.</p>
+ *
+ * <p>Date formats are not safe for use from several threads at once, and neither is this converter.  To convert to
+ * {@code java.time} types with a converter that is, see {@link DateTimeConverter}.</p>
  *
  * @author <a href="mailto:pholser@alumni.rice.edu">Paul Holser</a>
  */
@@ -93,8 +95,6 @@ public class DateConverter implements ValueConverter<Date> {
     }
 
     private String message( String value ) {
-        ResourceBundle bundle = ResourceBundle.getBundle( "joptsimple.ExceptionMessages" );
-
         String key;
         Object[] arguments;
         if ( formatter instanceof SimpleDateFormat ) {
@@ -105,7 +105,6 @@ public class DateConverter implements ValueConverter<Date> {
             arguments = new Object[] { value };
         }
 
-        String template = bundle.getString( key );
-        return new MessageFormat( template ).format( arguments );
+        return Messages.message( key, arguments );
     }
 }
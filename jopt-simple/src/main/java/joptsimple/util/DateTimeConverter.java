@@ -0,0 +1,226 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple.util;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQuery;
+
+import joptsimple.ValueConversionException;
+import joptsimple.ValueConverter;
+
+import static joptsimple.internal.Messages.*;
+
+/**
+ * <p>Converts values to {@code java.time} objects using a {@link DateTimeFormatter}.</p>
+ *
+ * <p>Unlike {@link DateConverter}, converters of this class are immutable, and so can be shared by parsers used from
+ * several threads at once.  Converters for the ISO-8601 forms of the common types are built once and handed out by
+ * {@link #instant()}, {@link #localDate()}, {@link #localTime()}, {@link #localDateTime()} and
+ * {@link #offsetDateTime()}; converters for other patterns can be made by {@link #localDate(String)} and its
+ * siblings.  For durations, see {@link DurationConverter}.</p>
+ *
+ * @param <T> the type of the values this converter gives
+ */
+public final class DateTimeConverter<T extends TemporalAccessor> implements ValueConverter<T> {
+    private static final DateTimeConverter<Instant> ISO_INSTANT =
+        new DateTimeConverter<Instant>( DateTimeFormatter.ISO_INSTANT, Instant::from, Instant.class,
+            "yyyy-MM-ddTHH:mm:ssZ" );
+    private static final DateTimeConverter<LocalDate> ISO_LOCAL_DATE =
+        new DateTimeConverter<LocalDate>( DateTimeFormatter.ISO_LOCAL_DATE, LocalDate::from, LocalDate.class,
+            "yyyy-MM-dd" );
+    private static final DateTimeConverter<LocalTime> ISO_LOCAL_TIME =
+        new DateTimeConverter<LocalTime>( DateTimeFormatter.ISO_LOCAL_TIME, LocalTime::from, LocalTime.class,
+            "HH:mm[:ss]" );
+    private static final DateTimeConverter<LocalDateTime> ISO_LOCAL_DATE_TIME =
+        new DateTimeConverter<LocalDateTime>( DateTimeFormatter.ISO_LOCAL_DATE_TIME, LocalDateTime::from,
+            LocalDateTime.class, "yyyy-MM-ddTHH:mm:ss" );
+    private static final DateTimeConverter<OffsetDateTime> ISO_OFFSET_DATE_TIME =
+        new DateTimeConverter<OffsetDateTime>( DateTimeFormatter.ISO_OFFSET_DATE_TIME, OffsetDateTime::from,
+            OffsetDateTime.class, "yyyy-MM-ddTHH:mm:ss+hh:mm" );
+
+    private final DateTimeFormatter formatter;
+    private final TemporalQuery<T> query;
+    private final Class<T> type;
+    private final String pattern;
+
+    private DateTimeConverter( DateTimeFormatter formatter, TemporalQuery<T> query, Class<T> type, String pattern ) {
+        this.formatter = formatter;
+        this.query = query;
+        this.type = type;
+        this.pattern = pattern;
+    }
+
+    /**
+     * Creates a converter that uses the given formatter, and gives what the given query makes of its results.
+     *
+     * @param <T> the type of the values the converter gives
+     * @param formatter the formatter to parse with
+     * @param query makes values out of what the formatter parses, such as {@code LocalTime::from}
+     * @param type the type of the values the converter gives
+     * @param valuePattern the pattern of the values the converter expects, as shown in help and in messages
+     * @return the new converter
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    public static <T extends TemporalAccessor> DateTimeConverter<T> of( DateTimeFormatter formatter,
+        TemporalQuery<T> query, Class<T> type, String valuePattern ) {
+
+        if ( formatter == null || query == null || type == null || valuePattern == null )
+            throw new NullPointerException();
+
+        return new DateTimeConverter<T>( formatter, query, type, valuePattern );
+    }
+
+    /**
+     * Gives a converter for instants in the ISO-8601 form, such as {@code 2014-12-03T10:15:30Z}.
+     *
+     * @return the converter
+     * @see DateTimeFormatter#ISO_INSTANT
+     */
+    public static DateTimeConverter<Instant> instant() {
+        return ISO_INSTANT;
+    }
+
+    /**
+     * Gives a converter for dates in the ISO-8601 form, such as {@code 2014-12-03}.
+     *
+     * @return the converter
+     * @see DateTimeFormatter#ISO_LOCAL_DATE
+     */
+    public static DateTimeConverter<LocalDate> localDate() {
+        return ISO_LOCAL_DATE;
+    }
+
+    /**
+     * Gives a converter for times of day in the ISO-8601 form, such as {@code 10:15} or {@code 10:15:30}.
+     *
+     * @return the converter
+     * @see DateTimeFormatter#ISO_LOCAL_TIME
+     */
+    public static DateTimeConverter<LocalTime> localTime() {
+        return ISO_LOCAL_TIME;
+    }
+
+    /**
+     * Gives a converter for dates and times in the ISO-8601 form, such as {@code 2014-12-03T10:15:30}.
+     *
+     * @return the converter
+     * @see DateTimeFormatter#ISO_LOCAL_DATE_TIME
+     */
+    public static DateTimeConverter<LocalDateTime> localDateTime() {
+        return ISO_LOCAL_DATE_TIME;
+    }
+
+    /**
+     * Gives a converter for dates and times with an offset from UTC in the ISO-8601 form, such as
+     * {@code 2014-12-03T10:15:30+01:00}.
+     *
+     * @return the converter
+     * @see DateTimeFormatter#ISO_OFFSET_DATE_TIME
+     */
+    public static DateTimeConverter<OffsetDateTime> offsetDateTime() {
+        return ISO_OFFSET_DATE_TIME;
+    }
+
+    /**
+     * Creates a converter for dates of the given pattern.  Values are resolved
+     * {@linkplain ResolverStyle#STRICT strictly}, so the year of a pattern is best given as {@code uuuu} rather than
+     * {@code yyyy}, which would want an era as well.
+     *
+     * @param pattern expected date pattern, as for {@link DateTimeFormatter#ofPattern(String)}
+     * @return the new converter
+     * @throws NullPointerException if {@code pattern} is {@code null}
+     * @throws IllegalArgumentException if {@code pattern} is invalid
+     */
+    public static DateTimeConverter<LocalDate> localDate( String pattern ) {
+        return new DateTimeConverter<LocalDate>( strict( pattern ), LocalDate::from, LocalDate.class, pattern );
+    }
+
+    /**
+     * Creates a converter for times of day of the given pattern, resolved as by {@link #localDate(String)}.
+     *
+     * @param pattern expected time pattern, as for {@link DateTimeFormatter#ofPattern(String)}
+     * @return the new converter
+     * @throws NullPointerException if {@code pattern} is {@code null}
+     * @throws IllegalArgumentException if {@code pattern} is invalid
+     */
+    public static DateTimeConverter<LocalTime> localTime( String pattern ) {
+        return new DateTimeConverter<LocalTime>( strict( pattern ), LocalTime::from, LocalTime.class, pattern );
+    }
+
+    /**
+     * Creates a converter for dates and times of the given pattern, resolved as by {@link #localDate(String)}.
+     *
+     * @param pattern expected date/time pattern, as for {@link DateTimeFormatter#ofPattern(String)}
+     * @return the new converter
+     * @throws NullPointerException if {@code pattern} is {@code null}
+     * @throws IllegalArgumentException if {@code pattern} is invalid
+     */
+    public static DateTimeConverter<LocalDateTime> localDateTime( String pattern ) {
+        return new DateTimeConverter<LocalDateTime>( strict( pattern ), LocalDateTime::from, LocalDateTime.class,
+            pattern );
+    }
+
+    /**
+     * Creates a converter for dates and times with an offset from UTC of the given pattern, resolved as by
+     * {@link #localDate(String)}.
+     *
+     * @param pattern expected date/time pattern, as for {@link DateTimeFormatter#ofPattern(String)}
+     * @return the new converter
+     * @throws NullPointerException if {@code pattern} is {@code null}
+     * @throws IllegalArgumentException if {@code pattern} is invalid
+     */
+    public static DateTimeConverter<OffsetDateTime> offsetDateTime( String pattern ) {
+        return new DateTimeConverter<OffsetDateTime>( strict( pattern ), OffsetDateTime::from, OffsetDateTime.class,
+            pattern );
+    }
+
+    public T convert( String value ) {
+        try {
+            return formatter.parse( value, query );
+        } catch ( DateTimeException ex ) {
+            throw new ValueConversionException( message( getClass().getName() + ".message", value, pattern ), ex );
+        }
+    }
+
+    public Class<T> valueType() {
+        return type;
+    }
+
+    public String valuePattern() {
+        return pattern;
+    }
+
+    private static DateTimeFormatter strict( String pattern ) {
+        return DateTimeFormatter.ofPattern( pattern ).withResolverStyle( ResolverStyle.STRICT );
+    }
+}
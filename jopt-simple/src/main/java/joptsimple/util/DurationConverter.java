@@ -0,0 +1,229 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple.util;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+
+import joptsimple.ValueConversionException;
+import joptsimple.ValueConverter;
+
+import static joptsimple.internal.Messages.*;
+
+/**
+ * <p>Converts values to {@link Duration}s, written either as amounts of time units, such as {@code 250ms} or
+ * {@code 1h30m}, or in the ISO-8601 form accepted by {@link Duration#parse(CharSequence)}, such as {@code PT1M}.</p>
+ *
+ * <p>Each amount consists of decimal digits, optionally with a fractional part, immediately followed by one of the
+ * units {@code d}, {@code h}, {@code m}, {@code s}, {@code ms}, {@code us} and {@code ns}.  Fractions finer than a
+ * nanosecond are dropped.  A converter may be given a default unit, which applies to a value that is a lone amount
+ * without a unit.</p>
+ */
+public class DurationConverter implements ValueConverter<Duration> {
+    private final ChronoUnit defaultUnit;
+
+    /**
+     * Creates a converter that requires every amount to have a unit.
+     */
+    public DurationConverter() {
+        this.defaultUnit = null;
+    }
+
+    /**
+     * Creates a converter that takes a lone amount without a unit to be in the given unit.
+     *
+     * @param defaultUnit the unit of a value without one
+     * @throws NullPointerException if {@code defaultUnit} is {@code null}
+     */
+    public DurationConverter( ChronoUnit defaultUnit ) {
+        if ( defaultUnit == null )
+            throw new NullPointerException( "illegal null unit" );
+
+        this.defaultUnit = defaultUnit;
+    }
+
+    public Duration convert( String value ) {
+        return convert( value, 0, value.length() );
+    }
+
+    @Override
+    public Duration convert( CharSequence source, int start, int end ) {
+        Duration duration = parse( source, start, end );
+        if ( duration == null )
+            raiseValueConversionFailure( source.subSequence( start, end ).toString() );
+
+        return duration;
+    }
+
+    @Override
+    public boolean canConvert( String value ) {
+        return canConvert( value, 0, value.length() );
+    }
+
+    @Override
+    public boolean canConvert( CharSequence source, int start, int end ) {
+        return parse( source, start, end ) != null;
+    }
+
+    public Class<Duration> valueType() {
+        return Duration.class;
+    }
+
+    public String valuePattern() {
+        return "n{d|h|m|s|ms|us|ns}...";
+    }
+
+    private Duration parse( CharSequence source, int start, int end ) {
+        if ( start == end )
+            return null;
+
+        char first = source.charAt( start );
+        if ( first == 'P' || first == 'p' || first == '-' || first == '+' )
+            return parseIsoForm( source, start, end );
+
+        try {
+            Duration total = Duration.ZERO;
+            for ( int i = start; i < end; ) {
+                int amountEnd = i;
+                while ( amountEnd < end && ( isDecimalDigit( source.charAt( amountEnd ) )
+                    || source.charAt( amountEnd ) == '.' ) ) {
+
+                    ++amountEnd;
+                }
+
+                int unitEnd = amountEnd;
+                while ( unitEnd < end && Character.isLetter( source.charAt( unitEnd ) ) )
+                    ++unitEnd;
+
+                ChronoUnit unit = unitEnd == amountEnd && i == start && unitEnd == end
+                    ? defaultUnit
+                    : unitOf( source, amountEnd, unitEnd );
+                if ( unit == null )
+                    return null;
+
+                Duration amount = amount( source, i, amountEnd, unit );
+                if ( amount == null )
+                    return null;
+
+                total = total.plus( amount );
+                i = unitEnd;
+            }
+
+            return total;
+        } catch ( ArithmeticException ex ) {
+            return null;
+        }
+    }
+
+    private static Duration parseIsoForm( CharSequence source, int start, int end ) {
+        try {
+            return Duration.parse( source.subSequence( start, end ) );
+        } catch ( DateTimeParseException ex ) {
+            return null;
+        }
+    }
+
+    private static Duration amount( CharSequence source, int start, int end, ChronoUnit unit ) {
+        long integral = 0;
+        long fraction = 0;
+        int fractionDigits = 0;
+        boolean inFraction = false;
+        int digits = 0;
+
+        for ( int i = start; i < end; ++i ) {
+            char ch = source.charAt( i );
+            if ( ch == '.' ) {
+                if ( inFraction )
+                    return null;
+                inFraction = true;
+            } else if ( !inFraction ) {
+                integral = Math.addExact( Math.multiplyExact( integral, 10 ), ch - '0' );
+                ++digits;
+            } else {
+                if ( fractionDigits < 18 ) {
+                    fraction = fraction * 10 + ( ch - '0' );
+                    ++fractionDigits;
+                }
+                ++digits;
+            }
+        }
+        if ( digits == 0 )
+            return null;
+
+        Duration unitDuration = unit.getDuration();
+        Duration amount = unitDuration.multipliedBy( integral );
+        if ( fraction == 0 )
+            return amount;
+
+        BigDecimal fractionNanos =
+            BigDecimal.valueOf( fraction, fractionDigits ).multiply( BigDecimal.valueOf( unitDuration.toNanos() ) );
+        return amount.plusNanos( fractionNanos.longValue() );
+    }
+
+    private static ChronoUnit unitOf( CharSequence source, int start, int end ) {
+        switch ( end - start ) {
+            case 1:
+                switch ( source.charAt( start ) ) {
+                    case 'd':
+                        return ChronoUnit.DAYS;
+                    case 'h':
+                        return ChronoUnit.HOURS;
+                    case 'm':
+                        return ChronoUnit.MINUTES;
+                    case 's':
+                        return ChronoUnit.SECONDS;
+                    default:
+                        return null;
+                }
+            case 2:
+                if ( source.charAt( start + 1 ) != 's' )
+                    return null;
+                switch ( source.charAt( start ) ) {
+                    case 'm':
+                        return ChronoUnit.MILLIS;
+                    case 'u':
+                        return ChronoUnit.MICROS;
+                    case 'n':
+                        return ChronoUnit.NANOS;
+                    default:
+                        return null;
+                }
+            default:
+                return null;
+        }
+    }
+
+    private static boolean isDecimalDigit( char ch ) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    private void raiseValueConversionFailure( String value ) {
+        throw new ValueConversionException(
+            message( DurationConverter.class.getName() + ".message", value, valuePattern() ) );
+    }
+}
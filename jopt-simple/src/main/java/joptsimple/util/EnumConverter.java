@@ -0,0 +1,183 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple.util;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import joptsimple.ValueConversionException;
+import joptsimple.ValueConverter;
+import joptsimple.internal.AbbreviationMap;
+
+import static joptsimple.internal.Messages.*;
+
+/**
+ * <p>Converts values to the constants of an enum type, by name.</p>
+ *
+ * <p>The names of the constants are looked up in a table built once, when the converter is made; converting a value
+ * that names a constant involves neither reflection nor exceptions.  A converter can be made to
+ * {@linkplain #ignoringCase() ignore case}, and to accept {@linkplain #abbreviating() unique abbreviations} of the
+ * names.  A name that two constants share once case is ignored, or an abbreviation of more than one name, names
+ * neither constant, unless it is the exact name of one of them.</p>
+ *
+ * <p>Instances are immutable, and so can be shared among threads and parsers.</p>
+ *
+ * @param <E> the enum type
+ */
+public final class EnumConverter<E extends Enum<E>> implements ValueConverter<E> {
+    private final Class<E> enumType;
+    private final boolean ignoringCase;
+    private final boolean abbreviating;
+    private final Map<String, E> byName = new HashMap<String, E>();
+    private final Map<String, E> byFoldedName = new HashMap<String, E>();
+    private final AbbreviationMap<E> byAbbreviation;
+    private final String names;
+    private final String valuePattern;
+
+    private EnumConverter( Class<E> enumType, boolean ignoringCase, boolean abbreviating, String valuePattern ) {
+        this.enumType = enumType;
+        this.ignoringCase = ignoringCase;
+        this.abbreviating = abbreviating;
+        this.valuePattern = valuePattern;
+        byAbbreviation = abbreviating ? new AbbreviationMap<E>() : null;
+
+        StringBuilder joined = new StringBuilder();
+        for ( E each : enumType.getEnumConstants() ) {
+            byName.put( each.name(), each );
+            if ( ignoringCase )
+                byFoldedName.put( fold( each.name() ), byFoldedName.containsKey( fold( each.name() ) ) ? null : each );
+
+            if ( joined.length() > 0 )
+                joined.append( ", " );
+            joined.append( each.name() );
+        }
+
+        if ( abbreviating ) {
+            for ( E each : enumType.getEnumConstants() ) {
+                String key = ignoringCase ? fold( each.name() ) : each.name();
+                if ( !key.isEmpty() && ( !ignoringCase || byFoldedName.get( key ) != null ) )
+                    byAbbreviation.put( key, each );
+            }
+        }
+
+        names = joined.toString();
+    }
+
+    /**
+     * Gives a converter to the constants of the given enum type, by their exact names.
+     *
+     * @param <E> the enum type
+     * @param enumType the enum type
+     * @return the new converter
+     * @throws NullPointerException if {@code enumType} is {@code null}
+     * @throws IllegalArgumentException if {@code enumType} is not an enum type
+     */
+    public static <E extends Enum<E>> EnumConverter<E> of( Class<E> enumType ) {
+        if ( !enumType.isEnum() )
+            throw new IllegalArgumentException( enumType + " is not an enum type" );
+
+        return new EnumConverter<E>( enumType, false, false, null );
+    }
+
+    /**
+     * Gives a converter like this one, that ignores the case of the values it converts.
+     *
+     * @return the new converter
+     */
+    public EnumConverter<E> ignoringCase() {
+        return new EnumConverter<E>( enumType, true, abbreviating, valuePattern );
+    }
+
+    /**
+     * Tells whether this converter ignores the case of the values it converts.
+     *
+     * @return whether case is ignored
+     */
+    public boolean ignoresCase() {
+        return ignoringCase;
+    }
+
+    /**
+     * Gives a converter like this one, that also accepts unique abbreviations of the names of the constants.
+     *
+     * @return the new converter
+     */
+    public EnumConverter<E> abbreviating() {
+        return new EnumConverter<E>( enumType, ignoringCase, true, valuePattern );
+    }
+
+    /**
+     * Gives a converter like this one, that offers the given {@linkplain #valuePattern() value pattern} for help
+     * output.  An empty pattern shows no type for the option's arguments.
+     *
+     * @param pattern the value pattern, or {@code null} to show the name of the enum type
+     * @return the new converter
+     */
+    public EnumConverter<E> withValuePattern( String pattern ) {
+        return new EnumConverter<E>( enumType, ignoringCase, abbreviating, pattern );
+    }
+
+    public E convert( String value ) {
+        E constant = lookUp( value );
+        if ( constant == null )
+            throw new ValueConversionException( message( getClass().getName() + ".message", value, names ) );
+
+        return constant;
+    }
+
+    @Override
+    public boolean canConvert( String value ) {
+        return lookUp( value ) != null;
+    }
+
+    public Class<E> valueType() {
+        return enumType;
+    }
+
+    public String valuePattern() {
+        return valuePattern;
+    }
+
+    private E lookUp( String value ) {
+        E constant = byName.get( value );
+        if ( constant != null || value.isEmpty() )
+            return constant;
+
+        String key = value;
+        if ( ignoringCase ) {
+            key = fold( value );
+            constant = byFoldedName.get( key );
+        }
+        if ( constant == null && abbreviating )
+            constant = byAbbreviation.get( key );
+
+        return constant;
+    }
+
+    private static String fold( String name ) {
+        return name.toLowerCase( Locale.ROOT );
+    }
+}
@@ -0,0 +1,403 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple.util;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+
+import joptsimple.IndexedValueConversionException;
+import joptsimple.ValueConversionException;
+import joptsimple.ValueConverter;
+import joptsimple.internal.DaemonThreads;
+
+import static java.util.concurrent.TimeUnit.*;
+
+import static joptsimple.internal.Messages.*;
+
+/**
+ * <p>Converts values to {@link InetAddress}es, keeping the addresses of host names it resolves for a while.</p>
+ *
+ * <p>Literal IPv4 addresses, such as {@code 192.168.0.1}, and IPv6 addresses, such as {@code ::1} or
+ * {@code [::1]}, are parsed without any lookup.  Host names are resolved by a {@link HostResolver}, off the calling
+ * thread on one of a few daemon threads shared by all converters, waiting no longer than a given timeout; a lookup
+ * that times out carries on, and its result is kept if it succeeds.  Resolved addresses are kept for a given time
+ * to live, in a cache holding a bounded number of host names, least recently used first out.  Concurrent conversions
+ * of the same host name share a lookup.  Failed lookups are not kept.  {@linkplain #convertAll(List) Converting} many
+ * values at once looks up all their host names together.</p>
+ *
+ * <p>{@link #socketAddresses()} gives a converter of {@code host:port} values to {@link InetSocketAddress}es that
+ * shares this converter's cache.</p>
+ *
+ * <p>Converters of this class are safe for use from several threads at once.</p>
+ */
+public class HostAddressConverter implements ValueConverter<InetAddress> {
+    private static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofSeconds( 30 );
+    private static final int DEFAULT_CAPACITY = 256;
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds( 5 );
+
+    private final HostResolver resolver;
+    private final long timeToLiveNanos;
+    private final long timeoutNanos;
+    private final Map<String, CachedLookup> cache;
+    private final LongSupplier clock;
+
+    /**
+     * Creates a converter that resolves host names with the {@linkplain HostResolver#system() system resolver},
+     * keeping up to 256 of them for 30 seconds, and waiting up to 5 seconds for each lookup.
+     */
+    public HostAddressConverter() {
+        this( HostResolver.system() );
+    }
+
+    /**
+     * Creates a converter that resolves host names with the given resolver, keeping up to 256 of them for 30
+     * seconds, and waiting up to 5 seconds for each lookup.
+     *
+     * @param resolver resolves host names
+     * @throws NullPointerException if {@code resolver} is {@code null}
+     */
+    public HostAddressConverter( HostResolver resolver ) {
+        this( resolver, DEFAULT_TIME_TO_LIVE, DEFAULT_CAPACITY, DEFAULT_TIMEOUT );
+    }
+
+    /**
+     * Creates a converter that resolves host names with the given resolver.
+     *
+     * @param resolver resolves host names
+     * @param timeToLive how long to keep the address of a resolved host name; zero to keep none
+     * @param capacity how many host names to keep addresses of at most
+     * @param timeout how long to wait for a lookup
+     * @throws NullPointerException if any argument is {@code null}
+     * @throws IllegalArgumentException if {@code timeToLive} is negative, {@code capacity} is negative, or
+     * {@code timeout} is not positive
+     */
+    public HostAddressConverter( HostResolver resolver, Duration timeToLive, int capacity, Duration timeout ) {
+        this( resolver, timeToLive, capacity, timeout, System::nanoTime );
+    }
+
+    HostAddressConverter( HostResolver resolver, Duration timeToLive, int capacity, Duration timeout,
+        LongSupplier clock ) {
+
+        if ( resolver == null || timeToLive == null || timeout == null )
+            throw new NullPointerException();
+        if ( timeToLive.isNegative() )
+            throw new IllegalArgumentException( "negative time to live: " + timeToLive );
+        if ( capacity < 0 )
+            throw new IllegalArgumentException( "negative capacity: " + capacity );
+        if ( timeout.isNegative() || timeout.isZero() )
+            throw new IllegalArgumentException( "timeout not positive: " + timeout );
+
+        this.resolver = resolver;
+        this.timeToLiveNanos = saturatedNanos( timeToLive );
+        this.timeoutNanos = saturatedNanos( timeout );
+        this.cache = new LinkedHashMap<String, CachedLookup>( 16, 0.75f, true ) {
+            private static final long serialVersionUID = -1L;
+
+            @Override
+            protected boolean removeEldestEntry( Map.Entry<String, CachedLookup> eldest ) {
+                return size() > capacity;
+            }
+        };
+        this.clock = clock;
+    }
+
+    public InetAddress convert( String value ) {
+        InetAddress literal = literalAddress( value );
+        return literal != null ? literal : lookUp( value );
+    }
+
+    public Class<InetAddress> valueType() {
+        return InetAddress.class;
+    }
+
+    public String valuePattern() {
+        return null;
+    }
+
+    /**
+     * Gives a converter of values of the form {@code host:port} to socket addresses, whose host part is converted as
+     * by this converter.  An IPv6 address with a port must be enclosed in brackets, as in {@code [::1]:8080}.
+     *
+     * @return a converter of socket addresses
+     */
+    public ValueConverter<InetSocketAddress> socketAddresses() {
+        return new SocketAddressConverter( -1 );
+    }
+
+    /**
+     * Gives a converter of values of the form {@code host[:port]} to socket addresses, whose host part is converted
+     * as by this converter, and whose port is the given one if the value does not have one.
+     *
+     * @param defaultPort port of a socket address whose value does not have one
+     * @return a converter of socket addresses
+     * @throws IllegalArgumentException if {@code defaultPort} is not a valid port number
+     */
+    public ValueConverter<InetSocketAddress> socketAddresses( int defaultPort ) {
+        if ( defaultPort < 0 || defaultPort > 0xFFFF )
+            throw new IllegalArgumentException( "invalid port: " + defaultPort );
+
+        return new SocketAddressConverter( defaultPort );
+    }
+
+    /**
+     * Converts the given values, looking up each distinct host name among them only once, and all of them at once.
+     * The timeout bounds the wait for all the lookups together.
+     *
+     * @param values the strings to convert
+     * @return the converted values, in the same order
+     * @throws IndexedValueConversionException if any of the values cannot be converted
+     */
+    @Override
+    public List<InetAddress> convertAll( List<String> values ) {
+        Map<String, CompletableFuture<InetAddress>> lookups = new HashMap<String, CompletableFuture<InetAddress>>();
+        List<Object> pending = new ArrayList<Object>( values.size() );
+        for ( int i = 0; i < values.size(); ++i ) {
+            String each = values.get( i );
+            InetAddress literal;
+            try {
+                literal = literalAddress( each );
+            } catch ( ValueConversionException ex ) {
+                throw new IndexedValueConversionException( i, ex );
+            }
+            if ( literal != null )
+                pending.add( literal );
+            else {
+                CompletableFuture<InetAddress> lookup = lookups.get( each );
+                if ( lookup == null ) {
+                    lookup = startLookup( each );
+                    lookups.put( each, lookup );
+                }
+                pending.add( lookup );
+            }
+        }
+
+        long started = System.nanoTime();
+        List<InetAddress> addresses = new ArrayList<InetAddress>( values.size() );
+        for ( int i = 0; i < values.size(); ++i ) {
+            Object each = pending.get( i );
+            if ( each instanceof InetAddress )
+                addresses.add( (InetAddress) each );
+            else {
+                @SuppressWarnings( "unchecked" )
+                CompletableFuture<InetAddress> lookup = (CompletableFuture<InetAddress>) each;
+                try {
+                    addresses.add( await( values.get( i ), lookup, timeoutNanos - ( System.nanoTime() - started ) ) );
+                } catch ( ValueConversionException ex ) {
+                    throw new IndexedValueConversionException( i, ex );
+                }
+            }
+        }
+
+        return addresses;
+    }
+
+    private InetAddress lookUp( String host ) {
+        return await( host, startLookup( host ), timeoutNanos );
+    }
+
+    private CompletableFuture<InetAddress> startLookup( String host ) {
+        synchronized ( cache ) {
+            CachedLookup cached = cache.get( host );
+            if ( cached == null || cached.hasExpired( clock.getAsLong() ) ) {
+                cached = new CachedLookup( host );
+                cache.put( host, cached );
+            }
+            return cached.lookup;
+        }
+    }
+
+    private InetAddress await( String host, CompletableFuture<InetAddress> lookup, long waitNanos ) {
+        try {
+            return lookup.get( Math.max( 0, waitNanos ), NANOSECONDS );
+        } catch ( TimeoutException ex ) {
+            throw new ValueConversionException(
+                message( HostAddressConverter.class.getName() + ".timeout.message", host,
+                    NANOSECONDS.toMillis( timeoutNanos ) ) );
+        } catch ( ExecutionException ex ) {
+            throw new ValueConversionException(
+                message( HostAddressConverter.class.getName() + ".message", host ), ex.getCause() );
+        } catch ( InterruptedException ex ) {
+            Thread.currentThread().interrupt();
+            throw new ValueConversionException(
+                message( HostAddressConverter.class.getName() + ".message", host ), ex );
+        }
+    }
+
+    private static InetAddress literalAddress( String value ) {
+        try {
+            if ( value.startsWith( "[" ) || value.indexOf( ':' ) != -1 )
+                return InetAddress.getByName( value.startsWith( "[" ) ? value : '[' + value + ']' );
+
+            byte[] octets = ipv4Octets( value );
+            return octets == null ? null : InetAddress.getByAddress( octets );
+        } catch ( UnknownHostException ex ) {
+            throw new ValueConversionException( message( HostAddressConverter.class.getName() + ".message", value ),
+                ex );
+        }
+    }
+
+    /*
+     * Answers the octets of a dotted-quad IPv4 address, or null if the value is not one.
+     */
+    private static byte[] ipv4Octets( String value ) {
+        byte[] octets = new byte[ 4 ];
+        int octet = 0;
+        int digits = 0;
+        int accumulated = 0;
+
+        for ( int i = 0; i < value.length(); ++i ) {
+            char ch = value.charAt( i );
+            if ( ch == '.' ) {
+                if ( digits == 0 || octet == 3 )
+                    return null;
+                octets[ octet++ ] = (byte) accumulated;
+                digits = 0;
+                accumulated = 0;
+            } else if ( ch >= '0' && ch <= '9' && digits < 3 ) {
+                accumulated = accumulated * 10 + ( ch - '0' );
+                ++digits;
+                if ( accumulated > 255 )
+                    return null;
+            } else
+                return null;
+        }
+
+        if ( digits == 0 || octet != 3 )
+            return null;
+        octets[ 3 ] = (byte) accumulated;
+        return octets;
+    }
+
+    private static long saturatedNanos( Duration duration ) {
+        try {
+            return duration.toNanos();
+        } catch ( ArithmeticException ex ) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private final class CachedLookup {
+        final CompletableFuture<InetAddress> lookup;
+        private volatile long expiresAt;
+        private volatile boolean resolved;
+
+        CachedLookup( final String host ) {
+            lookup = CompletableFuture.supplyAsync( () -> {
+                try {
+                    InetAddress address = resolver.resolve( host );
+                    if ( address == null )
+                        throw new UnknownHostException( host );
+                    return address;
+                } catch ( UnknownHostException ex ) {
+                    throw new CompletionException( ex );
+                }
+            }, Lookups.EXECUTOR );
+
+            lookup.whenComplete( ( address, failure ) -> {
+                if ( failure == null ) {
+                    expiresAt = clock.getAsLong() + timeToLiveNanos;
+                    resolved = true;
+                } else {
+                    synchronized ( cache ) {
+                        cache.remove( host, this );
+                    }
+                }
+            } );
+        }
+
+        boolean hasExpired( long now ) {
+            return lookup.isCompletedExceptionally() || resolved && now - expiresAt >= 0;
+        }
+    }
+
+    private final class SocketAddressConverter implements ValueConverter<InetSocketAddress> {
+        private final int defaultPort;
+
+        SocketAddressConverter( int defaultPort ) {
+            this.defaultPort = defaultPort;
+        }
+
+        public InetSocketAddress convert( String value ) {
+            String host = value;
+            int port = defaultPort;
+
+            int colon = value.lastIndexOf( ':' );
+            boolean bracketed = value.startsWith( "[" );
+            if ( bracketed ? colon > value.lastIndexOf( ']' ) : colon != -1 && colon == value.indexOf( ':' ) ) {
+                host = value.substring( 0, colon );
+                port = port( value, colon + 1 );
+            }
+            if ( port < 0 || host.isEmpty() )
+                throw new ValueConversionException( message( HostAddressConverter.class.getName() + ".port.message",
+                    value, valuePattern() ) );
+
+            return new InetSocketAddress( HostAddressConverter.this.convert( host ), port );
+        }
+
+        public Class<InetSocketAddress> valueType() {
+            return InetSocketAddress.class;
+        }
+
+        public String valuePattern() {
+            return defaultPort < 0 ? "host:port" : "host[:port]";
+        }
+
+        private int port( String value, int start ) {
+            if ( start == value.length() || value.length() - start > 5 )
+                return -1;
+
+            int port = 0;
+            for ( int i = start; i < value.length(); ++i ) {
+                char ch = value.charAt( i );
+                if ( ch < '0' || ch > '9' )
+                    return -1;
+                port = port * 10 + ( ch - '0' );
+            }
+
+            return port > 0xFFFF ? -1 : port;
+        }
+    }
+
+    /*
+     * Holds the threads that lookups run on, made only once a host name needs resolving.  There are few of them, so
+     * that lookups that hang cannot pile up threads; further lookups wait for one to be free.
+     */
+    private static final class Lookups {
+        static final Executor EXECUTOR = DaemonThreads.pool( "jopt-simple host lookup", 8 );
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple.util;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Resolves host names to addresses for a {@link HostAddressConverter}.  Stand-ins for the {@linkplain #system()
+ * system resolver} let tests and offline environments convert host names without name service lookups.
+ */
+public interface HostResolver {
+    /**
+     * Resolves the given host name.
+     *
+     * @param host name of the host, never a literal address
+     * @return an address of the host
+     * @throws UnknownHostException if the host cannot be resolved
+     */
+    InetAddress resolve( String host ) throws UnknownHostException;
+
+    /**
+     * Gives the resolver that uses the name services the JVM is configured with, by way of
+     * {@link InetAddress#getByName(String)}.
+     *
+     * @return the system resolver
+     */
+    static HostResolver system() {
+        return InetAddress::getByName;
+    }
+}
@@ -32,7 +32,10 @@ import joptsimple.ValueConversionException;
 import joptsimple.ValueConverter;
 
 /**
- * Converts values to {@link java.net.InetAddress} using {@link InetAddress#getByName(String) getByName}.
+ * <p>Converts values to {@link java.net.InetAddress} using {@link InetAddress#getByName(String) getByName}.</p>
+ *
+ * <p>Each conversion of a host name looks it up anew, on the calling thread, for as long as the lookup takes.  For a
+ * converter that keeps resolved addresses and bounds the wait, see {@link HostAddressConverter}.</p>
  *
  * @author <a href="mailto:r@ymund.de">Raymund F\u00FCl\u00F6p</a>
  */
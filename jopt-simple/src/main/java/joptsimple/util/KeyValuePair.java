@@ -52,11 +52,26 @@ public final class KeyValuePair {
      * @throws NullPointerException if {@code stringRepresentation} is {@code null}
      */
     public static KeyValuePair valueOf( String asString ) {
-        int equalsIndex = asString.indexOf( '=' );
+        return valueOf( asString, 0 );
+    }
+
+    /**
+     * Parses the part of a string from the given index onward, assumed to be of the form {@code key=value}, into its
+     * parts.  Unlike parsing the corresponding substring, this copies only the key and the value.
+     *
+     * @param asString string whose tail is a key-value string
+     * @param beginIndex index at which the key-value string begins
+     * @return a key-value pair
+     * @throws NullPointerException if {@code asString} is {@code null}
+     * @throws IndexOutOfBoundsException if {@code beginIndex} is negative or greater than the length of
+     * {@code asString}
+     */
+    public static KeyValuePair valueOf( String asString, int beginIndex ) {
+        int equalsIndex = asString.indexOf( '=', beginIndex );
         if ( equalsIndex == -1 )
-            return new KeyValuePair( asString, EMPTY );
+            return new KeyValuePair( asString.substring( beginIndex ), EMPTY );
 
-        String aKey = asString.substring( 0, equalsIndex );
+        String aKey = asString.substring( beginIndex, equalsIndex );
         String aValue = equalsIndex == asString.length() - 1 ? EMPTY : asString.substring( equalsIndex + 1 );
 
         return new KeyValuePair( aKey, aValue );
@@ -0,0 +1,199 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple.util;
+
+import java.math.BigDecimal;
+
+import joptsimple.ValueConversionException;
+import joptsimple.ValueConverter;
+
+import static joptsimple.internal.Messages.*;
+
+/**
+ * <p>Converts values to non-negative {@link Long}s, allowing them to be written with a multiplier suffix, such as
+ * {@code 10k} or {@code 4GiB}.</p>
+ *
+ * <p>A value consists of decimal digits, optionally with a fractional part, followed by an optional multiplier and an
+ * optional unit:</p>
+ *
+ * <ul>
+ *   <li>the decimal multipliers {@code k} (or {@code K}), {@code M}, {@code G}, {@code T}, {@code P} and {@code E}
+ *   stand for powers of 1000;</li>
+ *   <li>the binary multipliers {@code Ki}, {@code Mi}, {@code Gi}, {@code Ti}, {@code Pi} and {@code Ei} stand for
+ *   powers of 1024;</li>
+ *   <li>the unit, if the converter has one, is the exact text given when creating the converter.</li>
+ * </ul>
+ *
+ * <p>A fractional part is allowed only if the value it denotes is a whole number, as in {@code 1.5k}.  Values that do
+ * not fit in a {@code long} are rejected.  Values are read in place, without creating strings, when given as
+ * {@linkplain #convert(CharSequence, int, int) part of a longer argument}.</p>
+ */
+public class QuantityConverter implements ValueConverter<Long> {
+    private static final String MULTIPLIERS = "kMGTPE";
+    private static final long INVALID = -1;
+
+    private final String unit;
+
+    /**
+     * Creates a converter for quantities that may be followed by the given unit.
+     *
+     * @param unit the unit, such as {@code B}; empty if quantities have no unit
+     * @throws NullPointerException if {@code unit} is {@code null}
+     */
+    public QuantityConverter( String unit ) {
+        if ( unit == null )
+            throw new NullPointerException( "illegal null unit" );
+
+        this.unit = unit;
+    }
+
+    /**
+     * Gives a converter for plain counts, such as {@code 10k}.
+     *
+     * @return the new converter
+     */
+    public static QuantityConverter count() {
+        return new QuantityConverter( "" );
+    }
+
+    /**
+     * Gives a converter for numbers of bytes, such as {@code 4GiB}, {@code 10kB} or {@code 512}.
+     *
+     * @return the new converter
+     */
+    public static QuantityConverter bytes() {
+        return new QuantityConverter( "B" );
+    }
+
+    public Long convert( String value ) {
+        return convert( value, 0, value.length() );
+    }
+
+    @Override
+    public Long convert( CharSequence source, int start, int end ) {
+        long quantity = parse( source, start, end );
+        if ( quantity == INVALID )
+            raiseValueConversionFailure( source.subSequence( start, end ).toString() );
+
+        return quantity;
+    }
+
+    @Override
+    public boolean canConvert( String value ) {
+        return canConvert( value, 0, value.length() );
+    }
+
+    @Override
+    public boolean canConvert( CharSequence source, int start, int end ) {
+        return parse( source, start, end ) != INVALID;
+    }
+
+    public Class<Long> valueType() {
+        return Long.class;
+    }
+
+    public String valuePattern() {
+        return "n[k|M|G|T|P|E][i]" + ( unit.isEmpty() ? "" : '[' + unit + ']' );
+    }
+
+    private long parse( CharSequence source, int start, int end ) {
+        int numberEnd = end;
+        if ( !unit.isEmpty() && endsWith( source, start, numberEnd, unit ) )
+            numberEnd -= unit.length();
+
+        boolean binary = numberEnd - start > 1 && source.charAt( numberEnd - 1 ) == 'i';
+        if ( binary )
+            --numberEnd;
+
+        int power = numberEnd > start ? multiplierPower( source.charAt( numberEnd - 1 ) ) : -1;
+        if ( power > 0 )
+            --numberEnd;
+        else if ( binary )
+            return INVALID;
+
+        long multiplier = 1;
+        for ( int i = 0; i < power; ++i )
+            multiplier *= binary ? 1024 : 1000;
+
+        return scale( source, start, numberEnd, multiplier );
+    }
+
+    private static long scale( CharSequence source, int start, int end, long multiplier ) {
+        long integral = 0;
+        int i = start;
+        for ( ; i < end && isDecimalDigit( source.charAt( i ) ); ++i ) {
+            int digit = source.charAt( i ) - '0';
+            if ( integral > ( Long.MAX_VALUE - digit ) / 10 )
+                return INVALID;
+            integral = integral * 10 + digit;
+        }
+
+        if ( i == end ) {
+            if ( i == start || integral > Long.MAX_VALUE / multiplier )
+                return INVALID;
+            return integral * multiplier;
+        }
+
+        if ( source.charAt( i ) != '.' || i + 1 == end )
+            return INVALID;
+        for ( ++i; i < end; ++i ) {
+            if ( !isDecimalDigit( source.charAt( i ) ) )
+                return INVALID;
+        }
+
+        try {
+            BigDecimal number = new BigDecimal( source.subSequence( start, end ).toString() );
+            return number.multiply( BigDecimal.valueOf( multiplier ) ).longValueExact();
+        } catch ( ArithmeticException ex ) {
+            return INVALID;
+        }
+    }
+
+    private static int multiplierPower( char ch ) {
+        return ch == 'K' ? 1 : MULTIPLIERS.indexOf( ch ) + 1;
+    }
+
+    private static boolean endsWith( CharSequence source, int start, int end, String suffix ) {
+        if ( end - start < suffix.length() )
+            return false;
+
+        for ( int i = 0; i < suffix.length(); ++i ) {
+            if ( source.charAt( end - suffix.length() + i ) != suffix.charAt( i ) )
+                return false;
+        }
+
+        return true;
+    }
+
+    private static boolean isDecimalDigit( char ch ) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    private void raiseValueConversionFailure( String value ) {
+        throw new ValueConversionException(
+            message( QuantityConverter.class.getName() + ".message", value, valuePattern() ) );
+    }
+}
@@ -25,8 +25,6 @@
 
 package joptsimple.util;
 
-import java.text.MessageFormat;
-import java.util.ResourceBundle;
 import java.util.regex.Pattern;
 
 import static java.util.regex.Pattern.*;
@@ -34,6 +32,8 @@ import static java.util.regex.Pattern.*;
 import joptsimple.ValueConversionException;
 import joptsimple.ValueConverter;
 
+import static joptsimple.internal.Messages.*;
+
 /**
  * Ensures that values entirely match a regular expression.
  *
@@ -74,6 +74,11 @@ public class RegexMatcher implements ValueConverter<String> {
         return value;
     }
 
+    @Override
+    public boolean canConvert( String value ) {
+        return pattern.matcher( value ).matches();
+    }
+
     public Class<String> valueType() {
         return String.class;
     }
@@ -83,9 +88,6 @@ public class RegexMatcher implements ValueConverter<String> {
     }
 
     private void raiseValueConversionFailure( String value ) {
-        ResourceBundle bundle = ResourceBundle.getBundle( "joptsimple.ExceptionMessages" );
-        String template = bundle.getString( getClass().getName() + ".message" );
-        String message = new MessageFormat( template ).format( new Object[] { value, pattern.pattern() } );
-        throw new ValueConversionException( message );
+        throw new ValueConversionException( message( getClass().getName() + ".message", value, pattern.pattern() ) );
     }
 }
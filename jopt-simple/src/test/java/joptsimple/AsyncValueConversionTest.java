@@ -0,0 +1,250 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import joptsimple.util.RegexMatcher;
+import org.junit.Test;
+
+import static java.util.Arrays.*;
+import static java.util.Collections.*;
+import static java.util.concurrent.TimeUnit.*;
+import static org.junit.Assert.*;
+
+public class AsyncValueConversionTest extends AbstractOptionParserFixture {
+    private final AtomicInteger conversions = new AtomicInteger();
+
+    @Test
+    public void convertsOnCallingThreadWhenNotStarted() {
+        OptionSpec<Integer> count = parser.accepts( "count" ).withRequiredArg().withValuesConvertedBy( lengths() );
+
+        OptionSet options = parser.parse( "--count", "abc", "--count", "de" );
+
+        assertEquals( asList( 3, 2 ), options.valuesOf( count ) );
+        assertEquals( 2, conversions.get() );
+    }
+
+    @Test
+    public void doesNotConvertWhileParsing() {
+        OptionSpec<Integer> count = parser.accepts( "count" ).withRequiredArg().withValuesConvertedBy( lengths() );
+
+        ParseResult result = parser.parseWithDiagnostics( "--count", "abc" );
+
+        assertFalse( result.hasDiagnostics() );
+        assertEquals( 0, conversions.get() );
+        assertEquals( singletonList( 3 ), result.options().valuesOf( count ) );
+    }
+
+    @Test
+    public void startsAllConversionsTogether() throws Exception {
+        final CountDownLatch allStarted = new CountDownLatch( 3 );
+        OptionSpec<String> host = parser.accepts( "host" ).withRequiredArg()
+            .withValuesConvertedBy( AsyncValueConverter.of( new ValueConverter<String>() {
+                public String convert( String value ) {
+                    allStarted.countDown();
+                    try {
+                        if ( !allStarted.await( 5, SECONDS ) )
+                            throw new ValueConversionException( "not started together" );
+                    } catch ( InterruptedException ex ) {
+                        throw new ValueConversionException( "interrupted", ex );
+                    }
+                    return value.toUpperCase();
+                }
+
+                public Class<String> valueType() {
+                    return String.class;
+                }
+
+                public String valuePattern() {
+                    return null;
+                }
+            } ) );
+
+        OptionSet options = parser.parse( "--host", "a", "--host", "b", "--host", "c" )
+            .awaitConverted( Duration.ofSeconds( 10 ) );
+
+        assertEquals( asList( "A", "B", "C" ), options.valuesOf( host ) );
+    }
+
+    @Test
+    public void handsConvertersTheSuppliedExecutor() throws Exception {
+        final AtomicInteger executed = new AtomicInteger();
+        Executor executor = new Executor() {
+            public void execute( Runnable command ) {
+                executed.incrementAndGet();
+                command.run();
+            }
+        };
+        OptionSpec<Integer> count = parser.accepts( "count" ).withRequiredArg()
+            .withValuesConvertedBy( AsyncValueConverter.of( new ValueConverter<Integer>() {
+                public Integer convert( String value ) {
+                    return value.length();
+                }
+
+                public Class<Integer> valueType() {
+                    return Integer.class;
+                }
+
+                public String valuePattern() {
+                    return null;
+                }
+            } ) );
+
+        OptionSet options = parser.parse( "--count", "abc", "--count", "de" )
+            .startConversions( executor )
+            .awaitConverted( Duration.ofSeconds( 1 ) );
+
+        assertEquals( 2, executed.get() );
+        assertEquals( asList( 3, 2 ), options.valuesOf( count ) );
+    }
+
+    @Test
+    public void doesNotConvertAgainOnceStarted() throws Exception {
+        OptionSpec<Integer> count = parser.accepts( "count" ).withRequiredArg().withValuesConvertedBy( lengths() );
+
+        OptionSet options = parser.parse( "--count", "abc" ).startConversions().startConversions();
+        options.awaitConverted( Duration.ofSeconds( 1 ) );
+        options.valuesOf( count );
+        options.valueOf( count );
+
+        assertEquals( 1, conversions.get() );
+    }
+
+    @Test
+    public void convertsNonOptionArguments() throws Exception {
+        OptionSpec<Integer> lengths = parser.nonOptions().withValuesConvertedBy( lengths() );
+
+        OptionSet options = parser.parse( "a", "bb" ).awaitConverted( Duration.ofSeconds( 1 ) );
+
+        assertEquals( asList( 1, 2 ), options.valuesOf( lengths ) );
+        assertEquals( 2, conversions.get() );
+    }
+
+    @Test
+    public void reportsEveryFailureTogether() throws Exception {
+        parser.accepts( "count" ).withRequiredArg().withValuesConvertedBy( lengths() );
+        parser.accepts( "size" ).withRequiredArg().withValuesConvertedBy( lengths() );
+
+        OptionSet options = parser.parse( "--count", "bad", "--size", "ok", "--size", "worse", "--count", "bad" );
+
+        try {
+            options.awaitConverted( Duration.ofSeconds( 1 ) );
+            fail();
+        } catch ( ArgumentConversionFailuresException expected ) {
+            List<OptionException> failures = expected.failures();
+            assertEquals( 3, failures.size() );
+            assertEquals( asList( "count", "size" ), expected.options() );
+            assertEquals( singletonList( "size" ), failures.get( 2 ).options() );
+            assertEquals( 3, expected.getSuppressed().length );
+            assertEquals( "Cannot convert arguments of option(s) [count, size]: "
+                + "Cannot parse argument 'bad' of option count; "
+                + "Cannot parse argument 'bad' of option count; "
+                + "Cannot parse argument 'worse' of option size",
+                expected.getMessage() );
+        }
+    }
+
+    @Test
+    public void failureSurfacesWhenAskingForValues() {
+        OptionSpec<Integer> count = parser.accepts( "count" ).withRequiredArg().withValuesConvertedBy( lengths() );
+
+        OptionSet options = parser.parse( "--count", "bad" ).startConversions();
+
+        thrown.expect( OptionArgumentConversionException.class );
+        thrown.expectMessage( "Cannot parse argument 'bad' of option count" );
+
+        options.valuesOf( count );
+    }
+
+    @Test
+    public void givesUpWaitingAfterTimeout() throws Exception {
+        final CompletableFuture<String> never = new CompletableFuture<String>();
+        parser.accepts( "slow" ).withRequiredArg().withValuesConvertedBy( new AsyncValueConverter<String>() {
+            public CompletableFuture<String> convertAsync( String value, Executor executor ) {
+                return never;
+            }
+
+            public Class<String> valueType() {
+                return String.class;
+            }
+
+            public String valuePattern() {
+                return null;
+            }
+        } );
+
+        OptionSet options = parser.parse( "--slow", "x" );
+
+        thrown.expect( TimeoutException.class );
+
+        options.awaitConverted( Duration.ofMillis( 10 ) );
+    }
+
+    @Test
+    public void leavesOtherConvertersAlone() throws Exception {
+        OptionSpec<String> word = parser.accepts( "word" ).withRequiredArg()
+            .withValuesConvertedBy( RegexMatcher.regex( "\\w+" ) );
+
+        OptionSet options = parser.parse( "--word", "abc" ).awaitConverted( Duration.ZERO );
+
+        assertEquals( "abc", options.valueOf( word ) );
+    }
+
+    @Test( expected = NullPointerException.class )
+    public void rejectsNullExecutor() {
+        parser.parse().startConversions( null );
+    }
+
+    @Test( expected = NullPointerException.class )
+    public void rejectsNullConverterToWrap() {
+        AsyncValueConverter.of( null );
+    }
+
+    private AsyncValueConverter<Integer> lengths() {
+        return new AsyncValueConverter<Integer>() {
+            public CompletableFuture<Integer> convertAsync( String value, Executor executor ) {
+                conversions.incrementAndGet();
+                if ( value.startsWith( "bad" ) || value.startsWith( "worse" ) )
+                    return CompletableFuture.failedFuture( new ValueConversionException( value ) );
+                return CompletableFuture.completedFuture( value.length() );
+            }
+
+            public Class<Integer> valueType() {
+                return Integer.class;
+            }
+
+            public String valuePattern() {
+                return null;
+            }
+        };
+    }
+}
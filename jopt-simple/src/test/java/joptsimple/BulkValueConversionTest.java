@@ -0,0 +1,191 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static java.util.Arrays.*;
+import static java.util.Collections.*;
+import static org.junit.Assert.*;
+
+public class BulkValueConversionTest extends AbstractOptionParserFixture {
+    private final List<List<String>> batches = new ArrayList<>();
+    private int singles;
+
+    @Test
+    public void convertsAllArgumentsInOneCall() {
+        OptionSpec<Integer> size = parser.accepts( "size" ).withRequiredArg().withValuesConvertedBy( lengths() );
+
+        OptionSet options = parser.parse( "--size", "a", "--size", "bb", "--size", "ccc" );
+
+        assertEquals( asList( 1, 2, 3 ), options.valuesOf( size ) );
+        assertEquals( singletonList( asList( "a", "bb", "ccc" ) ), batches );
+        assertEquals( 0, singles );
+    }
+
+    @Test
+    public void convertsSeparatedArgumentsInOneCall() {
+        OptionSpec<Integer> size = parser.accepts( "size" ).withRequiredArg().withValuesSeparatedBy( ',' )
+            .withValuesConvertedBy( lengths() );
+
+        OptionSet options = parser.parse( "--size", "a,bb,ccc" );
+
+        assertEquals( asList( 1, 2, 3 ), options.valuesOf( size ) );
+        assertEquals( 1, batches.size() );
+    }
+
+    @Test
+    public void convertsNonOptionArgumentsInOneCall() {
+        OptionSpec<Integer> sizes = parser.nonOptions().withValuesConvertedBy( lengths() );
+
+        OptionSet options = parser.parse( "a", "bb" );
+
+        assertEquals( asList( 1, 2 ), options.valuesOf( sizes ) );
+        assertEquals( singletonList( asList( "a", "bb" ) ), batches );
+    }
+
+    @Test
+    public void convertsOneAtATimeToFindArgumentAtFault() {
+        OptionSpec<Integer> size = parser.accepts( "size" ).withRequiredArg().withValuesConvertedBy( lengths() );
+
+        OptionSet options = parser.parse( "--size", "a", "--size", "bad" );
+
+        thrown.expect( OptionArgumentConversionException.class );
+        thrown.expectMessage( "Cannot parse argument 'bad' of option size" );
+
+        options.valuesOf( size );
+    }
+
+    @Test
+    public void reportsArgumentNamedByBatchWithoutConvertingOthers() {
+        OptionSpec<Integer> size = parser.accepts( "size" ).withRequiredArg()
+            .withValuesConvertedBy( new Lengths() {
+                @Override
+                public List<Integer> convertAll( List<String> values ) {
+                    throw new IndexedValueConversionException( 1, new ValueConversionException( "bad batch" ) );
+                }
+            } );
+
+        OptionSet options = parser.parse( "--size", "a", "--size", "bad", "--size", "ccc" );
+
+        try {
+            options.valuesOf( size );
+            fail();
+        } catch ( OptionArgumentConversionException expected ) {
+            assertEquals( "Cannot parse argument 'bad' of option size", expected.getMessage() );
+            assertEquals( 0, singles );
+        }
+    }
+
+    @Test
+    public void defaultBulkConversionNamesValueAtFault() {
+        try {
+            new Lengths().convertAll( asList( "a", "bb", "bad" ) );
+            fail();
+        } catch ( IndexedValueConversionException expected ) {
+            assertEquals( 2, expected.index() );
+        }
+    }
+
+    @Test
+    public void convertsOneAtATimeWhenBatchHasWrongSize() {
+        OptionSpec<Integer> size = parser.accepts( "size" ).withRequiredArg()
+            .withValuesConvertedBy( new Lengths() {
+                @Override
+                public List<Integer> convertAll( List<String> values ) {
+                    return singletonList( 0 );
+                }
+            } );
+
+        OptionSet options = parser.parse( "--size", "a", "--size", "bb" );
+
+        assertEquals( asList( 1, 2 ), options.valuesOf( size ) );
+        assertEquals( 2, singles );
+    }
+
+    @Test
+    public void convertersWithoutBulkConversionConvertOneAtATime() {
+        OptionSpec<Integer> size = parser.accepts( "size" ).withRequiredArg().withValuesConvertedBy( new Lengths() );
+
+        OptionSet options = parser.parse( "--size", "a", "--size", "bb" );
+
+        assertEquals( asList( 1, 2 ), options.valuesOf( size ) );
+        assertEquals( 2, singles );
+    }
+
+    @Test
+    public void batchGivenToConverterCannotBeModified() {
+        OptionSpec<Integer> size = parser.accepts( "size" ).withRequiredArg()
+            .withValuesConvertedBy( new Lengths() {
+                @Override
+                public List<Integer> convertAll( List<String> values ) {
+                    values.clear();
+                    return emptyList();
+                }
+            } );
+
+        OptionSet options = parser.parse( "--size", "a" );
+
+        thrown.expect( UnsupportedOperationException.class );
+
+        options.valuesOf( size );
+    }
+
+    private Lengths lengths() {
+        return new Lengths() {
+            @Override
+            public List<Integer> convertAll( List<String> values ) {
+                batches.add( new ArrayList<>( values ) );
+                List<Integer> lengths = new ArrayList<>();
+                for ( String each : values ) {
+                    if ( "bad".equals( each ) )
+                        throw new ValueConversionException( "bad batch" );
+                    lengths.add( each.length() );
+                }
+                return lengths;
+            }
+        };
+    }
+
+    private class Lengths implements ValueConverter<Integer> {
+        public Integer convert( String value ) {
+            ++singles;
+            if ( "bad".equals( value ) )
+                throw new ValueConversionException( value );
+            return value.length();
+        }
+
+        public Class<Integer> valueType() {
+            return Integer.class;
+        }
+
+        public String valuePattern() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple;
+
+import java.util.List;
+
+import static java.util.Arrays.*;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CompactArgumentsTest extends AbstractOptionParserFixture {
+    private static final int MANY = 1000000;
+
+    @Test
+    public void readsBackLatin1Arguments() {
+        CompactArguments arguments = new CompactArguments( false );
+        arguments.add( "--files=a.txt,b.txt", 8, 13 );
+        arguments.add( "" );
+        arguments.add( "caf\u00e9" );
+
+        assertEquals( asList( "a.txt", "", "caf\u00e9" ), arguments );
+    }
+
+    @Test
+    public void widensForCharactersBeyondLatin1() {
+        CompactArguments arguments = new CompactArguments( false );
+        arguments.add( "caf\u00e9" );
+        arguments.add( "\u65e5\u672c" );
+        arguments.add( "plain" );
+
+        assertEquals( asList( "caf\u00e9", "\u65e5\u672c", "plain" ), arguments );
+    }
+
+    @Test
+    public void readsBackArgumentsOffHeap() {
+        CompactArguments arguments = new CompactArguments( true );
+        for ( int i = 0; i < 1000; ++i )
+            arguments.add( "value-" + i );
+        arguments.add( "\u03bb" );
+
+        assertEquals( 1001, arguments.size() );
+        assertEquals( "value-999", arguments.get( 999 ) );
+        assertEquals( "\u03bb", arguments.get( 1000 ) );
+    }
+
+    @Test
+    public void cursorReadsArgumentsInPlace() {
+        CompactArguments arguments = new CompactArguments( false );
+        arguments.add( "alpha" );
+        arguments.add( "x,beta", 2, 6 );
+
+        ArgumentCursor cursor = arguments.cursor();
+        assertTrue( cursor.next() );
+        assertEquals( 5, cursor.length() );
+        assertEquals( 'l', cursor.charAt( 1 ) );
+        assertTrue( cursor.next() );
+        assertEquals( "et", cursor.subSequence( 1, 3 ).toString() );
+        assertEquals( "beta", cursor.toString() );
+        assertFalse( cursor.next() );
+    }
+
+    @Test
+    public void compactNonOptionArgumentsAreViewedLazily() {
+        NonOptionArgumentSpec<String> files = parser.nonOptions().withCompactStorage();
+
+        OptionSet options = parser.parse( "a", "b", "c" );
+
+        assertEquals( asList( "a", "b", "c" ), options.valuesOf( files ) );
+        assertEquals( asList( "a", "b", "c" ), options.nonOptionArguments() );
+    }
+
+    @Test
+    public void compactArgumentsConvert() {
+        OptionSpec<Integer> sizes =
+            parser.accepts( "s" ).withRequiredArg().ofType( Integer.class ).withValuesSeparatedBy( ',' )
+                .withOffHeapStorage();
+
+        OptionSet options = parser.parse( "-s", "1,2", "-s3" );
+
+        assertEquals( asList( 1, 2, 3 ), options.valuesOf( sizes ) );
+    }
+
+    @Test
+    public void optionSetGivesCursorOverAnyOption() {
+        OptionSpec<String> names = parser.accepts( "n" ).withRequiredArg().withValuesSeparatedBy( ',' );
+        OptionSpec<Void> flag = parser.accepts( "f" );
+
+        OptionSet options = parser.parse( "-n", "x,yz" );
+
+        ArgumentCursor cursor = options.argumentCursor( names );
+        assertTrue( cursor.next() );
+        assertEquals( "x", cursor.toString() );
+        assertTrue( cursor.next() );
+        assertEquals( 'z', cursor.charAt( 1 ) );
+        assertFalse( cursor.next() );
+        assertFalse( options.argumentCursor( flag ).next() );
+    }
+
+    @Test
+    public void holdsAMillionArgumentsInFarLessThanAStringApiece() {
+        NonOptionArgumentSpec<String> files = parser.nonOptions().withCompactStorage();
+        String[] arguments = new String[ MANY ];
+        long characters = 0;
+        for ( int i = 0; i < MANY; ++i ) {
+            arguments[ i ] = "src/file-" + i + ".txt";
+            characters += arguments[ i ].length();
+        }
+
+        OptionSet options = parser.parse( arguments );
+
+        CompactArguments stored = (CompactArguments) options.argumentsOf( files );
+        long perArgument = stored.footprint() / MANY;
+        long stringApiece = ( characters / MANY ) + 24 + 16 + 4;
+        assertTrue( "compact storage takes " + perArgument + " bytes per argument", perArgument * 2 < stringApiece );
+
+        List<String> values = options.valuesOf( files );
+        assertEquals( MANY, values.size() );
+        assertEquals( "src/file-123456.txt", values.get( 123456 ) );
+
+        int count = 0;
+        for ( ArgumentCursor cursor = options.argumentCursor( files ); cursor.next(); )
+            ++count;
+        assertEquals( MANY, count );
+    }
+}
@@ -106,6 +106,21 @@ public class DefaultSettingsOptionParserHelpTest extends AbstractOptionParserFix
             EMPTY );
     }
 
+    @Test
+    public void optionFamilyShownOnce() throws Exception {
+        parser.accepts( "verbose" );
+        parser.acceptsFamily( "feature.", "feature toggles" ).withMembersOfType( Integer.class );
+
+        parser.printHelpOn( sink );
+
+        assertHelpLines(
+            "Option                             Description    ",
+            "------                             -----------    ",
+            "--feature.<name> <Integer: value>  feature toggles",
+            "--verbose                                         ",
+            EMPTY );
+    }
+
     @Test
     public void oneOptionRequiredArgNoDescription() throws Exception {
         parser.accepts( "a" ).withRequiredArg();
@@ -0,0 +1,223 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.*;
+import static java.util.Collections.*;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MapOptionSpecTest extends AbstractOptionParserFixture {
+    @Test
+    public void gathersPropertiesIntoMap() {
+        MapOptionSpec<String> properties = parser.accepts( "D" ).withValuesAsMap();
+
+        OptionSet options = parser.parse( "-Dfile.encoding=UTF-8", "-D", "user.dir=/tmp", "-Dempty=", "-Dflag" );
+
+        Map<String, String> expected = new LinkedHashMap<>();
+        expected.put( "file.encoding", "UTF-8" );
+        expected.put( "user.dir", "/tmp" );
+        expected.put( "empty", "" );
+        expected.put( "flag", "" );
+        assertEquals( expected, options.mapOf( properties ) );
+        assertEquals( asList( "file.encoding", "user.dir", "empty", "flag" ),
+            asList( options.mapOf( properties ).keySet().toArray() ) );
+        assertEquals( asList( "file.encoding=UTF-8", "user.dir=/tmp", "empty=", "flag" ),
+            options.argumentsOf( properties ) );
+    }
+
+    @Test
+    public void valueMaySpanFurtherEqualsSigns() {
+        MapOptionSpec<String> properties = parser.accepts( "D" ).withValuesAsMap();
+
+        OptionSet options = parser.parse( "-Dquery=a=b" );
+
+        assertEquals( singletonMap( "query", "a=b" ), options.mapOf( properties ) );
+    }
+
+    @Test
+    public void lastValueWinsByDefault() {
+        MapOptionSpec<String> properties = parser.accepts( "D" ).withValuesAsMap();
+
+        OptionSet options = parser.parse( "-Dkey=first", "-Dkey=second" );
+
+        assertEquals( singletonMap( "key", "second" ), options.mapOf( properties ) );
+        assertEquals( asList( "first", "second" ), options.valuesOf( properties ) );
+    }
+
+    @Test
+    public void firstValueWinsWhenAsked() {
+        MapOptionSpec<String> properties = parser.accepts( "D" ).withValuesAsMap().firstWins();
+
+        OptionSet options = parser.parse( "-Dkey=first", "-Dkey=second" );
+
+        assertEquals( singletonMap( "key", "first" ), properties.map( options ) );
+    }
+
+    @Test
+    public void convertsValuesToGivenType() {
+        MapOptionSpec<Integer> limits = parser.accepts( "limit" ).withValuesAsMap( Integer.class );
+
+        OptionSet options = parser.parse( "--limit", "files=1024", "--limit=procs=64" );
+
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        expected.put( "files", 1024 );
+        expected.put( "procs", 64 );
+        assertEquals( expected, options.mapOf( limits ) );
+        assertEquals( asList( 1024, 64 ), options.valuesOf( limits ) );
+    }
+
+    @Test
+    public void valueThatCannotBeConvertedIsReportedAtParse() {
+        parser.accepts( "limit" ).withValuesAsMap( Integer.class );
+
+        thrown.expect( OptionArgumentConversionException.class );
+        parser.parse( "--limit", "files=lots" );
+    }
+
+    @Test
+    public void splitsSeparatedPairs() {
+        MapOptionSpec<String> properties = parser.accepts( "D" ).withValuesAsMap();
+        properties.withValuesSeparatedBy( ',' );
+
+        OptionSet options = parser.parse( "-Da=1,b=2", "-Dc=3" );
+
+        Map<String, String> expected = new LinkedHashMap<>();
+        expected.put( "a", "1" );
+        expected.put( "b", "2" );
+        expected.put( "c", "3" );
+        assertEquals( expected, options.mapOf( properties ) );
+    }
+
+    @Test
+    public void mapIsMadeOnceAndCannotBeChanged() {
+        MapOptionSpec<String> properties = parser.accepts( "D" ).withValuesAsMap();
+
+        OptionSet options = parser.parse( "-Dkey=value" );
+
+        assertSame( options.mapOf( properties ), options.mapOf( properties ) );
+        thrown.expect( UnsupportedOperationException.class );
+        options.mapOf( properties ).put( "other", "value" );
+    }
+
+    @Test
+    public void absentOptionGivesEmptyMap() {
+        MapOptionSpec<String> properties = parser.accepts( "D" ).withValuesAsMap();
+
+        OptionSet options = parser.parse();
+
+        assertEquals( emptyMap(), options.mapOf( properties ) );
+        assertFalse( options.has( properties ) );
+    }
+
+    @Test
+    public void keepsArgumentsCompactlyWhenAsked() {
+        MapOptionSpec<String> properties = parser.accepts( "D" ).withValuesAsMap();
+        properties.withCompactStorage();
+
+        OptionSet options = parser.parse( "-Dkey=value", "-Dother=thing" );
+
+        assertEquals( "thing", options.mapOf( properties ).get( "other" ) );
+        assertEquals( asList( "key=value", "other=thing" ), options.argumentsOf( properties ) );
+    }
+
+    @Test
+    public void argumentListSplitsArgumentsAddedToIt() {
+        MapOptionSpec<Integer> limits = parser.accepts( "limit" ).withValuesAsMap( Integer.class );
+
+        List<String> arguments = limits.newArgumentList();
+        arguments.add( "files=1024" );
+        arguments.add( "procs=64" );
+
+        assertEquals( asList( "files=1024", "procs=64" ), arguments );
+        assertEquals( Integer.valueOf( 1024 ), MapOptionSpec.<Integer> storage( arguments ).map().get( "files" ) );
+    }
+
+    @Test
+    public void valuesThatCannotBeConvertedAreDiagnosed() {
+        MapOptionSpec<Integer> limits = parser.accepts( "limit" ).withValuesAsMap( Integer.class );
+
+        ParseResult result = parser.parseWithDiagnostics( "--limit", "files=lots", "--limit", "procs=64" );
+
+        assertEquals( 1, result.diagnostics().size() );
+        assertEquals( singletonMap( "procs", 64 ), result.options().mapOf( limits ) );
+    }
+
+    @Test
+    public void convertsEachValueOnce() {
+        CountingConverter converter = new CountingConverter();
+        MapOptionSpec<Integer> limits = parser.accepts( "D" ).withValuesAsMap( converter );
+
+        OptionSet options = parser.parse( "-Da=1", "-Db=2" );
+
+        assertEquals( 2, converter.conversions );
+        assertEquals( asList( 1, 2 ), options.valuesOf( limits ) );
+    }
+
+    @Test
+    public void failedConversionOfValueIsDiagnosedWithoutConvertingAgain() {
+        CountingConverter converter = new CountingConverter();
+        MapOptionSpec<Integer> limits = parser.accepts( "limit" ).withValuesAsMap( converter );
+
+        ParseResult result = parser.parseWithDiagnostics( "--limit", "files=lots", "--limit", "procs=64" );
+
+        assertEquals( 2, converter.conversions );
+        assertEquals( 1, result.diagnostics().size() );
+        assertEquals( ParseDiagnostic.Kind.ARGUMENT_CONVERSION_FAILURE, result.diagnostics().get( 0 ).kind() );
+        assertEquals( singletonMap( "procs", 64 ), result.options().mapOf( limits ) );
+    }
+
+    @Test( expected = NullPointerException.class )
+    public void nullConverterIsIllegal() {
+        parser.accepts( "D" ).withValuesAsMap( (ValueConverter<String>) null );
+    }
+
+    private static final class CountingConverter implements ValueConverter<Integer> {
+        int conversions;
+
+        public Integer convert( String value ) {
+            ++conversions;
+            try {
+                return Integer.valueOf( value );
+            } catch ( NumberFormatException ex ) {
+                throw new ValueConversionException( value, ex );
+            }
+        }
+
+        public Class<Integer> valueType() {
+            return Integer.class;
+        }
+
+        public String valuePattern() {
+            return null;
+        }
+    }
+}
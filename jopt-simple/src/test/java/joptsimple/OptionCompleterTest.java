@@ -0,0 +1,233 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.List;
+
+import joptsimple.util.EnumConverter;
+import org.junit.Before;
+import org.junit.Test;
+
+import static java.util.Arrays.*;
+import static java.util.Collections.*;
+
+import static joptsimple.internal.Strings.*;
+import static org.junit.Assert.*;
+
+public class OptionCompleterTest {
+    enum Level {
+        LOW, MEDIUM, HIGH
+    }
+
+    private OptionParser parser;
+    private OptionCompleter completer;
+
+    @Before
+    public void setUp() {
+        parser = new OptionParser();
+        parser.acceptsAll( asList( "v", "verbose" ), "talk more" );
+        parser.accepts( "version" );
+        parser.accepts( "level" ).withRequiredArg().ofType( Level.class );
+        parser.accepts( "log" ).withRequiredArg().ofType( File.class );
+        parser.accepts( "cache" ).withOptionalArg().withValuesConvertedBy( new PathConverter() );
+        parser.accepts( "name" ).withRequiredArg();
+        parser.nonOptions().ofType( File.class );
+        completer = new OptionCompleter( parser );
+    }
+
+    @Test
+    public void completesLongOptionsByPrefix() {
+        assertEquals( asList( "--verbose", "--version" ), candidates( "--ver" ) );
+        assertEquals( singletonList( "--level" ), candidates( "--le" ) );
+    }
+
+    @Test
+    public void completesAllLongOptionsAfterDoubleHyphen() {
+        assertEquals( asList( "--cache", "--level", "--log", "--name", "--verbose", "--version" ), candidates( "--" ) );
+    }
+
+    @Test
+    public void completesShortAndLongOptionsAfterHyphen() {
+        assertEquals( asList( "--cache", "--level", "--log", "--name", "-v", "--verbose", "--version" ),
+            candidates( "-" ) );
+        assertEquals( singletonList( "-v" ), candidates( "-v" ) );
+    }
+
+    @Test
+    public void completesNothingForUnknownOptions() {
+        assertEquals( emptyList(), candidates( "--x" ) );
+    }
+
+    @Test
+    public void completesEnumArgumentsOfOptions() {
+        assertEquals( asList( "LOW", "MEDIUM", "HIGH" ), candidates( "--level", "" ) );
+        assertEquals( singletonList( "HIGH" ), candidates( "--le", "H" ) );
+        assertEquals( singletonList( "--level=MEDIUM" ), candidates( "--level=M" ) );
+    }
+
+    @Test
+    public void matchesEnumArgumentsInAnyCaseWhenConverterIgnoresCase() {
+        OptionParser lenient = new OptionParser();
+        lenient.accepts( "level" ).withRequiredArg()
+            .withValuesConvertedBy( EnumConverter.of( Level.class ).ignoringCase() );
+
+        OptionCompleter lenientCompleter = new OptionCompleter( lenient );
+
+        assertEquals( singletonList( "MEDIUM" ), lenientCompleter.complete( "--level", "me" ).candidates() );
+        assertEquals( singletonList( "--level=HIGH" ), lenientCompleter.complete( "--level=h" ).candidates() );
+        assertEquals( emptyList(), candidates( "--level", "me" ) );
+    }
+
+    @Test
+    public void leavesFileArgumentsToShell() {
+        assertTrue( completer.complete( "--log", "/tm" ).completesFiles() );
+        assertTrue( completer.complete( "--log=/tm" ).completesFiles() );
+        assertTrue( completer.complete( "--cache", "" ).completesFiles() );
+        assertTrue( completer.complete( "--verbose", "" ).completesFiles() );
+    }
+
+    @Test
+    public void completesOptionsInPlaceOfOptionalArguments() {
+        assertEquals( asList( "--verbose", "--version" ), candidates( "--cache", "--ver" ) );
+    }
+
+    @Test
+    public void treatsRequiredArgumentsAsArgumentsEvenIfTheyLookLikeOptions() {
+        assertEquals( emptyList(), candidates( "--name", "--ver" ) );
+        assertEquals( asList( "--verbose", "--version" ), candidates( "--name", "--level", "LOW", "--ver" ) );
+    }
+
+    @Test
+    public void completesOnlyNonOptionArgumentsAfterDoubleHyphen() {
+        Completions completions = completer.complete( "--", "--ver" );
+
+        assertTrue( completions.completesFiles() );
+        assertEquals( emptyList(), completions.candidates() );
+    }
+
+    @Test
+    public void completesNothingForArgumentsOfOtherTypes() {
+        Completions completions = completer.complete( "--name", "" );
+
+        assertFalse( completions.completesFiles() );
+        assertEquals( emptyList(), completions.candidates() );
+    }
+
+    @Test
+    public void completesLastWordOfLine() {
+        assertEquals( asList( "--verbose", "--version" ), completer.completeLine( "tool  --ver" ).candidates() );
+        assertEquals( asList( "LOW", "MEDIUM", "HIGH" ), completer.completeLine( "tool --level " ).candidates() );
+        assertEquals( emptyList(), completer.completeLine( "tool" ).candidates() );
+    }
+
+    @Test
+    public void answersCompletionRequests() throws Exception {
+        StringWriter sink = new StringWriter();
+
+        assertTrue( completer.answer( new String[] { OptionCompleter.COMPLETION_REQUEST, "tool --ver" }, sink ) );
+
+        assertEquals( "words" + LINE_SEPARATOR + "--verbose" + LINE_SEPARATOR + "--version" + LINE_SEPARATOR,
+            sink.toString() );
+    }
+
+    @Test
+    public void answersRequestsForFiles() throws Exception {
+        StringWriter sink = new StringWriter();
+
+        assertTrue( completer.answer( new String[] { OptionCompleter.COMPLETION_REQUEST, "tool --log " }, sink ) );
+
+        assertEquals( "files" + LINE_SEPARATOR, sink.toString() );
+    }
+
+    @Test
+    public void ignoresOtherArguments() throws Exception {
+        StringWriter sink = new StringWriter();
+
+        assertFalse( completer.answer( new String[] { "--verbose" }, sink ) );
+        assertFalse( completer.answer( new String[ 0 ], sink ) );
+
+        assertEquals( "", sink.toString() );
+    }
+
+    @Test
+    public void seesOptionsAddedLater() {
+        parser.accepts( "vacuum" );
+
+        assertEquals( singletonList( "--vacuum" ), candidates( "--va" ) );
+    }
+
+    @Test
+    public void givesScriptsCallingBackIntoCommand() {
+        String bash = completer.bashScript( "bin/my-tool" );
+        String zsh = completer.zshScript( "bin/my-tool" );
+
+        assertTrue( bash.contains( "bin/my-tool " + OptionCompleter.COMPLETION_REQUEST + " \"$line\"" ) );
+        assertTrue( bash.contains( "complete -F _my_tool_complete bin/my-tool" ) );
+        assertTrue( zsh.contains( "bin/my-tool " + OptionCompleter.COMPLETION_REQUEST + " \"$line\"" ) );
+        assertTrue( zsh.contains( "compdef _my_tool bin/my-tool" ) );
+    }
+
+    @Test
+    public void completesPrefixOfOptionFamily() {
+        parser.acceptsFamily( "feature." ).withMembersOfType( Level.class );
+
+        assertEquals( singletonList( "--feature." ), candidates( "--fe" ) );
+        assertTrue( candidates( "--" ).contains( "--feature." ) );
+        assertEquals( emptyList(), candidates( "--feature.x" ) );
+        assertEquals( singletonList( "HIGH" ), candidates( "--feature.x", "H" ) );
+        assertEquals( singletonList( "--feature.x=LOW" ), candidates( "--feature.x=L" ) );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void rejectsCommandNamesThatNeedQuoting() {
+        completer.bashScript( "my tool" );
+    }
+
+    @Test( expected = NullPointerException.class )
+    public void rejectsNullParser() {
+        new OptionCompleter( null );
+    }
+
+    private List<String> candidates( String... words ) {
+        return completer.complete( words ).candidates();
+    }
+
+    private static class PathConverter implements ValueConverter<Path> {
+        public Path convert( String value ) {
+            return new File( value ).toPath();
+        }
+
+        public Class<Path> valueType() {
+            return Path.class;
+        }
+
+        public String valuePattern() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.util.Arrays.*;
+import static java.util.Collections.*;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class OptionFamilySpecTest extends AbstractOptionParserFixture {
+    @Test
+    public void gathersMembersWithoutDeclaringThem() {
+        OptionFamilySpec<String> features = parser.acceptsFamily( "feature." );
+
+        OptionSet options = parser.parse( "--feature.compression=on", "--feature.tracing", "off", "-feature.x=y" );
+
+        Map<String, String> expected = new LinkedHashMap<>();
+        expected.put( "compression", "on" );
+        expected.put( "tracing", "off" );
+        expected.put( "x", "y" );
+        assertEquals( expected, options.mapOf( features ) );
+        assertTrue( options.has( features ) );
+        assertTrue( options.has( "feature." ) );
+        assertEquals( asList( "on", "off", "y" ), options.valuesOf( features ) );
+    }
+
+    @Test
+    public void convertsMembersWithSharedConverter() {
+        OptionFamilySpec<Integer> limits = parser.acceptsFamily( "limit." ).withMembersOfType( Integer.class );
+
+        OptionSet options = parser.parse( "--limit.files=1024", "--limit.procs=64", "--limit.files=2048" );
+
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        expected.put( "files", 2048 );
+        expected.put( "procs", 64 );
+        assertEquals( expected, options.mapOf( limits ) );
+    }
+
+    @Test
+    public void firstValueWinsWhenAsked() {
+        OptionFamilySpec<String> features = parser.acceptsFamily( "feature." );
+        features.firstWins();
+
+        OptionSet options = parser.parse( "--feature.x=1", "--feature.x=2" );
+
+        assertEquals( singletonMap( "x", "1" ), options.mapOf( features ) );
+    }
+
+    @Test
+    public void memberThatCannotBeConvertedIsReportedAtParse() {
+        parser.acceptsFamily( "limit." ).withMembersOfType( Integer.class );
+
+        thrown.expect( OptionArgumentConversionException.class );
+        parser.parse( "--limit.files=lots" );
+    }
+
+    @Test
+    public void memberRequiresArgument() {
+        parser.acceptsFamily( "feature." );
+
+        thrown.expect( OptionMissingRequiredArgumentException.class );
+        parser.parse( "--feature.x" );
+    }
+
+    @Test
+    public void declaredOptionTakesPrecedenceOverFamily() {
+        OptionFamilySpec<String> features = parser.acceptsFamily( "feature." );
+        OptionSpec<Void> special = parser.accepts( "feature.special" );
+
+        OptionSet options = parser.parse( "--feature.special", "--feature.spec=1" );
+
+        assertTrue( options.has( special ) );
+        assertEquals( singletonMap( "spec", "1" ), options.mapOf( features ) );
+    }
+
+    @Test
+    public void prefixAloneIsNotAMember() {
+        parser.acceptsFamily( "feature." );
+
+        thrown.expect( UnrecognizedOptionException.class );
+        parser.parse( "--feature." );
+    }
+
+    @Test
+    public void membersAreNotAbbreviations() {
+        parser.acceptsFamily( "feature." );
+
+        thrown.expect( UnrecognizedOptionException.class );
+        parser.parse( "--feat" );
+    }
+
+    @Test
+    public void setsWithDifferentMembersDiffer() {
+        parser.acceptsFamily( "feature." );
+
+        OptionSet first = parser.parse( "--feature.a=1" );
+        OptionSet second = parser.parse( "--feature.b=1" );
+
+        assertNotEquals( first, second );
+        assertNotEquals( first.hashCode(), second.hashCode() );
+        assertEquals( first, parser.parse( "--feature.a", "1" ) );
+    }
+
+    @Test
+    public void absentFamilyGivesEmptyMap() {
+        OptionFamilySpec<String> features = parser.acceptsFamily( "feature." );
+
+        OptionSet options = parser.parse();
+
+        assertEquals( emptyMap(), options.mapOf( features ) );
+        assertFalse( options.has( features ) );
+    }
+
+    @Test
+    public void familyIsRecognizedOnce() {
+        OptionFamilySpec<String> features = parser.acceptsFamily( "feature." );
+
+        assertEquals( asList( "[arguments]", "feature." ), asList( parser.recognizedOptions().keySet().toArray() ) );
+        assertSame( features, parser.recognizedOptions().get( "feature." ) );
+        assertTrue( features.representsOptionFamily() );
+    }
+
+    @Test
+    public void requiredFamilyMustHaveAMember() {
+        parser.acceptsFamily( "feature." ).required();
+
+        thrown.expect( MissingRequiredOptionsException.class );
+        parser.parse();
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void emptyPrefixIsIllegal() {
+        parser.acceptsFamily( "" );
+    }
+
+    @Test( expected = OptionException.class )
+    public void prefixWithIllegalCharactersIsIllegal() {
+        parser.acceptsFamily( "feature=" );
+    }
+}
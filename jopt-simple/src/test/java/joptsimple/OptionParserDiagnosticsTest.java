@@ -0,0 +1,199 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple;
+
+import java.util.List;
+
+import static java.util.Arrays.*;
+import static java.util.Collections.*;
+
+import org.junit.Test;
+
+import static joptsimple.ParseDiagnostic.Kind.*;
+import static org.junit.Assert.*;
+
+public class OptionParserDiagnosticsTest extends AbstractOptionParserFixture {
+    @Test
+    public void cleanParseHasNoDiagnostics() {
+        parser.accepts( "a" );
+
+        ParseResult result = parser.parseWithDiagnostics( "-a", "foo" );
+
+        assertFalse( result.hasDiagnostics() );
+        assertTrue( result.options().has( "a" ) );
+        assertEquals( singletonList( "foo" ), result.options().nonOptionArguments() );
+    }
+
+    @Test
+    public void collectsEveryProblemInOrder() {
+        parser.accepts( "a" );
+        parser.accepts( "count" ).withRequiredArg().ofType( Integer.class );
+        parser.accepts( "r" ).withRequiredArg().required();
+        parser.accepts( "level" ).withRequiredArg();
+
+        ParseResult result = parser.parseWithDiagnostics( "-x", "-a", "--count=ten", "--bogus", "-a", "--level" );
+
+        List<ParseDiagnostic> diagnostics = result.diagnostics();
+        assertEquals( 5, diagnostics.size() );
+        assertDiagnostic( diagnostics.get( 0 ), UNRECOGNIZED_OPTION, 0, "x" );
+        assertDiagnostic( diagnostics.get( 1 ), ARGUMENT_CONVERSION_FAILURE, 2, "count" );
+        assertDiagnostic( diagnostics.get( 2 ), UNRECOGNIZED_OPTION, 3, "bogus" );
+        assertDiagnostic( diagnostics.get( 3 ), MISSING_REQUIRED_ARGUMENT, 5, "level" );
+        assertDiagnostic( diagnostics.get( 4 ), MISSING_REQUIRED_OPTIONS, ParseDiagnostic.NO_ARGUMENT_INDEX, "r" );
+    }
+
+    @Test
+    public void partialOptionSetLeavesOutArgumentsInError() {
+        OptionSpec<Integer> count = parser.accepts( "count" ).withRequiredArg().ofType( Integer.class )
+            .withValuesSeparatedBy( ',' );
+
+        ParseResult result = parser.parseWithDiagnostics( "--count", "1,two,3" );
+
+        assertEquals( asList( 1, 3 ), result.options().valuesOf( count ) );
+        assertEquals( 1, result.diagnostics().size() );
+        assertEquals( 1, result.diagnostics().get( 0 ).argumentIndex() );
+    }
+
+    @Test
+    public void reportsUnconvertibleNonOptionArguments() {
+        parser.nonOptions().ofType( Integer.class );
+
+        ParseResult result = parser.parseWithDiagnostics( "1", "b", "3" );
+
+        assertEquals( asList( 1, 3 ), result.options().nonOptionArguments() );
+        assertDiagnostic( result.diagnostics().get( 0 ), ARGUMENT_CONVERSION_FAILURE, 1, "[arguments]" );
+    }
+
+    @Test
+    public void reportsUnrecognizedOptionInCluster() {
+        parser.accepts( "a" );
+        parser.accepts( "b" );
+
+        ParseResult result = parser.parseWithDiagnostics( "-abz", "-a" );
+
+        assertEquals( 1, result.diagnostics().size() );
+        assertDiagnostic( result.diagnostics().get( 0 ), UNRECOGNIZED_OPTION, 0, "z" );
+        assertTrue( result.options().has( "a" ) );
+    }
+
+    @Test
+    public void unrecognizedOptionsAllowedAreNotProblems() {
+        parser.allowsUnrecognizedOptions();
+
+        ParseResult result = parser.parseWithDiagnostics( "-z" );
+
+        assertFalse( result.hasDiagnostics() );
+        assertEquals( singletonList( "-z" ), result.options().nonOptionArguments() );
+    }
+
+    @Test
+    public void plainParseStillThrowsFirstProblem() {
+        parser.accepts( "a" );
+
+        thrown.expect( UnrecognizedOptionException.class );
+
+        parser.parse( "-x", "-y" );
+    }
+
+    @Test
+    public void diagnosticCarriesTheExceptionParseWouldThrow() {
+        ParseResult result = parser.parseWithDiagnostics( "--nope" );
+
+        ParseDiagnostic diagnostic = result.diagnostics().get( 0 );
+        assertTrue( diagnostic.problem() instanceof UnrecognizedOptionException );
+        assertEquals( diagnostic.problem().getMessage(), diagnostic.message() );
+    }
+
+    @Test
+    public void convertsArgumentsOnceWhenConverterCannotCheckThem() {
+        CountingConverter converter = new CountingConverter();
+        parser.accepts( "count" ).withRequiredArg().withValuesConvertedBy( converter );
+
+        ParseResult result = parser.parseWithDiagnostics( "--count", "1", "--count", "two" );
+
+        assertEquals( 2, converter.conversions );
+        assertEquals( 1, result.diagnostics().size() );
+        assertEquals( ARGUMENT_CONVERSION_FAILURE, result.diagnostics().get( 0 ).kind() );
+    }
+
+    @Test
+    public void parseFromWithinDiagnosticParseStillThrows() {
+        parser.accepts( "count" ).withRequiredArg().ofType( Integer.class );
+        parser.accepts( "nested" ).withRequiredArg().withValuesConvertedBy( new ValueConverter<String>() {
+            public String convert( String value ) {
+                try {
+                    parser.parse( "--" + value );
+                    fail();
+                } catch ( UnrecognizedOptionException expected ) {
+                    // the nested parse does not collect into the outer one's diagnostics
+                }
+                return value;
+            }
+
+            public Class<String> valueType() {
+                return String.class;
+            }
+
+            public String valuePattern() {
+                return null;
+            }
+        } );
+
+        ParseResult result = parser.parseWithDiagnostics( "--nested", "bogus", "--count", "y" );
+
+        assertEquals( 1, result.diagnostics().size() );
+        assertEquals( 3, result.diagnostics().get( 0 ).argumentIndex() );
+    }
+
+    private static void assertDiagnostic( ParseDiagnostic diagnostic, ParseDiagnostic.Kind kind, int index,
+        String option ) {
+
+        assertEquals( kind, diagnostic.kind() );
+        assertEquals( index, diagnostic.argumentIndex() );
+        assertEquals( singletonList( option ), diagnostic.options() );
+    }
+
+    private static class CountingConverter implements ValueConverter<Integer> {
+        int conversions;
+
+        public Integer convert( String value ) {
+            ++conversions;
+            try {
+                return Integer.valueOf( value );
+            } catch ( NumberFormatException ex ) {
+                throw new ValueConversionException( value, ex );
+            }
+        }
+
+        public Class<Integer> valueType() {
+            return Integer.class;
+        }
+
+        public String valuePattern() {
+            return null;
+        }
+    }
+}
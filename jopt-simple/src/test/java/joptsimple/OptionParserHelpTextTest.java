@@ -0,0 +1,149 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple;
+
+import java.io.StringWriter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class OptionParserHelpTextTest {
+    private OptionParser parser;
+    private ArgumentAcceptingOptionSpec<String> level;
+
+    @Before
+    public void setUp() {
+        parser = new OptionParser();
+        parser.accepts( "verbose", "talk more" );
+        level = parser.accepts( "level", "how much" ).withRequiredArg();
+    }
+
+    @Test
+    public void givesWhatIsPrinted() throws Exception {
+        StringWriter sink = new StringWriter();
+
+        parser.printHelpOn( sink );
+
+        assertEquals( sink.toString(), parser.helpText() );
+    }
+
+    @Test
+    public void keepsHelpOfUnchangedParser() {
+        assertSame( parser.helpText(), parser.helpText() );
+        assertSame( parser.helpText( 40, Locale.US ), parser.helpText( 40, Locale.US ) );
+    }
+
+    @Test
+    public void builtInFormatterGivesSameHelpEachTime() {
+        BuiltinHelpFormatter formatter = new BuiltinHelpFormatter( 80, 2 );
+        Map<String, AbstractOptionSpec<?>> options = parser.recognizedSpecs();
+
+        assertEquals( formatter.format( options ), formatter.format( options ) );
+    }
+
+    @Test
+    public void makesHelpAgainAfterOptionsAreAdded() {
+        String before = parser.helpText();
+
+        parser.accepts( "quiet" );
+
+        assertNotEquals( before, parser.helpText() );
+        assertTrue( parser.helpText().contains( "--quiet" ) );
+    }
+
+    @Test
+    public void makesHelpAgainAfterSpecsChange() {
+        String before = parser.helpText();
+
+        level.describedAs( "severity" );
+        String described = parser.helpText();
+        level.defaultsTo( "low" );
+        String defaulted = parser.helpText();
+        level.required();
+        String required = parser.helpText();
+
+        assertTrue( described.contains( "<severity>" ) );
+        assertTrue( defaulted.contains( "(default: low)" ) );
+        assertTrue( required.contains( "* --level" ) );
+        assertNotEquals( before, described );
+    }
+
+    @Test
+    public void makesHelpAgainAfterFormatterChanges() {
+        String before = parser.helpText();
+
+        parser.formatHelpWith( new BuiltinHelpFormatter( 30, 1 ) );
+
+        assertNotEquals( before, parser.helpText() );
+    }
+
+    @Test
+    public void keepsHelpByWidth() {
+        String narrow = parser.helpText( 20, Locale.US );
+        String wide = parser.helpText( 120, Locale.US );
+
+        assertNotEquals( narrow, wide );
+        assertSame( narrow, parser.helpText( 20, Locale.US ) );
+        assertSame( wide, parser.helpText( 120, Locale.US ) );
+    }
+
+    @Test
+    public void makesHelpOfOtherFormattersEachTime() {
+        final AtomicInteger calls = new AtomicInteger();
+        parser.formatHelpWith( new HelpFormatter() {
+            public String format( Map<String, ? extends OptionDescriptor> options ) {
+                return "help " + calls.incrementAndGet();
+            }
+        } );
+
+        assertEquals( "help 1", parser.helpText() );
+        assertEquals( "help 2", parser.helpText() );
+    }
+
+    @Test
+    public void keepsHelpShowingSuppliedDefaults() {
+        final AtomicInteger calls = new AtomicInteger();
+        level.defaultsToSupplied( new Supplier<String>() {
+            public String get() {
+                return "level" + calls.incrementAndGet();
+            }
+        } );
+
+        assertTrue( parser.helpText().contains( "(default: level1)" ) );
+        assertSame( parser.helpText(), parser.helpText() );
+        assertEquals( 1, calls.get() );
+    }
+
+    @Test( expected = NullPointerException.class )
+    public void rejectsNullLocale() {
+        parser.helpText( 80, null );
+    }
+}
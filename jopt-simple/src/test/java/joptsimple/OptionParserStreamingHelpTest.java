@@ -0,0 +1,143 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.StringWriter;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static java.nio.charset.StandardCharsets.*;
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+public class OptionParserStreamingHelpTest {
+    private OptionParser parser;
+
+    @Before
+    public void setUp() {
+        parser = new OptionParser();
+        parser.accepts( "verbose", "talk more" );
+        parser.accepts( "db-url", "where the database is, given as a URL that the driver understands, which can be"
+            + " quite long" ).withRequiredArg().required();
+        parser.accepts( "db-user", "who to connect as" + System.lineSeparator() + "(a second line)" )
+            .withRequiredArg().defaultsTo( "guest" );
+        parser.acceptsAll( asList( "n", "name-of-the-thing-with-a-rather-long-option" ),
+            "names the thing" ).withOptionalArg().ofType( Integer.class ).describedAs( "count" );
+        parser.nonOptions( "files to work on" ).ofType( File.class );
+    }
+
+    @Test
+    public void builtInFormatterWritesWhatItFormats() throws Exception {
+        BuiltinHelpFormatter formatter = new BuiltinHelpFormatter( 60, 3 );
+        Map<String, AbstractOptionSpec<?>> options = parser.recognizedSpecs();
+        StringWriter sink = new StringWriter();
+
+        formatter.formatTo( options, sink );
+
+        assertEquals( formatter.format( options ), sink.toString() );
+    }
+
+    @Test
+    public void printsWhatItWouldKeepBeforeKeepingIt() throws Exception {
+        StringWriter sink = new StringWriter();
+
+        parser.printHelpOn( sink );
+
+        assertEquals( parser.helpText(), sink.toString() );
+    }
+
+    @Test
+    public void printsKeptHelp() throws Exception {
+        String kept = parser.helpText();
+        StringWriter sink = new StringWriter();
+
+        parser.printHelpOn( sink );
+
+        assertEquals( kept, sink.toString() );
+    }
+
+    @Test
+    public void printsOnlySelectedOptions() throws Exception {
+        OptionParser selectedOnly = new OptionParser();
+        selectedOnly.accepts( "db-url", "where the database is, given as a URL that the driver understands, which can"
+            + " be quite long" ).withRequiredArg().required();
+        selectedOnly.accepts( "db-user", "who to connect as" + System.lineSeparator() + "(a second line)" )
+            .withRequiredArg().defaultsTo( "guest" );
+        selectedOnly.nonOptions( "files to work on" ).ofType( File.class );
+        StringWriter sink = new StringWriter();
+
+        parser.printHelpOn( sink, option -> option.options().get( 0 ).startsWith( "db-" ) );
+
+        assertEquals( selectedOnly.helpText(), sink.toString() );
+    }
+
+    @Test
+    public void printsNoOptionsWhenNoneSelected() throws Exception {
+        StringWriter sink = new StringWriter();
+
+        parser.printHelpOn( sink, option -> false );
+
+        assertTrue( sink.toString().contains( "No options specified" ) );
+        assertTrue( sink.toString().contains( "files to work on" ) );
+    }
+
+    @Test
+    public void encodesInGivenCharset() throws Exception {
+        parser.accepts( "caf\u00e9", "serves \u2615" );
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+
+        parser.printHelpOn( sink, UTF_16 );
+
+        assertEquals( parser.helpText(), new String( sink.toByteArray(), UTF_16 ) );
+    }
+
+    @Test
+    public void otherFormattersWriteWhatTheyFormat() throws Exception {
+        parser.formatHelpWith( new HelpFormatter() {
+            public String format( Map<String, ? extends OptionDescriptor> options ) {
+                return "options: " + options.size();
+            }
+        } );
+        StringWriter sink = new StringWriter();
+
+        parser.printHelpOn( sink );
+
+        assertEquals( "options: 6", sink.toString() );
+    }
+
+    @Test( expected = NullPointerException.class )
+    public void rejectsNullCharset() throws Exception {
+        parser.printHelpOn( new ByteArrayOutputStream(), null );
+    }
+
+    @Test( expected = NullPointerException.class )
+    public void rejectsNullSelection() throws Exception {
+        parser.printHelpOn( new StringWriter(), null );
+    }
+}
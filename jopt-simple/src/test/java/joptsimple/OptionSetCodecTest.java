@@ -0,0 +1,234 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+public class OptionSetCodecTest {
+    private OptionParser parser;
+    private IntOptionSpec threads;
+    private LongOptionSpec limit;
+    private DoubleOptionSpec ratio;
+    private ArgumentAcceptingOptionSpec<String> names;
+    private ArgumentAcceptingOptionSpec<Integer> ids;
+    private ArgumentAcceptingOptionSpec<String> paths;
+    private OptionSpec<Integer> files;
+
+    @Before
+    public void setUp() {
+        parser = new OptionParser();
+        parser.acceptsAll( asList( "v", "verbose" ) );
+        threads = parser.accepts( "threads" ).withRequiredIntArg();
+        threads.defaultsTo( 4 );
+        limit = parser.accepts( "limit" ).withRequiredLongArg();
+        ratio = parser.accepts( "ratio" ).withRequiredDoubleArg();
+        names = parser.accepts( "name" ).withOptionalArg();
+        ids = parser.accepts( "id" ).withRequiredArg().ofType( Integer.class ).withValuesSeparatedBy( ',' );
+        paths = parser.accepts( "path" ).withRequiredArg().withOffHeapStorage();
+        files = parser.nonOptions().ofType( Integer.class );
+    }
+
+    @Test
+    public void decodesEqualSet() throws Exception {
+        OptionSet options = parser.parse( "-v", "--threads", "8", "--limit", "12345678901", "--ratio", "0.5", "--name",
+            "a", "--name", "--id", "1,2,3", "--path", "/tmp", "--verbose", "--name=b", "7", "9" );
+
+        OptionSet decoded = roundTrip( options );
+
+        assertEquals( options, decoded );
+        assertEquals( options.hashCode(), decoded.hashCode() );
+        assertEquals( options.specs(), decoded.specs() );
+        assertEquals( 8, threads.valueAsInt( decoded ) );
+        assertEquals( 12345678901L, limit.valueAsLong( decoded ) );
+        assertEquals( 0.5, ratio.valueAsDouble( decoded ), 0 );
+        assertEquals( asList( "a", "b" ), decoded.valuesOf( names ) );
+        assertEquals( asList( 1, 2, 3 ), decoded.valuesOf( ids ) );
+        assertEquals( "/tmp", decoded.valueOf( paths ) );
+        assertEquals( asList( 7, 9 ), decoded.valuesOf( files ) );
+        assertTrue( decoded.has( "v" ) );
+        assertTrue( decoded.hasArgument( names ) );
+    }
+
+    @Test
+    public void keepsDefaults() throws Exception {
+        OptionSet decoded = roundTrip( parser.parse( "-v" ) );
+
+        assertEquals( 4, threads.valueAsInt( decoded ) );
+        assertFalse( decoded.has( threads ) );
+        assertEquals( Integer.valueOf( 4 ), decoded.valueOf( "threads" ) );
+    }
+
+    @Test
+    public void decodesEmptySet() throws Exception {
+        OptionSet options = parser.parse();
+
+        assertEquals( options, roundTrip( options ) );
+        assertFalse( roundTrip( options ).hasOptions() );
+    }
+
+    @Test
+    public void keepsCharactersBeyondLatin1() throws Exception {
+        OptionSet options = parser.parse( "--name", "caf\u00e9", "--name", "\u65e5\u672c", "--path", "\u00fc" );
+
+        OptionSet decoded = roundTrip( options );
+
+        assertEquals( asList( "caf\u00e9", "\u65e5\u672c" ), decoded.valuesOf( names ) );
+        assertEquals( "\u00fc", decoded.valueOf( paths ) );
+    }
+
+    @Test
+    public void decodesWithCodecOfEquallyDeclaredParser() throws Exception {
+        OptionSet options = parser.parse( "--threads", "2", "--name", "x" );
+        ByteBuffer encoded = new OptionSetCodec( parser ).encode( options );
+
+        OptionParser other = new OptionParser();
+        other.acceptsAll( asList( "verbose", "v" ) );
+        other.accepts( "threads" ).withRequiredIntArg();
+        other.accepts( "limit" ).withRequiredLongArg();
+        other.accepts( "ratio" ).withRequiredDoubleArg();
+        other.accepts( "name" ).withOptionalArg();
+        other.accepts( "id" ).withRequiredArg().ofType( Integer.class );
+        other.accepts( "path" ).withRequiredArg();
+        other.nonOptions();
+
+        OptionSet decoded = new OptionSetCodec( other ).decode( encoded );
+
+        assertEquals( 2, decoded.valueOf( "threads" ) );
+        assertEquals( "x", decoded.valueOf( "name" ) );
+    }
+
+    @Test
+    public void decodesFromMappedFile() throws Exception {
+        OptionSet options = parser.parse( "--path", "/a", "--path", "/b", "--threads", "3", "5" );
+        Path file = Files.createTempFile( "options", ".bin" );
+        file.toFile().deleteOnExit();
+        ByteBuffer encoded = new OptionSetCodec( parser ).encode( options );
+        Files.write( file, asBytes( encoded ) );
+
+        OptionSet decoded = new OptionSetCodec( parser ).decode( file );
+
+        assertEquals( options, decoded );
+        assertEquals( asList( "/a", "/b" ), decoded.valuesOf( paths ) );
+    }
+
+    @Test
+    public void leavesPositionOfBufferAsItIs() throws Exception {
+        ByteBuffer encoded = new OptionSetCodec( parser ).encode( parser.parse( "-v" ) );
+
+        new OptionSetCodec( parser ).decode( encoded );
+
+        assertEquals( 0, encoded.position() );
+    }
+
+    @Test( expected = IOException.class )
+    public void refusesSetEncodedForOtherOptions() throws Exception {
+        ByteBuffer encoded = new OptionSetCodec( parser ).encode( parser.parse( "-v" ) );
+        parser.accepts( "late" );
+
+        new OptionSetCodec( parser ).decode( encoded );
+    }
+
+    @Test
+    public void decodesSetOfOriginalWithParserLoadedFromSnapshot() throws Exception {
+        OptionParser original = new OptionParser();
+        original.accepts( "verbose" );
+        original.accepts( "name" ).withRequiredArg();
+        ParserSnapshot snapshot = new ParserSnapshot();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        snapshot.write( original, bytes );
+        OptionParser loaded = snapshot.read( new ByteArrayInputStream( bytes.toByteArray() ) );
+
+        OptionSet decoded =
+            new OptionSetCodec( loaded ).decode( new OptionSetCodec( original ).encode(
+                original.parse( "--verbose", "--name", "x" ) ) );
+
+        assertTrue( decoded.has( "verbose" ) );
+        assertEquals( "x", decoded.valueOf( "name" ) );
+        assertEquals( loaded.parse( "--verbose", "--name", "x" ), decoded );
+    }
+
+    @Test( expected = IOException.class )
+    public void refusesOtherData() throws Exception {
+        new OptionSetCodec( parser ).decode( ByteBuffer.wrap( new byte[ 24 ] ) );
+    }
+
+    @Test( expected = IOException.class )
+    public void refusesTruncatedSet() throws Exception {
+        ByteBuffer encoded = new OptionSetCodec( parser ).encode( parser.parse( "--name", "abcdef" ) );
+        encoded.limit( encoded.limit() - 8 );
+
+        new OptionSetCodec( parser ).decode( encoded );
+    }
+
+    @Test( expected = IOException.class )
+    public void refusesArgumentsLongerThanSet() throws Exception {
+        ByteBuffer encoded = new OptionSetCodec( parser ).encode( parser.parse( "--name", "abcdef" ) );
+        encoded.put( 25, (byte) 1 ).putInt( 26, Integer.MAX_VALUE );
+
+        new OptionSetCodec( parser ).decode( encoded );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void rejectsSetOfOtherParser() {
+        OptionParser other = new OptionParser();
+        other.accepts( "x" );
+
+        new OptionSetCodec( parser ).encode( other.parse( "-x" ) );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void rejectsMapArguments() {
+        MapOptionSpec<String> defines = parser.accepts( "D" ).withValuesAsMap();
+
+        OptionSet options = parser.parse( "-D", "a=b" );
+        Map<String, String> map = options.mapOf( defines );
+        assertEquals( "b", map.get( "a" ) );
+
+        new OptionSetCodec( parser ).encode( options );
+    }
+
+    private OptionSet roundTrip( OptionSet options ) throws IOException {
+        OptionSetCodec codec = new OptionSetCodec( parser );
+        return codec.decode( codec.encode( options ) );
+    }
+
+    private static byte[] asBytes( ByteBuffer buffer ) {
+        byte[] bytes = new byte[ buffer.remaining() ];
+        buffer.duplicate().get( bytes );
+        return bytes;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+public class OptionSetViewsTest {
+    private OptionParser parser;
+    private OptionSpec<Void> verbose;
+    private OptionSpec<Integer> counts;
+    private CountingConverter converter;
+
+    @Before
+    public void setUp() {
+        converter = new CountingConverter();
+        parser = new OptionParser();
+        verbose = parser.acceptsAll( asList( "v", "verbose" ) );
+        counts = parser.accepts( "count" ).withRequiredArg().withValuesConvertedBy( converter );
+        parser.accepts( "name" ).withRequiredArg().defaultsTo( "none" );
+    }
+
+    @Test
+    public void specsLeaveOutEveryNonOptionArgument() {
+        OptionSet options = parser.parse( "a", "-v", "b", "--count", "1", "c" );
+
+        assertEquals( asList( verbose, counts ), options.specs() );
+        assertEquals( asList( verbose, counts ), options.specs() );
+        assertEquals( asList( "a", "b", "c" ), options.nonOptionArguments() );
+    }
+
+    @Test
+    public void asMapConvertsOnlyEntriesRead() {
+        OptionSet options = parser.parse( "--count", "1", "--count", "2" );
+
+        Map<OptionSpec<?>, List<?>> map = options.asMap();
+        assertEquals( 3, map.size() );
+        assertTrue( map.containsKey( counts ) );
+        assertEquals( 0, converter.conversions );
+
+        assertEquals( asList( 1, 2 ), map.get( counts ) );
+        assertEquals( 2, converter.conversions );
+        assertEquals( asList( "none" ), map.get( parser.recognizedOptions().get( "name" ) ) );
+        assertEquals( 2, converter.conversions );
+    }
+
+    @Test
+    public void asMapHoldsDeclaredOptionsOnly() {
+        Map<OptionSpec<?>, List<?>> map = parser.parse().asMap();
+
+        assertFalse( map.containsKey( new NoArgumentOptionSpec( "w" ) ) );
+        assertFalse( map.containsKey( parser.recognizedOptions().get( NonOptionArgumentSpec.NAME ) ) );
+        assertFalse( map.containsKey( "count" ) );
+        assertNull( map.get( new NoArgumentOptionSpec( "w" ) ) );
+    }
+
+    @Test( expected = UnsupportedOperationException.class )
+    public void asMapIsReadOnly() {
+        parser.parse().asMap().clear();
+    }
+
+    @Test
+    public void setsOfEqualOptionsFromOtherParsersAreEqual() {
+        OptionParser other = new OptionParser();
+        other.acceptsAll( asList( "verbose", "v" ) );
+        other.accepts( "count" ).withRequiredArg();
+        other.accepts( "name" ).withRequiredArg();
+
+        OptionSet options = parser.parse( "-v", "--count", "3", "x" );
+        OptionSet otherOptions = other.parse( "--verbose", "--count=3", "x" );
+
+        assertEquals( options, otherOptions );
+        assertEquals( options.hashCode(), otherOptions.hashCode() );
+    }
+
+    @Test
+    public void setsDifferingInArgumentsOrNonOptionsAreNot() {
+        OptionSet options = parser.parse( "--count", "3", "x" );
+
+        assertFalse( options.equals( parser.parse( "--count", "4", "x" ) ) );
+        assertFalse( options.equals( parser.parse( "--count", "3", "y" ) ) );
+        assertFalse( options.equals( parser.parse( "--count", "3", "-v", "x" ) ) );
+    }
+
+    @Test
+    public void hashOfParsedSetIsKept() {
+        OptionSet options = parser.parse( "-v", "--count", "3", "x" );
+
+        int hash = options.hashCode();
+
+        assertEquals( hash, options.hashCode() );
+        assertEquals( hash, parser.parse( "-v", "--count", "3", "x" ).hashCode() );
+    }
+
+    private static final class CountingConverter implements ValueConverter<Integer> {
+        int conversions;
+
+        public Integer convert( String value ) {
+            ++conversions;
+            return Integer.valueOf( value );
+        }
+
+        public Class<? extends Integer> valueType() {
+            return Integer.class;
+        }
+
+        public String valuePattern() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.function.Supplier;
+
+import joptsimple.util.RegexMatcher;
+import org.junit.Before;
+import org.junit.Test;
+
+import static java.util.Arrays.*;
+import static java.util.Collections.*;
+import static org.junit.Assert.*;
+
+public class ParserSnapshotTest {
+    private static final ValueConverter<String> WORD = RegexMatcher.regex( "\\w+" );
+
+    private OptionParser parser;
+    private ParserSnapshot snapshot;
+
+    @Before
+    public void setUp() {
+        parser = new OptionParser();
+        parser.acceptsAll( asList( "v", "verbose" ), "talk more" );
+        parser.accepts( "help" ).forHelp();
+        parser.accepts( "count", "how many" ).withRequiredArg().ofType( Integer.class ).describedAs( "n" )
+            .defaultsTo( 1, 2 );
+        parser.accepts( "level" ).withOptionalArg().withValuesConvertedBy( WORD ).defaultsTo( "low" );
+        parser.accepts( "size" ).withRequiredIntArg().defaultsTo( 10 );
+        parser.accepts( "total" ).withRequiredLongArg();
+        parser.accepts( "ratio" ).withRequiredDoubleArg().defaultsTo( 0.1 );
+        parser.accepts( "amount" ).withRequiredArg().ofType( BigDecimal.class ).withValuesSeparatedBy( ',' )
+            .withCompactStorage();
+        parser.accepts( "name" ).withRequiredArg().required();
+        parser.accepts( "password" ).withRequiredArg();
+        parser.accepts( "user" ).requiredIf( "password" );
+        parser.nonOptions( "files" ).ofType( Integer.class ).describedAs( "file number" );
+        parser.recognizeAlternativeLongOptions( true );
+
+        snapshot = new ParserSnapshot().withConverter( "word", WORD );
+    }
+
+    @Test
+    public void parsesAsOriginal() throws Exception {
+        OptionParser loaded = roundTrip( parser );
+
+        String[] arguments = { "-v", "--count", "3", "--lev=high", "--size", "4", "--amount", "1.5,2", "--name",
+            "x", "--user", "--password", "p", "-W", "ratio=0.5", "7", "8" };
+        OptionSet expected = parser.parse( arguments );
+        OptionSet actual = loaded.parse( arguments );
+
+        assertEquals( expected.asMap().toString(), actual.asMap().toString() );
+        assertEquals( asList( 3 ), actual.valuesOf( "count" ) );
+        assertEquals( 4, ( (IntOptionSpec) loaded.recognizedOptions().get( "size" ) ).valueAsInt( actual ) );
+        assertEquals( asList( new BigDecimal( "1.5" ), new BigDecimal( "2" ) ), actual.valuesOf( "amount" ) );
+        assertEquals( asList( 7, 8 ), actual.nonOptionArguments() );
+        assertTrue( actual.has( "verbose" ) );
+    }
+
+    @Test
+    public void keepsDefaults() throws Exception {
+        OptionSet options = roundTrip( parser ).parse( "--name", "x" );
+
+        assertEquals( asList( 1, 2 ), options.valuesOf( "count" ) );
+        assertEquals( "low", options.valueOf( "level" ) );
+        assertEquals( 10, options.valueOf( "size" ) );
+        assertEquals( 0.1, options.valueOf( "ratio" ) );
+    }
+
+    @Test
+    public void keepsRecognizedOptionsInDeclarationOrder() throws Exception {
+        assertEquals( new ArrayList<String>( parser.recognizedOptions().keySet() ),
+            new ArrayList<String>( roundTrip( parser ).recognizedOptions().keySet() ) );
+    }
+
+    @Test
+    public void printsSameHelp() throws Exception {
+        assertEquals( helpOf( parser ), helpOf( roundTrip( parser ) ) );
+    }
+
+    @Test
+    public void enforcesRequiredOptions() throws Exception {
+        OptionParser loaded = roundTrip( parser );
+
+        try {
+            loaded.parse( "--password", "p", "--name", "x" );
+            fail();
+        } catch ( MissingRequiredOptionsException expected ) {
+            assertEquals( singletonList( "user" ), expected.options() );
+        }
+        try {
+            loaded.parse();
+            fail();
+        } catch ( MissingRequiredOptionsException expected ) {
+            assertEquals( singletonList( "name" ), expected.options() );
+        }
+        assertTrue( loaded.parse( "--help" ).has( "help" ) );
+    }
+
+    @Test
+    public void resolvesAbbreviationsAsOriginal() throws Exception {
+        OptionParser loaded = roundTrip( parser );
+
+        assertTrue( loaded.parse( "--verb", "--name", "x" ).has( "verbose" ) );
+        assertEquals( 5, loaded.parse( "--si", "5", "--name", "x" ).valueOf( "size" ) );
+        try {
+            loaded.parse( "--totals", "1", "--name", "x" );
+            fail();
+        } catch ( UnrecognizedOptionException expected ) {
+            assertEquals( singletonList( "totals" ), expected.options() );
+        }
+    }
+
+    @Test
+    public void loadedParserCanBeConfiguredFurther() throws Exception {
+        OptionParser loaded = roundTrip( parser );
+
+        loaded.accepts( "trace" );
+
+        OptionSet options = loaded.parse( "--tr", "--tot", "9", "--name", "x" );
+        assertTrue( options.has( "trace" ) );
+        assertEquals( 9L, options.valueOf( "total" ) );
+    }
+
+    @Test
+    public void keepsParserSettings() throws Exception {
+        OptionParser posix = new OptionParser( "+a" );
+        posix.allowsUnrecognizedOptions();
+
+        OptionSet options = roundTrip( posix ).parse( "-z", "x", "-a" );
+
+        assertFalse( options.has( "a" ) );
+        assertEquals( asList( "-z", "x", "-a" ), options.nonOptionArguments() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void rejectsUnregisteredConverters() throws Exception {
+        new ParserSnapshot().write( parser, new ByteArrayOutputStream() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void needsRegisteredConvertersWhenReading() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        snapshot.write( parser, bytes );
+
+        new ParserSnapshot().read( new ByteArrayInputStream( bytes.toByteArray() ) );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void rejectsDefaultSuppliers() throws Exception {
+        parser.accepts( "now" ).withRequiredArg().defaultsToSupplied( new Supplier<String>() {
+            public String get() {
+                return "now";
+            }
+        } );
+
+        roundTrip( parser );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void rejectsOptionFamilies() throws Exception {
+        parser.acceptsFamily( "D" );
+
+        roundTrip( parser );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void rejectsDefaultsThatDoNotConvertBack() throws Exception {
+        parser.accepts( "price" ).withRequiredArg().ofType( BigDecimal.class ).defaultsTo( new BigDecimal( "1E+1" ) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public String toString() {
+                return "ten";
+            }
+        } );
+
+        roundTrip( parser );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void rejectsSecondConverterUnderSameId() {
+        snapshot.withConverter( "word", RegexMatcher.regex( "\\d+" ) );
+    }
+
+    @Test( expected = IOException.class )
+    public void rejectsOtherData() throws Exception {
+        snapshot.read( new ByteArrayInputStream( new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 } ) );
+    }
+
+    private OptionParser roundTrip( OptionParser original ) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        snapshot.write( original, bytes );
+        return snapshot.read( new ByteArrayInputStream( bytes.toByteArray() ) );
+    }
+
+    private static String helpOf( OptionParser parser ) throws IOException {
+        StringWriter help = new StringWriter();
+        parser.printHelpOn( help );
+        return help.toString();
+    }
+}
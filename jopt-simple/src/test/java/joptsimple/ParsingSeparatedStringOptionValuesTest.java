@@ -65,6 +65,33 @@ public class ParsingSeparatedStringOptionValuesTest extends AbstractOptionParser
         assertCorrectParse( "c", ",", "-c,/usr,,,/opt,,,/var,,,,," );
     }
 
+    @Test
+    public void matchesMultiCharacterSeparatorLiterally() {
+        parser.accepts( "c" ).withRequiredArg().withValuesSeparatedBy( "::" );
+
+        OptionSet options = parser.parse( "-c", "/usr:/opt::/var:::/tmp" );
+
+        assertEquals( asList( "/usr:/opt", "/var", ":/tmp" ), options.valuesOf( "c" ) );
+    }
+
+    @Test
+    public void takesArgumentWithoutValuesWhole() {
+        parser.accepts( "c" ).withRequiredArg().withValuesSeparatedBy( ',' );
+
+        OptionSet options = parser.parse( "-c", ",,," );
+
+        assertEquals( asList( ",,," ), options.valuesOf( "c" ) );
+    }
+
+    @Test
+    public void emptySeparatorLeavesArgumentWhole() {
+        parser.accepts( "c" ).withRequiredArg().withValuesSeparatedBy( "" );
+
+        OptionSet options = parser.parse( "-c", "a,b" );
+
+        assertEquals( asList( "a,b" ), options.valuesOf( "c" ) );
+    }
+
     private void assertCorrectParse( String option, String separator, String... args ) {
         parser.accepts( option ).withRequiredArg().withValuesSeparatedBy( separator );
 
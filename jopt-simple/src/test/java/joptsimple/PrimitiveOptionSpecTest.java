@@ -0,0 +1,166 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple;
+
+import java.util.NoSuchElementException;
+
+import static java.util.Arrays.*;
+
+import static joptsimple.util.RegexMatcher.*;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PrimitiveOptionSpecTest extends AbstractOptionParserFixture {
+    @Test
+    public void intArgumentIsRetrievableUnboxed() {
+        IntOptionSpec port = parser.accepts( "port" ).withRequiredIntArg();
+
+        OptionSet options = parser.parse( "--port", "8080" );
+
+        assertEquals( 8080, port.valueAsInt( options ) );
+        assertEquals( Integer.valueOf( 8080 ), options.valueOf( port ) );
+        assertEquals( asList( 8080 ), options.valuesOf( "port" ) );
+    }
+
+    @Test
+    public void separatedIntArgumentsAreRetrievableAsArray() {
+        IntOptionSpec sizes = parser.accepts( "s" ).withRequiredIntArg();
+        sizes.withValuesSeparatedBy( ',' );
+
+        OptionSet options = parser.parse( "-s", "1,2,3", "-s4" );
+
+        assertArrayEquals( new int[] { 1, 2, 3, 4 }, sizes.valuesAsIntArray( options ) );
+        assertEquals( asList( 1, 2, 3, 4 ), options.valuesOf( sizes ) );
+    }
+
+    @Test
+    public void defaultValuesStandInForAbsentOption() {
+        IntOptionSpec threads = parser.accepts( "threads" ).withRequiredIntArg();
+        threads.defaultsTo( 4 );
+
+        OptionSet options = parser.parse();
+
+        assertEquals( 4, threads.valueAsInt( options ) );
+        assertArrayEquals( new int[] { 4 }, threads.valuesAsIntArray( options ) );
+    }
+
+    @Test
+    public void absentOptionWithoutDefaultHasNoValues() {
+        IntOptionSpec threads = parser.accepts( "threads" ).withRequiredIntArg();
+
+        OptionSet options = parser.parse();
+
+        assertArrayEquals( new int[ 0 ], threads.valuesAsIntArray( options ) );
+        thrown.expect( NoSuchElementException.class );
+        threads.valueAsInt( options );
+    }
+
+    @Test
+    public void moreThanOneArgumentForSingleValue() {
+        IntOptionSpec threads = parser.accepts( "threads" ).withRequiredIntArg();
+
+        OptionSet options = parser.parse( "--threads", "1", "--threads", "2" );
+
+        thrown.expect( MultipleArgumentsForOptionException.class );
+        threads.valueAsInt( options );
+    }
+
+    @Test
+    public void invalidArgumentIsReportedByParse() {
+        parser.accepts( "threads" ).withRequiredIntArg();
+
+        thrown.expect( OptionArgumentConversionException.class );
+        parser.parse( "--threads", "many" );
+    }
+
+    @Test
+    public void invalidArgumentIsCollectedAsDiagnostic() {
+        IntOptionSpec threads = parser.accepts( "threads" ).withRequiredIntArg();
+
+        ParseResult result = parser.parseWithDiagnostics( "--threads", "2", "--threads", "many" );
+
+        assertEquals( 1, result.diagnostics().size() );
+        assertEquals( ParseDiagnostic.Kind.ARGUMENT_CONVERSION_FAILURE, result.diagnostics().get( 0 ).kind() );
+        assertEquals( 3, result.diagnostics().get( 0 ).argumentIndex() );
+        assertEquals( 2, threads.valueAsInt( result.options() ) );
+    }
+
+    @Test
+    public void refusesAConverterForIntArguments() {
+        IntOptionSpec port = parser.accepts( "port" ).withRequiredIntArg();
+
+        thrown.expect( IllegalStateException.class );
+        port.withValuesConvertedBy( regex( "0x\\p{XDigit}+" ) );
+    }
+
+    @Test
+    public void refusesATypeChangeForLongArguments() {
+        LongOptionSpec size = parser.accepts( "size" ).withRequiredLongArg();
+
+        thrown.expect( IllegalStateException.class );
+        size.ofType( Long.class );
+    }
+
+    @Test
+    public void refusesATypeChangeForDoubleArguments() {
+        DoubleOptionSpec ratio = parser.accepts( "ratio" ).withRequiredDoubleArg();
+
+        thrown.expect( IllegalStateException.class );
+        ratio.ofType( String.class );
+    }
+
+    @Test
+    public void longAndDoubleArguments() {
+        LongOptionSpec size = parser.accepts( "size" ).withRequiredLongArg();
+        DoubleOptionSpec ratio = parser.accepts( "ratio" ).withRequiredDoubleArg();
+
+        OptionSet options = parser.parse( "--size", "9876543210", "--ratio", "0.75", "--ratio", "1e3" );
+
+        assertEquals( 9876543210L, size.valueAsLong( options ) );
+        assertArrayEquals( new double[] { 0.75, 1000 }, ratio.valuesAsDoubleArray( options ), 0 );
+    }
+
+    @Test
+    public void countedFlagGivesNumberOfOccurrences() {
+        CountingOptionSpec verbose = parser.acceptsAll( asList( "v", "verbose" ) ).counted();
+        parser.accepts( "q" );
+
+        OptionSet options = parser.parse( "-vvq", "--verbose", "-v" );
+
+        assertEquals( 4, verbose.valueAsInt( options ) );
+        assertTrue( options.has( verbose ) );
+        assertFalse( options.hasArgument( verbose ) );
+    }
+
+    @Test
+    public void absentCountedFlagCountsZero() {
+        CountingOptionSpec verbose = parser.accepts( "v" ).counted();
+
+        assertEquals( 0, verbose.valueAsInt( parser.parse() ) );
+    }
+}
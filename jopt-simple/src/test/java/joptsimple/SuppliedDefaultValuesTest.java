@@ -0,0 +1,195 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static java.util.Arrays.*;
+import static java.util.Collections.*;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SuppliedDefaultValuesTest extends AbstractOptionParserFixture {
+    private final AtomicInteger invocations = new AtomicInteger();
+
+    @Test
+    public void supplierIsNotInvokedByParsing() {
+        parser.accepts( "host" ).withRequiredArg().defaultsToSupplied( counting( "localhost" ) );
+
+        parser.parse();
+        parser.parse( "--host", "example.org" );
+
+        assertEquals( 0, invocations.get() );
+    }
+
+    @Test
+    public void supplierGivesDefaultWhenOptionAbsent() {
+        OptionSpec<String> host =
+            parser.accepts( "host" ).withRequiredArg().defaultsToSupplied( counting( "localhost" ) );
+
+        OptionSet options = parser.parse();
+
+        assertEquals( "localhost", options.valueOf( host ) );
+        assertEquals( "localhost", options.valueOf( "host" ) );
+        assertEquals( singletonList( "localhost" ), options.valuesOf( host ) );
+    }
+
+    @Test
+    public void supplierIsNotInvokedWhenOptionPresent() {
+        OptionSpec<String> host =
+            parser.accepts( "host" ).withRequiredArg().defaultsToSupplied( counting( "localhost" ) );
+
+        OptionSet options = parser.parse( "--host", "example.org" );
+
+        assertEquals( "example.org", options.valueOf( host ) );
+        assertEquals( 0, invocations.get() );
+    }
+
+    @Test
+    public void supplierIsInvokedOnceAcrossParses() {
+        OptionSpec<Integer> threads =
+            parser.accepts( "threads" ).withRequiredArg().ofType( Integer.class ).defaultsToSupplied( counting( 8 ) );
+
+        for ( int i = 0; i < 3; ++i )
+            assertEquals( Integer.valueOf( 8 ), parser.parse().valueOf( threads ) );
+
+        assertEquals( 1, invocations.get() );
+    }
+
+    @Test
+    public void supplierIsInvokedOnceByConcurrentReaders() throws Exception {
+        final OptionSpec<String> host =
+            parser.accepts( "host" ).withRequiredArg().defaultsToSupplied( counting( "localhost" ) );
+        final OptionSet options = parser.parse();
+
+        ExecutorService pool = Executors.newFixedThreadPool( 8 );
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for ( int i = 0; i < 64; ++i ) {
+                results.add( pool.submit( new Callable<String>() {
+                    public String call() {
+                        return options.valueOf( host );
+                    }
+                } ) );
+            }
+
+            for ( Future<String> each : results )
+                assertEquals( "localhost", each.get() );
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals( 1, invocations.get() );
+    }
+
+    @Test
+    public void suppliedValueFollowsOtherDefaults() {
+        OptionSpec<String> paths =
+            parser.accepts( "path" ).withRequiredArg().defaultsTo( "/usr" ).defaultsToSupplied( counting( "/opt" ) );
+
+        OptionSet options = parser.parse();
+
+        assertEquals( asList( "/usr", "/opt" ), options.valuesOf( paths ) );
+    }
+
+    @Test
+    public void nullFromSupplierGivesNoDefault() {
+        OptionSpec<String> host = parser.accepts( "host" ).withRequiredArg().defaultsToSupplied( counting( null ) );
+
+        OptionSet options = parser.parse();
+
+        assertNull( options.valueOf( host ) );
+        assertEquals( emptyList(), options.valuesOf( host ) );
+        assertEquals( 1, invocations.get() );
+    }
+
+    @Test
+    public void failingSupplierIsInvokedAgain() {
+        ArgumentAcceptingOptionSpec<String> host = parser.accepts( "host" ).withRequiredArg();
+        host.defaultsToSupplied( new Supplier<String>() {
+            public String get() {
+                if ( invocations.incrementAndGet() == 1 )
+                    throw new IllegalStateException( "not yet" );
+                return "localhost";
+            }
+        } );
+        OptionSet options = parser.parse();
+
+        try {
+            options.valueOf( host );
+            fail();
+        } catch ( IllegalStateException expected ) {
+            assertEquals( "not yet", expected.getMessage() );
+        }
+
+        assertEquals( "localhost", options.valueOf( host ) );
+        assertEquals( 2, invocations.get() );
+    }
+
+    @Test
+    public void helpShowsSuppliedDefault() throws Exception {
+        parser.accepts( "host", "host to connect to" ).withRequiredArg().defaultsToSupplied( counting( "localhost" ) );
+        StringWriter help = new StringWriter();
+
+        parser.printHelpOn( help );
+
+        assertTrue( help.toString().contains( "(default: localhost)" ) );
+        assertEquals( 1, invocations.get() );
+    }
+
+    @Test
+    public void primitiveSpecUsesSuppliedDefault() {
+        IntOptionSpec threads = parser.accepts( "threads" ).withRequiredIntArg();
+        threads.defaultsToSupplied( counting( 4 ) );
+
+        OptionSet options = parser.parse();
+
+        assertEquals( 4, threads.valueAsInt( options ) );
+    }
+
+    @Test( expected = NullPointerException.class )
+    public void rejectsNullSupplier() {
+        parser.accepts( "host" ).withRequiredArg().defaultsToSupplied( null );
+    }
+
+    private <T> Supplier<T> counting( final T value ) {
+        return new Supplier<T>() {
+            public T get() {
+                invocations.incrementAndGet();
+                return value;
+            }
+        };
+    }
+}
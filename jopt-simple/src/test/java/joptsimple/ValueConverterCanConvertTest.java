@@ -0,0 +1,116 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple;
+
+import static java.util.Collections.*;
+
+import joptsimple.annot.BooleanConverter;
+import joptsimple.util.RegexMatcher;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ValueConverterCanConvertTest extends AbstractOptionParserFixture {
+    @Test
+    public void defaultBridgeAnswersWhetherConversionSucceeds() {
+        ValueConverter<Integer> even = new EvenNumberConverter();
+
+        assertTrue( even.canConvert( "4" ) );
+        assertFalse( even.canConvert( "3" ) );
+    }
+
+    @Test
+    public void builtinConvertersCheckNatively() {
+        assertTrue( BooleanConverter.getInstance().canConvert( "TRUE" ) );
+        assertFalse( BooleanConverter.getInstance().canConvert( "yes" ) );
+        assertTrue( new RegexMatcher( "\\d+", 0 ).canConvert( "42" ) );
+        assertFalse( new RegexMatcher( "\\d+", 0 ).canConvert( "-42" ) );
+    }
+
+    @Test
+    public void optionalArgumentLookaheadAsksTheConverterWithoutConverting() {
+        CountingNegativeConverter converter = new CountingNegativeConverter();
+        OptionSpec<Integer> a = parser.accepts( "a" ).withOptionalArg().withValuesConvertedBy( converter );
+        parser.accepts( "2" );
+
+        OptionSet options = parser.parse( "-a", "-2" );
+
+        assertEquals( 0, converter.conversions );
+        assertEquals( singletonList( -2 ), options.valuesOf( a ) );
+        assertFalse( options.has( "2" ) );
+    }
+
+    @Test
+    public void optionalArgumentLookaheadLeavesUnconvertibleOptionsAlone() {
+        OptionSpec<Integer> a = parser.accepts( "a" ).withOptionalArg().ofType( Integer.class );
+        parser.accepts( "x" );
+
+        OptionSet options = parser.parse( "-a", "-x" );
+
+        assertTrue( options.has( a ) );
+        assertFalse( options.hasArgument( a ) );
+        assertTrue( options.has( "x" ) );
+    }
+
+    private static class EvenNumberConverter implements ValueConverter<Integer> {
+        public Integer convert( String value ) {
+            int number = Integer.parseInt( value );
+            if ( number % 2 != 0 )
+                throw new ValueConversionException( value + " is odd" );
+            return number;
+        }
+
+        public Class<Integer> valueType() {
+            return Integer.class;
+        }
+
+        public String valuePattern() {
+            return null;
+        }
+    }
+
+    private static class CountingNegativeConverter implements ValueConverter<Integer> {
+        int conversions;
+
+        public Integer convert( String value ) {
+            ++conversions;
+            return Integer.valueOf( value );
+        }
+
+        @Override
+        public boolean canConvert( String value ) {
+            return value.matches( "-\\d+" );
+        }
+
+        public Class<Integer> valueType() {
+            return Integer.class;
+        }
+
+        public String valuePattern() {
+            return null;
+        }
+    }
+}
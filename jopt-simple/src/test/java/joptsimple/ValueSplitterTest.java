@@ -0,0 +1,91 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.*;
+import static java.util.Collections.*;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ValueSplitterTest {
+    @Test
+    public void splitsOnSingleCharacter() {
+        assertEquals( asList( "a", "b", "c" ), split( "a,b,c", "," ) );
+    }
+
+    @Test
+    public void splitsOnLiteralString() {
+        assertEquals( asList( "a", "b:c" ), split( "a:=b:c", ":=" ) );
+    }
+
+    @Test
+    public void matchesDoNotOverlap() {
+        assertEquals( asList( "a", ":b" ), split( "a:::b", "::" ) );
+        assertEquals( asList( "a", "b" ), split( "a::::b", "::" ) );
+    }
+
+    @Test
+    public void skipsEmptyValues() {
+        assertEquals( asList( "a", "b" ), split( ",,a,,,b,", "," ) );
+    }
+
+    @Test
+    public void givesNothingForArgumentOfOnlySeparators() {
+        assertEquals( emptyList(), split( ",,,", "," ) );
+        assertEquals( emptyList(), split( "", "," ) );
+    }
+
+    @Test
+    public void givesWholeArgumentWithoutSeparator() {
+        assertEquals( asList( "a,b" ), split( "a,b", ";" ) );
+        assertEquals( asList( "a,b" ), split( "a,b", "" ) );
+    }
+
+    @Test
+    public void givesRangesOfTheOriginalArgument() {
+        ValueSplitter values = new ValueSplitter( "--x=1,22", "," );
+
+        assertTrue( values.advance() );
+        assertEquals( 0, values.start() );
+        assertEquals( 5, values.end() );
+        assertTrue( values.advance() );
+        assertEquals( 6, values.start() );
+        assertEquals( 8, values.end() );
+        assertFalse( values.advance() );
+    }
+
+    private static List<String> split( String argument, String separator ) {
+        List<String> values = new ArrayList<String>();
+        for ( ValueSplitter splitter = new ValueSplitter( argument, separator ); splitter.advance(); )
+            values.add( argument.substring( splitter.start(), splitter.end() ) );
+        return values;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple.annot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import joptsimple.OptionException;
+import org.junit.Test;
+
+import static java.util.Arrays.*;
+import static java.util.Collections.*;
+import static org.junit.Assert.*;
+
+public class BinderTest {
+    public static class Connection {
+        public String host = "localhost";
+        public int port = 80;
+    }
+
+    public static class Arguments {
+        @JOHelp( "how many" )
+        public int count = 1;
+        public long size;
+        public double ratio = 0.5;
+        public Integer limit;
+        public String name;
+        @JOSimpleBoolean
+        public boolean verbose;
+        public RetentionPolicy policy = RetentionPolicy.CLASS;
+        public List<Integer> ids = new ArrayList<Integer>();
+        @JODelegate( prefix = "source" )
+        public Connection source = new Connection();
+        @JODelegate( prefix = "target" )
+        public Nested target = new Nested();
+        @JONonOptionArgumentsList
+        public List<String> rest;
+    }
+
+    public static class Nested {
+        @JODelegate( prefix = "" )
+        public Connection connection = new Connection();
+    }
+
+    public static class NoDefaultConstructor {
+        public NoDefaultConstructor( String unused ) {
+        }
+    }
+
+    @Test
+    public void bindsArgumentsIntoNewInstance() {
+        Arguments bound = Binder.of( Arguments.class ).bind( "--count", "3", "--size", "4000000000", "--ratio", "2.5",
+            "--limit", "9", "--name", "n", "--verbose", "--policy", "RUNTIME", "--ids", "1,2,3", "rest1",
+            "--sourceHost", "example.org", "--targetPort", "8080", "rest2" );
+
+        assertEquals( 3, bound.count );
+        assertEquals( 4000000000L, bound.size );
+        assertEquals( 2.5, bound.ratio, 0.0 );
+        assertEquals( Integer.valueOf( 9 ), bound.limit );
+        assertEquals( "n", bound.name );
+        assertTrue( bound.verbose );
+        assertEquals( RetentionPolicy.RUNTIME, bound.policy );
+        assertEquals( asList( 1, 2, 3 ), bound.ids );
+        assertEquals( "example.org", bound.source.host );
+        assertEquals( 80, bound.source.port );
+        assertEquals( "localhost", bound.target.connection.host );
+        assertEquals( 8080, bound.target.connection.port );
+        assertEquals( asList( "rest1", "rest2" ), bound.rest );
+    }
+
+    @Test
+    public void leavesDefaultsOfAbsentOptions() {
+        Arguments bound = Binder.of( Arguments.class ).bind();
+
+        assertEquals( 1, bound.count );
+        assertEquals( 0.5, bound.ratio, 0.0 );
+        assertNull( bound.limit );
+        assertFalse( bound.verbose );
+        assertEquals( RetentionPolicy.CLASS, bound.policy );
+        assertEquals( emptyList(), bound.ids );
+        assertEquals( 80, bound.target.connection.port );
+        assertEquals( emptyList(), bound.rest );
+    }
+
+    @Test
+    public void bindsIntoDistinctInstances() {
+        Binder<Arguments> binder = Binder.of( Arguments.class );
+
+        Arguments first = binder.bind( "--count", "2" );
+        Arguments second = binder.bind();
+
+        assertNotSame( first, second );
+        assertNotSame( first.source, second.source );
+        assertEquals( 2, first.count );
+        assertEquals( 1, second.count );
+    }
+
+    @Test
+    public void compilesOncePerClass() {
+        assertSame( Binder.of( Arguments.class ), Binder.of( Arguments.class ) );
+    }
+
+    @Test
+    public void bindsConcurrently() throws Exception {
+        final Binder<Arguments> binder = Binder.of( Arguments.class );
+        ExecutorService threads = Executors.newFixedThreadPool( 8 );
+        try {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+            for ( int i = 0; i < 200; ++i ) {
+                final int n = i;
+                results.add( threads.submit( new Callable<Boolean>() {
+                    public Boolean call() {
+                        Arguments bound = n % 2 == 0
+                            ? binder.bind( "--count", String.valueOf( n ), "--", "--verbose", "x" + n )
+                            : binder.bind( "--count", String.valueOf( n ), "--verbose", "x" + n );
+                        return bound.count == n
+                            && bound.verbose == ( n % 2 != 0 )
+                            && bound.rest.equals( n % 2 == 0 ? asList( "--verbose", "x" + n ) : asList( "x" + n ) );
+                    }
+                } ) );
+            }
+            for ( Future<Boolean> each : results )
+                assertTrue( each.get() );
+        } finally {
+            threads.shutdown();
+        }
+    }
+
+    @Test
+    public void printsHelp() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        Binder.of( Arguments.class ).printHelpOn( new PrintStream( bytes, true ) );
+
+        assertTrue( bytes.toString().contains( "how many" ) );
+        assertTrue( bytes.toString().contains( "--sourceHost" ) );
+    }
+
+    @Test( expected = OptionException.class )
+    public void reportsArgumentsThatCannotBeParsed() {
+        Binder.of( Arguments.class ).bind( "--count", "many" );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void rejectsClassWithoutConstructorTakingNoArguments() {
+        Binder.of( NoDefaultConstructor.class );
+    }
+}
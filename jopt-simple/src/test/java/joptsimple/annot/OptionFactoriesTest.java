@@ -0,0 +1,327 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple.annot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Field;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import joptsimple.OptionException;
+import joptsimple.OptionSet;
+import joptsimple.OptionSpec;
+import joptsimple.OptionSpecBuilder;
+import joptsimple.ValueConverter;
+import org.junit.Test;
+
+import static java.util.Arrays.*;
+import static java.util.Collections.*;
+import static org.junit.Assert.*;
+
+public class OptionFactoriesTest {
+    public static class Arguments {
+        public float ratio = 0.5f;
+        public short small;
+        public byte tiny = 1;
+        public char separator = ':';
+        public boolean strict = true;
+        public Path home = Paths.get( "home" );
+        public Duration timeout = Duration.ofSeconds( 5 );
+        public LocalDate day;
+        public LocalTime time;
+        public Instant when;
+        public int[] ports = { 80 };
+        public String[] names;
+        public Set<Integer> ids = new LinkedHashSet<Integer>();
+        public Set<RetentionPolicy> policies;
+        public List<Path> paths;
+    }
+
+    public static class Retention {
+        @JOHelp( "kept until" )
+        public RetentionPolicy policy = RetentionPolicy.CLASS;
+    }
+
+    public static class Homes {
+        public Path home;
+        public Set<Integer> ids;
+    }
+
+    public static class Point {
+        final int x;
+        final int y;
+
+        Point( int x, int y ) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    public static class Points {
+        public Point origin = new Point( 0, 0 );
+        public Point[] corners;
+        public List<Point> path;
+    }
+
+    public static class Sizes {
+        public long size;
+        public Long[] sizes;
+    }
+
+    public static class Counter {
+        int hits;
+    }
+
+    public static class Counters {
+        public Counter counter;
+    }
+
+    public static class Unsupported {
+        public Object anything;
+    }
+
+    public static class RawSet {
+        @SuppressWarnings( "rawtypes" )
+        public Set values;
+    }
+
+    @Test
+    public void bindsPrimitivesArraysSetsAndJavaTimeTypes() throws Exception {
+        Arguments arguments = parse( new Arguments(), "--ratio", "1.5", "--small", "7", "--tiny", "2",
+            "--separator", ",", "--strict", "false", "--home", "/tmp", "--timeout", "2m", "--day", "2014-12-03",
+            "--time", "10:15", "--when", "2014-12-03T10:15:30Z", "--ports", "1,2", "--ports", "3", "--names", "a,b",
+            "--ids", "3,1,3", "--policies", "RUNTIME,SOURCE", "--paths", "x,y" );
+
+        assertEquals( 1.5f, arguments.ratio, 0.0f );
+        assertEquals( 7, arguments.small );
+        assertEquals( 2, arguments.tiny );
+        assertEquals( ',', arguments.separator );
+        assertFalse( arguments.strict );
+        assertEquals( Paths.get( "/tmp" ), arguments.home );
+        assertEquals( Duration.ofMinutes( 2 ), arguments.timeout );
+        assertEquals( LocalDate.of( 2014, 12, 3 ), arguments.day );
+        assertEquals( LocalTime.of( 10, 15 ), arguments.time );
+        assertEquals( Instant.parse( "2014-12-03T10:15:30Z" ), arguments.when );
+        assertArrayEquals( new int[] { 1, 2, 3 }, arguments.ports );
+        assertArrayEquals( new String[] { "a", "b" }, arguments.names );
+        assertEquals( new LinkedHashSet<Integer>( asList( 3, 1 ) ), arguments.ids );
+        assertEquals( new LinkedHashSet<RetentionPolicy>( asList( RetentionPolicy.RUNTIME, RetentionPolicy.SOURCE ) ),
+            arguments.policies );
+        assertEquals( asList( Paths.get( "x" ), Paths.get( "y" ) ), arguments.paths );
+    }
+
+    @Test
+    public void keepsDefaults() throws Exception {
+        Arguments arguments = parse( new Arguments() );
+
+        assertEquals( 0.5f, arguments.ratio, 0.0f );
+        assertEquals( 1, arguments.tiny );
+        assertEquals( ':', arguments.separator );
+        assertTrue( arguments.strict );
+        assertEquals( Paths.get( "home" ), arguments.home );
+        assertEquals( Duration.ofSeconds( 5 ), arguments.timeout );
+        assertNull( arguments.day );
+        assertArrayEquals( new int[] { 80 }, arguments.ports );
+        assertArrayEquals( new String[ 0 ], arguments.names );
+        assertEquals( emptySet(), arguments.ids );
+    }
+
+    @Test
+    public void binderUsesSameFactories() {
+        Arguments arguments = Binder.of( Arguments.class ).bind( "--ratio", "1.5", "--separator", ",", "--home", "/tmp",
+            "--ports", "1,2", "--ids", "3,1,3" );
+
+        assertEquals( 1.5f, arguments.ratio, 0.0f );
+        assertEquals( ',', arguments.separator );
+        assertEquals( Paths.get( "/tmp" ), arguments.home );
+        assertArrayEquals( new int[] { 1, 2 }, arguments.ports );
+        assertEquals( new LinkedHashSet<Integer>( asList( 3, 1 ) ), arguments.ids );
+        assertTrue( arguments.strict );
+    }
+
+    @Test( expected = OptionException.class )
+    public void rejectsCharacterArgumentsOfMoreThanOneCharacter() throws Exception {
+        parse( new Arguments(), "--separator", "ab" );
+    }
+
+    @Test
+    public void documentsEnumsOfSets() throws Exception {
+        AnnotatedClass annotated = new AnnotatedClass();
+        annotated.parseAnnotations( new Arguments() );
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        annotated.printHelpOn( new PrintStream( bytes, true ) );
+
+        assertTrue( bytes.toString(), bytes.toString().contains( "possible values:" ) );
+    }
+
+    @Test
+    public void enumOptionShowsPossibleValuesInPlaceOfType() throws Exception {
+        AnnotatedClass annotated = new AnnotatedClass();
+        Retention retention = new Retention();
+        annotated.parseAnnotations( retention );
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        annotated.printHelpOn( new PrintStream( bytes, true ) );
+
+        String help = bytes.toString();
+        assertTrue( help, help.contains( "--policy  kept until" ) );
+        assertTrue( help, help.contains( "(possible values:  SOURCE,  CLASS," ) );
+        assertFalse( help, help.contains( "<" ) );
+
+        annotated.parseArgs( new String[] { "--policy", "RUNTIME" } );
+        assertEquals( RetentionPolicy.RUNTIME, retention.policy );
+    }
+
+    @Test
+    public void sharesFactoriesBetweenFieldsOfSameType() throws Exception {
+        assertSame( OptionFactories.of( Arguments.class.getField( "home" ) ),
+            OptionFactories.of( Homes.class.getField( "home" ) ) );
+        assertSame( OptionFactories.of( Arguments.class.getField( "ids" ) ),
+            OptionFactories.of( Homes.class.getField( "ids" ) ) );
+    }
+
+    @Test
+    public void registeredConverterCoversValuesArraysAndLists() throws Exception {
+        OptionFactories.registerConverter( Point.class, new PointConverter() );
+
+        Points points = parse( new Points(), "--origin", "1:2", "--corners", "3:4,5:6", "--path", "7:8" );
+
+        assertEquals( 2, points.origin.y );
+        assertEquals( 2, points.corners.length );
+        assertEquals( 5, points.corners[ 1 ].x );
+        assertEquals( 8, points.path.get( 0 ).y );
+    }
+
+    @Test
+    public void registeredConverterOfWrapperCoversPrimitive() throws Exception {
+        OptionFactories.registerConverter( Long.class, new KilobytesConverter() );
+
+        Sizes sizes = parse( new Sizes(), "--size", "2k", "--sizes", "1k,3" );
+
+        assertEquals( 2048L, sizes.size );
+        assertArrayEquals( new Long[] { 1024L, 3L }, sizes.sizes );
+    }
+
+    @Test
+    public void reportsCharacterArgumentsOfMoreThanOneCharacter() throws Exception {
+        try {
+            parse( new Arguments(), "--separator", "ab" );
+            fail();
+        } catch ( OptionException expected ) {
+            assertTrue( expected.getCause().getMessage().contains( "[ab]" ) );
+        }
+    }
+
+    @Test
+    public void registeredFactoryDeclaresFieldsOfItsType() throws Exception {
+        OptionFactories.register( Counter.class, new OptionFactory() {
+            public OptionSpec<?> declare( OptionSpecBuilder builder, Field field, Object defaultValue ) {
+                return builder;
+            }
+
+            public Object valueOf( OptionSpec<?> spec, OptionSet options ) {
+                Counter counter = new Counter();
+                counter.hits = options.has( spec ) ? 1 : 0;
+                return counter;
+            }
+        } );
+
+        assertEquals( 1, parse( new Counters(), "--counter" ).counter.hits );
+        assertEquals( 1, Binder.of( Counters.class ).bind( "--counter" ).counter.hits );
+    }
+
+    @Test
+    public void rejectsUnsupportedTypes() throws Exception {
+        assertNull( OptionFactories.of( Unsupported.class.getField( "anything" ) ) );
+        try {
+            parse( new Unsupported() );
+            fail();
+        } catch ( RuntimeException expected ) {
+            assertTrue( expected.getMessage().startsWith( "Type Not implemented" ) );
+        }
+    }
+
+    @Test
+    public void rejectsRawSets() throws Exception {
+        try {
+            parse( new RawSet() );
+            fail();
+        } catch ( RuntimeException expected ) {
+            assertTrue( expected.getMessage().startsWith( "Raw list types are not supported" ) );
+        }
+    }
+
+    private static <T> T parse( T target, String... arguments ) throws Exception {
+        AnnotatedClass annotated = new AnnotatedClass();
+        annotated.parseAnnotations( target );
+        annotated.parseArgs( arguments );
+        return target;
+    }
+
+    /*
+     * Takes plain numbers as well, since the converter stays registered for the other tests.
+     */
+    private static class KilobytesConverter implements ValueConverter<Long> {
+        public Long convert( String value ) {
+            return value.endsWith( "k" )
+                ? 1024 * Long.parseLong( value.substring( 0, value.length() - 1 ) )
+                : Long.parseLong( value );
+        }
+
+        public Class<? extends Long> valueType() {
+            return Long.class;
+        }
+
+        public String valuePattern() {
+            return "n[k]";
+        }
+    }
+
+    private static class PointConverter implements ValueConverter<Point> {
+        public Point convert( String value ) {
+            int colon = value.indexOf( ':' );
+            return new Point( Integer.parseInt( value.substring( 0, colon ) ),
+                Integer.parseInt( value.substring( colon + 1 ) ) );
+        }
+
+        public Class<? extends Point> valueType() {
+            return Point.class;
+        }
+
+        public String valuePattern() {
+            return "x:y";
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple.internal;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static java.util.Arrays.*;
+import static java.util.Collections.*;
+import static org.junit.Assert.*;
+
+public class AbbreviationMapKeysBeginningWithTest {
+    private AbbreviationMap<String> abbreviations;
+
+    @Before
+    public void setUp() {
+        abbreviations = new AbbreviationMap<String>();
+        abbreviations.put( "verbose", "1" );
+        abbreviations.put( "version", "2" );
+        abbreviations.put( "v", "3" );
+        abbreviations.put( "quiet", "4" );
+        abbreviations.putPrefix( "value.", "5" );
+    }
+
+    @Test
+    public void givesKeysBeginningWithPrefixInOrder() {
+        assertEquals( asList( "v", "value.", "verbose", "version" ), keysOf( abbreviations.keysBeginningWith( "v" ) ) );
+        assertEquals( asList( "verbose", "version" ), keysOf( abbreviations.keysBeginningWith( "ver" ) ) );
+        assertEquals( singletonList( "verbose" ), keysOf( abbreviations.keysBeginningWith( "verbose" ) ) );
+    }
+
+    @Test
+    public void givesAllKeysForEmptyPrefix() {
+        assertEquals( asList( "quiet", "v", "value.", "verbose", "version" ),
+            keysOf( abbreviations.keysBeginningWith( "" ) ) );
+    }
+
+    @Test
+    public void givesNoKeysForPrefixOfNone() {
+        assertEquals( emptyList(), keysOf( abbreviations.keysBeginningWith( "x" ) ) );
+        assertEquals( emptyList(), keysOf( abbreviations.keysBeginningWith( "verbosely" ) ) );
+    }
+
+    @Test
+    public void leavesOutRemovedKeys() {
+        abbreviations.remove( "verbose" );
+
+        assertEquals( asList( "v", "value.", "version" ), keysOf( abbreviations.keysBeginningWith( "v" ) ) );
+    }
+
+    @Test
+    public void walksAgainEachTime() {
+        Iterable<String> keys = abbreviations.keysBeginningWith( "q" );
+
+        assertEquals( keysOf( keys ), keysOf( keys ) );
+    }
+
+    @Test( expected = NoSuchElementException.class )
+    public void refusesToGoBeyondLastKey() {
+        Iterator<String> keys = abbreviations.keysBeginningWith( "quiet" ).iterator();
+        keys.next();
+
+        keys.next();
+    }
+
+    @Test( expected = NullPointerException.class )
+    public void rejectsNullPrefix() {
+        abbreviations.keysBeginningWith( null );
+    }
+
+    @Test
+    public void givesSameKeysFromSortedKeysAsFromTrie() {
+        Random random = new Random( 50 );
+        TreeSet<String> distinct = new TreeSet<String>();
+        while ( distinct.size() < 200 ) {
+            StringBuilder key = new StringBuilder();
+            for ( int length = 1 + random.nextInt( 6 ); length > 0; --length )
+                key.append( (char) ( 'a' + random.nextInt( 3 ) ) );
+            distinct.add( key.toString() );
+        }
+
+        String[] keys = distinct.toArray( new String[ 0 ] );
+        AbbreviationMap<String> trie = new AbbreviationMap<String>();
+        for ( String each : keys )
+            trie.put( each, each );
+        AbbreviationMap<String> sorted = AbbreviationMap.ofSortedKeys( keys, keys );
+
+        for ( String each : keys ) {
+            for ( int end = 0; end <= each.length(); ++end ) {
+                String prefix = each.substring( 0, end );
+                assertEquals( prefix, keysOf( trie.keysBeginningWith( prefix ) ),
+                    keysOf( sorted.keysBeginningWith( prefix ) ) );
+            }
+        }
+        assertEquals( asList( keys ), keysOf( sorted.keysBeginningWith( "" ) ) );
+    }
+
+    private static List<String> keysOf( Iterable<String> keys ) {
+        List<String> all = new ArrayList<String>();
+        for ( String each : keys )
+            all.add( each );
+        return all;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple.internal;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AbbreviationMapSortedKeysTest {
+    private String[] keys;
+    private Integer[] values;
+    private AbbreviationMap<Integer> trie;
+    private AbbreviationMap<Integer> sorted;
+
+    @Before
+    public void setUp() {
+        Random random = new Random( 42 );
+        TreeSet<String> distinct = new TreeSet<String>();
+        while ( distinct.size() < 300 )
+            distinct.add( randomKey( random ) );
+
+        keys = distinct.toArray( new String[ 0 ] );
+        values = new Integer[ keys.length ];
+        trie = new AbbreviationMap<Integer>();
+        for ( int i = 0; i < keys.length; ++i ) {
+            values[ i ] = i % 50;
+            trie.put( keys[ i ], values[ i ] );
+        }
+        sorted = AbbreviationMap.ofSortedKeys( keys, values );
+    }
+
+    @Test
+    public void answersEveryPrefixAsTrieDoes() {
+        for ( String each : keys ) {
+            for ( int end = 0; end <= each.length(); ++end ) {
+                String prefix = each.substring( 0, end );
+                assertEquals( prefix, trie.get( prefix ), sorted.get( prefix ) );
+                assertEquals( prefix, trie.contains( prefix ), sorted.contains( prefix ) );
+            }
+            assertNull( sorted.get( each + "~" ) );
+        }
+    }
+
+    @Test
+    public void givesSameJavaUtilMap() {
+        assertEquals( trie.toJavaUtilMap(), sorted.toJavaUtilMap() );
+    }
+
+    @Test
+    public void buildsTrieOnFirstChange() {
+        trie.put( "zzz", 7 );
+        sorted.put( "zzz", 7 );
+        trie.remove( keys[ 0 ] );
+        sorted.remove( keys[ 0 ] );
+
+        for ( String each : keys ) {
+            for ( int end = 1; end <= each.length(); ++end )
+                assertEquals( trie.get( each.substring( 0, end ) ), sorted.get( each.substring( 0, end ) ) );
+        }
+        assertEquals( Integer.valueOf( 7 ), sorted.get( "zz" ) );
+    }
+
+    @Test
+    public void emptyMapAnswersNothing() {
+        AbbreviationMap<String> empty = AbbreviationMap.ofSortedKeys( new String[ 0 ], new String[ 0 ] );
+
+        assertNull( empty.get( "a" ) );
+        assertTrue( empty.toJavaUtilMap().isEmpty() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void needsOneValuePerKey() {
+        AbbreviationMap.ofSortedKeys( new String[] { "a", "b" }, new String[] { "1" } );
+    }
+
+    private static String randomKey( Random random ) {
+        StringBuilder key = new StringBuilder();
+        for ( int length = 1 + random.nextInt( 6 ); length > 0; --length )
+            key.append( (char) ( 'a' + random.nextInt( 4 ) ) );
+        return key.toString();
+    }
+}
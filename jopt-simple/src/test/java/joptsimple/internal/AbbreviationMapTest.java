@@ -25,6 +25,9 @@
 
 package joptsimple.internal;
 
+import java.util.Map;
+import java.util.TreeMap;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -358,4 +361,64 @@ public class AbbreviationMapTest {
         assertTrue( abbreviations.contains( "goodyea" ) );
         assertEquals( "8", abbreviations.get( "goodyear" ) );
     }
+
+    @Test
+    public void claimedPrefixAnswersForLongerKeys() {
+        abbreviations.putPrefix( "feature.", "family" );
+
+        assertEquals( "family", abbreviations.claimantOf( "feature.tracing" ) );
+        assertNull( abbreviations.claimantOf( "feature." ) );
+        assertNull( abbreviations.claimantOf( "feat" ) );
+        assertNull( abbreviations.claimantOf( "other" ) );
+        assertFalse( abbreviations.contains( "feature.tracing" ) );
+        assertFalse( abbreviations.contains( "f" ) );
+    }
+
+    @Test
+    public void longestClaimedPrefixWins() {
+        abbreviations.putPrefix( "feature.", "family" );
+        abbreviations.putPrefix( "feature.net.", "network family" );
+
+        assertEquals( "network family", abbreviations.claimantOf( "feature.net.timeout" ) );
+        assertEquals( "family", abbreviations.claimantOf( "feature.network" ) );
+    }
+
+    @Test
+    public void keyInMapTakesPrecedenceOverClaimedPrefix() {
+        abbreviations.putPrefix( "feature.", "family" );
+        abbreviations.put( "feature.special", "special" );
+
+        assertNull( abbreviations.claimantOf( "feature.special" ) );
+        assertEquals( "special", abbreviations.get( "feature.special" ) );
+        assertEquals( "family", abbreviations.claimantOf( "feature.spec" ) );
+    }
+
+    @Test
+    public void claimedPrefixSurvivesRemovalOfKeysAlongIt() {
+        abbreviations.putPrefix( "feature.", "family" );
+        abbreviations.put( "feature.special", "special" );
+        abbreviations.put( "fetch", "fetch" );
+
+        abbreviations.remove( "feature.special" );
+
+        assertEquals( "family", abbreviations.claimantOf( "feature.special" ) );
+        assertEquals( "fetch", abbreviations.get( "f" ) );
+        assertEquals( "fetch", abbreviations.get( "fe" ) );
+    }
+
+    @Test
+    public void claimedPrefixesAppearInJavaUtilMap() {
+        abbreviations.putPrefix( "feature.", "family" );
+        abbreviations.put( "fetch", "fetch" );
+
+        Map<String, String> expected = new TreeMap<>();
+        expected.put( "feature.", "family" );
+        expected.put( "fetch", "fetch" );
+        assertEquals( expected, abbreviations.toJavaUtilMap() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void zeroLengthPrefixesAreIllegalToClaim() {
+        abbreviations.putPrefix( "", "family" );
+    }
 }
@@ -0,0 +1,144 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple.internal;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static java.text.BreakIterator.*;
+import static java.util.Arrays.*;
+
+import static joptsimple.internal.Strings.*;
+import static org.junit.Assert.*;
+
+public class ColumnsTest {
+    private static final String PLAIN_ALPHABET = "abcdefghij ABC 0123456789    -- (),.:\"";
+    private static final String ALPHABET =
+        "abcdefghij ABC 0123456789    #$&'*+/<=>@\\^_`|~!%),.:;?]}\"([{-\t\u00e9\u4e00";
+
+    @Test
+    public void fitsPlainWordsAsBreakIteratorWould() {
+        assertFitsAsBreakIteratorWould( "sets the level of the stage (default: medium), which is [low] or \"high\"." );
+    }
+
+    @Test
+    public void fitsHyphenatedWordsAsBreakIteratorWould() {
+        assertFitsAsBreakIteratorWould(
+            "a well-known, oft-used --long-option and e.g. 1.5 or -1 as a value, or --stage-0 <mode>" );
+    }
+
+    @Test
+    public void fitsTextOfOtherScriptsAsBreakIteratorWould() {
+        assertFitsAsBreakIteratorWould(
+            "caf\u00e9 \u4e00\u4e8c\u4e09\u56db\u4e94\u516d\u4e03\u516b\u4e5d\u5341 caf\u00e9" );
+    }
+
+    @Test
+    public void fitsEmbeddedLinesAsBreakIteratorWould() {
+        assertFitsAsBreakIteratorWould( "first line" + LINE_SEPARATOR + LINE_SEPARATOR + "  second line  "
+            + LINE_SEPARATOR + "third\tline " );
+    }
+
+    @Test
+    public void startsWithEmptyPieceWhenFirstWordIsTooWide() {
+        Columns columns = new Columns( 4, 4, Locale.US );
+
+        assertEquals(
+            asList( new Row( "", "" ), new Row( "  wordy", "" ) ),
+            columns.fit( new Row( "wordy", "" ) ) );
+    }
+
+    @Test
+    public void fitsRandomPlainTextAsBreakIteratorWould() {
+        assertFitsRandomTextAsBreakIteratorWould( PLAIN_ALPHABET );
+    }
+
+    @Test
+    public void fitsRandomTextAsBreakIteratorWould() {
+        assertFitsRandomTextAsBreakIteratorWould( ALPHABET );
+    }
+
+    private static void assertFitsRandomTextAsBreakIteratorWould( String alphabet ) {
+        Random random = new Random( 49 );
+
+        for ( int i = 0; i < 1000; ++i ) {
+            StringBuilder text = new StringBuilder();
+            for ( int length = random.nextInt( 60 ); length > 0; --length )
+                text.append( alphabet.charAt( random.nextInt( alphabet.length() ) ) );
+
+            assertFitsAsBreakIteratorWould( text.toString() );
+        }
+    }
+
+    private static void assertFitsAsBreakIteratorWould( String text ) {
+        for ( int width = 1; width <= 40; ++width ) {
+            Columns columns = new Columns( width, width, Locale.US );
+
+            assertEquals( text + " at " + width, piecesByBreakIterator( text, width ),
+                descriptionsOf( columns.fit( new Row( "", text ) ) ) );
+        }
+    }
+
+    private static List<String> descriptionsOf( List<Row> rows ) {
+        List<String> descriptions = new ArrayList<String>();
+        for ( Row each : rows )
+            descriptions.add( each.description );
+        return descriptions;
+    }
+
+    /*
+     * How pieces were made before lines were wrapped without a break iterator where they can be.
+     */
+    private static List<String> piecesByBreakIterator( String raw, int width ) {
+        List<String> pieces = new ArrayList<String>();
+
+        for ( String line : raw.trim().split( LINE_SEPARATOR ) ) {
+            BreakIterator words = BreakIterator.getLineInstance( Locale.US );
+            words.setText( line );
+
+            StringBuilder nextPiece = new StringBuilder();
+            int start = words.first();
+            for ( int end = words.next(); end != DONE; start = end, end = words.next() ) {
+                String word = line.substring( start, end );
+                if ( nextPiece.length() + word.length() > width ) {
+                    pieces.add( nextPiece.toString().replaceAll( "\\s+$", "" ) );
+                    nextPiece = new StringBuilder( "  " ).append( word );
+                }
+                else
+                    nextPiece.append( word );
+            }
+
+            if ( nextPiece.length() > 0 )
+                pieces.add( nextPiece.toString() );
+        }
+
+        return pieces;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple.internal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CompactMapTest {
+    private CompactMap<Integer> map;
+
+    @Before
+    public void setUp() {
+        map = new CompactMap<>();
+    }
+
+    @Test
+    public void answersWhatWasPut() {
+        assertNull( map.put( "one", 1 ) );
+        assertNull( map.put( "two", 2 ) );
+
+        assertEquals( 2, map.size() );
+        assertEquals( Integer.valueOf( 1 ), map.get( "one" ) );
+        assertEquals( Integer.valueOf( 2 ), map.get( "two" ) );
+        assertNull( map.get( "three" ) );
+        assertTrue( map.containsKey( "one" ) );
+        assertFalse( map.containsKey( 1 ) );
+    }
+
+    @Test
+    public void laterPutReplacesValue() {
+        map.put( "key", 1 );
+
+        assertEquals( Integer.valueOf( 1 ), map.put( "key", 2 ) );
+        assertEquals( Integer.valueOf( 2 ), map.get( "key" ) );
+        assertEquals( 1, map.size() );
+    }
+
+    @Test
+    public void putIfAbsentKeepsFirstValue() {
+        map.putIfAbsent( "key", 1 );
+
+        assertEquals( Integer.valueOf( 1 ), map.putIfAbsent( "key", 2 ) );
+        assertEquals( Integer.valueOf( 1 ), map.get( "key" ) );
+    }
+
+    @Test
+    public void collidingKeysAreKeptApart() {
+        assertEquals( "Aa".hashCode(), "BB".hashCode() );
+
+        map.put( "Aa", 1 );
+        map.put( "BB", 2 );
+
+        assertEquals( Integer.valueOf( 1 ), map.get( "Aa" ) );
+        assertEquals( Integer.valueOf( 2 ), map.get( "BB" ) );
+    }
+
+    @Test
+    public void growsAndIteratesInInsertionOrder() {
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        for ( int i = 1000; i > 0; --i ) {
+            map.put( "key" + i, i );
+            expected.put( "key" + i, i );
+        }
+
+        assertEquals( expected, map );
+        assertEquals( expected.hashCode(), map.hashCode() );
+        assertEquals( new ArrayList<>( expected.keySet() ), new ArrayList<>( map.keySet() ) );
+        for ( int i = 1; i <= 1000; ++i )
+            assertEquals( Integer.valueOf( i ), map.get( "key" + i ) );
+    }
+
+    @Test
+    public void keepsNullValues() {
+        map.put( "key", null );
+
+        assertTrue( map.containsKey( "key" ) );
+        assertNull( map.get( "key" ) );
+        List<Integer> values = new ArrayList<>( map.values() );
+        assertEquals( asList( (Integer) null ), values );
+    }
+
+    @Test( expected = NullPointerException.class )
+    public void nullKeysAreIllegal() {
+        map.put( null, 1 );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void negativeExpectedSizeIsIllegal() {
+        new CompactMap<Integer>( -1 );
+    }
+
+    @Test( expected = UnsupportedOperationException.class )
+    public void entriesCannotBeRemoved() {
+        map.put( "key", 1 );
+
+        map.keySet().iterator().remove();
+    }
+}
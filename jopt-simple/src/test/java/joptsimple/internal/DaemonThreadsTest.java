@@ -0,0 +1,77 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple.internal;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.*;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DaemonThreadsTest {
+    @Test
+    public void namedFactoryMakesDaemonThreads() {
+        Thread thread = DaemonThreads.named( "worker" ).newThread( () -> { } );
+
+        assertEquals( "worker", thread.getName() );
+        assertTrue( thread.isDaemon() );
+    }
+
+    @Test
+    public void poolRunsNoMoreThanItsThreadsAtOnce() throws Exception {
+        ExecutorService pool = DaemonThreads.pool( "worker", 2 );
+        CountDownLatch release = new CountDownLatch( 1 );
+        CountDownLatch done = new CountDownLatch( 4 );
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger mostRunning = new AtomicInteger();
+
+        try {
+            for ( int i = 0; i < 4; ++i ) {
+                pool.execute( () -> {
+                    mostRunning.accumulateAndGet( running.incrementAndGet(), Math::max );
+                    try {
+                        release.await();
+                    } catch ( InterruptedException ex ) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    done.countDown();
+                } );
+            }
+            Thread.sleep( 100 );
+            release.countDown();
+
+            assertTrue( done.await( 5, SECONDS ) );
+            assertEquals( 2, mostRunning.get() );
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
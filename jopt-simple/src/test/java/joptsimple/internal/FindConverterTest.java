@@ -0,0 +1,131 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple.internal;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import joptsimple.ValueConversionException;
+import joptsimple.ValueConverter;
+import joptsimple.util.EnumConverter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static joptsimple.internal.Reflection.*;
+import static org.junit.Assert.*;
+import static org.junit.rules.ExpectedException.*;
+
+public class FindConverterTest {
+    @Rule public final ExpectedException thrown = none();
+
+    @Test
+    public void resolvesConvertersOncePerClass() {
+        assertSame( findConverter( File.class ), findConverter( File.class ) );
+        assertSame( findConverter( TimeUnit.class ), findConverter( TimeUnit.class ) );
+    }
+
+    @Test
+    public void primitivesShareTheirWrappersConverter() {
+        assertSame( findConverter( Boolean.class ), findConverter( boolean.class ) );
+        assertSame( findConverter( Long.class ), findConverter( long.class ) );
+    }
+
+    @Test
+    public void booleansConvertAsValueOfDoes() {
+        ValueConverter<Boolean> converter = findConverter( Boolean.class );
+
+        assertEquals( Boolean.TRUE, converter.convert( "TRUE" ) );
+        assertEquals( Boolean.FALSE, converter.convert( "yes" ) );
+        assertTrue( converter.canConvert( "anything" ) );
+    }
+
+    @Test
+    public void convertsThroughValueOfMethod() {
+        assertEquals( "x", findConverter( Code.class ).convert( "x" ).value );
+    }
+
+    @Test
+    public void convertsEnumsByNameWithoutReflection() {
+        ValueConverter<TimeUnit> converter = findConverter( TimeUnit.class );
+
+        assertTrue( converter instanceof EnumConverter<?> );
+        assertEquals( TimeUnit.SECONDS, converter.convert( "SECONDS" ) );
+        assertFalse( converter.canConvert( "seconds" ) );
+    }
+
+    @Test
+    public void reportsEnumNamesThatNameNoConstant() {
+        thrown.expect( ValueConversionException.class );
+        thrown.expectMessage( "FORTNIGHTS" );
+
+        findConverter( TimeUnit.class ).convert( "FORTNIGHTS" );
+    }
+
+    @Test
+    public void convertsThroughConstructor() {
+        assertEquals( new BigDecimal( "1.50" ), findConverter( BigDecimal.class ).convert( "1.50" ) );
+        assertEquals( new File( "/tmp" ), findConverter( File.class ).convert( "/tmp" ) );
+    }
+
+    @Test
+    public void wrapsExceptionsRaisedByValueOfMethod() {
+        thrown.expect( ReflectionException.class );
+        thrown.expectMessage( IllegalArgumentException.class.getName() );
+
+        findConverter( Code.class ).convert( "" );
+    }
+
+    @Test
+    public void wrapsExceptionsRaisedByConstructor() {
+        thrown.expect( ReflectionException.class );
+        thrown.expectMessage( NumberFormatException.class.getName() );
+
+        findConverter( BigDecimal.class ).convert( "one" );
+    }
+
+    @Test
+    public void rejectsClassesThatAreNotValueTypes() {
+        thrown.expect( IllegalArgumentException.class );
+
+        findConverter( Object.class );
+    }
+
+    public static final class Code {
+        final String value;
+
+        private Code( String value ) {
+            this.value = value;
+        }
+
+        public static Code valueOf( String value ) {
+            if ( value.isEmpty() )
+                throw new IllegalArgumentException();
+            return new Code( value );
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple.internal;
+
+import joptsimple.ValueConversionException;
+import joptsimple.ValueConverter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.*;
+import static org.junit.rules.ExpectedException.*;
+
+public class NumberConverterTest {
+    private static final String[] CANDIDATES = {
+        "", "-", "+", "0", "-0", "+0", "7", "-5", "+12", "007", "127", "128", "-128", "-129", "32767", "32768",
+        "2147483647", "2147483648", "-2147483648", "-2147483649", "9223372036854775807", "9223372036854775808",
+        "-9223372036854775808", "-9223372036854775809", "99999999999999999999", "1-", "--1", "1 ", " 1", "abc",
+        "\u0661\u0662", "1.0", ".5", "5.", ".", "1e5", "1E-5", "1e", "1e+", "-1.5e+10", "1f", "1.5d", "1ed", "d",
+        "NaN", "-NaN", "Infinity", "-Infinity", "+Infinity", "Infinityf", "NaNd", "0x1p3", "0X1.8P-2", "0x.8p1",
+        "0x1", "0xp1", "0x1p", "0x1p1f", " 2.5 ", "\t3\n", "1_000", "0b101", "1e400", "4.9e-325"
+    };
+
+    @Rule public final ExpectedException thrown = none();
+
+    @Test
+    public void answersCanConvertExactlyWhenValueOfSucceeds() {
+        for ( Class<?> each : new Class<?>[] {
+            Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class } ) {
+
+            ValueConverter<?> converter = NumberConverter.forType( each );
+            for ( String candidate : CANDIDATES )
+                assertEquals( each.getSimpleName() + " of [" + candidate + ']', succeeds( converter, candidate ),
+                    converter.canConvert( candidate ) );
+        }
+    }
+
+    @Test
+    public void convertsAsValueOfWould() {
+        assertEquals( Integer.valueOf( -5 ), NumberConverter.forType( Integer.class ).convert( "-5" ) );
+        assertEquals( Long.valueOf( Long.MIN_VALUE ),
+            NumberConverter.forType( Long.class ).convert( "-9223372036854775808" ) );
+        assertEquals( Double.valueOf( 0.75 ), NumberConverter.forType( Double.class ).convert( "0x1.8p-1" ) );
+    }
+
+    @Test
+    public void convertsRangesOfLongerSequencesAsTheirSubstrings() {
+        for ( Class<?> each : new Class<?>[] {
+            Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class } ) {
+
+            ValueConverter<?> converter = NumberConverter.forType( each );
+            for ( String candidate : CANDIDATES ) {
+                String message = each.getSimpleName() + " of [" + candidate + ']';
+                StringBuilder source = new StringBuilder( "x=" ).append( candidate ).append( ",9" );
+                int end = 2 + candidate.length();
+
+                assertEquals( message, converter.canConvert( candidate ), converter.canConvert( source, 2, end ) );
+                if ( converter.canConvert( candidate ) )
+                    assertEquals( message, converter.convert( candidate ), converter.convert( source, 2, end ) );
+            }
+        }
+    }
+
+    @Test
+    public void raisesValueConversionExceptionNamingTheValueOfARange() {
+        thrown.expect( ValueConversionException.class );
+        thrown.expectMessage( "[ten]" );
+
+        NumberConverter.forType( Long.class ).convert( "--n=ten", 4, 7 );
+    }
+
+    @Test
+    public void raisesValueConversionExceptionNamingTheValue() {
+        thrown.expect( ValueConversionException.class );
+        thrown.expectMessage( "ten" );
+
+        NumberConverter.forType( Integer.class ).convert( "ten" );
+    }
+
+    @Test
+    public void offersNoConverterForOtherTypes() {
+        assertNull( NumberConverter.forType( String.class ) );
+    }
+
+    @Test
+    public void reflectionFindsBuiltinNumberConvertersForPrimitivesAndWrappers() {
+        assertSame( NumberConverter.forType( Integer.class ), Reflection.findConverter( int.class ) );
+        assertSame( NumberConverter.forType( Double.class ), Reflection.findConverter( Double.class ) );
+    }
+
+    private static boolean succeeds( ValueConverter<?> converter, String candidate ) {
+        try {
+            converter.convert( candidate );
+            return true;
+        } catch ( ValueConversionException ex ) {
+            return false;
+        }
+    }
+}
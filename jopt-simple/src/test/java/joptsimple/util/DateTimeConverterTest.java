@@ -0,0 +1,177 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple.util;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import joptsimple.OptionParser;
+import joptsimple.OptionSpec;
+import joptsimple.ValueConversionException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static joptsimple.util.DateTimeConverter.*;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.junit.rules.ExpectedException.*;
+
+public class DateTimeConverterTest {
+    @Rule public final ExpectedException thrown = none();
+
+    @Test
+    public void convertsIsoInstants() {
+        assertEquals( Instant.ofEpochSecond( 1417601730 ), instant().convert( "2014-12-03T10:15:30Z" ) );
+        assertEquals( Instant.class, instant().valueType() );
+    }
+
+    @Test
+    public void convertsIsoLocalDates() {
+        assertEquals( LocalDate.of( 2009, 1, 24 ), localDate().convert( "2009-01-24" ) );
+        assertEquals( "yyyy-MM-dd", localDate().valuePattern() );
+    }
+
+    @Test
+    public void convertsIsoLocalTimes() {
+        assertEquals( LocalTime.of( 10, 15 ), localTime().convert( "10:15" ) );
+        assertEquals( LocalTime.of( 10, 15, 30 ), localTime().convert( "10:15:30" ) );
+        assertEquals( "HH:mm[:ss]", localTime().valuePattern() );
+    }
+
+    @Test
+    public void convertsIsoLocalDateTimes() {
+        assertEquals( LocalDateTime.of( 2009, 1, 24, 13, 5, 7 ), localDateTime().convert( "2009-01-24T13:05:07" ) );
+    }
+
+    @Test
+    public void convertsIsoOffsetDateTimes() {
+        assertEquals( OffsetDateTime.of( 2009, 1, 24, 13, 5, 7, 0, ZoneOffset.ofHours( 2 ) ),
+            offsetDateTime().convert( "2009-01-24T13:05:07+02:00" ) );
+    }
+
+    @Test
+    public void handsOutSharedIsoConverters() {
+        assertSame( localDate(), localDate() );
+        assertSame( instant(), instant() );
+    }
+
+    @Test
+    public void convertsDatesOfGivenPattern() {
+        assertEquals( LocalDate.of( 2009, 7, 4 ), localDate( "MM/dd/uuuu" ).convert( "07/04/2009" ) );
+        assertEquals( "MM/dd/uuuu", localDate( "MM/dd/uuuu" ).valuePattern() );
+    }
+
+    @Test
+    public void convertsDateTimesOfGivenPattern() {
+        assertEquals( LocalDateTime.of( 2009, 7, 4, 8, 30 ),
+            localDateTime( "uuuu-MM-dd HH:mm" ).convert( "2009-07-04 08:30" ) );
+        assertEquals( LocalTime.of( 8, 30 ), localTime( "HHmm" ).convert( "0830" ) );
+        assertEquals( OffsetDateTime.of( 2009, 7, 4, 8, 30, 0, 0, ZoneOffset.ofHours( -5 ) ),
+            offsetDateTime( "uuuu-MM-dd HH:mmXXX" ).convert( "2009-07-04 08:30-05:00" ) );
+    }
+
+    @Test
+    public void convertsWithGivenFormatterAndQuery() {
+        DateTimeConverter<LocalTime> times =
+            of( DateTimeFormatter.ISO_LOCAL_TIME, LocalTime::from, LocalTime.class, "HH:mm" );
+
+        assertEquals( LocalTime.of( 10, 15 ), times.convert( "10:15" ) );
+        assertEquals( LocalTime.class, times.valueType() );
+        assertEquals( "HH:mm", times.valuePattern() );
+    }
+
+    @Test
+    public void rejectsNonexistentDates() {
+        thrown.expect( ValueConversionException.class );
+        thrown.expectMessage( "2009-02-30" );
+        thrown.expectMessage( "uuuu-MM-dd" );
+
+        localDate( "uuuu-MM-dd" ).convert( "2009-02-30" );
+    }
+
+    @Test
+    public void rejectsValuesThatDoNotEntirelyMatch() {
+        thrown.expect( ValueConversionException.class );
+        thrown.expectMessage( containsString( "[yyyy-MM-dd]" ) );
+
+        localDate().convert( "2009-01-24T00:00" );
+    }
+
+    @Test
+    public void rejectsInvalidPattern() {
+        thrown.expect( IllegalArgumentException.class );
+
+        localDate( "uuuu-MM-dd{" );
+    }
+
+    @Test
+    public void rejectsNullFormatter() {
+        thrown.expect( NullPointerException.class );
+
+        of( null, LocalTime::from, LocalTime.class, "HH:mm" );
+    }
+
+    @Test
+    public void convertsOptionArguments() {
+        OptionParser parser = new OptionParser();
+        OptionSpec<LocalDate> since = parser.accepts( "since" ).withRequiredArg().withValuesConvertedBy( localDate() );
+
+        assertEquals( LocalDate.of( 2020, 2, 29 ), parser.parse( "--since", "2020-02-29" ).valueOf( since ) );
+    }
+
+    @Test
+    public void isSafeToShareAcrossThreads() throws Exception {
+        final DateTimeConverter<LocalDate> dates = localDate( "dd.MM.uuuu" );
+        ExecutorService pool = Executors.newFixedThreadPool( 8 );
+        try {
+            List<Future<LocalDate>> results = new ArrayList<>();
+            for ( int i = 0; i < 2000; ++i ) {
+                final int day = 1 + i % 28;
+                results.add( pool.submit( new Callable<LocalDate>() {
+                    public LocalDate call() {
+                        return dates.convert( String.format( "%02d.03.2011", day ) );
+                    }
+                } ) );
+            }
+
+            for ( int i = 0; i < results.size(); ++i )
+                assertEquals( LocalDate.of( 2011, 3, 1 + i % 28 ), results.get( i ).get() );
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
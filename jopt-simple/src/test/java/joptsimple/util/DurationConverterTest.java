@@ -0,0 +1,120 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple.util;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+import joptsimple.ValueConversionException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static java.time.Duration.*;
+import static org.junit.Assert.*;
+import static org.junit.rules.ExpectedException.*;
+
+public class DurationConverterTest {
+    @Rule public final ExpectedException thrown = none();
+
+    private final DurationConverter converter = new DurationConverter();
+
+    @Test
+    public void convertsAmountsOfEachUnit() {
+        assertEquals( ofDays( 2 ), converter.convert( "2d" ) );
+        assertEquals( ofHours( 3 ), converter.convert( "3h" ) );
+        assertEquals( ofMinutes( 5 ), converter.convert( "5m" ) );
+        assertEquals( ofSeconds( 10 ), converter.convert( "10s" ) );
+        assertEquals( ofMillis( 250 ), converter.convert( "250ms" ) );
+        assertEquals( Duration.of( 7, ChronoUnit.MICROS ), converter.convert( "7us" ) );
+        assertEquals( ofNanos( 9 ), converter.convert( "9ns" ) );
+    }
+
+    @Test
+    public void sumsSeveralAmounts() {
+        assertEquals( ofMinutes( 90 ), converter.convert( "1h30m" ) );
+        assertEquals( ofSeconds( 61, 500000000 ), converter.convert( "1m1s500ms" ) );
+    }
+
+    @Test
+    public void convertsFractionalAmounts() {
+        assertEquals( ofMillis( 1500 ), converter.convert( "1.5s" ) );
+        assertEquals( ofMinutes( 15 ), converter.convert( ".25h" ) );
+    }
+
+    @Test
+    public void dropsFractionsFinerThanNanosecond() {
+        assertEquals( ofSeconds( 97066, 666570666 ), converter.convert( "1.123456789012345678d" ) );
+        assertEquals( ofNanos( 1 ), converter.convert( "1.99ns" ) );
+    }
+
+    @Test
+    public void convertsIsoForm() {
+        assertEquals( ofMinutes( 1 ), converter.convert( "PT1M" ) );
+        assertEquals( ofSeconds( -2 ), converter.convert( "-PT2S" ) );
+    }
+
+    @Test
+    public void requiresUnitUnlessGivenDefault() {
+        assertFalse( converter.canConvert( "250" ) );
+        assertEquals( ofMillis( 250 ), new DurationConverter( ChronoUnit.MILLIS ).convert( "250" ) );
+        assertFalse( new DurationConverter( ChronoUnit.MILLIS ).canConvert( "1s250" ) );
+    }
+
+    @Test
+    public void rejectsMalformedValues() {
+        for ( String each : new String[] { "", "s", "1x", "1 s", "1.2.3s", "1sec", "-1s", "P", "1h 30m", "1,5s" } )
+            assertFalse( each, converter.canConvert( each ) );
+    }
+
+    @Test
+    public void convertsRangeOfLongerSequenceInPlace() {
+        assertEquals( ofMillis( 250 ), converter.convert( "--timeout=250ms", 10, 15 ) );
+    }
+
+    @Test
+    public void raisesExceptionContainingValueAndPattern() {
+        thrown.expect( ValueConversionException.class );
+        thrown.expectMessage( "[soon]" );
+        thrown.expectMessage( converter.valuePattern() );
+
+        converter.convert( "soon" );
+    }
+
+    @Test
+    public void subclassRaisesSameMessage() {
+        thrown.expect( ValueConversionException.class );
+        thrown.expectMessage( "[soon]" );
+
+        new DurationConverter() {
+        }.convert( "soon" );
+    }
+
+    @Test
+    public void shouldAnswerCorrectValueType() {
+        assertEquals( Duration.class, converter.valueType() );
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple.util;
+
+import java.lang.annotation.RetentionPolicy;
+import java.util.concurrent.TimeUnit;
+
+import joptsimple.ValueConversionException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static java.util.concurrent.TimeUnit.*;
+import static org.junit.Assert.*;
+import static org.junit.rules.ExpectedException.*;
+
+public class EnumConverterTest {
+    @Rule public final ExpectedException thrown = none();
+
+    enum Mixed { alpha, Alpha, beta, BETTER }
+
+    @Test
+    public void convertsExactNames() {
+        EnumConverter<TimeUnit> converter = EnumConverter.of( TimeUnit.class );
+
+        assertEquals( SECONDS, converter.convert( "SECONDS" ) );
+        assertTrue( converter.canConvert( "DAYS" ) );
+        assertFalse( converter.canConvert( "days" ) );
+        assertFalse( converter.canConvert( "DAY" ) );
+        assertFalse( converter.canConvert( "" ) );
+        assertEquals( TimeUnit.class, converter.valueType() );
+        assertNull( converter.valuePattern() );
+    }
+
+    @Test
+    public void convertsNamesInAnyCaseWhenIgnoringCase() {
+        EnumConverter<TimeUnit> converter = EnumConverter.of( TimeUnit.class ).ignoringCase();
+
+        assertEquals( SECONDS, converter.convert( "seconds" ) );
+        assertEquals( MINUTES, converter.convert( "Minutes" ) );
+        assertFalse( converter.canConvert( "sec" ) );
+    }
+
+    @Test
+    public void convertsUniqueAbbreviationsWhenAbbreviating() {
+        EnumConverter<TimeUnit> converter = EnumConverter.of( TimeUnit.class ).abbreviating();
+
+        assertEquals( SECONDS, converter.convert( "S" ) );
+        assertEquals( HOURS, converter.convert( "HO" ) );
+        assertEquals( MICROSECONDS, converter.convert( "MIC" ) );
+        assertFalse( converter.canConvert( "M" ) );
+        assertFalse( converter.canConvert( "ho" ) );
+    }
+
+    @Test
+    public void combinesCaseFoldingWithAbbreviation() {
+        EnumConverter<TimeUnit> converter = EnumConverter.of( TimeUnit.class ).abbreviating().ignoringCase();
+
+        assertEquals( NANOSECONDS, converter.convert( "nano" ) );
+        assertEquals( DAYS, converter.convert( "d" ) );
+        assertEquals( MILLISECONDS, converter.convert( "MilliSeconds" ) );
+    }
+
+    @Test
+    public void namesSharedOnceCaseIsIgnoredNameNeitherConstantUnlessExact() {
+        EnumConverter<Mixed> converter = EnumConverter.of( Mixed.class ).ignoringCase().abbreviating();
+
+        assertEquals( Mixed.alpha, converter.convert( "alpha" ) );
+        assertEquals( Mixed.Alpha, converter.convert( "Alpha" ) );
+        assertFalse( converter.canConvert( "ALPHA" ) );
+        assertFalse( converter.canConvert( "al" ) );
+        assertEquals( Mixed.beta, converter.convert( "BETA" ) );
+        assertEquals( Mixed.BETTER, converter.convert( "bett" ) );
+        assertFalse( converter.canConvert( "bet" ) );
+    }
+
+    @Test
+    public void exactNameWinsOverLongerNameItAbbreviates() {
+        EnumConverter<RetentionPolicy> converter = EnumConverter.of( RetentionPolicy.class ).abbreviating();
+
+        assertEquals( RetentionPolicy.CLASS, converter.convert( "C" ) );
+        assertEquals( RetentionPolicy.RUNTIME, converter.convert( "RUNTIME" ) );
+    }
+
+    @Test
+    public void tellsWhetherItIgnoresCase() {
+        assertFalse( EnumConverter.of( TimeUnit.class ).abbreviating().ignoresCase() );
+        assertTrue( EnumConverter.of( TimeUnit.class ).ignoringCase().abbreviating().ignoresCase() );
+    }
+
+    @Test
+    public void keepsValuePatternAcrossVariants() {
+        EnumConverter<TimeUnit> converter = EnumConverter.of( TimeUnit.class ).withValuePattern( "" ).ignoringCase();
+
+        assertEquals( "", converter.valuePattern() );
+        assertEquals( TimeUnit.DAYS, converter.convert( "days" ) );
+        assertNull( converter.withValuePattern( null ).valuePattern() );
+    }
+
+    @Test
+    public void reportsValueThatNamesNoConstant() {
+        thrown.expect( ValueConversionException.class );
+        thrown.expectMessage( "Value [FORTNIGHTS] is not one of [NANOSECONDS, MICROSECONDS, MILLISECONDS, SECONDS, "
+            + "MINUTES, HOURS, DAYS]" );
+
+        EnumConverter.of( TimeUnit.class ).convert( "FORTNIGHTS" );
+    }
+
+    @SuppressWarnings( { "unchecked", "rawtypes" } )
+    @Test( expected = IllegalArgumentException.class )
+    public void rejectsTypesThatAreNotEnums() {
+        EnumConverter.of( (Class) String.class );
+    }
+}
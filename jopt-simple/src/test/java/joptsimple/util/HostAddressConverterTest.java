@@ -0,0 +1,254 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+package joptsimple.util;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import joptsimple.IndexedValueConversionException;
+import joptsimple.ValueConversionException;
+import joptsimple.ValueConverter;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+import static org.junit.rules.ExpectedException.*;
+
+public class HostAddressConverterTest {
+    @Rule public final ExpectedException thrown = none();
+
+    private final List<String> lookups = new ArrayList<>();
+    private long now;
+    private HostAddressConverter converter;
+
+    @Before
+    public void setUp() {
+        converter = new HostAddressConverter( this::resolve, Duration.ofSeconds( 10 ), 2, Duration.ofSeconds( 5 ),
+            () -> now );
+    }
+
+    @Test
+    public void parsesLiteralAddressesWithoutResolver() throws Exception {
+        assertEquals( InetAddress.getByAddress( new byte[] { (byte) 192, (byte) 168, 0, 1 } ),
+            converter.convert( "192.168.0.1" ) );
+        assertEquals( InetAddress.getByName( "::1" ), converter.convert( "::1" ) );
+        assertEquals( InetAddress.getByName( "::1" ), converter.convert( "[::1]" ) );
+        assertEquals( InetAddress.getByName( "fe80::1:2" ), converter.convert( "fe80::1:2" ) );
+
+        assertEquals( 0, lookups.size() );
+    }
+
+    @Test
+    public void rejectsMalformedIpv6LiteralWithoutResolver() {
+        thrown.expect( ValueConversionException.class );
+        thrown.expectMessage( "::zz" );
+
+        try {
+            converter.convert( "::zz" );
+        } finally {
+            assertEquals( 0, lookups.size() );
+        }
+    }
+
+    @Test
+    public void resolvesHostNameOnceWhileFresh() {
+        InetAddress first = converter.convert( "example.org" );
+        now += Duration.ofSeconds( 9 ).toNanos();
+        InetAddress second = converter.convert( "example.org" );
+
+        assertEquals( "example.org", first.getHostName() );
+        assertSame( first, second );
+        assertEquals( 1, lookups.size() );
+    }
+
+    @Test
+    public void resolvesHostNameAgainOnceExpired() {
+        converter.convert( "example.org" );
+        now += Duration.ofSeconds( 10 ).toNanos();
+        converter.convert( "example.org" );
+
+        assertEquals( 2, lookups.size() );
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedHostNames() {
+        converter.convert( "a.example" );
+        converter.convert( "b.example" );
+        converter.convert( "a.example" );
+        converter.convert( "c.example" );
+        converter.convert( "a.example" );
+        converter.convert( "b.example" );
+
+        assertEquals( 4, lookups.size() );
+        assertEquals( "b.example", lookups.get( 3 ) );
+    }
+
+    @Test
+    public void doesNotKeepFailedLookups() {
+        try {
+            converter.convert( "unknown.example" );
+            fail();
+        } catch ( ValueConversionException expected ) {
+            assertTrue( expected.getCause() instanceof UnknownHostException );
+            assertEquals( "Cannot resolve host [unknown.example]", expected.getMessage() );
+        }
+
+        thrown.expect( ValueConversionException.class );
+        try {
+            converter.convert( "unknown.example" );
+        } finally {
+            assertEquals( 2, lookups.size() );
+        }
+    }
+
+    @Test
+    public void givesUpOnSlowLookup() throws Exception {
+        final CountDownLatch release = new CountDownLatch( 1 );
+        HostAddressConverter slow = new HostAddressConverter( host -> {
+            try {
+                release.await();
+            } catch ( InterruptedException ex ) {
+                Thread.currentThread().interrupt();
+            }
+            return InetAddress.getByAddress( host, new byte[] { 10, 0, 0, 1 } );
+        }, Duration.ofSeconds( 10 ), 16, Duration.ofMillis( 50 ) );
+
+        try {
+            slow.convert( "slow.example" );
+            fail();
+        } catch ( ValueConversionException expected ) {
+            assertEquals( "Host [slow.example] could not be resolved within 50 ms", expected.getMessage() );
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void looksUpEachDistinctHostNameOnceWhenConvertingAll() throws Exception {
+        List<InetAddress> addresses = converter.convertAll( asList( "a.example", "10.0.0.9", "b.example", "a.example" ) );
+
+        assertEquals( 4, addresses.size() );
+        assertEquals( "a.example", addresses.get( 0 ).getHostName() );
+        assertEquals( InetAddress.getByName( "10.0.0.9" ), addresses.get( 1 ) );
+        assertEquals( "b.example", addresses.get( 2 ).getHostName() );
+        assertSame( addresses.get( 0 ), addresses.get( 3 ) );
+        assertEquals( 2, lookups.size() );
+    }
+
+    @Test
+    public void reportsFailedLookupWhenConvertingAll() {
+        thrown.expect( ValueConversionException.class );
+        thrown.expectMessage( "Cannot resolve host [unknown.example]" );
+
+        converter.convertAll( asList( "a.example", "unknown.example" ) );
+    }
+
+    @Test
+    public void namesPositionOfValueAtFaultWhenConvertingAll() {
+        try {
+            converter.convertAll( asList( "a.example", "10.0.0.1", "unknown.example" ) );
+            fail();
+        } catch ( IndexedValueConversionException expected ) {
+            assertEquals( 2, expected.index() );
+        }
+    }
+
+    @Test
+    public void convertsSocketAddresses() throws Exception {
+        ValueConverter<InetSocketAddress> sockets = converter.socketAddresses();
+
+        assertEquals( new InetSocketAddress( InetAddress.getByName( "10.1.2.3" ), 80 ), sockets.convert( "10.1.2.3:80" ) );
+        assertEquals( new InetSocketAddress( InetAddress.getByName( "::1" ), 8080 ), sockets.convert( "[::1]:8080" ) );
+        InetSocketAddress named = sockets.convert( "example.org:443" );
+        assertEquals( "example.org", named.getHostName() );
+        assertEquals( 443, named.getPort() );
+        assertEquals( InetSocketAddress.class, sockets.valueType() );
+        assertEquals( "host:port", sockets.valuePattern() );
+    }
+
+    @Test
+    public void socketAddressesShareCache() {
+        converter.convert( "example.org" );
+        converter.socketAddresses().convert( "example.org:443" );
+
+        assertEquals( 1, lookups.size() );
+    }
+
+    @Test
+    public void usesDefaultPortWhenValueHasNone() {
+        ValueConverter<InetSocketAddress> sockets = converter.socketAddresses( 22 );
+
+        assertEquals( 22, sockets.convert( "example.org" ).getPort() );
+        assertEquals( 22, sockets.convert( "[::1]" ).getPort() );
+        assertEquals( 2222, sockets.convert( "example.org:2222" ).getPort() );
+        assertEquals( "host[:port]", sockets.valuePattern() );
+    }
+
+    @Test
+    public void rejectsSocketAddressWithoutPort() {
+        thrown.expect( ValueConversionException.class );
+        thrown.expectMessage( "Value [example.org] is not a socket address of the form [host:port]" );
+
+        converter.socketAddresses().convert( "example.org" );
+    }
+
+    @Test
+    public void rejectsPortOutOfRange() {
+        thrown.expect( ValueConversionException.class );
+
+        converter.socketAddresses().convert( "example.org:70000" );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void rejectsInvalidDefaultPort() {
+        converter.socketAddresses( 65536 );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void rejectsNonPositiveTimeout() {
+        new HostAddressConverter( HostResolver.system(), Duration.ofSeconds( 1 ), 1, Duration.ZERO );
+    }
+
+    @Test( expected = NullPointerException.class )
+    public void rejectsNullResolver() {
+        new HostAddressConverter( null );
+    }
+
+    private synchronized InetAddress resolve( String host ) throws UnknownHostException {
+        lookups.add( host );
+        if ( host.startsWith( "unknown" ) )
+            throw new UnknownHostException( host );
+
+        return InetAddress.getByAddress( host, new byte[] { 10, 0, 0, (byte) lookups.size() } );
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ The MIT License
+
+ Copyright (c) 2004-2014 Paul R. Holser, Jr.
+
+ Permission is hereby granted, free of charge, to any person obtaining
+ a copy of this software and associated documentation files (the
+ "Software"), to deal in the Software without restriction, including
+ without limitation the rights to use, copy, modify, merge, publish,
+ distribute, sublicense, and/or sell copies of the Software, and to
+ permit persons to whom the Software is furnished to do so, subject to
+ the following conditions:
+
+ The above copyright notice and this permission notice shall be
+ included in all copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+*/
+
+package joptsimple.util;
+
+import joptsimple.ValueConversionException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static joptsimple.util.QuantityConverter.*;
+import static org.junit.Assert.*;
+import static org.junit.rules.ExpectedException.*;
+
+public class QuantityConverterTest {
+    @Rule public final ExpectedException thrown = none();
+
+    @Test
+    public void convertsPlainNumbers() {
+        assertEquals( Long.valueOf( 512 ), count().convert( "512" ) );
+        assertEquals( Long.valueOf( 0 ), bytes().convert( "0" ) );
+    }
+
+    @Test
+    public void appliesDecimalMultipliers() {
+        assertEquals( Long.valueOf( 10000 ), count().convert( "10k" ) );
+        assertEquals( Long.valueOf( 10000 ), count().convert( "10K" ) );
+        assertEquals( Long.valueOf( 3000000 ), count().convert( "3M" ) );
+        assertEquals( Long.valueOf( 2000000000000000000L ), count().convert( "2E" ) );
+    }
+
+    @Test
+    public void appliesBinaryMultipliers() {
+        assertEquals( Long.valueOf( 4L << 30 ), bytes().convert( "4GiB" ) );
+        assertEquals( Long.valueOf( 1024 ), bytes().convert( "1Ki" ) );
+        assertEquals( Long.valueOf( 1024 ), count().convert( "1ki" ) );
+    }
+
+    @Test
+    public void allowsOptionalUnit() {
+        assertEquals( Long.valueOf( 10000 ), bytes().convert( "10kB" ) );
+        assertEquals( Long.valueOf( 512 ), bytes().convert( "512B" ) );
+        assertEquals( Long.valueOf( 2048 ), new QuantityConverter( "bps" ).convert( "2Kibps" ) );
+    }
+
+    @Test
+    public void allowsFractionsDenotingWholeNumbers() {
+        assertEquals( Long.valueOf( 1500 ), count().convert( "1.5k" ) );
+        assertEquals( Long.valueOf( 512 ), bytes().convert( "0.5KiB" ) );
+        assertFalse( count().canConvert( "1.5" ) );
+        assertFalse( count().canConvert( "1.0001k" ) );
+    }
+
+    @Test
+    public void rejectsMalformedValues() {
+        for ( String each : new String[] {
+            "", "k", "B", "Ki", "i", "10i", "-1", "+1", "1 k", "1kk", "1.", ".", "1e3", "10kB", "4GiB", "\u0661" } ) {
+
+            assertFalse( each, count().canConvert( each ) );
+        }
+        assertFalse( bytes().canConvert( "4GiBB" ) );
+        assertFalse( bytes().canConvert( "4b" ) );
+    }
+
+    @Test
+    public void rejectsValuesBeyondRangeOfLong() {
+        assertTrue( count().canConvert( "9223372036854775807" ) );
+        assertFalse( count().canConvert( "9223372036854775808" ) );
+        assertFalse( count().canConvert( "9223372036854776k" ) );
+        assertFalse( count().canConvert( "8Ei" ) );
+    }
+
+    @Test
+    public void convertsRangeOfLongerSequenceInPlace() {
+        assertEquals( Long.valueOf( 2L << 20 ), bytes().convert( "--size=2MiB,4", 7, 11 ) );
+        assertTrue( bytes().canConvert( "--size=2MiB,4", 7, 11 ) );
+    }
+
+    @Test
+    public void raisesExceptionContainingValueAndPattern() {
+        thrown.expect( ValueConversionException.class );
+        thrown.expectMessage( "[lots]" );
+        thrown.expectMessage( bytes().valuePattern() );
+
+        bytes().convert( "lots" );
+    }
+
+    @Test
+    public void subclassRaisesSameMessage() {
+        thrown.expect( ValueConversionException.class );
+        thrown.expectMessage( "[lots]" );
+
+        new QuantityConverter( "B" ) {
+        }.convert( "lots" );
+    }
+
+    @Test
+    public void shouldAnswerCorrectValueType() {
+        assertEquals( Long.class, count().valueType() );
+    }
+}